@@ -27,6 +27,12 @@ public class AppConstants {
     // 瓦片参数
     public static final int TILE_SIZE = 256;
     public static final int TILE_CACHE_SIZE = 100;
+
+    // 离线瓦片参数（与MapModel的缩放范围一致）
+    public static final int OFFLINE_TILE_MIN_ZOOM = 7;
+    public static final int OFFLINE_TILE_MAX_ZOOM = 13;
+    // 广州FIR近似范围 {minLon, minLat, maxLon, maxLat}
+    public static final double[] GUANGZHOU_FIR_BBOX = {104.0, 14.0, 118.0, 27.0};
     
     // 文件相关
     public static final String[] SHP_FILE_EXTENSIONS = {
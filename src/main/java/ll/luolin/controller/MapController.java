@@ -6,8 +6,17 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.application.Platform;
+import ll.luolin.config.AppConstants;
+import ll.luolin.model.AirwayGraph;
 import ll.luolin.model.LayerModel;
+import ll.luolin.model.NavPointLayerModel;
 import ll.luolin.service.ShpService;
+import ll.luolin.service.tileService.AirspaceTileLayerRenderer;
+import ll.luolin.service.tileService.AirwayTileLayerRenderer;
+import ll.luolin.service.tileService.NavPointTileLayerRenderer;
+import ll.luolin.service.tileService.ShpTileLayerRenderer;
+import ll.luolin.service.tileService.TilePyramidBuilder;
 import ll.luolin.utils.LogUtils;
 import ll.luolin.view.MapCanvas;
 
@@ -152,6 +161,55 @@ public class MapController {
         LogUtils.info("MapController-exportMap-导出地图");
     }
 
+    /**
+     * 生成离线瓦片
+     * 把当前可见的SHP图层、FIR/扇区轮廓、航路网络和导航点图层预渲染到本地瓦片目录（后台线程执行）
+     * airwayGraph 为null时不生成航路，volumesFile 不存在时不生成空域轮廓
+     */
+    public void buildOfflineTiles(List<NavPointLayerModel> navPointLayers, AirwayGraph airwayGraph, File routesFile,
+                                  File volumesFile) {
+        LogUtils.info("MapController-buildOfflineTiles-生成离线瓦片");
+
+        TilePyramidBuilder builder = new TilePyramidBuilder(TilePyramidBuilder.defaultOutputDir());
+        try {
+            // 在JavaFX线程上创建图层快照
+            for (LayerModel layer : layersProperty) {
+                if (layer.isVisible() && layer.getFeatureSource() != null) {
+                    builder.addLayer(new ShpTileLayerRenderer(layer));
+                }
+            }
+            if (volumesFile != null && volumesFile.isFile()) {
+                builder.addLayer(new AirspaceTileLayerRenderer(volumesFile));
+            }
+            if (airwayGraph != null && airwayGraph.getSegmentCount() > 0) {
+                builder.addLayer(new AirwayTileLayerRenderer(airwayGraph, routesFile));
+            }
+            for (NavPointLayerModel layer : navPointLayers) {
+                if (layer.isVisible()) {
+                    builder.addLayer(new NavPointTileLayerRenderer(layer));
+                }
+            }
+        } catch (Exception e) {
+            showError("生成失败", "错误信息: " + e.getMessage());
+            return;
+        }
+
+        Thread worker = new Thread(() -> {
+            try {
+                TilePyramidBuilder.BuildResult result = builder.build(
+                        AppConstants.GUANGZHOU_FIR_BBOX,
+                        AppConstants.OFFLINE_TILE_MIN_ZOOM,
+                        AppConstants.OFFLINE_TILE_MAX_ZOOM);
+                Platform.runLater(() -> showInfo("生成完成", "离线瓦片: " + result));
+            } catch (Exception e) {
+                LogUtils.error("生成离线瓦片失败", e);
+                Platform.runLater(() -> showError("生成失败", "错误信息: " + e.getMessage()));
+            }
+        }, "tile-pyramid");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
     /**
      * 缩放到图层
      */
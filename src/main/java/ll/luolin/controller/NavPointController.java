@@ -9,6 +9,7 @@ import ll.luolin.model.ASFModel.FDP_VOLUMES_DEFINITION_Model;
 import ll.luolin.model.ASFModel.PointModel;
 import ll.luolin.model.NavPointLayerModel;
 import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.model.ASFModel.NavPointStore;
 import ll.luolin.service.parserService.CHARACTERISTIC_POINTS_Service;
 import ll.luolin.service.parserService.FDP_VOLUMES_DEFINITION_Service;
 import ll.luolin.utils.ASFFileParser;
@@ -18,6 +19,7 @@ import ll.luolin.view.MapCanvas;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 导航点控制器
@@ -54,6 +56,7 @@ public class NavPointController {
         fileChooser.setTitle("选择ASF导航点文件");
         fileChooser.getExtensionFilters().addAll(
                 new FileChooser.ExtensionFilter("ASF文件 (*.asf, *.txt)", "*.asf", "*.txt"),
+                new FileChooser.ExtensionFilter("点文件 (*.pte, *.pt)", "*.pte", "*.pt"),
                 new FileChooser.ExtensionFilter("所有文件", "*.*")
         );
 
@@ -71,7 +74,7 @@ public class NavPointController {
 
                 // 创建导航点图层
                 NavPointLayerModel layer = new NavPointLayerModel(
-                        selectedFile.getName().replace(".asf", "").replace(".txt", ""),
+                        selectedFile.getName().replace(".asf", "").replace(".txt", "").replace(".pte", ""),
                         selectedFile
                 );
                 layer.addNavPoints(points);
@@ -112,6 +115,61 @@ public class NavPointController {
 
     }
 
+    /**
+     * 应用监视到的文件变化（JavaFX线程调用）：
+     * 已有图层就地增删改导航点，新文件生成新图层，文件删除或不再有导航点时移除图层；
+     * 没有变化的图层不做任何修改
+     */
+    public void applyLayerChanges(Map<File, List<NavPointModel>> changes) {
+        LogUtils.info("MapController-applyLayerChanges-应用ASF文件变化");
+
+        boolean redraw = false;
+        for (Map.Entry<File, List<NavPointModel>> change : changes.entrySet()) {
+            File file = change.getKey().getAbsoluteFile();
+            List<NavPointModel> points = change.getValue();
+            NavPointLayerModel layer = findLayer(file);
+
+            if (points.isEmpty()) {
+                if (layer != null) {
+                    removeNavPointLayer(layer);
+                    LogUtils.info("移除图层: " + layer.getName());
+                }
+                continue;
+            }
+
+            if (layer == null) {
+                String name = file.getName();
+                layer = new NavPointLayerModel(name.substring(0, name.lastIndexOf('.')), change.getKey());
+                layer.addNavPoints(points);
+                navPointLayers.add(layer);
+                if (mapCanvas != null) {
+                    mapCanvas.addNavPointLayer(layer);
+                }
+                LogUtils.info(String.format("新增图层: %s (%d 个点)", layer.getName(), points.size()));
+                continue;
+            }
+
+            NavPointLayerModel.Diff diff = layer.applyDiff(points);
+            if (!diff.isEmpty()) {
+                redraw = true;
+                LogUtils.info("更新图层: " + layer.getName() + " " + diff);
+            }
+        }
+
+        if (redraw && mapCanvas != null) {
+            mapCanvas.requestRedraw();
+        }
+    }
+
+    private NavPointLayerModel findLayer(File file) {
+        for (NavPointLayerModel layer : navPointLayers) {
+            if (layer.getFile() != null && layer.getFile().getAbsoluteFile().equals(file)) {
+                return layer;
+            }
+        }
+        return null;
+    }
+
     /**
      * 清除所有导航点图层
      */
@@ -134,14 +192,13 @@ public class NavPointController {
         for (NavPointLayerModel layer : navPointLayers) {
             if (!layer.isVisible()) continue;
 
-            for (NavPointModel point : layer.getNavPoints()) {
-                if (!point.isVisible()) continue;
-
+            NavPointStore store = layer.getStore();
+            for (int i = store.nextVisible(0); i >= 0; i = store.nextVisible(i + 1)) {
                 double distance = calculateDistance(
-                        point.getLongitude(), point.getLatitude(), lon, lat);
+                        store.getLongitude(i), store.getLatitude(i), lon, lat);
 
                 if (distance <= tolerance) {
-                    return point;
+                    return store.view(i);
                 }
             }
         }
@@ -174,10 +231,11 @@ public class NavPointController {
         String searchTerm = keyword.toLowerCase();
 
         for (NavPointLayerModel layer : navPointLayers) {
-            for (NavPointModel point : layer.getNavPoints()) {
-                if (point.getName().toLowerCase().contains(searchTerm) ||
-                        point.getType().toLowerCase().contains(searchTerm)) {
-                    results.add(point);
+            NavPointStore store = layer.getStore();
+            for (int i = 0; i < store.size(); i++) {
+                if (store.getName(i).toLowerCase().contains(searchTerm) ||
+                        store.getType(i).toLowerCase().contains(searchTerm)) {
+                    results.add(store.view(i));
                 }
             }
         }
@@ -224,13 +282,14 @@ public class NavPointController {
             writer.println("Name,Longitude,Latitude,Type,Visible");
 
             // 写入数据
-            for (NavPointModel point : layer.getNavPoints()) {
+            NavPointStore store = layer.getStore();
+            for (int i = 0; i < store.size(); i++) {
                 writer.printf("%s,%.6f,%.6f,%s,%s%n",
-                        point.getName(),
-                        point.getLongitude(),
-                        point.getLatitude(),
-                        point.getType(),
-                        point.isVisible()
+                        store.getName(i),
+                        store.getLongitude(i),
+                        store.getLatitude(i),
+                        store.getType(i),
+                        store.isVisible(i)
                 );
             }
         }
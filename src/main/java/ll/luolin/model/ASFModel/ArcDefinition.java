@@ -0,0 +1,54 @@
+// model/ASFModel/ArcDefinition.java
+package ll.luolin.model.ASFModel;
+
+/**
+ * /ARCS/ 段：圆弧定义
+ * 格式：NAME | START | END | CENTRE | PRECISION(或半径)
+ */
+public class ArcDefinition {
+    private final String name;
+    private final String startPoint;
+    private final String endPoint;
+    private final double centreLongitude;
+    private final double centreLatitude;
+    private final String precision;
+
+    public ArcDefinition(String name, String startPoint, String endPoint,
+                         double centreLongitude, double centreLatitude, String precision) {
+        this.name = name;
+        this.startPoint = startPoint;
+        this.endPoint = endPoint;
+        this.centreLongitude = centreLongitude;
+        this.centreLatitude = centreLatitude;
+        this.precision = precision;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getStartPoint() {
+        return startPoint;
+    }
+
+    public String getEndPoint() {
+        return endPoint;
+    }
+
+    public double getCentreLongitude() {
+        return centreLongitude;
+    }
+
+    public double getCentreLatitude() {
+        return centreLatitude;
+    }
+
+    public String getPrecision() {
+        return precision;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s -> %s, %.4f°E, %.4f°N)", name, startPoint, endPoint, centreLongitude, centreLatitude);
+    }
+}
@@ -4,6 +4,7 @@ package ll.luolin.model.ASFModel;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import org.locationtech.jts.geom.Geometry;
 
 import java.util.List;
 
@@ -55,6 +56,9 @@ public class FDP_VOLUMES_DEFINITION_Model extends PointModel {
     // 坐标点列表（用于绘制多边形）
     private final ObservableList<CoordinatePoint> points = FXCollections.observableArrayList();
 
+    // 完整几何（组合区域可能是多个多边形或带洞），points 为其中最大多边形的外环
+    private Geometry geometry;
+
     // 样式属性
     private final ObjectProperty<javafx.scene.paint.Color> fillColor =
             new SimpleObjectProperty<>(javafx.scene.paint.Color.TRANSPARENT);
@@ -193,6 +197,14 @@ public class FDP_VOLUMES_DEFINITION_Model extends PointModel {
         return points;
     }
 
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    public void setGeometry(Geometry geometry) {
+        this.geometry = geometry;
+    }
+
     public javafx.scene.paint.Color getFillColor() {
         return fillColor.get();
     }
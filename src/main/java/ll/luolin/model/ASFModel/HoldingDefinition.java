@@ -0,0 +1,78 @@
+// model/ASFModel/HoldingDefinition.java
+package ll.luolin.model.ASFModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HOLDING.ASF 中的一个等待程序（/HLD1/ 等段）
+ * 数据行：出航时间（秒） | 入航航向 | 转弯方向 | 说明；APPLIES_TO | 等待定位点
+ */
+public class HoldingDefinition {
+    private final String name;
+    private String fix = "";
+    private final List<Leg> legs = new ArrayList<>();
+
+    public HoldingDefinition(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFix() {
+        return fix;
+    }
+
+    public void setFix(String fix) {
+        this.fix = fix;
+    }
+
+    public List<Leg> getLegs() {
+        return legs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s @%s (%d legs)", name, fix, legs.size());
+    }
+
+    /**
+     * 一种等待航线：出航时间、入航航向（真航向）、转弯方向
+     */
+    public static final class Leg {
+        private final int seconds;
+        private final double inboundCourse;
+        private final boolean rightTurns;
+        private final String comment;
+
+        public Leg(int seconds, double inboundCourse, boolean rightTurns, String comment) {
+            this.seconds = seconds;
+            this.inboundCourse = inboundCourse;
+            this.rightTurns = rightTurns;
+            this.comment = comment;
+        }
+
+        public int getSeconds() {
+            return seconds;
+        }
+
+        public double getInboundCourse() {
+            return inboundCourse;
+        }
+
+        public boolean isRightTurns() {
+            return rightTurns;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%ds %03.0f° %s", seconds, inboundCourse, rightTurns ? "RIGHT" : "LEFT");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+// model/ASFModel/IlsDefinition.java
+package ll.luolin.model.ASFModel;
+
+/**
+ * ILS.ASF 中的一个 /ILS/ 段
+ * 第一行：NAME | 机场 | 跑道；第二行：位置 | 航向道航向 | 下滑角（0.1°） | 外指点标距离 | ...
+ */
+public class IlsDefinition {
+    private final String name;
+    private final String airport;
+    private final String runway;
+    private double longitude = Double.NaN;
+    private double latitude = Double.NaN;
+    private double course;
+    private double glidePathDegrees;
+    private double outerMarkerMetres = Double.NaN;
+
+    public IlsDefinition(String name, String airport, String runway) {
+        this.name = name;
+        this.airport = airport;
+        this.runway = runway;
+    }
+
+    public void setLocalizer(double longitude, double latitude, double course, double glidePathDegrees,
+                             double outerMarkerMetres) {
+        this.longitude = longitude;
+        this.latitude = latitude;
+        this.course = course;
+        this.glidePathDegrees = glidePathDegrees;
+        this.outerMarkerMetres = outerMarkerMetres;
+    }
+
+    /**
+     * 位置行已读到
+     */
+    public boolean hasPosition() {
+        return !Double.isNaN(longitude) && !Double.isNaN(latitude);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAirport() {
+        return airport;
+    }
+
+    public String getRunway() {
+        return runway;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * 航向道真航向（度，飞机进近方向）
+     */
+    public double getCourse() {
+        return course;
+    }
+
+    public double getGlidePathDegrees() {
+        return glidePathDegrees;
+    }
+
+    /**
+     * 外指点标距入口的距离（米），未定义为NaN
+     */
+    public double getOuterMarkerMetres() {
+        return outerMarkerMetres;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s/%s (%03.0f°, %.1f°)", name, airport, runway, course, glidePathDegrees);
+    }
+}
@@ -0,0 +1,29 @@
+// model/ASFModel/LayerDefinition.java
+package ll.luolin.model.ASFModel;
+
+/**
+ * /LAYER/ 段：高度层定义
+ * 格式：序号 | 高度（如 S0180）
+ */
+public class LayerDefinition {
+    private final int index;
+    private final String level;
+
+    public LayerDefinition(int index, String level) {
+        this.index = index;
+        this.level = level;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    @Override
+    public String toString() {
+        return index + " " + level;
+    }
+}
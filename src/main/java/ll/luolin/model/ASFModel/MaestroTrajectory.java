@@ -0,0 +1,86 @@
+// model/ASFModel/MaestroTrajectory.java
+package ll.luolin.model.ASFModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maestro（AMAN）进场轨迹，对应 maestro_dataset.db 的 TrajectoryKind 表一行
+ * 定义串形如 "#300 ATAGA GG441 #250 GG426 T01"：以#开头的是高度层限制，其余是按顺序经过的航路点名。
+ */
+public class MaestroTrajectory {
+    private final String kind;
+    private final String trajectoryClass;
+    private final String feederFix;
+    private final String runway;
+    private final String definition;
+    private final double distance;
+    private final double time;
+
+    public MaestroTrajectory(String kind, String trajectoryClass, String feederFix, String runway,
+                             String definition, double distance, double time) {
+        this.kind = kind;
+        this.trajectoryClass = trajectoryClass;
+        this.feederFix = feederFix;
+        this.runway = runway;
+        this.definition = definition == null ? "" : definition;
+        this.distance = distance;
+        this.time = time;
+    }
+
+    /**
+     * 轨迹种类（TIME_TO_GO、PRESSURE、DP_MAX…）
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * 轨迹类（XDQ_STAR、STAR_DDQ…）
+     */
+    public String getTrajectoryClass() {
+        return trajectoryClass;
+    }
+
+    public String getFeederFix() {
+        return feederFix;
+    }
+
+    public String getRunway() {
+        return runway;
+    }
+
+    public String getDefinition() {
+        return definition;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * 轨迹飞行时间（秒）
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * 按顺序经过的航路点名（去掉高度层限制）
+     */
+    public List<String> getWaypoints() {
+        List<String> waypoints = new ArrayList<>();
+        for (String token : definition.trim().split("\\s+")) {
+            if (!token.isEmpty() && token.charAt(0) != '#') {
+                waypoints.add(token);
+            }
+        }
+        return Collections.unmodifiableList(waypoints);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s->%s: %s", trajectoryClass, kind, feederFix, runway, definition);
+    }
+}
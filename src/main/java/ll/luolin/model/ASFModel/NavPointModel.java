@@ -3,107 +3,213 @@ package ll.luolin.model.ASFModel;
 
 import javafx.beans.property.*;
 import javafx.scene.image.Image;
-import ll.luolin.utils.LogUtils;
+import ll.luolin.utils.PointStyles;
 
 /**
  * 导航点数据模型
+ * 两种形式：解析器创建的独立点，数据保存在自身字段中；
+ * NavPointStore.view 创建的视图，只记录存储和下标，读写都转到列式存储。
+ * JavaFX属性在第一次调用 xxxProperty() 时才创建，修改属性会写回数据；
+ * 视图的属性创建后不再跟随存储中其他途径的修改，界面单元格、工具提示用完即弃即可。
  */
 public class NavPointModel extends PointModel {
-    private final StringProperty name = new SimpleStringProperty();      // 点名称
-    private final DoubleProperty longitude = new SimpleDoubleProperty(); // 经度
-    private final DoubleProperty latitude = new SimpleDoubleProperty();  // 纬度
-    private final StringProperty type = new SimpleStringProperty();      // 点类型
-    private final BooleanProperty visible = new SimpleBooleanProperty(true); // 是否可见
+    private String name;                          // 点名称
+    private double longitude;                     // 经度
+    private double latitude;                      // 纬度
+    private String type;                          // 点类型
+    private boolean visible = true;               // 是否可见
+    private PointCategory category = PointCategory.OTHER; // 由类型确定的分类
 
-    // 图标（根据类型动态加载）
-    private final ObjectProperty<Image> icon = new SimpleObjectProperty<>();
+    // 视图对应的存储和下标，独立点为null
+    private final NavPointStore store;
+    private final int index;
 
-    public NavPointModel() {
-        LogUtils.info("NavPointModel-NavPointModel-构造函数初始化");
+    // 按需创建的JavaFX属性
+    private Properties properties;
 
+    public NavPointModel() {
         // 默认构造函数
+        this.store = null;
+        this.index = -1;
     }
 
     public NavPointModel(String name, double longitude, double latitude, String type) {
-        LogUtils.info("NavPointModel-NavPointModel-构造函数初始化");
+        this();
+        this.name = name;
+        this.longitude = longitude;
+        this.latitude = latitude;
+        this.type = type;
+        this.category = PointCategory.of(type);
+    }
 
-        this.name.set(name);
-        this.longitude.set(longitude);
-        this.latitude.set(latitude);
-        this.type.set(type);
+    /**
+     * 存储中下标处的点的视图，由 NavPointStore.view 创建
+     */
+    NavPointModel(NavPointStore store, int index) {
+        this.store = store;
+        this.index = index;
     }
 
     // Getters and Setters
     public String getName() {
-        return name.get();
+        return store != null ? store.getName(index) : name;
     }
 
     public void setName(String name) {
-        this.name.set(name);
+        writeName(name);
+        if (properties != null) {
+            properties.name.set(name);
+        }
     }
 
     public StringProperty nameProperty() {
-        return name;
+        return properties().name;
     }
 
     public double getLongitude() {
-        return longitude.get();
+        return store != null ? store.getLongitude(index) : longitude;
     }
 
     public void setLongitude(double longitude) {
-        this.longitude.set(longitude);
+        writeLocation(longitude, getLatitude());
+        if (properties != null) {
+            properties.longitude.set(longitude);
+        }
     }
 
     public DoubleProperty longitudeProperty() {
-        return longitude;
+        return properties().longitude;
     }
 
     public double getLatitude() {
-        return latitude.get();
+        return store != null ? store.getLatitude(index) : latitude;
     }
 
     public void setLatitude(double latitude) {
-        this.latitude.set(latitude);
+        writeLocation(getLongitude(), latitude);
+        if (properties != null) {
+            properties.latitude.set(latitude);
+        }
     }
 
     public DoubleProperty latitudeProperty() {
-        return latitude;
+        return properties().latitude;
     }
 
     public String getType() {
-        return type.get();
+        return store != null ? store.getType(index) : type;
     }
 
     public void setType(String type) {
-        this.type.set(type);
+        writeType(type);
+        if (properties != null) {
+            properties.type.set(type);
+        }
     }
 
-    public StringProperty typeProperty() {
-        return type;
+    /**
+     * 只读类型属性，修改类型请使用setType以同步分类
+     */
+    public ReadOnlyStringProperty typeProperty() {
+        return properties().type.getReadOnlyProperty();
+    }
+
+    public PointCategory getCategory() {
+        return store != null ? store.getCategory(index) : category;
     }
 
     public boolean isVisible() {
-        return visible.get();
+        return store != null ? store.isVisible(index) : visible;
     }
 
     public void setVisible(boolean visible) {
-        this.visible.set(visible);
+        writeVisible(visible);
+        if (properties != null) {
+            properties.visible.set(visible);
+        }
     }
 
     public BooleanProperty visibleProperty() {
-        return visible;
+        return properties().visible;
     }
 
+    /**
+     * 图标，未单独设置时为分类共享的图标
+     */
     public Image getIcon() {
-        return icon.get();
+        if (properties != null && properties.icon.get() != null) {
+            return properties.icon.get();
+        }
+        return PointStyles.of(getCategory()).getIcon();
     }
 
     public void setIcon(Image icon) {
-        this.icon.set(icon);
+        properties().icon.set(icon);
     }
 
     public ObjectProperty<Image> iconProperty() {
-        return icon;
+        return properties().icon;
+    }
+
+    private void writeName(String value) {
+        if (store != null) {
+            store.setName(index, value);
+        } else {
+            name = value;
+        }
+    }
+
+    private void writeLocation(double lon, double lat) {
+        if (store != null) {
+            store.setLocation(index, lon, lat);
+        } else {
+            longitude = lon;
+            latitude = lat;
+        }
+    }
+
+    private void writeType(String value) {
+        if (store != null) {
+            store.setType(index, value);
+        } else {
+            type = value;
+            category = PointCategory.of(value);
+        }
+    }
+
+    private void writeVisible(boolean value) {
+        if (store != null) {
+            store.setVisible(index, value);
+        } else {
+            visible = value;
+        }
+    }
+
+    private Properties properties() {
+        if (properties == null) {
+            properties = new Properties(this);
+        }
+        return properties;
+    }
+
+    /**
+     * 同一存储、同一下标的视图相等；独立点按对象比较
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (store == null || !(obj instanceof NavPointModel)) {
+            return false;
+        }
+        NavPointModel other = (NavPointModel) obj;
+        return other.store == store && other.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return store == null ? System.identityHashCode(this) : System.identityHashCode(store) * 31 + index;
     }
 
     @Override
@@ -111,4 +217,30 @@ public class NavPointModel extends PointModel {
         return String.format("%s (%s) - %.4f°E, %.4f°N",
                 getName(), getType(), getLongitude(), getLatitude());
     }
+
+    /**
+     * 按需创建的JavaFX属性，初值取自当前数据，修改时写回
+     */
+    private static final class Properties {
+        final StringProperty name;
+        final DoubleProperty longitude;
+        final DoubleProperty latitude;
+        final ReadOnlyStringWrapper type;
+        final BooleanProperty visible;
+        final ObjectProperty<Image> icon;
+
+        Properties(NavPointModel point) {
+            name = new SimpleStringProperty(point, "name", point.getName());
+            longitude = new SimpleDoubleProperty(point, "longitude", point.getLongitude());
+            latitude = new SimpleDoubleProperty(point, "latitude", point.getLatitude());
+            type = new ReadOnlyStringWrapper(point, "type", point.getType());
+            visible = new SimpleBooleanProperty(point, "visible", point.isVisible());
+            icon = new SimpleObjectProperty<>(point, "icon");
+
+            name.addListener((obs, oldVal, newVal) -> point.writeName(newVal));
+            longitude.addListener((obs, oldVal, newVal) -> point.writeLocation(newVal.doubleValue(), point.getLatitude()));
+            latitude.addListener((obs, oldVal, newVal) -> point.writeLocation(point.getLongitude(), newVal.doubleValue()));
+            visible.addListener((obs, oldVal, newVal) -> point.writeVisible(newVal));
+        }
+    }
 }
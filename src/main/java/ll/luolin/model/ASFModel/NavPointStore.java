@@ -0,0 +1,250 @@
+// model/ASFModel/NavPointStore.java
+package ll.luolin.model.ASFModel;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导航点的列式存储
+ * 点用 0..size-1 的下标编号，经纬度、分类、名称和类型分别存放在并列数组中，
+ * 名称和类型是共享字符串表的下标，可见性是一个 BitSet。
+ * 每个点约 25 字节、没有独立对象，渲染循环直接顺序读取数组；
+ * 界面单元格、工具提示需要 NavPointModel 时用 view 按需创建，视图读写的都是这里的数据。
+ * 与JavaFX属性一样不做同步，修改在同一线程（通常是JavaFX线程）上进行。
+ */
+public final class NavPointStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final PointCategory[] CATEGORIES = PointCategory.values();
+
+    private double[] lons;
+    private double[] lats;
+    private byte[] categories;
+    private int[] names;
+    private int[] types;
+    private final BitSet visible = new BitSet();
+    private int size;
+
+    // 共享字符串表
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    public NavPointStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public NavPointStore(int capacity) {
+        int initial = Math.max(capacity, 1);
+        this.lons = new double[initial];
+        this.lats = new double[initial];
+        this.categories = new byte[initial];
+        this.names = new int[initial];
+        this.types = new int[initial];
+    }
+
+    /**
+     * 追加一个点（可见），返回其下标
+     */
+    public int add(String name, double longitude, double latitude, String type) {
+        ensureCapacity(size + 1);
+        int index = size++;
+        lons[index] = longitude;
+        lats[index] = latitude;
+        names[index] = intern(name);
+        types[index] = intern(type);
+        categories[index] = (byte) PointCategory.of(type).ordinal();
+        visible.set(index);
+        return index;
+    }
+
+    /**
+     * 追加一个点，保留其可见性
+     */
+    public int add(NavPointModel point) {
+        int index = add(point.getName(), point.getLongitude(), point.getLatitude(), point.getType());
+        if (!point.isVisible()) {
+            visible.clear(index);
+        }
+        return index;
+    }
+
+    /**
+     * 批量追加
+     */
+    public void addAll(Collection<? extends NavPointModel> points) {
+        ensureCapacity(size + points.size());
+        for (NavPointModel point : points) {
+            add(point);
+        }
+    }
+
+    /**
+     * 按下标取出部分点，生成新的存储（下标按原顺序重新编号）
+     */
+    public NavPointStore select(BitSet indices) {
+        NavPointStore result = new NavPointStore(indices.cardinality());
+        for (int i = indices.nextSetBit(0); i >= 0 && i < size; i = indices.nextSetBit(i + 1)) {
+            int index = result.add(getName(i), lons[i], lats[i], getType(i));
+            if (!visible.get(i)) {
+                result.visible.clear(index);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String getName(int index) {
+        return strings.get(names[check(index)]);
+    }
+
+    public void setName(int index, String name) {
+        names[check(index)] = intern(name);
+    }
+
+    public String getType(int index) {
+        return strings.get(types[check(index)]);
+    }
+
+    /**
+     * 修改类型，同时更新分类
+     */
+    public void setType(int index, String type) {
+        types[check(index)] = intern(type);
+        categories[index] = (byte) PointCategory.of(type).ordinal();
+    }
+
+    public PointCategory getCategory(int index) {
+        return CATEGORIES[categories[check(index)]];
+    }
+
+    public double getLongitude(int index) {
+        return lons[check(index)];
+    }
+
+    public double getLatitude(int index) {
+        return lats[check(index)];
+    }
+
+    public void setLocation(int index, double longitude, double latitude) {
+        lons[check(index)] = longitude;
+        lats[index] = latitude;
+    }
+
+    public boolean isVisible(int index) {
+        return visible.get(check(index));
+    }
+
+    public void setVisible(int index, boolean value) {
+        visible.set(check(index), value);
+    }
+
+    /**
+     * from 及之后第一个可见点的下标，没有时返回-1
+     */
+    public int nextVisible(int from) {
+        int index = visible.nextSetBit(from);
+        return index < size ? index : -1;
+    }
+
+    /**
+     * 各下标的分类序号（PointCategory.ordinal），长度不小于 size，只读
+     */
+    public byte[] categoryArray() {
+        return categories;
+    }
+
+    /**
+     * 经度数组，长度不小于 size，只读
+     */
+    public double[] longitudeArray() {
+        return lons;
+    }
+
+    /**
+     * 纬度数组，长度不小于 size，只读
+     */
+    public double[] latitudeArray() {
+        return lats;
+    }
+
+    /**
+     * 共享字符串表中不同名称、类型的个数
+     */
+    public int getStringCount() {
+        return strings.size();
+    }
+
+    /**
+     * 下标处的点的视图，按需创建，不持有数据
+     */
+    public NavPointModel view(int index) {
+        return new NavPointModel(this, check(index));
+    }
+
+    /**
+     * 以视图形式访问全部点的只读列表，get 时才创建视图
+     */
+    public List<NavPointModel> asList() {
+        return new AbstractList<NavPointModel>() {
+            @Override
+            public NavPointModel get(int index) {
+                return view(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int intern(String value) {
+        if (value == null) {
+            value = "";
+        }
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    private int check(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("导航点下标越界: " + index + ", 共 " + size + " 个");
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= lons.length) {
+            return;
+        }
+        int grown = Math.max(capacity, lons.length + (lons.length >> 1));
+        lons = Arrays.copyOf(lons, grown);
+        lats = Arrays.copyOf(lats, grown);
+        categories = Arrays.copyOf(categories, grown);
+        names = Arrays.copyOf(names, grown);
+        types = Arrays.copyOf(types, grown);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NavPointStore(%d 个点, %d 个字符串)", size, strings.size());
+    }
+}
@@ -0,0 +1,72 @@
+// model/ASFModel/PointCategory.java
+package ll.luolin.model.ASFModel;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 导航点分类
+ * 解析时由类型字符串（CHARACTERISTIC_POINTS 的 Type 列）确定一次，
+ * 渲染、过滤和统计都按分类判断，不再逐点比较字符串。
+ */
+public enum PointCategory {
+    AIRPORT_I(Group.AIRPORT),
+    AIRPORT(Group.AIRPORT),
+    VORDME(Group.VOR),
+    VOR(Group.VOR),
+    NDB(Group.NDB),
+    REPORT(Group.REPORT),
+    DUMMY(Group.OTHER),
+    OTHER(Group.OTHER);
+
+    /**
+     * 界面上的过滤/统计分组
+     */
+    public enum Group {
+        AIRPORT, VOR, NDB, REPORT, OTHER
+    }
+
+    private static final Map<String, PointCategory> BY_NAME = new HashMap<>();
+
+    static {
+        for (PointCategory category : values()) {
+            BY_NAME.put(category.name(), category);
+        }
+    }
+
+    private final Group group;
+
+    PointCategory(Group group) {
+        this.group = group;
+    }
+
+    public Group getGroup() {
+        return group;
+    }
+
+    /**
+     * 类型字符串转分类
+     * 先精确匹配，不认识的类型按包含关系归类（与原来的 contains 判断一致），都不匹配时为OTHER
+     */
+    public static PointCategory of(String type) {
+        if (type == null) {
+            return OTHER;
+        }
+        String key = type.trim().toUpperCase(Locale.ROOT);
+        PointCategory category = BY_NAME.get(key);
+        if (category != null) {
+            return category;
+        }
+        if (key.contains("AIRPORT")) {
+            return AIRPORT;
+        } else if (key.contains("VOR")) {
+            return VOR;
+        } else if (key.contains("NDB")) {
+            return NDB;
+        } else if (key.contains("REPORT")) {
+            return REPORT;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,14 @@
+// model/ASFModel/PointModel.java
+package ll.luolin.model.ASFModel;
+
+/**
+ * ASF解析结果中可显示要素的基类（导航点、空域等）
+ */
+public abstract class PointModel {
+
+    public abstract String getName();
+
+    public abstract boolean isVisible();
+
+    public abstract void setVisible(boolean visible);
+}
@@ -0,0 +1,37 @@
+// model/ASFModel/PreferentialRouteDefinition.java
+package ll.luolin.model.ASFModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * /PREFERENTIAL_ROUTES/ 段：优选航路
+ * 格式：BPN（边界点） | ADES（目的机场） | 航路点列表
+ */
+public class PreferentialRouteDefinition {
+    private final String boundaryPoint;
+    private final String destination;
+    private final List<String> points = new ArrayList<>();
+
+    public PreferentialRouteDefinition(String boundaryPoint, String destination) {
+        this.boundaryPoint = boundaryPoint;
+        this.destination = destination;
+    }
+
+    public String getBoundaryPoint() {
+        return boundaryPoint;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public List<String> getPoints() {
+        return points;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s -> %s (%d points)", boundaryPoint, destination, points.size());
+    }
+}
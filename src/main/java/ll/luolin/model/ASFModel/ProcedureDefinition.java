@@ -0,0 +1,58 @@
+// model/ASFModel/ProcedureDefinition.java
+package ll.luolin.model.ASFModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * /SID/、/STAR/ 段：离场/进场程序
+ * 格式：NAME | 机场 | ... | 跑道 | ... | 点列表，后跟 ELIGIBLE_ROUTE | 航路 行
+ */
+public class ProcedureDefinition {
+    public enum Kind {
+        SID, STAR
+    }
+
+    private final Kind kind;
+    private final String name;
+    private final String airport;
+    private final String runway;
+    private final List<String> points = new ArrayList<>();
+    private final List<String> eligibleRoutes = new ArrayList<>();
+
+    public ProcedureDefinition(Kind kind, String name, String airport, String runway) {
+        this.kind = kind;
+        this.name = name;
+        this.airport = airport;
+        this.runway = runway;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAirport() {
+        return airport;
+    }
+
+    public String getRunway() {
+        return runway;
+    }
+
+    public List<String> getPoints() {
+        return points;
+    }
+
+    public List<String> getEligibleRoutes() {
+        return eligibleRoutes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s/%s (%d points)", kind, name, airport, runway, points.size());
+    }
+}
@@ -0,0 +1,31 @@
+// model/ASFModel/RhumbLineDefinition.java
+package ll.luolin.model.ASFModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * /RHUMB_LINES/ 段：等角航线定义
+ * 格式：NAME | 点列表
+ */
+public class RhumbLineDefinition {
+    private final String name;
+    private final List<String> points = new ArrayList<>();
+
+    public RhumbLineDefinition(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getPoints() {
+        return points;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%d points)", name, points.size());
+    }
+}
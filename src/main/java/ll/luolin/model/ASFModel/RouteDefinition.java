@@ -0,0 +1,47 @@
+// model/ASFModel/RouteDefinition.java
+package ll.luolin.model.ASFModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * /CODED_ROUTE/ 段：航路
+ * 格式：NAME | SENSE | ... | 点列表（可用续行）
+ */
+public class RouteDefinition {
+    private final String name;
+    private final List<String> attributes;
+    private final List<String> points = new ArrayList<>();
+
+    public RouteDefinition(String name, List<String> attributes) {
+        this.name = name;
+        this.attributes = attributes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 名称和点列表之间的字段（方向、RNAV能力等）
+     */
+    public List<String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * 方向：N(ormal) / R(everse) / B(oth)
+     */
+    public String getSense() {
+        return attributes.isEmpty() ? "" : attributes.get(0);
+    }
+
+    public List<String> getPoints() {
+        return points;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%d points)", name, points.size());
+    }
+}
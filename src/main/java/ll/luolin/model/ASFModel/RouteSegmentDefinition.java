@@ -0,0 +1,31 @@
+// model/ASFModel/RouteSegmentDefinition.java
+package ll.luolin.model.ASFModel;
+
+import java.util.List;
+
+/**
+ * /CODED_ROUTE_SEGMENTS/ 段：航路的分段属性
+ * 格式：航路名 | ... | NONE | F0 | ... | C2 | O1 |，空字段保留为空字符串
+ */
+public class RouteSegmentDefinition {
+    private final String route;
+    private final List<String> attributes;
+
+    public RouteSegmentDefinition(String route, List<String> attributes) {
+        this.route = route;
+        this.attributes = attributes;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public List<String> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return route + " " + attributes;
+    }
+}
@@ -0,0 +1,89 @@
+// model/ASFModel/RunwayDefinition.java
+package ll.luolin.model.ASFModel;
+
+/**
+ * AIRPORT_RUNWAY.ASF 中的一条跑道（一个方向）
+ * 格式（位于 /机场/ 段）：NAME | DFAUT | LOCATION | HEADING | ROLLOUT | WID | ...
+ * LOCATION 是入口（接地点），HEADING 为真航向，WID 为中线两侧的宽度。
+ */
+public class RunwayDefinition {
+    private final String airport;
+    private final String name;
+    private final boolean defaultRunway;
+    private final double longitude;
+    private final double latitude;
+    private final double heading;
+    private final double halfWidthMetres;
+
+    public RunwayDefinition(String airport, String name, boolean defaultRunway, double longitude, double latitude,
+                            double heading, double halfWidthMetres) {
+        this.airport = airport;
+        this.name = name;
+        this.defaultRunway = defaultRunway;
+        this.longitude = longitude;
+        this.latitude = latitude;
+        this.heading = heading;
+        this.halfWidthMetres = halfWidthMetres;
+    }
+
+    public String getAirport() {
+        return airport;
+    }
+
+    /**
+     * 跑道号（01L、19R、03 ...）
+     */
+    public String getName() {
+        return name;
+    }
+
+    public boolean isDefaultRunway() {
+        return defaultRunway;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * 真航向（度）
+     */
+    public double getHeading() {
+        return heading;
+    }
+
+    public double getHalfWidthMetres() {
+        return halfWidthMetres;
+    }
+
+    /**
+     * 反向跑道号：01L -> 19R，20 -> 02，03 -> 21
+     */
+    public String getReciprocalName() {
+        int digits = 0;
+        while (digits < name.length() && Character.isDigit(name.charAt(digits))) {
+            digits++;
+        }
+        if (digits == 0) {
+            return "";
+        }
+        int number = Integer.parseInt(name.substring(0, digits));
+        int reciprocal = (number + 17) % 36 + 1;
+        String suffix = name.substring(digits);
+        if ("L".equals(suffix)) {
+            suffix = "R";
+        } else if ("R".equals(suffix)) {
+            suffix = "L";
+        }
+        return String.format("%02d%s", reciprocal, suffix);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s (%.4f°E, %.4f°N, %03.0f°)", airport, name, longitude, latitude, heading);
+    }
+}
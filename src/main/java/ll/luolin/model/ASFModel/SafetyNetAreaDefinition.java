@@ -0,0 +1,80 @@
+// model/ASFModel/SafetyNetAreaDefinition.java
+package ll.luolin.model.ASFModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 安全网区域（MSAW/STCA/MTCD/NTZ/DTZ/DAIW 各文件）
+ * 多边形区域：NAME | 属性 ... | 边界点列表（点名与圆弧名混排，可用续行），如
+ * STCA_AREA 的 APP1 |Y|N|NO|S0000|S0660|...| Q5 Q7 ...；
+ * 圆形区域（/OBSTACLES/）：NAME | 中心 | 高度 | 半径，边界点列表为空。
+ */
+public class SafetyNetAreaDefinition {
+    private final String section;
+    private final String name;
+    private final List<String> attributes;
+    private final List<String> points = new ArrayList<>();
+    private double centreLongitude = Double.NaN;
+    private double centreLatitude = Double.NaN;
+    private double radiusMetres = Double.NaN;
+
+    public SafetyNetAreaDefinition(String section, String name, List<String> attributes) {
+        this.section = section;
+        this.name = name;
+        this.attributes = attributes;
+    }
+
+    /**
+     * 所在段落名（STCA_AREA、INHIBIT、OBSTACLES ...）
+     */
+    public String getSection() {
+        return section;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 名称与边界之间的字段（激活标志、高度上下限等），按原文保存
+     */
+    public List<String> getAttributes() {
+        return attributes;
+    }
+
+    public List<String> getPoints() {
+        return points;
+    }
+
+    public void setCircle(double centreLongitude, double centreLatitude, double radiusMetres) {
+        this.centreLongitude = centreLongitude;
+        this.centreLatitude = centreLatitude;
+        this.radiusMetres = radiusMetres;
+    }
+
+    public boolean isCircle() {
+        return !Double.isNaN(radiusMetres);
+    }
+
+    public double getCentreLongitude() {
+        return centreLongitude;
+    }
+
+    public double getCentreLatitude() {
+        return centreLatitude;
+    }
+
+    public double getRadiusMetres() {
+        return radiusMetres;
+    }
+
+    @Override
+    public String toString() {
+        if (isCircle()) {
+            return String.format("%s %s (%.4f°E, %.4f°N, 半径 %.0f m)",
+                    section, name, centreLongitude, centreLatitude, radiusMetres);
+        }
+        return String.format("%s %s %s (%d points)", section, name, attributes, points.size());
+    }
+}
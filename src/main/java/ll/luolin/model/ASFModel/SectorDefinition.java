@@ -0,0 +1,46 @@
+// model/ASFModel/SectorDefinition.java
+package ll.luolin.model.ASFModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 由基本体积组合而成的区域：/SECTOR/、/FIR/、/EUROCAT_T_AREA/ 等段
+ * 格式：NAME | [精度 |] V1 + V2 + ...（可用续行）
+ */
+public class SectorDefinition {
+    private final String section;
+    private final String name;
+    private final String precision;
+    private final List<String> volumes = new ArrayList<>();
+
+    public SectorDefinition(String section, String name, String precision) {
+        this.section = section;
+        this.name = name;
+        this.precision = precision;
+    }
+
+    /**
+     * 所在段落名（SECTOR、FIR ...）
+     */
+    public String getSection() {
+        return section;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPrecision() {
+        return precision;
+    }
+
+    public List<String> getVolumes() {
+        return volumes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s (%d volumes)", section, name, volumes.size());
+    }
+}
@@ -0,0 +1,37 @@
+// model/ASFModel/VolumeDefinition.java
+package ll.luolin.model.ASFModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * /VOLUME/ 段：基本空域体积
+ * 格式：NAME | 高度层序号 | 边界点列表（可用续行）
+ */
+public class VolumeDefinition {
+    private final String name;
+    private final int layer;
+    private final List<String> points = new ArrayList<>();
+
+    public VolumeDefinition(String name, int layer) {
+        this.name = name;
+        this.layer = layer;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLayer() {
+        return layer;
+    }
+
+    public List<String> getPoints() {
+        return points;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (layer %d, %d points)", name, layer, points.size());
+    }
+}
@@ -0,0 +1,173 @@
+// model/AdaptationCatalog.java
+package ll.luolin.model;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 适配目录的内容目录：每个文件（相对路径） -> 内容哈希（SHA-256 十六进制）
+ * 同一内容的多个副本（各处的 Airspace.xml、datasets/working/compare 下的 maestro_dataset.db）归为一组，
+ * 可以直接回答"某个文件有几份副本"、"同名文件中哪些内容不同"。扫描后不可修改。
+ */
+public class AdaptationCatalog {
+
+    private final Path root;
+    // 相对路径（/分隔） -> 条目，按路径排序
+    private final TreeMap<String, Entry> entries;
+    // 内容哈希 -> 相对路径（排序）
+    private final Map<String, List<String>> byHash = new LinkedHashMap<>();
+    // 文件名 -> 相对路径
+    private final Map<String, List<String>> byName = new TreeMap<>();
+
+    public AdaptationCatalog(Path root, Map<String, Entry> entries) {
+        this.root = root.toAbsolutePath().normalize();
+        this.entries = new TreeMap<>(entries);
+        for (Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+            byHash.computeIfAbsent(entry.getValue().hash, key -> new ArrayList<>()).add(entry.getKey());
+            byName.computeIfAbsent(fileName(entry.getKey()), key -> new ArrayList<>()).add(entry.getKey());
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public int getFileCount() {
+        return entries.size();
+    }
+
+    /**
+     * 不同内容的数量
+     */
+    public int getDistinctCount() {
+        return byHash.size();
+    }
+
+    /**
+     * 重复副本占用的字节数（每组只算一份时可以节省的量）
+     */
+    public long getDuplicateBytes() {
+        long bytes = 0;
+        for (List<String> paths : byHash.values()) {
+            bytes += (paths.size() - 1) * entries.get(paths.get(0)).size;
+        }
+        return bytes;
+    }
+
+    /**
+     * 文件的内容哈希，不在目录中返回null
+     */
+    public String hashOf(Path file) {
+        Entry entry = entries.get(relativize(file));
+        return entry == null ? null : entry.hash;
+    }
+
+    public Entry getEntry(Path file) {
+        return entries.get(relativize(file));
+    }
+
+    /**
+     * 与该文件内容相同的全部文件（含自身，相对路径）
+     */
+    public List<String> copiesOf(Path file) {
+        String hash = hashOf(file);
+        return hash == null ? Collections.emptyList() : Collections.unmodifiableList(byHash.get(hash));
+    }
+
+    /**
+     * 两个文件内容是否相同；任一不在目录中返回null
+     */
+    public Boolean sameContent(Path first, Path second) {
+        String a = hashOf(first);
+        String b = hashOf(second);
+        return a == null || b == null ? null : a.equals(b);
+    }
+
+    /**
+     * 有多个副本的内容：哈希 -> 相对路径
+     */
+    public Map<String, List<String>> getDuplicateGroups() {
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> group : byHash.entrySet()) {
+            if (group.getValue().size() > 1) {
+                groups.put(group.getKey(), Collections.unmodifiableList(group.getValue()));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * 同名文件按内容分组：哈希 -> 相对路径；只有一组时说明所有副本相同
+     */
+    public Map<String, List<String>> getVariants(String fileName) {
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        for (String path : byName.getOrDefault(fileName, Collections.emptyList())) {
+            variants.computeIfAbsent(entries.get(path).hash, key -> new ArrayList<>()).add(path);
+        }
+        return variants;
+    }
+
+    /**
+     * 出现在多个位置且内容不同的文件名 -> 不同内容的数量
+     */
+    public Map<String, Integer> getDivergentNames() {
+        Map<String, Integer> divergent = new TreeMap<>();
+        for (String name : byName.keySet()) {
+            int count = getVariants(name).size();
+            if (count > 1) {
+                divergent.put(name, count);
+            }
+        }
+        return divergent;
+    }
+
+    /**
+     * 目录内的绝对路径转为相对路径（/分隔），目录外的路径原样返回
+     */
+    public String relativize(Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        if (!absolute.startsWith(root)) {
+            return absolute.toString();
+        }
+        return root.relativize(absolute).toString().replace('\\', '/');
+    }
+
+    private static String fileName(String relativePath) {
+        return relativePath.substring(relativePath.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AdaptationCatalog{%d 个文件, %d 种内容, 重复 %d 字节}",
+                getFileCount(), getDistinctCount(), getDuplicateBytes());
+    }
+
+    public static final class Entry {
+        private final String hash;
+        private final long size;
+        private final long modified;
+
+        public Entry(String hash, long size, long modified) {
+            this.hash = hash;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+    }
+}
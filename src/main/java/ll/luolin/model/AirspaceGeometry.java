@@ -0,0 +1,174 @@
+// model/AirspaceGeometry.java
+package ll.luolin.model;
+
+import ll.luolin.model.ASFModel.SectorDefinition;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.operation.union.CascadedPolygonUnion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * FDP_VOLUMES_DEFINITION 的空域几何
+ * 基本体积是JTS多边形，边界点序列相同的体积（如 AA01–AA15 只有高度层不同）共用同一个多边形实例；
+ * 扇区/FIR等组合区域在第一次请求时用 CascadedPolygonUnion 合并并缓存，
+ * 不同区域的合并在执行器上并行进行。
+ */
+public class AirspaceGeometry {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private final Map<String, Geometry> volumes;
+    private final Map<String, Integer> volumeLayers;
+    private final Map<Integer, String> layerLevels;
+    private final Map<String, SectorDefinition> sectors;
+    private final int distinctRings;
+    private final Executor executor;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Geometry>> unions = new ConcurrentHashMap<>();
+
+    /**
+     * @param volumes       体积名 -> 多边形（相同边界共用实例）
+     * @param volumeLayers  体积名 -> 高度层序号
+     * @param layerLevels   高度层序号 -> 高度（如 S0180）
+     * @param sectors       组合区域，按定义顺序
+     * @param distinctRings 去重后的边界数
+     * @param executor      合并使用的执行器
+     */
+    public AirspaceGeometry(Map<String, Geometry> volumes, Map<String, Integer> volumeLayers,
+                            Map<Integer, String> layerLevels, List<SectorDefinition> sectors,
+                            int distinctRings, Executor executor) {
+        this.volumes = volumes;
+        this.volumeLayers = volumeLayers;
+        this.layerLevels = layerLevels;
+        this.sectors = new LinkedHashMap<>();
+        for (SectorDefinition sector : sectors) {
+            this.sectors.put(sector.getName(), sector);
+        }
+        this.distinctRings = distinctRings;
+        this.executor = executor;
+    }
+
+    public AirspaceGeometry(Map<String, Geometry> volumes, Map<String, Integer> volumeLayers,
+                            Map<Integer, String> layerLevels, List<SectorDefinition> sectors, int distinctRings) {
+        this(volumes, volumeLayers, layerLevels, sectors, distinctRings, ForkJoinPool.commonPool());
+    }
+
+    public Set<String> getVolumeNames() {
+        return Collections.unmodifiableSet(volumes.keySet());
+    }
+
+    /**
+     * 基本体积的多边形，未定义时返回null
+     */
+    public Geometry getVolume(String name) {
+        return volumes.get(name);
+    }
+
+    /**
+     * 体积所在高度层的高度（如 S0180），未知时返回null
+     */
+    public String getLayerLevel(String volume) {
+        Integer layer = volumeLayers.get(volume);
+        return layer == null ? null : layerLevels.get(layer);
+    }
+
+    public int getVolumeCount() {
+        return volumes.size();
+    }
+
+    public int getDistinctRingCount() {
+        return distinctRings;
+    }
+
+    public Set<String> getSectorNames() {
+        return Collections.unmodifiableSet(sectors.keySet());
+    }
+
+    public SectorDefinition getSector(String name) {
+        return sectors.get(name);
+    }
+
+    /**
+     * 组合区域的合并结果（异步），同一区域只计算一次
+     */
+    public CompletableFuture<Geometry> getSectorGeometryAsync(String name) {
+        return unions.computeIfAbsent(name, key -> CompletableFuture.supplyAsync(() -> union(key), executor));
+    }
+
+    /**
+     * 组合区域的合并结果，等待计算完成；未定义的区域返回空几何
+     */
+    public Geometry getSectorGeometry(String name) {
+        return getSectorGeometryAsync(name).join();
+    }
+
+    /**
+     * 并行合并全部组合区域，按定义顺序返回
+     */
+    public Map<String, Geometry> unionAll() {
+        List<CompletableFuture<Geometry>> futures = new ArrayList<>(sectors.size());
+        for (String name : sectors.keySet()) {
+            futures.add(getSectorGeometryAsync(name));
+        }
+
+        Map<String, Geometry> result = new LinkedHashMap<>();
+        int i = 0;
+        for (String name : sectors.keySet()) {
+            result.put(name, futures.get(i++).join());
+        }
+        return result;
+    }
+
+    /**
+     * 合并组合区域的体积；引用的其他组合区域展开为其体积，同一个多边形只参与一次
+     */
+    private Geometry union(String name) {
+        if (!sectors.containsKey(name)) {
+            return GEOMETRY_FACTORY.createPolygon();
+        }
+
+        Map<Geometry, Boolean> parts = new IdentityHashMap<>();
+        Set<String> visited = new HashSet<>();
+        visited.add(name);
+        collectVolumes(name, visited, parts);
+        if (parts.isEmpty()) {
+            return GEOMETRY_FACTORY.createPolygon();
+        }
+        Geometry union = CascadedPolygonUnion.union(new ArrayList<>(parts.keySet()));
+        return union == null ? GEOMETRY_FACTORY.createPolygon() : union;
+    }
+
+    /**
+     * 收集组合区域的全部体积多边形，visited 记录已展开的区域，循环引用（A→B→A）只展开一次
+     */
+    private void collectVolumes(String name, Set<String> visited, Map<Geometry, Boolean> parts) {
+        for (String volume : sectors.get(name).getVolumes()) {
+            Geometry geometry = volumes.get(volume);
+            if (geometry != null) {
+                if (!geometry.isEmpty()) {
+                    parts.put(geometry, Boolean.TRUE);
+                }
+            } else if (sectors.containsKey(volume) && visited.add(volume)) {
+                collectVolumes(volume, visited, parts);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d 个体积（%d 个不同边界）, %d 个组合区域",
+                volumes.size(), distinctRings, sectors.size());
+    }
+}
@@ -0,0 +1,574 @@
+// model/AirwayGraph.java
+package ll.luolin.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 航路网络
+ * 点用 0..n-1 的整数编号，有向边按起点压缩存储（CSR）：
+ * 点 p 的出边是 [edgeStart(p), edgeEnd(p))，边 e 的终点、所属航路、类型、长度分别在并列数组中。
+ * 航路带有 /CODED_ROUTE_SEGMENTS/ 的分段属性；优选航路在构建时用 expandPath 展开为网络中的路径。
+ * 构建后不可修改（优选航路的显示开关除外），可在多个线程上并发查询。
+ */
+public final class AirwayGraph {
+
+    /** 边类型 */
+    public static final byte AIRWAY = 0;
+    public static final byte SID = 1;
+    public static final byte STAR = 2;
+
+    private static final double EARTH_RADIUS_NM = 3440.065;
+    private static final int[] NO_PATH = new int[0];
+
+    // 点
+    private final String[] names;
+    private final double[] lons;
+    private final double[] lats;
+    private final Map<String, Integer> ids;
+
+    // 有向边（CSR）
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] edgeRoutes;
+    private final byte[] edgeKinds;
+    private final double[] edgeLengths;
+
+    // 绘制用的线段（每个航路段一条，不区分方向）
+    private final int[] segments;
+    private final byte[] segmentKinds;
+
+    private final String[] routes;
+    // 航路的分段属性（空格分隔），没有时为null
+    private final String[] routeSegments;
+
+    private final List<PreferentialRoute> preferentialRoutes;
+
+    private AirwayGraph(Builder builder) {
+        int pointCount = builder.pointCount;
+        this.names = Arrays.copyOf(builder.names, pointCount);
+        this.lons = Arrays.copyOf(builder.lons, pointCount);
+        this.lats = Arrays.copyOf(builder.lats, pointCount);
+        this.ids = new HashMap<>(builder.ids);
+        this.routes = builder.routes.toArray(new String[0]);
+        this.routeSegments = builder.routeSegments.toArray(new String[0]);
+
+        // 按起点计数排序成CSR
+        int edgeCount = builder.edgeCount;
+        this.offsets = new int[pointCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[builder.edgeFrom[i] + 1]++;
+        }
+        for (int p = 0; p < pointCount; p++) {
+            offsets[p + 1] += offsets[p];
+        }
+        this.targets = new int[edgeCount];
+        this.edgeRoutes = new int[edgeCount];
+        this.edgeKinds = new byte[edgeCount];
+        this.edgeLengths = new double[edgeCount];
+        int[] next = Arrays.copyOf(offsets, pointCount);
+        for (int i = 0; i < edgeCount; i++) {
+            int from = builder.edgeFrom[i];
+            int e = next[from]++;
+            targets[e] = builder.edgeTo[i];
+            edgeRoutes[e] = builder.edgeRoute[i];
+            edgeKinds[e] = builder.edgeKind[i];
+            edgeLengths[e] = distanceNm(lons[from], lats[from], lons[targets[e]], lats[targets[e]]);
+        }
+
+        this.segments = Arrays.copyOf(builder.segments, builder.segmentCount * 2);
+        this.segmentKinds = Arrays.copyOf(builder.segmentKinds, builder.segmentCount);
+
+        List<PreferentialRoute> resolved = new ArrayList<>(builder.preferentialRoutes.size());
+        for (PendingRoute pending : builder.preferentialRoutes) {
+            PreferentialRoute route = resolve(pending);
+            if (route != null) {
+                resolved.add(route);
+            }
+        }
+        this.preferentialRoutes = Collections.unmodifiableList(resolved);
+    }
+
+    public int getPointCount() {
+        return names.length;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    public int getRouteCount() {
+        return routes.length;
+    }
+
+    /**
+     * 点名称对应的编号，不在网络中返回-1
+     */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public String getName(int point) {
+        return names[point];
+    }
+
+    public double getLongitude(int point) {
+        return lons[point];
+    }
+
+    public double getLatitude(int point) {
+        return lats[point];
+    }
+
+    /**
+     * 点的第一条出边
+     */
+    public int edgeStart(int point) {
+        return offsets[point];
+    }
+
+    /**
+     * 点最后一条出边之后的位置
+     */
+    public int edgeEnd(int point) {
+        return offsets[point + 1];
+    }
+
+    public int getEdgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    public String getEdgeRoute(int edge) {
+        return routes[edgeRoutes[edge]];
+    }
+
+    /**
+     * 边所属航路的分段属性（如 "NONE F0 C2 O1"），没有时返回null
+     */
+    public String getEdgeRouteSegments(int edge) {
+        return routeSegments[edgeRoutes[edge]];
+    }
+
+    /**
+     * from 到 to 的一条有向边，不相邻时返回-1
+     */
+    public int edgeBetween(int from, int to) {
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    public byte getEdgeKind(int edge) {
+        return edgeKinds[edge];
+    }
+
+    /**
+     * 边长度（海里，大圆距离）
+     */
+    public double getEdgeLength(int edge) {
+        return edgeLengths[edge];
+    }
+
+    /**
+     * 相邻点编号（新数组）
+     */
+    public int[] neighbours(int point) {
+        return Arrays.copyOfRange(targets, offsets[point], offsets[point + 1]);
+    }
+
+    public int getSegmentCount() {
+        return segmentKinds.length;
+    }
+
+    public int getSegmentFrom(int segment) {
+        return segments[segment * 2];
+    }
+
+    public int getSegmentTo(int segment) {
+        return segments[segment * 2 + 1];
+    }
+
+    public byte getSegmentKind(int segment) {
+        return segmentKinds[segment];
+    }
+
+    /**
+     * 点的经纬度范围 {minLon, minLat, maxLon, maxLat}，没有点时返回null
+     */
+    public double[] getBounds() {
+        if (names.length == 0) {
+            return null;
+        }
+        double minLon = Double.MAX_VALUE, minLat = Double.MAX_VALUE;
+        double maxLon = -Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        for (int p = 0; p < names.length; p++) {
+            minLon = Math.min(minLon, lons[p]);
+            maxLon = Math.max(maxLon, lons[p]);
+            minLat = Math.min(minLat, lats[p]);
+            maxLat = Math.max(maxLat, lats[p]);
+        }
+        return new double[]{minLon, minLat, maxLon, maxLat};
+    }
+
+    /**
+     * 最短路径（Dijkstra，按大圆距离），返回包含起终点的点编号序列，不可达时返回空数组
+     */
+    public int[] shortestPath(int from, int to) {
+        int n = names.length;
+        if (from < 0 || to < 0 || from >= n || to >= n) {
+            return NO_PATH;
+        }
+        if (from == to) {
+            return new int[]{from};
+        }
+
+        double[] dist = new double[n];
+        int[] previous = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+        dist[from] = 0;
+
+        MinHeap heap = new MinHeap(Math.max(16, n));
+        heap.push(from, 0);
+        while (!heap.isEmpty()) {
+            double d = heap.peekKey();
+            int p = heap.pop();
+            if (d > dist[p]) {
+                // 过期条目
+                continue;
+            }
+            if (p == to) {
+                break;
+            }
+            for (int e = offsets[p]; e < offsets[p + 1]; e++) {
+                int q = targets[e];
+                double candidate = d + edgeLengths[e];
+                if (candidate < dist[q]) {
+                    dist[q] = candidate;
+                    previous[q] = p;
+                    heap.push(q, candidate);
+                }
+            }
+        }
+
+        if (previous[to] < 0) {
+            return NO_PATH;
+        }
+        int length = 1;
+        for (int p = to; p != from; p = previous[p]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int p = to, i = length - 1; i >= 0; p = previous[p], i--) {
+            path[i] = p;
+        }
+        return path;
+    }
+
+    /**
+     * 按名称查询最短路径，名称不在网络中或不可达时返回空数组
+     */
+    public int[] shortestPath(String from, String to) {
+        return shortestPath(idOf(from), idOf(to));
+    }
+
+    /**
+     * 把点名称序列展开为网络中的完整路径：相邻两点之间按最短路径补全，
+     * 不在网络中的名称跳过，相邻两点不连通时返回空数组
+     */
+    public int[] expandPath(List<String> pointNames) {
+        List<Integer> path = new ArrayList<>();
+        int previous = -1;
+        for (String name : pointNames) {
+            int id = idOf(name);
+            if (id < 0) {
+                continue;
+            }
+            if (previous < 0) {
+                path.add(id);
+            } else if (id != previous) {
+                int[] leg = shortestPath(previous, id);
+                if (leg.length == 0) {
+                    return NO_PATH;
+                }
+                for (int i = 1; i < leg.length; i++) {
+                    path.add(leg[i]);
+                }
+            }
+            previous = id;
+        }
+
+        int[] result = new int[path.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = path.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * 展开成功的优选航路，按定义顺序
+     */
+    public List<PreferentialRoute> getPreferentialRoutes() {
+        return preferentialRoutes;
+    }
+
+    /**
+     * 展开优选航路，少于两个点（点不在网络中或不连通）时返回null
+     */
+    private PreferentialRoute resolve(PendingRoute pending) {
+        int[] path = expandPath(pending.points);
+        if (path.length < 2) {
+            return null;
+        }
+        List<String> pointNames = new ArrayList<>(path.length);
+        double[] coordinates = new double[path.length * 2];
+        List<String> airways = new ArrayList<>();
+        int lastRoute = -1;
+        for (int i = 0; i < path.length; i++) {
+            pointNames.add(names[path[i]]);
+            coordinates[i * 2] = lons[path[i]];
+            coordinates[i * 2 + 1] = lats[path[i]];
+            int edge = i == 0 ? -1 : edgeBetween(path[i - 1], path[i]);
+            if (edge >= 0 && edgeRoutes[edge] != lastRoute) {
+                lastRoute = edgeRoutes[edge];
+                String segments = routeSegments[lastRoute];
+                airways.add(segments == null ? routes[lastRoute] : routes[lastRoute] + " [" + segments + "]");
+            }
+        }
+        return new PreferentialRoute(pending.boundaryPoint, pending.destination, pointNames, coordinates, airways,
+                pathLength(path));
+    }
+
+    /**
+     * 路径总长度（海里）
+     */
+    public double pathLength(int[] path) {
+        double length = 0;
+        for (int i = 1; i < path.length; i++) {
+            length += distanceNm(lons[path[i - 1]], lats[path[i - 1]], lons[path[i]], lats[path[i]]);
+        }
+        return length;
+    }
+
+    static double distanceNm(double lon1, double lat1, double lon2, double lat2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dPhi = phi2 - phi1;
+        double dLambda = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dPhi / 2) * Math.sin(dPhi / 2)
+                + Math.cos(phi1) * Math.cos(phi2) * Math.sin(dLambda / 2) * Math.sin(dLambda / 2);
+        return 2 * EARTH_RADIUS_NM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d 个点, %d 条有向边, %d 条航路/程序, %d 条优选航路",
+                names.length, targets.length, routes.length, preferentialRoutes.size());
+    }
+
+    /**
+     * 以 (距离, 点) 为元素的二叉最小堆，允许同一个点重复入堆
+     */
+    private static final class MinHeap {
+        private double[] keys;
+        private int[] values;
+        private int size;
+
+        MinHeap(int capacity) {
+            keys = new double[capacity];
+            values = new int[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        void push(int value, double key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int pop() {
+            int result = values[0];
+            size--;
+            double key = keys[size];
+            int value = values[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+            return result;
+        }
+    }
+
+    /**
+     * 逐段添加航路后生成CSR图
+     */
+    public static final class Builder {
+        private String[] names = new String[256];
+        private double[] lons = new double[256];
+        private double[] lats = new double[256];
+        private final Map<String, Integer> ids = new HashMap<>();
+        private int pointCount;
+
+        private int[] edgeFrom = new int[1024];
+        private int[] edgeTo = new int[1024];
+        private int[] edgeRoute = new int[1024];
+        private byte[] edgeKind = new byte[1024];
+        private int edgeCount;
+
+        private int[] segments = new int[1024];
+        private byte[] segmentKinds = new byte[512];
+        private int segmentCount;
+
+        private final List<String> routes = new ArrayList<>();
+        private final List<String> routeSegments = new ArrayList<>();
+        private final List<PendingRoute> preferentialRoutes = new ArrayList<>();
+
+        /**
+         * 添加（或取得已有的）点，返回编号
+         */
+        public int addPoint(String name, double lon, double lat) {
+            Integer existing = ids.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            if (pointCount == names.length) {
+                names = Arrays.copyOf(names, pointCount * 2);
+                lons = Arrays.copyOf(lons, pointCount * 2);
+                lats = Arrays.copyOf(lats, pointCount * 2);
+            }
+            names[pointCount] = name;
+            lons[pointCount] = lon;
+            lats[pointCount] = lat;
+            ids.put(name, pointCount);
+            return pointCount++;
+        }
+
+        /**
+         * 登记航路/程序名称，返回编号
+         */
+        public int addRoute(String name) {
+            routes.add(name);
+            routeSegments.add(null);
+            return routes.size() - 1;
+        }
+
+        /**
+         * 设置航路的分段属性（/CODED_ROUTE_SEGMENTS/），空字段不保留
+         */
+        public Builder setRouteSegments(int route, List<String> attributes) {
+            StringBuilder text = new StringBuilder();
+            for (String attribute : attributes) {
+                if (!attribute.isEmpty()) {
+                    text.append(text.length() == 0 ? "" : " ").append(attribute);
+                }
+            }
+            routeSegments.set(route, text.length() == 0 ? null : text.toString());
+            return this;
+        }
+
+        /**
+         * 添加优选航路，构建时在网络上展开
+         */
+        public Builder addPreferentialRoute(String boundaryPoint, String destination, List<String> points) {
+            preferentialRoutes.add(new PendingRoute(boundaryPoint, destination, new ArrayList<>(points)));
+            return this;
+        }
+
+        /**
+         * 添加一个航路段：forward/backward 表示允许的飞行方向
+         */
+        public Builder addSegment(int from, int to, int route, byte kind, boolean forward, boolean backward) {
+            if (from == to || (!forward && !backward)) {
+                return this;
+            }
+            if (forward) {
+                addEdge(from, to, route, kind);
+            }
+            if (backward) {
+                addEdge(to, from, route, kind);
+            }
+            if (segmentCount == segmentKinds.length) {
+                segments = Arrays.copyOf(segments, segmentCount * 4);
+                segmentKinds = Arrays.copyOf(segmentKinds, segmentCount * 2);
+            }
+            segments[segmentCount * 2] = from;
+            segments[segmentCount * 2 + 1] = to;
+            segmentKinds[segmentCount++] = kind;
+            return this;
+        }
+
+        private void addEdge(int from, int to, int route, byte kind) {
+            if (edgeCount == edgeFrom.length) {
+                edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+                edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+                edgeRoute = Arrays.copyOf(edgeRoute, edgeCount * 2);
+                edgeKind = Arrays.copyOf(edgeKind, edgeCount * 2);
+            }
+            edgeFrom[edgeCount] = from;
+            edgeTo[edgeCount] = to;
+            edgeRoute[edgeCount] = route;
+            edgeKind[edgeCount++] = kind;
+        }
+
+        public AirwayGraph build() {
+            return new AirwayGraph(this);
+        }
+    }
+
+    /**
+     * 尚未展开的优选航路定义
+     */
+    private static final class PendingRoute {
+        final String boundaryPoint;
+        final String destination;
+        final List<String> points;
+
+        PendingRoute(String boundaryPoint, String destination, List<String> points) {
+            this.boundaryPoint = boundaryPoint;
+            this.destination = destination;
+            this.points = points;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+// model/DatasetDiff.java
+package ll.luolin.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 同一适配文件两个版本之间的差异
+ * 记录按 "段落/键" 比较（如 DEFINITIONS/ZGGG、VOLUME/AA01），键相同而内容不同的为修改。
+ */
+public class DatasetDiff {
+
+    public static final byte ADDED = 0;
+    public static final byte REMOVED = 1;
+    public static final byte MODIFIED = 2;
+
+    private final String name;
+    private final String oldPath;
+    private final String newPath;
+    private final List<Change> changes = new ArrayList<>();
+    private int unchanged;
+    private int added;
+    private int removed;
+    private int modified;
+
+    /**
+     * @param name    相对路径（目录比较时）或文件名
+     * @param oldPath 旧版本路径，文件只在新版本中存在时为null
+     * @param newPath 新版本路径，文件只在旧版本中存在时为null
+     */
+    public DatasetDiff(String name, String oldPath, String newPath) {
+        this.name = name;
+        this.oldPath = oldPath;
+        this.newPath = newPath;
+    }
+
+    public void addChange(Change change) {
+        changes.add(change);
+        if (change.kind == ADDED) {
+            added++;
+        } else if (change.kind == REMOVED) {
+            removed++;
+        } else {
+            modified++;
+        }
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOldPath() {
+        return oldPath;
+    }
+
+    public String getNewPath() {
+        return newPath;
+    }
+
+    public List<Change> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    public int getAddedCount() {
+        return added;
+    }
+
+    public int getRemovedCount() {
+        return removed;
+    }
+
+    public int getModifiedCount() {
+        return modified;
+    }
+
+    public int getUnchangedCount() {
+        return unchanged;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: 新增 %d, 删除 %d, 修改 %d, 未变 %d", name, added, removed, modified, unchanged);
+    }
+
+    /**
+     * 一条记录的变化；记录带坐标（点定义）时 longitude/latitude 为其坐标（修改时为新坐标），否则为NaN
+     */
+    public static final class Change {
+        private final String section;
+        private final String key;
+        private final byte kind;
+        private final double longitude;
+        private final double latitude;
+
+        public Change(String section, String key, byte kind, double longitude, double latitude) {
+            this.section = section;
+            this.key = key;
+            this.kind = kind;
+            this.longitude = longitude;
+            this.latitude = latitude;
+        }
+
+        public String getSection() {
+            return section;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public byte getKind() {
+            return kind;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public boolean hasCoordinate() {
+            return !Double.isNaN(longitude) && !Double.isNaN(latitude);
+        }
+
+        @Override
+        public String toString() {
+            String prefix = kind == ADDED ? "+" : kind == REMOVED ? "-" : "~";
+            return prefix + (section.isEmpty() ? key : section + "/" + key);
+        }
+    }
+}
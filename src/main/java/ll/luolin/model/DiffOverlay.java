@@ -0,0 +1,116 @@
+// model/DiffOverlay.java
+package ll.luolin.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 数据集差异的地图叠加层：变化的点和空域（外环）按变化类型（DatasetDiff.ADDED/REMOVED/MODIFIED）高亮
+ * 点坐标交替存放经度、纬度；每个空域外环是一个经纬度交替的数组。
+ */
+public class DiffOverlay {
+
+    private final String[] pointNames;
+    private final double[] pointCoordinates;
+    private final byte[] pointKinds;
+    private final List<String> ringNames;
+    private final List<double[]> rings;
+    private final byte[] ringKinds;
+
+    private DiffOverlay(Builder builder) {
+        this.pointNames = Arrays.copyOf(builder.pointNames, builder.pointCount);
+        this.pointCoordinates = Arrays.copyOf(builder.pointCoordinates, builder.pointCount * 2);
+        this.pointKinds = Arrays.copyOf(builder.pointKinds, builder.pointCount);
+        this.ringNames = Collections.unmodifiableList(new ArrayList<>(builder.ringNames));
+        this.rings = Collections.unmodifiableList(new ArrayList<>(builder.rings));
+        this.ringKinds = Arrays.copyOf(builder.ringKinds, builder.rings.size());
+    }
+
+    public int getPointCount() {
+        return pointKinds.length;
+    }
+
+    public String getPointName(int point) {
+        return pointNames[point];
+    }
+
+    public double getLongitude(int point) {
+        return pointCoordinates[point * 2];
+    }
+
+    public double getLatitude(int point) {
+        return pointCoordinates[point * 2 + 1];
+    }
+
+    public byte getPointKind(int point) {
+        return pointKinds[point];
+    }
+
+    public int getRingCount() {
+        return rings.size();
+    }
+
+    public String getRingName(int ring) {
+        return ringNames.get(ring);
+    }
+
+    /**
+     * 外环经纬度（交替存放），不要修改
+     */
+    public double[] getRing(int ring) {
+        return rings.get(ring);
+    }
+
+    public byte getRingKind(int ring) {
+        return ringKinds[ring];
+    }
+
+    public boolean isEmpty() {
+        return pointKinds.length == 0 && rings.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DiffOverlay{%d 个点, %d 个空域}", getPointCount(), getRingCount());
+    }
+
+    public static class Builder {
+        private String[] pointNames = new String[64];
+        private double[] pointCoordinates = new double[128];
+        private byte[] pointKinds = new byte[64];
+        private int pointCount;
+        private final List<String> ringNames = new ArrayList<>();
+        private final List<double[]> rings = new ArrayList<>();
+        private byte[] ringKinds = new byte[16];
+
+        public Builder addPoint(String name, double longitude, double latitude, byte kind) {
+            if (pointCount == pointKinds.length) {
+                pointNames = Arrays.copyOf(pointNames, pointCount * 2);
+                pointCoordinates = Arrays.copyOf(pointCoordinates, pointCount * 4);
+                pointKinds = Arrays.copyOf(pointKinds, pointCount * 2);
+            }
+            pointNames[pointCount] = name;
+            pointCoordinates[pointCount * 2] = longitude;
+            pointCoordinates[pointCount * 2 + 1] = latitude;
+            pointKinds[pointCount] = kind;
+            pointCount++;
+            return this;
+        }
+
+        public Builder addRing(String name, double[] coordinates, byte kind) {
+            if (rings.size() == ringKinds.length) {
+                ringKinds = Arrays.copyOf(ringKinds, ringKinds.length * 2);
+            }
+            ringKinds[rings.size()] = kind;
+            ringNames.add(name);
+            rings.add(coordinates);
+            return this;
+        }
+
+        public DiffOverlay build() {
+            return new DiffOverlay(this);
+        }
+    }
+}
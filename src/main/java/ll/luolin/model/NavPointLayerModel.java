@@ -4,16 +4,26 @@ package ll.luolin.model;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
 import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.model.ASFModel.NavPointStore;
+import ll.luolin.model.ASFModel.PointCategory;
 import ll.luolin.model.ASFModel.PointModel;
 import ll.luolin.utils.LogUtils;
 
 import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 导航点图层模型
+ * 点保存在列式的 NavPointStore 中，navPointsProperty 只在界面读取时创建 NavPointModel 视图
  */
 public class NavPointLayerModel {
     private final StringProperty name = new SimpleStringProperty();
@@ -21,9 +31,10 @@ public class NavPointLayerModel {
     private final BooleanProperty visible = new SimpleBooleanProperty(true);
     private final DoubleProperty opacity = new SimpleDoubleProperty(1.0);
 
-    // 使用ListProperty来包装导航点列表
-    private final ListProperty<NavPointModel> navPointsProperty =
-            new SimpleListProperty<>(FXCollections.observableArrayList());
+    // 导航点按列存放，列表只是按需创建视图的包装
+    private NavPointStore store = new NavPointStore();
+    private final PointList points = new PointList();
+    private final ListProperty<NavPointModel> navPointsProperty = new SimpleListProperty<>(points);
 
     // 类型过滤
     private final BooleanProperty showAirports = new SimpleBooleanProperty(true);
@@ -60,26 +71,24 @@ public class NavPointLayerModel {
     private void updatePointsVisibility() {
         LogUtils.info("NavPointLayerModel-setupTypeFilterListeners-类型监听");
 
-        for (NavPointModel point : navPointsProperty) {
-            String type = point.getType().toUpperCase();
-            boolean shouldShow = false;
-
-            if (type.contains("AIRPORT")) {
-                shouldShow = showAirports.get();
-            } else if (type.contains("VOR")) {
-                shouldShow = showVors.get();
-            } else if (type.contains("NDB")) {
-                shouldShow = showNdbs.get();
-            } else if (type.contains("REPORT")) {
-                shouldShow = showReports.get();
-            } else {
-                shouldShow = true; // 其他类型默认显示
-            }
+        updatePointsVisibility(0);
+    }
 
-            point.setVisible(shouldShow && visible.get());
+    /**
+     * 更新 from 及之后的点的可见性，按分类序号查表，不创建对象
+     */
+    private void updatePointsVisibility(int from) {
+        boolean layerVisible = visible.get();
+        PointCategory[] categories = PointCategory.values();
+        boolean[] shown = new boolean[categories.length];
+        for (PointCategory category : categories) {
+            shown[category.ordinal()] = layerVisible && isTypeShown(category);
         }
-        LogUtils.info("NavPointLayerModel-setupTypeFilterListeners-类型监听");
 
+        byte[] pointCategories = store.categoryArray();
+        for (int i = from; i < store.size(); i++) {
+            store.setVisible(i, shown[pointCategories[i]]);
+        }
     }
 
     /**
@@ -88,8 +97,10 @@ public class NavPointLayerModel {
     public void addNavPoint(NavPointModel point) {
         LogUtils.info("NavPointLayerModel-addNavPoint-添加导航点");
 
-        navPointsProperty.add(point);
-        updatePointVisibility(point);
+        int from = store.size();
+        store.add(point);
+        updatePointsVisibility(from);
+        points.fireAdded(from, store.size());
     }
 
     /**
@@ -98,34 +109,91 @@ public class NavPointLayerModel {
     public void addNavPoints(List<? extends PointModel> points) {
         LogUtils.info("NavPointLayerModel-addNavPoints-批量添加导航点");
 
-        navPointsProperty.addAll((Collection<? extends NavPointModel>) points);
-        updatePointsVisibility();
+        int from = store.size();
+        store.addAll((Collection<? extends NavPointModel>) points);
+        updatePointsVisibility(from);
+        this.points.fireAdded(from, store.size());
+    }
+
+    /**
+     * 分类是否通过类型过滤，其他类型默认显示
+     */
+    private boolean isTypeShown(PointCategory category) {
+        switch (category.getGroup()) {
+            case AIRPORT:
+                return showAirports.get();
+            case VOR:
+                return showVors.get();
+            case NDB:
+                return showNdbs.get();
+            case REPORT:
+                return showReports.get();
+            default:
+                return true;
+        }
     }
 
     /**
-     * 更新单个点的可见性
+     * 用新的解析结果就地更新图层：按 名称+类型 对应，
+     * 坐标变化的点只修改坐标（保留原下标及可见性），新点追加，消失的点一次性移除
      */
-    private void updatePointVisibility(NavPointModel point) {
-        LogUtils.info("NavPointLayerModel-updatePointVisibility-更新单个点的可见性");
-
-        String type = point.getType().toUpperCase();
-        boolean shouldShow = false;
-
-        if (type.contains("AIRPORT")) {
-            shouldShow = showAirports.get();
-        } else if (type.contains("VOR")) {
-            shouldShow = showVors.get();
-        } else if (type.contains("NDB")) {
-            shouldShow = showNdbs.get();
-        } else if (type.contains("REPORT")) {
-            shouldShow = showReports.get();
+    public Diff applyDiff(List<NavPointModel> points) {
+        LogUtils.info("NavPointLayerModel-applyDiff-就地更新导航点");
+
+        Map<String, Deque<Integer>> existing = new HashMap<>();
+        for (int i = 0; i < store.size(); i++) {
+            existing.computeIfAbsent(diffKey(store.getName(i), store.getType(i)), k -> new ArrayDeque<>()).add(i);
+        }
+
+        List<NavPointModel> added = new ArrayList<>();
+        BitSet moved = new BitSet();
+        for (NavPointModel point : points) {
+            Deque<Integer> candidates = existing.get(diffKey(point.getName(), point.getType()));
+            Integer current = candidates != null ? candidates.poll() : null;
+            if (current == null) {
+                added.add(point);
+                continue;
+            }
+            if (store.getLongitude(current) != point.getLongitude()
+                    || store.getLatitude(current) != point.getLatitude()) {
+                store.setLocation(current, point.getLongitude(), point.getLatitude());
+                moved.set(current);
+            }
+        }
+
+        BitSet kept = new BitSet(store.size());
+        kept.set(0, store.size());
+        int removed = 0;
+        for (Deque<Integer> leftover : existing.values()) {
+            for (int index : leftover) {
+                kept.clear(index);
+                removed++;
+            }
+        }
+
+        if (removed > 0) {
+            // 删除后下标重新编号，整体替换列表内容
+            NavPointStore previous = store;
+            store = previous.select(kept);
+            int from = store.size();
+            store.addAll(added);
+            updatePointsVisibility(from);
+            this.points.fireReplaced(previous.asList());
         } else {
-            shouldShow = true;
+            this.points.fireUpdated(moved);
+            if (!added.isEmpty()) {
+                int from = store.size();
+                store.addAll(added);
+                updatePointsVisibility(from);
+                this.points.fireAdded(from, store.size());
+            }
         }
 
-        point.setVisible(shouldShow && visible.get());
-        LogUtils.info("NavPointLayerModel-updatePointVisibility-更新单个点的可见性");
+        return new Diff(added.size(), removed, moved.cardinality());
+    }
 
+    private static String diffKey(String name, String type) {
+        return name + '|' + type;
     }
 
     /**
@@ -134,7 +202,11 @@ public class NavPointLayerModel {
     public void clearNavPoints() {
         LogUtils.info("NavPointLayerModel-clearNavPoints-清除所有导航点");
 
-        navPointsProperty.clear();
+        if (!store.isEmpty()) {
+            NavPointStore previous = store;
+            store = new NavPointStore();
+            points.fireReplaced(previous.asList());
+        }
     }
 
     /**
@@ -144,14 +216,19 @@ public class NavPointLayerModel {
         LogUtils.info("NavPointLayerModel-getVisibleNavPoints-获取可见的导航点");
 
         ObservableList<NavPointModel> visiblePoints = FXCollections.observableArrayList();
-        for (NavPointModel point : navPointsProperty) {
-            if (point.isVisible()) {
-                visiblePoints.add(point);
-            }
+        for (int i = store.nextVisible(0); i >= 0; i = store.nextVisible(i + 1)) {
+            visiblePoints.add(store.view(i));
         }
         return visiblePoints;
     }
 
+    /**
+     * 导航点的列式存储，渲染和遍历直接读取；删除点、清空图层后会换成新的存储，使用时每次重新获取
+     */
+    public NavPointStore getStore() {
+        return store;
+    }
+
     // Getters and Setters
     public String getName() {
         return name.get();
@@ -260,6 +337,89 @@ public class NavPointLayerModel {
 
     @Override
     public String toString() {
-        return String.format("%s (%d points)", getName(), navPointsProperty.size());
+        return String.format("%s (%d points)", getName(), store.size());
+    }
+
+    /**
+     * 导航点的可观察列表：get 时从存储创建视图，存储变化时通知列表监听者
+     */
+    private class PointList extends ObservableListBase<NavPointModel> {
+
+        @Override
+        public NavPointModel get(int index) {
+            return store.view(index);
+        }
+
+        @Override
+        public int size() {
+            return store.size();
+        }
+
+        void fireAdded(int from, int to) {
+            if (from == to) {
+                return;
+            }
+            beginChange();
+            nextAdd(from, to);
+            endChange();
+        }
+
+        void fireUpdated(BitSet indices) {
+            if (indices.isEmpty()) {
+                return;
+            }
+            beginChange();
+            for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+                nextUpdate(i);
+            }
+            endChange();
+        }
+
+        void fireReplaced(List<NavPointModel> removed) {
+            beginChange();
+            if (!removed.isEmpty()) {
+                nextRemove(0, removed);
+            }
+            if (!isEmpty()) {
+                nextAdd(0, size());
+            }
+            endChange();
+        }
+    }
+
+    /**
+     * applyDiff 的结果
+     */
+    public static class Diff {
+        private final int added;
+        private final int removed;
+        private final int moved;
+
+        public Diff(int added, int removed, int moved) {
+            this.added = added;
+            this.removed = removed;
+            this.moved = moved;
+        }
+
+        public int getAdded() {
+            return added;
+        }
+
+        public int getRemoved() {
+            return removed;
+        }
+
+        public int getMoved() {
+            return moved;
+        }
+
+        public boolean isEmpty() {
+            return added == 0 && removed == 0 && moved == 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("新增 %d, 删除 %d, 移动 %d", added, removed, moved);
+        }
     }
 }
@@ -0,0 +1,94 @@
+// model/PreferentialRoute.java
+package ll.luolin.model;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 在航路网络上展开后的优选航路（/PREFERENTIAL_ROUTES/）
+ * 定义中的相邻两点按网络最短路径补全，点序列和坐标在展开时固定下来，
+ * 经过的航路及其 /CODED_ROUTE_SEGMENTS/ 属性用于显示。
+ */
+public class PreferentialRoute {
+
+    private final String boundaryPoint;
+    private final String destination;
+    private final List<String> pointNames;
+    // 经度、纬度交替
+    private final double[] coordinates;
+    private final List<String> airways;
+    private final double lengthNm;
+
+    // 默认隐藏，由用户按需打开
+    private final BooleanProperty visible = new SimpleBooleanProperty(false);
+
+    /**
+     * @param pointNames  展开后的点名称
+     * @param coordinates 与 pointNames 对应的 {经度, 纬度, ...}
+     * @param airways     依次经过的航路（相邻重复的已合并），带分段属性时形如 "A461 [NONE F0 C2 O1]"
+     */
+    public PreferentialRoute(String boundaryPoint, String destination, List<String> pointNames,
+                             double[] coordinates, List<String> airways, double lengthNm) {
+        this.boundaryPoint = boundaryPoint;
+        this.destination = destination;
+        this.pointNames = Collections.unmodifiableList(pointNames);
+        this.coordinates = coordinates;
+        this.airways = Collections.unmodifiableList(airways);
+        this.lengthNm = lengthNm;
+    }
+
+    public String getBoundaryPoint() {
+        return boundaryPoint;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public List<String> getPointNames() {
+        return pointNames;
+    }
+
+    public int getPointCount() {
+        return pointNames.size();
+    }
+
+    public double getLongitude(int index) {
+        return coordinates[index * 2];
+    }
+
+    public double getLatitude(int index) {
+        return coordinates[index * 2 + 1];
+    }
+
+    public List<String> getAirways() {
+        return airways;
+    }
+
+    /**
+     * 总长度（海里）
+     */
+    public double getLengthNm() {
+        return lengthNm;
+    }
+
+    public BooleanProperty visibleProperty() {
+        return visible;
+    }
+
+    public boolean isVisible() {
+        return visible.get();
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible.set(visible);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s -> %s (%d 个点, %.0f NM)", boundaryPoint, destination, pointNames.size(), lengthNm);
+    }
+}
@@ -0,0 +1,141 @@
+// model/ProcedureGeometry.java
+package ll.luolin.model;
+
+import java.util.Arrays;
+
+/**
+ * 一组程序几何（跑道矩形、进近锥、等待航线）
+ * 与 SystemMapLayer 相同，按图元连续存放在基本类型数组中：coordinates 交替存放经度、纬度，
+ * 第 i 个图元占用点 [partOffsets[i], partOffsets[i + 1])。构建后不可修改，可以被多个线程共享。
+ */
+public class ProcedureGeometry {
+
+    public static final byte RUNWAY = 0;
+    public static final byte APPROACH_CONE = 1;
+    public static final byte CENTRELINE = 2;
+    public static final byte HOLDING = 3;
+
+    private final double[] coordinates;
+    private final int[] partOffsets;
+    private final byte[] kinds;
+    private final String[] names;
+    private final double[] bounds;
+
+    private ProcedureGeometry(Builder builder) {
+        int parts = builder.partCount;
+        this.coordinates = Arrays.copyOf(builder.coordinates, builder.pointCount * 2);
+        this.partOffsets = Arrays.copyOf(builder.partOffsets, parts + 1);
+        this.partOffsets[parts] = builder.pointCount;
+        this.kinds = Arrays.copyOf(builder.kinds, parts);
+        this.names = Arrays.copyOf(builder.names, parts);
+
+        double minLon = Double.MAX_VALUE, minLat = Double.MAX_VALUE;
+        double maxLon = -Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        for (int i = 0; i < coordinates.length; i += 2) {
+            minLon = Math.min(minLon, coordinates[i]);
+            maxLon = Math.max(maxLon, coordinates[i]);
+            minLat = Math.min(minLat, coordinates[i + 1]);
+            maxLat = Math.max(maxLat, coordinates[i + 1]);
+        }
+        this.bounds = coordinates.length == 0 ? new double[4] : new double[]{minLon, minLat, maxLon, maxLat};
+    }
+
+    public int getPartCount() {
+        return kinds.length;
+    }
+
+    public int getPointCount() {
+        return coordinates.length / 2;
+    }
+
+    public byte getKind(int part) {
+        return kinds[part];
+    }
+
+    public String getName(int part) {
+        return names[part];
+    }
+
+    public int getPartStart(int part) {
+        return partOffsets[part];
+    }
+
+    public int getPartEnd(int part) {
+        return partOffsets[part + 1];
+    }
+
+    public double getLongitude(int point) {
+        return coordinates[point * 2];
+    }
+
+    public double getLatitude(int point) {
+        return coordinates[point * 2 + 1];
+    }
+
+    /**
+     * 闭合图元（跑道、进近锥、等待航线），中线为折线
+     */
+    public boolean isClosed(int part) {
+        return kinds[part] != CENTRELINE;
+    }
+
+    /**
+     * {最小经度, 最小纬度, 最大经度, 最大纬度}
+     */
+    public double[] getBounds() {
+        return bounds.clone();
+    }
+
+    public boolean intersects(double minLon, double minLat, double maxLon, double maxLat) {
+        return getPointCount() > 0 && bounds[0] <= maxLon && bounds[2] >= minLon
+                && bounds[1] <= maxLat && bounds[3] >= minLat;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProcedureGeometry{%d 个图元, %d 个点}", getPartCount(), getPointCount());
+    }
+
+    public static class Builder {
+        private double[] coordinates = new double[256];
+        private int pointCount;
+        private int[] partOffsets = new int[16];
+        private byte[] kinds = new byte[16];
+        private String[] names = new String[16];
+        private int partCount;
+
+        /**
+         * 开始新图元
+         */
+        public Builder beginPart(byte kind, String name) {
+            if (partCount == kinds.length) {
+                int capacity = partCount * 2;
+                partOffsets = Arrays.copyOf(partOffsets, capacity + 1);
+                kinds = Arrays.copyOf(kinds, capacity);
+                names = Arrays.copyOf(names, capacity);
+            }
+            partOffsets[partCount] = pointCount;
+            kinds[partCount] = kind;
+            names[partCount] = name;
+            partCount++;
+            return this;
+        }
+
+        /**
+         * 当前图元追加一个点
+         */
+        public Builder addPoint(double lon, double lat) {
+            if (pointCount * 2 == coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+            }
+            coordinates[pointCount * 2] = lon;
+            coordinates[pointCount * 2 + 1] = lat;
+            pointCount++;
+            return this;
+        }
+
+        public ProcedureGeometry build() {
+            return new ProcedureGeometry(this);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+// model/ProcedureLayer.java
+package ll.luolin.model;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import ll.luolin.model.ASFModel.HoldingDefinition;
+import ll.luolin.model.ASFModel.IlsDefinition;
+import ll.luolin.model.ASFModel.RunwayDefinition;
+import ll.luolin.utils.ProcedureGeometryBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一个机场的跑道和ILS（或一组等待程序）组成的程序图层
+ * 几何按缩放级别对应的圆弧步长生成并缓存，相同步长的缩放级别共用同一份几何。
+ */
+public class ProcedureLayer {
+
+    private final String name;
+    private final List<RunwayDefinition> runways;
+    private final List<IlsDefinition> ilsList;
+    private final List<HoldingDefinition> holdings;
+    private final Map<String, double[]> fixes;
+
+    // 圆弧步长（度） -> 几何
+    private final ConcurrentHashMap<Double, ProcedureGeometry> geometryCache = new ConcurrentHashMap<>();
+
+    // 默认隐藏，由用户按需打开
+    private final BooleanProperty visible = new SimpleBooleanProperty(false);
+
+    /**
+     * @param name     机场代码，等待程序图层为 HOLDING
+     * @param fixes    等待定位点 -> {经度, 纬度}
+     */
+    public ProcedureLayer(String name, List<RunwayDefinition> runways, List<IlsDefinition> ilsList,
+                          List<HoldingDefinition> holdings, Map<String, double[]> fixes) {
+        this.name = name;
+        this.runways = Collections.unmodifiableList(new ArrayList<>(runways));
+        this.ilsList = Collections.unmodifiableList(new ArrayList<>(ilsList));
+        this.holdings = Collections.unmodifiableList(new ArrayList<>(holdings));
+        this.fixes = fixes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<RunwayDefinition> getRunways() {
+        return runways;
+    }
+
+    public List<IlsDefinition> getIlsList() {
+        return ilsList;
+    }
+
+    public List<HoldingDefinition> getHoldings() {
+        return holdings;
+    }
+
+    /**
+     * 等待定位点坐标，未定义返回null
+     */
+    public double[] getFix(String fix) {
+        return fixes.get(fix);
+    }
+
+    /**
+     * 当前缩放级别的几何（缓存）
+     */
+    public ProcedureGeometry getGeometry(int zoomLevel) {
+        double step = ProcedureGeometryBuilder.stepDegrees(zoomLevel);
+        return geometryCache.computeIfAbsent(step, key -> ProcedureGeometryBuilder.build(this, key));
+    }
+
+    public boolean isEmpty() {
+        return runways.isEmpty() && ilsList.isEmpty() && holdings.isEmpty();
+    }
+
+    public BooleanProperty visibleProperty() {
+        return visible;
+    }
+
+    public boolean isVisible() {
+        return visible.get();
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible.set(visible);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%d 条跑道, %d 个ILS, %d 个等待程序)",
+                name, runways.size(), ilsList.size(), holdings.size());
+    }
+}
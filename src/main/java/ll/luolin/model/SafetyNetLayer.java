@@ -0,0 +1,229 @@
+// model/SafetyNetLayer.java
+package ll.luolin.model;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一个安全网区域文件（MSAW_AREAS.ASF、STCA_AREAS.ASF ...）生成的图层
+ * 区域按外包矩形建 STRtree 索引，绘制和点查询只处理相交的区域；
+ * 点查询用的 PreparedGeometry 在第一次查询时生成并缓存。
+ * 构建后几何不可修改，只有可见性可以切换。
+ */
+public class SafetyNetLayer {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    /**
+     * 安全网类型及其适配文件
+     */
+    public enum Kind {
+        MSAW("MSAW_AREAS.ASF", "最低安全高度告警"),
+        STCA("STCA_AREAS.ASF", "短期冲突告警"),
+        MTCD("MTCD_AREAS.ASF", "中期冲突探测"),
+        NTZ("NTZ_AREAS.ASF", "平行进近非侵入区"),
+        DTZ("DTZ_AREAS.ASF", "相关平行进近区"),
+        DAIW("DAIW_AREAS.ASF", "危险区侵入告警");
+
+        private final String fileName;
+        private final String description;
+
+        Kind(String fileName, String description) {
+            this.fileName = fileName;
+            this.description = description;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final Kind kind;
+    private final String path;
+    private final List<Area> areas;
+    private final STRtree index = new STRtree();
+    private final double[] bounds;
+
+    // 默认隐藏，由用户按需打开
+    private final BooleanProperty visible = new SimpleBooleanProperty(false);
+
+    public SafetyNetLayer(Kind kind, String path, List<Area> areas) {
+        this.kind = kind;
+        this.path = path;
+        this.areas = Collections.unmodifiableList(new ArrayList<>(areas));
+
+        Envelope envelope = new Envelope();
+        for (Area area : this.areas) {
+            Envelope areaEnvelope = area.getGeometry().getEnvelopeInternal();
+            index.insert(areaEnvelope, area);
+            envelope.expandToInclude(areaEnvelope);
+        }
+        index.build();
+        this.bounds = envelope.isNull() ? new double[4]
+                : new double[]{envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY()};
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public List<Area> getAreas() {
+        return areas;
+    }
+
+    public int getAreaCount() {
+        return areas.size();
+    }
+
+    /**
+     * {最小经度, 最小纬度, 最大经度, 最大纬度}
+     */
+    public double[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * 外包矩形与范围相交的区域
+     */
+    @SuppressWarnings("unchecked")
+    public List<Area> query(double minLon, double minLat, double maxLon, double maxLat) {
+        if (areas.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return index.query(new Envelope(minLon, maxLon, minLat, maxLat));
+    }
+
+    /**
+     * 包含该点的区域
+     */
+    public List<Area> areasAt(double lon, double lat) {
+        List<Area> result = new ArrayList<>();
+        if (areas.isEmpty()) {
+            return result;
+        }
+        Geometry point = GEOMETRY_FACTORY.createPoint(new Coordinate(lon, lat));
+        for (Object candidate : index.query(new Envelope(lon, lon, lat, lat))) {
+            Area area = (Area) candidate;
+            if (area.getPrepared().contains(point)) {
+                result.add(area);
+            }
+        }
+        return result;
+    }
+
+    public BooleanProperty visibleProperty() {
+        return visible;
+    }
+
+    public boolean isVisible() {
+        return visible.get();
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible.set(visible);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s, %d 个区域)", kind, kind.getDescription(), areas.size());
+    }
+
+    /**
+     * 单个区域：多边形或圆（障碍物）
+     * 绘制用的外环坐标在构建时展开为经纬度交替的数组
+     */
+    public static final class Area {
+        private final String section;
+        private final String name;
+        private final List<String> attributes;
+        private final Geometry geometry;
+        private final double[][] rings;
+        private volatile PreparedGeometry prepared;
+
+        public Area(String section, String name, List<String> attributes, Geometry geometry) {
+            this.section = section;
+            this.name = name;
+            this.attributes = Collections.unmodifiableList(new ArrayList<>(attributes));
+            this.geometry = geometry;
+
+            List<double[]> exteriors = new ArrayList<>(geometry.getNumGeometries());
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                Geometry part = geometry.getGeometryN(i);
+                if (part instanceof Polygon) {
+                    Coordinate[] coordinates = ((Polygon) part).getExteriorRing().getCoordinates();
+                    double[] ring = new double[coordinates.length * 2];
+                    for (int k = 0; k < coordinates.length; k++) {
+                        ring[k * 2] = coordinates[k].x;
+                        ring[k * 2 + 1] = coordinates[k].y;
+                    }
+                    exteriors.add(ring);
+                }
+            }
+            this.rings = exteriors.toArray(new double[0][]);
+        }
+
+        /**
+         * 所在段落名（STCA_AREA、INHIBIT、OBSTACLES ...）
+         */
+        public String getSection() {
+            return section;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<String> getAttributes() {
+            return attributes;
+        }
+
+        public Geometry getGeometry() {
+            return geometry;
+        }
+
+        public int getRingCount() {
+            return rings.length;
+        }
+
+        /**
+         * 外环经纬度（交替存放），不要修改
+         */
+        public double[] getRing(int ring) {
+            return rings[ring];
+        }
+
+        public PreparedGeometry getPrepared() {
+            PreparedGeometry result = prepared;
+            if (result == null) {
+                result = PreparedGeometryFactory.prepare(geometry);
+                prepared = result;
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return section + "/" + name + " " + attributes;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+// model/SystemMapLayer.java
+package ll.luolin.model;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import ll.luolin.utils.StereographicProjection;
+
+import java.util.Arrays;
+
+/**
+ * SYSTEM_MAPS 中的一张系统地图
+ * 几何按图元（折线、多边形、符号、文字）连续存放在基本类型数组中：
+ * coordinates 交替存放经度、纬度，第 i 个图元占用点 [partOffsets[i], partOffsets[i + 1])。
+ * 构建后几何不可修改，只有可见性可以切换。
+ */
+public class SystemMapLayer {
+
+    public static final byte LINE = 0;
+    public static final byte POLYGON = 1;
+    public static final byte SYMBOL = 2;
+    public static final byte TEXT = 3;
+
+    /** 未填充 */
+    public static final short NO_FILL = -1;
+
+    private final String project;
+    private final String mapClass;
+    private final String name;
+    private final int priority;
+
+    private final double[] coordinates;
+    private final int[] partOffsets;
+    private final byte[] kinds;
+    private final short[] colors;
+    private final short[] fillColors;
+    private final byte[] dashes;
+    private final byte[] thicknesses;
+    private final short[] symbolCodes;
+    private final String[] texts;
+    private final double[] bounds;
+
+    // 系统地图数量多，默认隐藏，由用户按需打开
+    private final BooleanProperty visible = new SimpleBooleanProperty(false);
+
+    private SystemMapLayer(Builder builder, double[] coordinates) {
+        int parts = builder.partCount;
+        this.project = builder.project;
+        this.mapClass = builder.mapClass;
+        this.name = builder.name;
+        this.priority = builder.priority;
+        this.coordinates = coordinates;
+        this.partOffsets = Arrays.copyOf(builder.partOffsets, parts + 1);
+        this.partOffsets[parts] = builder.pointCount;
+        this.kinds = Arrays.copyOf(builder.kinds, parts);
+        this.colors = Arrays.copyOf(builder.colors, parts);
+        this.fillColors = Arrays.copyOf(builder.fillColors, parts);
+        this.dashes = Arrays.copyOf(builder.dashes, parts);
+        this.thicknesses = Arrays.copyOf(builder.thicknesses, parts);
+        this.symbolCodes = Arrays.copyOf(builder.symbolCodes, parts);
+        this.texts = Arrays.copyOf(builder.texts, parts);
+
+        double minLon = Double.MAX_VALUE, minLat = Double.MAX_VALUE;
+        double maxLon = -Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        for (int i = 0; i < coordinates.length; i += 2) {
+            minLon = Math.min(minLon, coordinates[i]);
+            maxLon = Math.max(maxLon, coordinates[i]);
+            minLat = Math.min(minLat, coordinates[i + 1]);
+            maxLat = Math.max(maxLat, coordinates[i + 1]);
+        }
+        this.bounds = coordinates.length == 0 ? new double[4] : new double[]{minLon, minLat, maxLon, maxLat};
+    }
+
+    public String getProject() {
+        return project;
+    }
+
+    /**
+     * 地图类（CLASS），同一类的地图通常一起显示
+     */
+    public String getMapClass() {
+        return mapClass;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 显示优先级（PRIORITY），数值大的绘制在上层
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getPartCount() {
+        return kinds.length;
+    }
+
+    public int getPointCount() {
+        return coordinates.length / 2;
+    }
+
+    public byte getKind(int part) {
+        return kinds[part];
+    }
+
+    public int getPartStart(int part) {
+        return partOffsets[part];
+    }
+
+    public int getPartEnd(int part) {
+        return partOffsets[part + 1];
+    }
+
+    public double getLongitude(int point) {
+        return coordinates[point * 2];
+    }
+
+    public double getLatitude(int point) {
+        return coordinates[point * 2 + 1];
+    }
+
+    /**
+     * 颜色索引（0–255）
+     */
+    public int getColor(int part) {
+        return colors[part];
+    }
+
+    /**
+     * 填充颜色索引，未填充为 NO_FILL
+     */
+    public int getFillColor(int part) {
+        return fillColors[part];
+    }
+
+    public int getDash(int part) {
+        return dashes[part];
+    }
+
+    public int getThickness(int part) {
+        return thicknesses[part];
+    }
+
+    public int getSymbolCode(int part) {
+        return symbolCodes[part];
+    }
+
+    /**
+     * 文字图元的内容，其他图元为null
+     */
+    public String getText(int part) {
+        return texts[part];
+    }
+
+    /**
+     * {最小经度, 最小纬度, 最大经度, 最大纬度}
+     */
+    public double[] getBounds() {
+        return bounds.clone();
+    }
+
+    public boolean intersects(double minLon, double minLat, double maxLon, double maxLat) {
+        return getPointCount() > 0 && bounds[0] <= maxLon && bounds[2] >= minLon
+                && bounds[1] <= maxLat && bounds[3] >= minLat;
+    }
+
+    public BooleanProperty visibleProperty() {
+        return visible;
+    }
+
+    public boolean isVisible() {
+        return visible.get();
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible.set(visible);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s (优先级 %d, %d 个图元, %d 个点)",
+                mapClass, name, priority, getPartCount(), getPointCount());
+    }
+
+    /**
+     * 逐个图元追加平面坐标，build 时一次性转换为经纬度
+     */
+    public static class Builder {
+        private final String project;
+        private String mapClass = "";
+        private String name = "";
+        private int priority;
+
+        private double[] plane = new double[256];
+        private int pointCount;
+        private int[] partOffsets = new int[16];
+        private byte[] kinds = new byte[16];
+        private short[] colors = new short[16];
+        private short[] fillColors = new short[16];
+        private byte[] dashes = new byte[16];
+        private byte[] thicknesses = new byte[16];
+        private short[] symbolCodes = new short[16];
+        private String[] texts = new String[16];
+        private int partCount;
+
+        public Builder(String project) {
+            this.project = project;
+        }
+
+        public Builder setMapClass(String mapClass) {
+            this.mapClass = mapClass;
+            return this;
+        }
+
+        public Builder setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder setPriority(int priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 开始新图元，返回图元序号
+         */
+        public int beginPart(byte kind, int color, int fillColor, int dash, int thickness) {
+            if (partCount == kinds.length) {
+                int capacity = partCount * 2;
+                partOffsets = Arrays.copyOf(partOffsets, capacity + 1);
+                kinds = Arrays.copyOf(kinds, capacity);
+                colors = Arrays.copyOf(colors, capacity);
+                fillColors = Arrays.copyOf(fillColors, capacity);
+                dashes = Arrays.copyOf(dashes, capacity);
+                thicknesses = Arrays.copyOf(thicknesses, capacity);
+                symbolCodes = Arrays.copyOf(symbolCodes, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+            }
+            partOffsets[partCount] = pointCount;
+            kinds[partCount] = kind;
+            symbolCodes[partCount] = 0;
+            texts[partCount] = null;
+            setStyle(partCount, color, fillColor, dash, thickness);
+            return partCount++;
+        }
+
+        public void setStyle(int part, int color, int fillColor, int dash, int thickness) {
+            colors[part] = (short) color;
+            fillColors[part] = (short) fillColor;
+            dashes[part] = (byte) dash;
+            thicknesses[part] = (byte) thickness;
+        }
+
+        public void setKind(int part, byte kind) {
+            kinds[part] = kind;
+        }
+
+        public int getColor(int part) {
+            return colors[part];
+        }
+
+        public int getDash(int part) {
+            return dashes[part];
+        }
+
+        public int getThickness(int part) {
+            return thicknesses[part];
+        }
+
+        public void setColor(int part, int color) {
+            colors[part] = (short) color;
+        }
+
+        public void setFillColor(int part, int fillColor) {
+            fillColors[part] = (short) fillColor;
+        }
+
+        public void setDash(int part, int dash) {
+            dashes[part] = (byte) dash;
+        }
+
+        public void setThickness(int part, int thickness) {
+            thicknesses[part] = (byte) thickness;
+        }
+
+        public void setSymbolCode(int part, int code) {
+            symbolCodes[part] = (short) code;
+        }
+
+        public void setText(int part, String text) {
+            texts[part] = text;
+        }
+
+        public String getText(int part) {
+            return texts[part];
+        }
+
+        public int getPartCount() {
+            return partCount;
+        }
+
+        /**
+         * 丢弃最后一个图元及其坐标
+         */
+        public void discardPart() {
+            if (partCount > 0) {
+                partCount--;
+                pointCount = partOffsets[partCount];
+            }
+        }
+
+        /**
+         * 当前（最后一个）图元追加一个平面坐标点
+         */
+        public void addPoint(double x, double y) {
+            if (pointCount * 2 == plane.length) {
+                plane = Arrays.copyOf(plane, plane.length * 2);
+            }
+            plane[pointCount * 2] = x;
+            plane[pointCount * 2 + 1] = y;
+            pointCount++;
+        }
+
+        /**
+         * 当前图元已有的点数
+         */
+        public int getCurrentPartSize() {
+            return partCount == 0 ? 0 : pointCount - partOffsets[partCount - 1];
+        }
+
+        /**
+         * 平面坐标（米）经投影转换为经纬度后生成图层
+         *
+         * @param projection    系统平面投影
+         * @param metresPerUnit 平面坐标单位对应的米数
+         */
+        public SystemMapLayer build(StereographicProjection projection, double metresPerUnit) {
+            double[] geographic = new double[pointCount * 2];
+            double[] out = new double[2];
+            for (int i = 0; i < pointCount * 2; i += 2) {
+                projection.toGeographic(plane[i] * metresPerUnit, plane[i + 1] * metresPerUnit, out);
+                geographic[i] = out[0];
+                geographic[i + 1] = out[1];
+            }
+            return new SystemMapLayer(this, geographic);
+        }
+    }
+}
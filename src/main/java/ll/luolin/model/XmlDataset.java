@@ -0,0 +1,110 @@
+// model/XmlDataset.java
+package ll.luolin.model;
+
+import ll.luolin.utils.IntObjectHashMap;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一个XML适配文件的全部记录，按记录类型分组，并按主键建立索引
+ * 以 Uid 结尾的字段是外键：AirfieldUid 指向 Airfield，RunwayGroupUid 指向 RunwayGroup；
+ * 没有同名类型时依次匹配以其结尾、以其开头的类型（TMAUid -> ManagedTMA）。
+ */
+public class XmlDataset {
+    private static final String FOREIGN_KEY_SUFFIX = "Uid";
+
+    private final File file;
+    private final Map<String, List<XmlRecord>> recordsByType = new LinkedHashMap<>();
+    private final Map<String, IntObjectHashMap<XmlRecord>> uidIndex = new LinkedHashMap<>();
+    // 外键字段名 -> 目标类型（没有目标时为空串）
+    private final Map<String, String> foreignKeyTargets = new ConcurrentHashMap<>();
+    private int recordCount;
+
+    public XmlDataset(File file) {
+        this.file = file;
+    }
+
+    /**
+     * 加入一条记录（只在读取阶段调用）
+     */
+    public void add(XmlRecord record) {
+        recordsByType.computeIfAbsent(record.getName(), key -> new ArrayList<>()).add(record);
+        int uid = record.getUid();
+        if (uid != Integer.MIN_VALUE) {
+            uidIndex.computeIfAbsent(record.getName(), key -> new IntObjectHashMap<>()).put(uid, record);
+        }
+        recordCount++;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * 记录类型，按首次出现的顺序
+     */
+    public List<String> getTypes() {
+        return new ArrayList<>(recordsByType.keySet());
+    }
+
+    public List<XmlRecord> getRecords(String type) {
+        List<XmlRecord> records = recordsByType.get(type);
+        return records == null ? Collections.emptyList() : Collections.unmodifiableList(records);
+    }
+
+    /**
+     * 按类型和主键查找，没有时返回null
+     */
+    public XmlRecord find(String type, int uid) {
+        IntObjectHashMap<XmlRecord> index = uidIndex.get(type);
+        return index == null ? null : index.get(uid);
+    }
+
+    /**
+     * 解析外键字段（如 Runway 的 RunwayGroupUid），字段不存在、为空或目标不存在时返回null
+     */
+    public XmlRecord resolve(XmlRecord record, String foreignKey) {
+        int uid = record.getInt(foreignKey, Integer.MIN_VALUE);
+        if (uid == Integer.MIN_VALUE) {
+            return null;
+        }
+        String target = foreignKeyTargets.computeIfAbsent(foreignKey, this::findTargetType);
+        return target.isEmpty() ? null : find(target, uid);
+    }
+
+    private String findTargetType(String foreignKey) {
+        if (!foreignKey.endsWith(FOREIGN_KEY_SUFFIX) || foreignKey.length() == FOREIGN_KEY_SUFFIX.length()) {
+            return "";
+        }
+        String prefix = foreignKey.substring(0, foreignKey.length() - FOREIGN_KEY_SUFFIX.length());
+        if (uidIndex.containsKey(prefix)) {
+            return prefix;
+        }
+        for (String type : uidIndex.keySet()) {
+            if (type.endsWith(prefix)) {
+                return type;
+            }
+        }
+        for (String type : uidIndex.keySet()) {
+            if (type.startsWith(prefix)) {
+                return type;
+            }
+        }
+        return "";
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%d 种记录, %d 条)", file.getName(), recordsByType.size(), recordCount);
+    }
+}
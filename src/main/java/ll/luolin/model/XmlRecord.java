@@ -0,0 +1,96 @@
+// model/XmlRecord.java
+package ll.luolin.model;
+
+/**
+ * XML适配文件中的一条记录
+ * 属性和只含文本的子元素都展开为字段（键、值交替存放在一个数组中），
+ * 如 &lt;Runway&gt;&lt;Uid&gt;1&lt;/Uid&gt;&lt;Name&gt;01&lt;/Name&gt;&lt;/Runway&gt; 和 &lt;parameter name="x" value="1"/&gt;。
+ */
+public final class XmlRecord {
+    /** 记录的整数主键字段（Dhmi数据集用Uid子元素，其余文件用id属性） */
+    public static final String UID = "Uid";
+    public static final String ID = "id";
+
+    private final String name;
+    private final String parent;
+    private final String[] fields;
+
+    public XmlRecord(String name, String parent, String[] fields) {
+        this.name = name;
+        this.parent = parent;
+        this.fields = fields;
+    }
+
+    /**
+     * 元素名（记录类型）
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 上一级元素名，根元素下的记录为根元素名
+     */
+    public String getParent() {
+        return parent;
+    }
+
+    public int getFieldCount() {
+        return fields.length / 2;
+    }
+
+    public String getKey(int field) {
+        return fields[field * 2];
+    }
+
+    public String getValue(int field) {
+        return fields[field * 2 + 1];
+    }
+
+    /**
+     * 字段值，没有该字段时返回null；同名字段取第一个
+     */
+    public String get(String key) {
+        for (int i = 0; i < fields.length; i += 2) {
+            if (fields[i].equals(key)) {
+                return fields[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 整数字段，没有或不是整数时返回defaultValue
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 主键（Uid，其次id），没有时返回Integer.MIN_VALUE
+     */
+    public int getUid() {
+        int uid = getInt(UID, Integer.MIN_VALUE);
+        return uid != Integer.MIN_VALUE ? uid : getInt(ID, Integer.MIN_VALUE);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(name).append('{');
+        for (int i = 0; i < fields.length; i += 2) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(fields[i]).append('=').append(fields[i + 1]);
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,197 @@
+// service/AdaptationWatcher.java
+package ll.luolin.service;
+
+import ll.luolin.utils.LogUtils;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 监视数据目录（含子目录）的文件变化
+ * datasets/、working/ 的复制流程会在短时间内产生大量事件，
+ * 这里先收集变化的路径，静默 debounceMillis 后一次性回调（在监视线程上调用）。
+ * 事件队列溢出时回调中包含被监视的根目录本身，调用方应重新扫描该目录。
+ */
+public class AdaptationWatcher implements AutoCloseable {
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+    private final List<Path> roots;
+    private final long debounceMillis;
+    private final Consumer<Set<Path>> onChange;
+
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private final Set<Path> pending = new LinkedHashSet<>();
+
+    private WatchService watchService;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> flush;
+    private Thread thread;
+
+    public AdaptationWatcher(List<Path> roots, long debounceMillis, Consumer<Set<Path>> onChange) {
+        this.roots = new ArrayList<>(roots);
+        this.debounceMillis = debounceMillis;
+        this.onChange = onChange;
+    }
+
+    /**
+     * 注册全部目录并启动监视线程
+     */
+    public synchronized void start() throws IOException {
+        LogUtils.info("AdaptationWatcher-start-监视数据目录: " + roots);
+
+        watchService = FileSystems.getDefault().newWatchService();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "adaptation-watcher-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) {
+                registerAll(root);
+            } else {
+                LogUtils.warn("监视目录不存在: " + root);
+            }
+        }
+
+        thread = new Thread(this::run, "adaptation-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path dir;
+                synchronized (this) {
+                    dir = keys.get(key);
+                }
+                if (dir != null) {
+                    handleEvents(dir, key);
+                }
+                if (!key.reset()) {
+                    synchronized (this) {
+                        keys.remove(key);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close() 已调用
+        }
+    }
+
+    private void handleEvents(Path dir, WatchKey key) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // 丢失了事件，让调用方重新扫描整个目录
+                changed(dir);
+                continue;
+            }
+
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                // 新复制进来的目录：注册后把其中已有的文件也算作变化
+                try {
+                    registerAll(path);
+                } catch (IOException e) {
+                    LogUtils.warn("注册监视目录失败: " + path + " - " + e.getMessage());
+                }
+                changed(path);
+                continue;
+            }
+            changed(path);
+        }
+    }
+
+    /**
+     * 记录变化并推迟回调，静默期内的新事件会重新计时
+     */
+    private synchronized void changed(Path path) {
+        pending.add(path);
+        if (flush != null) {
+            flush.cancel(false);
+        }
+        flush = scheduler.schedule(this::flush, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        Set<Path> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashSet<>(pending);
+            pending.clear();
+            flush = null;
+        }
+
+        try {
+            onChange.accept(batch);
+        } catch (RuntimeException e) {
+            LogUtils.error("处理数据目录变化失败", e);
+        }
+    }
+
+    private void registerAll(Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                synchronized (AdaptationWatcher.this) {
+                    keys.put(key, dir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * 停止监视，未回调的变化丢弃
+     */
+    @Override
+    public synchronized void close() {
+        LogUtils.info("AdaptationWatcher-close-停止监视数据目录");
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LogUtils.warn("关闭WatchService失败: " + e.getMessage());
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+        pending.clear();
+    }
+}
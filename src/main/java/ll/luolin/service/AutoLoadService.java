@@ -1,17 +1,34 @@
 // service/AutoLoadService.java
 package ll.luolin.service;
 
+import javafx.application.Platform;
 import ll.luolin.model.NavPointLayerModel;
 import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.service.parserService.ArchiveContent;
 import ll.luolin.service.parserService.CHARACTERISTIC_POINTS_Service;
 import ll.luolin.utils.LogUtils;
+import ll.luolin.utils.ParallelTasks;
+import ll.luolin.utils.PointFileReader;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 /**
  * 自动加载服务（简化版）
- * 只负责读取指定路径下的ASF文件并自动加载
+ * 只负责读取指定路径下的ASF文件并自动加载；
+ * 界面启动时使用异步版本，在后台线程池并行解析，不阻塞JavaFX线程
  */
 public class AutoLoadService {
     private static AutoLoadService instance;
@@ -20,6 +37,9 @@ public class AutoLoadService {
     // 默认ASF文件路径
     private static final String DEFAULT_ASF_PATH = "ASF/OLD-GZTM/GLOBAL";
 
+    // 后台加载的并行度，留一个核心给JavaFX线程
+    private static final int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
     private AutoLoadService() {}
 
     public static synchronized AutoLoadService getInstance() {
@@ -41,81 +61,277 @@ public class AutoLoadService {
     }
 
     /**
-     * 从指定路径加载ASF文件
+     * 从指定路径加载ASF文件（同步，在调用线程上逐个解析）
      */
     public List<NavPointLayerModel> loadAsfFilesFromDirectory(String directoryPath) {
         LogUtils.info("AutoLoadService-loadAsfFilesFromDirectory-从指定路径加载ASF文件");
 
         List<NavPointLayerModel> loadedLayers = new ArrayList<>();
+        for (File file : listAsfFiles(directoryPath)) {
+            try {
+                NavPointLayerModel layer = loadLayer(file);
+                if (layer != null) {
+                    loadedLayers.add(layer);
+                }
+            } catch (Exception e) {
+                LogUtils.error("自动加载文件失败: " + file.getName(), e);
+            }
+        }
+        return loadedLayers;
+    }
+
+    /**
+     * 在后台并行加载默认路径下的ASF文件，图层分批回调到JavaFX线程
+     */
+    public AutoLoadTask loadAllAutoLoadedLayersAsync(AutoLoadTask.Listener listener) {
+        return loadAsfFilesFromDirectoryAsync(DEFAULT_ASF_PATH, listener);
+    }
+
+    /**
+     * 在后台并行加载指定路径下的ASF文件，立即返回可取消的任务
+     */
+    public AutoLoadTask loadAsfFilesFromDirectoryAsync(String directoryPath, AutoLoadTask.Listener listener) {
+        LogUtils.info("AutoLoadService-loadAsfFilesFromDirectoryAsync-后台加载ASF文件");
+
+        return new AutoLoadTask(listAsfFiles(directoryPath), this::loadLayer, DEFAULT_PARALLELISM,
+                Platform::runLater, listener).start();
+    }
 
-        try {
-            File asfDir = new File(directoryPath);
+    /**
+     * 列出目录下的ASF文件，按大小降序排列，让耗时最长的文件最先开始
+     */
+    public List<File> listAsfFiles(String directoryPath) {
+        File asfDir = new File(directoryPath);
+
+        // 检查目录是否存在
+        if (!asfDir.exists() || !asfDir.isDirectory()) {
+            LogUtils.warn("ASF目录不存在或不是目录: " + directoryPath);
+            return new ArrayList<>();
+        }
+
+        // 获取所有ASF文件（GLOBAL下有 SOUND.ASF 等同名目录，需排除）
+        File[] asfFiles = asfDir.listFiles(file -> file.isFile() && isAsfFile(file));
+
+        if (asfFiles == null || asfFiles.length == 0) {
+            LogUtils.info("目录中没有找到ASF文件: " + directoryPath);
+            return new ArrayList<>();
+        }
 
-            // 检查目录是否存在
-            if (!asfDir.exists() || !asfDir.isDirectory()) {
-                LogUtils.warn("ASF目录不存在或不是目录: " + directoryPath);
-                return loadedLayers;
+        LogUtils.info(String.format("找到 %d 个ASF文件", asfFiles.length));
+
+        List<File> files = new ArrayList<>(Arrays.asList(asfFiles));
+        files.sort(Comparator.comparingLong(File::length).reversed());
+        return files;
+    }
+
+    private static boolean isAsfFile(File file) {
+        String name = file.getName().toLowerCase();
+        return name.endsWith(".asf") || name.endsWith(".txt");
+    }
+
+    /**
+     * 监视默认路径，文件变化时只重新解析变化的文件
+     */
+    public AdaptationWatcher watchAutoLoadedLayers(Consumer<Map<File, List<NavPointModel>>> listener) throws IOException {
+        return watchDirectory(DEFAULT_ASF_PATH, listener);
+    }
+
+    /**
+     * 监视指定路径：变化经过防抖后在后台重新解析（只处理目录下直接包含的ASF文件，与加载时一致），
+     * 再把 文件 -> 新的导航点列表 交给JavaFX线程；文件被删除时列表为空
+     */
+    public AdaptationWatcher watchDirectory(String directoryPath, Consumer<Map<File, List<NavPointModel>>> listener)
+            throws IOException {
+        LogUtils.info("AutoLoadService-watchDirectory-监视ASF目录: " + directoryPath);
+
+        Path root = Paths.get(directoryPath).toAbsolutePath().normalize();
+        AdaptationWatcher watcher = new AdaptationWatcher(Collections.singletonList(root),
+                AdaptationWatcher.DEFAULT_DEBOUNCE_MILLIS, changes -> {
+            Map<File, List<NavPointModel>> parsed = new LinkedHashMap<>();
+            for (Path path : changes) {
+                if (path.equals(root)) {
+                    // 事件溢出：重新检查根目录下的全部文件，未变化的直接命中缓存
+                    for (File file : listAsfFiles(directoryPath)) {
+                        parsed.put(file.getAbsoluteFile(), CHARACTERISTICPOINTSService.parserFile(file));
+                    }
+                    continue;
+                }
+                if (!root.equals(path.getParent())) {
+                    // 子目录（如 SOUND.ASF/）中的文件不会被加载
+                    continue;
+                }
+
+                File file = path.toFile();
+                if (!isAsfFile(file)) {
+                    continue;
+                }
+                if (!file.isFile()) {
+                    CHARACTERISTICPOINTSService.clearCache(file.getAbsolutePath());
+                    parsed.put(file, new ArrayList<>());
+                } else {
+                    parsed.put(file, CHARACTERISTICPOINTSService.parserFile(file));
+                }
             }
 
-            // 获取所有ASF文件
-            File[] asfFiles = asfDir.listFiles((dir, name) ->
-                    name.toLowerCase().endsWith(".asf") ||
-                            name.toLowerCase().endsWith(".txt")
-            );
+            if (!parsed.isEmpty()) {
+                LogUtils.info("ASF目录变化，重新解析 " + parsed.size() + " 个文件");
+                Platform.runLater(() -> listener.accept(parsed));
+            }
+        });
+        watcher.start();
+        return watcher;
+    }
 
-            if (asfFiles == null || asfFiles.length == 0) {
-                LogUtils.info("目录中没有找到ASF文件: " + directoryPath);
-                return loadedLayers;
+    /**
+     * 解析单个文件并生成图层，没有导航点时返回null（可在任意线程调用）
+     */
+    public NavPointLayerModel loadLayer(File file) {
+        List<NavPointModel> points = CHARACTERISTICPOINTSService.parserFile(file);
+        if (points.isEmpty()) {
+            return null;
+        }
+
+        NavPointLayerModel layer = new NavPointLayerModel(getLayerName(file), file);
+        layer.addNavPoints(points);
+
+        LogUtils.info(String.format("自动加载文件: %s (%d 个点)", file.getName(), points.size()));
+        return layer;
+    }
+
+    /**
+     * 列出系统地图目录下各项目的 .pte 外部点文件，按大小降序排列
+     */
+    public List<File> listPointFiles(File directory) {
+        List<File> files = new ArrayList<>();
+        File[] projects = directory.listFiles(File::isDirectory);
+        if (projects == null) {
+            LogUtils.warn("系统地图目录不存在或不是目录: " + directory.getPath());
+            return files;
+        }
+        for (File project : projects) {
+            File[] pointFiles = project.listFiles(file -> file.isFile()
+                    && file.getName().toLowerCase().endsWith(PointFileReader.EXTERNAL_POINTS_SUFFIX));
+            if (pointFiles != null) {
+                files.addAll(Arrays.asList(pointFiles));
             }
+        }
+        files.sort(Comparator.comparingLong(File::length).reversed());
+        return files;
+    }
 
-            LogUtils.info(String.format("找到 %d 个ASF文件", asfFiles.length));
+    /**
+     * 并行解析全部 .pte 文件，每个文件一个图层；同名点只保留在第一个（最大的）文件中，
+     * 各项目重复引用的点不会重复显示。没有点的图层不返回（可在任意线程调用）
+     */
+    public List<NavPointLayerModel> loadPointFileLayers(File directory) {
+        LogUtils.info("AutoLoadService-loadPointFileLayers-加载外部点文件");
 
-            for (File file : asfFiles) {
-                try {
-                    // 解析文件
-                    List<NavPointModel> points = CHARACTERISTIC_POINTS_Service.getInstance().parserFile(file);
+        long start = System.nanoTime();
+        List<File> files = listPointFiles(directory);
+        if (files.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<List<NavPointModel>> parsed = parseInParallel(files);
+        List<String> names = new ArrayList<>(files.size());
+        for (File file : files) {
+            names.add(getLayerName(file));
+        }
+        return toUniqueLayers(names, files, parsed, start);
+    }
 
-                    if (!points.isEmpty()) {
-                        // 创建图层
-                        NavPointLayerModel layer = new NavPointLayerModel(
-                                getLayerName(file),
-                                file
-                        );
-                        layer.addNavPoints(points);
+    /**
+     * 与 loadPointFileLayers 相同，点来自已解析的归档（.tgz）；按点数降序代替文件大小排序，图层文件为归档本身
+     */
+    public List<NavPointLayerModel> loadPointFileLayers(ArchiveContent content) {
+        LogUtils.info("AutoLoadService-loadPointFileLayers-加载归档中的外部点文件");
 
-                        loadedLayers.add(layer);
+        long start = System.nanoTime();
+        List<Map.Entry<String, List<NavPointModel>>> entries = new ArrayList<>(content.getPointFiles().entrySet());
+        entries.sort(Comparator.comparingInt((Map.Entry<String, List<NavPointModel>> e) -> e.getValue().size())
+                .reversed());
 
-                        LogUtils.info(String.format("自动加载文件: %s (%d 个点)",
-                                file.getName(), points.size()));
-                    }
+        List<String> names = new ArrayList<>(entries.size());
+        List<File> files = new ArrayList<>(entries.size());
+        List<List<NavPointModel>> parsed = new ArrayList<>(entries.size());
+        for (Map.Entry<String, List<NavPointModel>> entry : entries) {
+            String name = entry.getKey().substring(entry.getKey().lastIndexOf('/') + 1);
+            names.add(getLayerName(new File(name)));
+            files.add(content.getArchive());
+            parsed.add(entry.getValue());
+        }
+        return toUniqueLayers(names, files, parsed, start);
+    }
 
-                } catch (Exception e) {
-                    LogUtils.error("自动加载文件失败: " + file.getName(), e);
+    /**
+     * 每个文件一个图层，同名点只保留在第一个文件中，没有点的图层不返回
+     */
+    private List<NavPointLayerModel> toUniqueLayers(List<String> names, List<File> files,
+                                                    List<List<NavPointModel>> parsed, long start) {
+        List<NavPointLayerModel> layers = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int duplicates = 0;
+        for (int i = 0; i < files.size(); i++) {
+            List<NavPointModel> unique = new ArrayList<>(parsed.get(i).size());
+            for (NavPointModel point : parsed.get(i)) {
+                if (seen.add(point.getName())) {
+                    unique.add(point);
+                } else {
+                    duplicates++;
                 }
             }
+            if (unique.isEmpty()) {
+                continue;
+            }
+            NavPointLayerModel layer = new NavPointLayerModel(names.get(i), files.get(i));
+            layer.addNavPoints(unique);
+            layers.add(layer);
+        }
 
-        } catch (Exception e) {
-            LogUtils.error("加载目录文件失败", e);
+        LogUtils.info(String.format("外部点文件: %d 个文件, %d 个点, 去除重复 %d 个, 耗时 %d ms",
+                files.size(), seen.size(), duplicates, (System.nanoTime() - start) / 1_000_000));
+        return layers;
+    }
+
+    private List<List<NavPointModel>> parseInParallel(List<File> files) {
+        List<Callable<List<NavPointModel>>> tasks = new ArrayList<>(files.size());
+        for (File file : files) {
+            tasks.add(() -> CHARACTERISTICPOINTSService.parserFile(file));
         }
+        List<List<NavPointModel>> results = ParallelTasks.invokeAll("point-file-parser", DEFAULT_PARALLELISM,
+                tasks, "解析点文件失败");
 
-        return loadedLayers;
+        // 中断时剩余文件按空处理
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, new ArrayList<>());
+            }
+        }
+        return results;
     }
 
     /**
      * 获取图层名称（去掉文件扩展名）
      */
     private String getLayerName(File file) {
-        LogUtils.info("AutoLoadService-getLayerName-获取图层名称（去掉文件扩展名）");
-
         String name = file.getName();
         if (name.toLowerCase().endsWith(".asf")) {
             return name.substring(0, name.length() - 4);
         } else if (name.toLowerCase().endsWith(".txt")) {
             return name.substring(0, name.length() - 4);
+        } else if (name.toLowerCase().endsWith(PointFileReader.EXTERNAL_POINTS_SUFFIX)) {
+            return name.substring(0, name.length() - PointFileReader.EXTERNAL_POINTS_SUFFIX.length());
         }
         return name;
     }
 
+    /**
+     * 默认ASF文件路径
+     */
+    public String getAsfDirectory() {
+        return DEFAULT_ASF_PATH;
+    }
+
     /**
      * 设置ASF文件路径
      */
@@ -138,4 +354,14 @@ public class AutoLoadService {
         // 重新加载
         return getAllAutoLoadedLayers();
     }
+
+    /**
+     * 清除缓存后在后台重新加载所有ASF文件
+     */
+    public AutoLoadTask reloadAllLayersAsync(AutoLoadTask.Listener listener) {
+        LogUtils.info("AutoLoadService-reloadAllLayersAsync-后台重新加载所有ASF文件");
+
+        CHARACTERISTICPOINTSService.clearCache();
+        return loadAllAutoLoadedLayersAsync(listener);
+    }
 }
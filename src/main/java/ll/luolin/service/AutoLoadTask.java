@@ -0,0 +1,288 @@
+// service/AutoLoadTask.java
+package ll.luolin.service;
+
+import ll.luolin.model.NavPointLayerModel;
+import ll.luolin.utils.LogUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 后台并行加载一个目录下的ASF文件
+ * 文件分发到有界的ForkJoinPool中解析，完成的图层先进入队列，
+ * 再合并成批次交给界面线程执行器（默认Platform.runLater），
+ * 连续完成的多个文件只触发一次界面回调；可随时取消。
+ */
+public class AutoLoadTask {
+
+    /**
+     * 加载监听器，所有回调都在界面线程执行器上调用
+     */
+    public interface Listener {
+        /** 一批新完成的图层 */
+        void onLayers(List<NavPointLayerModel> layers);
+
+        /** 进度：已完成文件数 / 总文件数 */
+        default void onProgress(int completed, int total) {
+        }
+
+        /** 全部完成或已取消 */
+        default void onFinished(Summary summary) {
+        }
+    }
+
+    private final List<File> files;
+    private final Function<File, NavPointLayerModel> loader;
+    private final Executor uiExecutor;
+    private final Listener listener;
+    private final ForkJoinPool pool;
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final Queue<NavPointLayerModel> pendingLayers = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final List<FileTiming> timings = Collections.synchronizedList(new ArrayList<>());
+    private final CompletableFuture<Summary> done = new CompletableFuture<>();
+
+    private long startNanos;
+
+    /**
+     * @param files       待加载的文件
+     * @param loader      解析单个文件，没有内容时返回null（在工作线程调用）
+     * @param parallelism 最大并行解析数
+     * @param uiExecutor  界面线程执行器
+     * @param listener    回调
+     */
+    public AutoLoadTask(List<File> files, Function<File, NavPointLayerModel> loader, int parallelism,
+                        Executor uiExecutor, Listener listener) {
+        this.files = new ArrayList<>(files);
+        this.loader = loader;
+        this.uiExecutor = uiExecutor;
+        this.listener = listener;
+        this.pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, Math.max(1, this.files.size()))));
+    }
+
+    /**
+     * 开始加载，立即返回
+     */
+    public AutoLoadTask start() {
+        LogUtils.info("AutoLoadTask-start-后台加载 " + files.size() + " 个ASF文件");
+
+        startNanos = System.nanoTime();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            File file = files.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> loadFile(file), pool);
+        }
+
+        CompletableFuture.allOf(futures).whenComplete((ignored, error) -> finish());
+        return this;
+    }
+
+    private void loadFile(File file) {
+        if (cancelled.get()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        NavPointLayerModel layer = null;
+        String error = null;
+        try {
+            layer = loader.apply(file);
+        } catch (RuntimeException e) {
+            LogUtils.error("自动加载文件失败: " + file.getName(), e);
+            error = e.getMessage();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        int points = layer != null ? layer.getNavPoints().size() : 0;
+        timings.add(new FileTiming(file, points, millis, error));
+        completed.incrementAndGet();
+
+        if (layer != null && !cancelled.get()) {
+            pendingLayers.add(layer);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * 已有批次在排队时不再提交，界面线程一次取走队列中的全部图层
+     */
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            uiExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        if (cancelled.get()) {
+            pendingLayers.clear();
+            return;
+        }
+
+        List<NavPointLayerModel> batch = new ArrayList<>();
+        NavPointLayerModel layer;
+        while ((layer = pendingLayers.poll()) != null) {
+            batch.add(layer);
+        }
+        if (!batch.isEmpty()) {
+            listener.onLayers(batch);
+        }
+        listener.onProgress(completed.get(), files.size());
+    }
+
+    private void finish() {
+        pool.shutdown();
+        Summary summary = new Summary(files.size(), new ArrayList<>(timings),
+                (System.nanoTime() - startNanos) / 1_000_000, cancelled.get());
+        LogUtils.info("AutoLoadTask-finish-" + summary);
+
+        // 排在最后一个批次之后，保证onFinished时所有图层都已发布
+        uiExecutor.execute(() -> {
+            drain();
+            listener.onFinished(summary);
+            done.complete(summary);
+        });
+    }
+
+    /**
+     * 取消加载：未开始的文件不再解析，尚未发布的图层丢弃
+     */
+    public void cancel() {
+        if (cancelled.compareAndSet(false, true)) {
+            LogUtils.info("AutoLoadTask-cancel-取消后台加载");
+            pendingLayers.clear();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    public boolean isDone() {
+        return done.isDone();
+    }
+
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    public int getTotal() {
+        return files.size();
+    }
+
+    /**
+     * 完成（含取消）时得到汇总结果
+     */
+    public CompletableFuture<Summary> getCompletion() {
+        return done;
+    }
+
+    /**
+     * 单个文件的加载耗时
+     */
+    public static class FileTiming {
+        private final File file;
+        private final int points;
+        private final long millis;
+        private final String error;
+
+        public FileTiming(File file, int points, long millis, String error) {
+            this.file = file;
+            this.points = points;
+            this.millis = millis;
+            this.error = error;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public int getPoints() {
+            return points;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d 个点, %dms%s", file.getName(), points, millis,
+                    error != null ? ", 失败: " + error : "");
+        }
+    }
+
+    /**
+     * 加载汇总
+     */
+    public static class Summary {
+        private final int total;
+        private final List<FileTiming> timings;
+        private final long elapsedMillis;
+        private final boolean cancelled;
+
+        public Summary(int total, List<FileTiming> timings, long elapsedMillis, boolean cancelled) {
+            this.total = total;
+            this.timings = timings;
+            this.elapsedMillis = elapsedMillis;
+            this.cancelled = cancelled;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<FileTiming> getTimings() {
+            return timings;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public int getFailures() {
+            int failures = 0;
+            for (FileTiming timing : timings) {
+                if (timing.getError() != null) {
+                    failures++;
+                }
+            }
+            return failures;
+        }
+
+        /**
+         * 耗时最长的若干个文件
+         */
+        public List<FileTiming> getSlowest(int count) {
+            List<FileTiming> sorted = new ArrayList<>(timings);
+            sorted.sort((a, b) -> Long.compare(b.getMillis(), a.getMillis()));
+            return sorted.subList(0, Math.min(count, sorted.size()));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d 个文件, 耗时 %dms, 失败 %d%s", timings.size(), total,
+                    elapsedMillis, getFailures(), cancelled ? "（已取消）" : "");
+        }
+    }
+}
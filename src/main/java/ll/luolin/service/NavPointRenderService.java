@@ -2,10 +2,22 @@
 package ll.luolin.service;
 
 import javafx.scene.canvas.GraphicsContext;
+import ll.luolin.model.AirwayGraph;
+import ll.luolin.model.DatasetDiff;
+import ll.luolin.model.DiffOverlay;
 import ll.luolin.model.MapModel;
 import ll.luolin.model.NavPointLayerModel;
+import ll.luolin.model.PreferentialRoute;
+import ll.luolin.model.ProcedureGeometry;
+import ll.luolin.model.ProcedureLayer;
+import ll.luolin.model.SafetyNetLayer;
+import ll.luolin.model.SystemMapLayer;
 import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.model.ASFModel.NavPointStore;
+import ll.luolin.model.ASFModel.PointCategory;
 import ll.luolin.utils.LogUtils;
+import ll.luolin.utils.PointStyles;
+
 import java.util.List;
 
 /**
@@ -17,15 +29,50 @@ public class NavPointRenderService {
     // 图标大小
     private static final int ICON_SIZE = 16;
 
-    // 颜色定义
-    private static final javafx.scene.paint.Color AIRPORT_COLOR = javafx.scene.paint.Color.RED;
-    private static final javafx.scene.paint.Color VOR_COLOR = javafx.scene.paint.Color.BLUE;
-    private static final javafx.scene.paint.Color NDB_COLOR = javafx.scene.paint.Color.GREEN;
-    private static final javafx.scene.paint.Color REPORT_COLOR = javafx.scene.paint.Color.ORANGE;
-    private static final javafx.scene.paint.Color DEFAULT_COLOR = javafx.scene.paint.Color.PURPLE;
+    // 颜色定义（各分类的颜色见 PointStyles）
     private static final javafx.scene.paint.Color LABEL_COLOR = javafx.scene.paint.Color.BLACK;
     private static final javafx.scene.paint.Color BORDER_COLOR = javafx.scene.paint.Color.BLACK;
 
+    // 航路颜色
+    private static final javafx.scene.paint.Color AIRWAY_COLOR = javafx.scene.paint.Color.rgb(70, 110, 160);
+    private static final javafx.scene.paint.Color SID_COLOR = javafx.scene.paint.Color.rgb(40, 150, 70);
+    private static final javafx.scene.paint.Color STAR_COLOR = javafx.scene.paint.Color.rgb(200, 110, 30);
+    private static final javafx.scene.paint.Color PREFERENTIAL_ROUTE_COLOR = javafx.scene.paint.Color.rgb(230, 0, 160);
+
+    // 数据集差异颜色：新增、删除、修改
+    private static final javafx.scene.paint.Color DIFF_ADDED_COLOR = javafx.scene.paint.Color.rgb(20, 170, 60);
+    private static final javafx.scene.paint.Color DIFF_REMOVED_COLOR = javafx.scene.paint.Color.rgb(220, 30, 30);
+    private static final javafx.scene.paint.Color DIFF_MODIFIED_COLOR = javafx.scene.paint.Color.rgb(240, 150, 0);
+
+    // 安全网区域颜色，按 SafetyNetLayer.Kind 顺序：MSAW、STCA、MTCD、NTZ、DTZ、DAIW
+    private static final javafx.scene.paint.Color[] SAFETY_NET_COLORS = {
+            javafx.scene.paint.Color.rgb(150, 90, 30),
+            javafx.scene.paint.Color.rgb(200, 40, 120),
+            javafx.scene.paint.Color.rgb(90, 60, 180),
+            javafx.scene.paint.Color.rgb(210, 60, 30),
+            javafx.scene.paint.Color.rgb(0, 140, 160),
+            javafx.scene.paint.Color.rgb(180, 20, 20)
+    };
+
+    // 程序几何颜色：跑道、进近锥、等待航线
+    private static final javafx.scene.paint.Color RUNWAY_COLOR = javafx.scene.paint.Color.rgb(50, 50, 50);
+    private static final javafx.scene.paint.Color APPROACH_COLOR = javafx.scene.paint.Color.rgb(30, 120, 200);
+    private static final javafx.scene.paint.Color HOLDING_COLOR = javafx.scene.paint.Color.rgb(130, 60, 160);
+
+    // 系统地图调色板（索引 0–9）
+    private static final javafx.scene.paint.Color[] MAP_PALETTE = {
+            javafx.scene.paint.Color.rgb(60, 60, 60),
+            javafx.scene.paint.Color.rgb(30, 60, 150),
+            javafx.scene.paint.Color.rgb(40, 130, 60),
+            javafx.scene.paint.Color.rgb(110, 40, 150),
+            javafx.scene.paint.Color.rgb(190, 40, 40),
+            javafx.scene.paint.Color.rgb(230, 110, 0),
+            javafx.scene.paint.Color.rgb(0, 130, 140),
+            javafx.scene.paint.Color.rgb(120, 85, 70),
+            javafx.scene.paint.Color.rgb(55, 70, 80),
+            javafx.scene.paint.Color.rgb(150, 150, 150)
+    };
+
     private NavPointRenderService() {}
 
     public static synchronized NavPointRenderService getInstance() {
@@ -59,17 +106,48 @@ public class NavPointRenderService {
         LogUtils.info("NavPointRenderService-renderNavPointLayer-渲染单个导航点图层");
 
         try {
-            List<NavPointModel> visiblePoints = layer.getVisibleNavPoints();
-            if (visiblePoints.isEmpty()) {
+            NavPointStore store = layer.getStore();
+            if (store.nextVisible(0) < 0) {
                 return;
             }
 
-            // 按类型分组渲染
-            renderPointsByType(gc, visiblePoints, mapModel, "AIRPORT");
-            renderPointsByType(gc, visiblePoints, mapModel, "VOR");
-            renderPointsByType(gc, visiblePoints, mapModel, "NDB");
-            renderPointsByType(gc, visiblePoints, mapModel, "REPORT");
-            renderOtherPoints(gc, visiblePoints, mapModel);
+            // 直接顺序读取列式数组，换算参数每层只算一次
+            double[] lons = store.longitudeArray();
+            double[] lats = store.latitudeArray();
+            byte[] categories = store.categoryArray();
+            PointCategory[] allCategories = PointCategory.values();
+            PointStyles.Style[] styles = new PointStyles.Style[allCategories.length];
+            int[] groupOf = new int[allCategories.length];
+            for (PointCategory category : allCategories) {
+                styles[category.ordinal()] = PointStyles.of(category);
+                groupOf[category.ordinal()] = category.getGroup().ordinal();
+            }
+            double lonPerPixel = 360.0 / (Math.pow(2, mapModel.getZoomLevel()) * 256);
+            double latPerPixel = 180.0 / (Math.pow(2, mapModel.getZoomLevel()) * 256);
+            double originX = 1200 / 2.0 - mapModel.getCenterX() / lonPerPixel;
+            double originY = 800 / 2.0 + mapModel.getCenterY() / latPerPixel;
+            double width = gc.getCanvas().getWidth();
+            double height = gc.getCanvas().getHeight();
+            boolean drawLabels = mapModel.getZoomLevel() > 7;
+
+            // 按分组依次渲染：机场、VOR、NDB、报告点、其他，后画的点在上层
+            int groupCount = PointCategory.Group.values().length;
+            for (int group = 0; group < groupCount; group++) {
+                for (int i = store.nextVisible(0); i >= 0; i = store.nextVisible(i + 1)) {
+                    if (groupOf[categories[i]] != group) {
+                        continue;
+                    }
+                    double pixelX = originX + lons[i] / lonPerPixel;
+                    double pixelY = originY - lats[i] / latPerPixel;
+                    if (!isPointVisible(pixelX, pixelY, width, height)) {
+                        continue;
+                    }
+                    drawPoint(gc, styles[categories[i]], pixelX, pixelY);
+                    if (drawLabels) {
+                        drawPointLabel(gc, store.getName(i), pixelX, pixelY);
+                    }
+                }
+            }
 
         } catch (Exception e) {
             LogUtils.error("渲染导航点图层失败: " + layer.getName(), e);
@@ -77,85 +155,396 @@ public class NavPointRenderService {
     }
 
     /**
-     * 按类型渲染点
+     * 渲染航路网络（画在导航点下面）
+     * 每帧先把网络中的点各投影一次，再按线段数组连线
      */
-    private void renderPointsByType(GraphicsContext gc, List<NavPointModel> points,
-                                    MapModel mapModel, String typeFilter) {
-        LogUtils.info("NavPointRenderService-renderPointsByType-按类型渲染点");
+    public void renderAirways(GraphicsContext gc, AirwayGraph graph, MapModel mapModel) {
+        if (graph == null || graph.getSegmentCount() == 0) {
+            return;
+        }
 
-        for (NavPointModel point : points) {
-            if (!point.isVisible()) continue;
+        int pointCount = graph.getPointCount();
+        double[] xs = new double[pointCount];
+        double[] ys = new double[pointCount];
+        for (int p = 0; p < pointCount; p++) {
+            xs[p] = lonToPixelX(graph.getLongitude(p), mapModel);
+            ys[p] = latToPixelY(graph.getLatitude(p), mapModel);
+        }
 
-            String pointType = point.getType().toUpperCase();
-            if (pointType.contains(typeFilter)) {
-                renderSinglePoint(gc, point, mapModel);
+        double width = gc.getCanvas().getWidth();
+        double height = gc.getCanvas().getHeight();
+        gc.setLineWidth(1);
+        byte currentKind = -1;
+        for (int i = 0; i < graph.getSegmentCount(); i++) {
+            int from = graph.getSegmentFrom(i);
+            int to = graph.getSegmentTo(i);
+            // 两端都在画布同一侧之外的线段不画
+            if ((xs[from] < 0 && xs[to] < 0) || (xs[from] > width && xs[to] > width)
+                    || (ys[from] < 0 && ys[to] < 0) || (ys[from] > height && ys[to] > height)) {
+                continue;
             }
+            byte kind = graph.getSegmentKind(i);
+            if (kind != currentKind) {
+                gc.setStroke(getColorForAirwayKind(kind));
+                currentKind = kind;
+            }
+            gc.strokeLine(xs[from], ys[from], xs[to], ys[to]);
         }
     }
 
     /**
-     * 渲染其他类型的点
+     * 渲染打开的优选航路：加粗连线，起点标注 "边界点 -> 目的机场"，途经点标注名称
      */
-    private void renderOtherPoints(GraphicsContext gc, List<NavPointModel> points, MapModel mapModel) {
-        LogUtils.info("NavPointRenderService-renderOtherPoints-渲染其他类型的点");
+    public void renderPreferentialRoutes(GraphicsContext gc, List<PreferentialRoute> routes, MapModel mapModel) {
+        if (routes == null || routes.isEmpty()) {
+            return;
+        }
 
-        for (NavPointModel point : points) {
-            if (!point.isVisible()) continue;
+        gc.setLineDashes((double[]) null);
+        gc.setLineWidth(3);
+        gc.setFont(javafx.scene.text.Font.font("Arial", 10));
+        for (PreferentialRoute route : routes) {
+            if (!route.isVisible()) {
+                continue;
+            }
+            int count = route.getPointCount();
+            double[] xs = new double[count];
+            double[] ys = new double[count];
+            for (int i = 0; i < count; i++) {
+                xs[i] = lonToPixelX(route.getLongitude(i), mapModel);
+                ys[i] = latToPixelY(route.getLatitude(i), mapModel);
+            }
+            gc.setStroke(PREFERENTIAL_ROUTE_COLOR);
+            gc.strokePolyline(xs, ys, count);
 
-            String pointType = point.getType().toUpperCase();
-            if (!pointType.contains("AIRPORT") &&
-                    !pointType.contains("VOR") &&
-                    !pointType.contains("NDB") &&
-                    !pointType.contains("REPORT")) {
-                renderSinglePoint(gc, point, mapModel);
+            gc.setFill(PREFERENTIAL_ROUTE_COLOR);
+            gc.fillText(route.getBoundaryPoint() + " -> " + route.getDestination(), xs[0] + 6, ys[0] - 6);
+            for (int i = 1; i < count; i++) {
+                gc.fillText(route.getPointNames().get(i), xs[i] + 6, ys[i] - 6);
             }
         }
+        gc.setLineWidth(1);
     }
 
     /**
-     * 渲染单个导航点
+     * 渲染可见的系统地图（画在航路下面），列表按优先级从低到高排列，后画的在上层
+     * 不在画布范围内的地图按包围盒整体跳过
      */
-    private void renderSinglePoint(GraphicsContext gc, NavPointModel point, MapModel mapModel) {
-        LogUtils.info("NavPointRenderService-renderSinglePoint-渲染单个导航点");
+    public void renderSystemMaps(GraphicsContext gc, List<SystemMapLayer> layers, MapModel mapModel) {
+        if (layers == null || layers.isEmpty()) {
+            return;
+        }
 
-        try {
-            // 将经纬度转换为像素坐标
-            double pixelX = lonToPixelX(point.getLongitude(), mapModel);
-            double pixelY = latToPixelY(point.getLatitude(), mapModel);
+        double width = gc.getCanvas().getWidth();
+        double height = gc.getCanvas().getHeight();
+        boolean labels = mapModel.getZoomLevel() > 7;
+        double[] xs = new double[256];
+        double[] ys = new double[256];
 
-            // 检查点是否在可见范围内
-            if (!isPointVisible(pixelX, pixelY, gc.getCanvas().getWidth(), gc.getCanvas().getHeight())) {
-                return;
+        for (SystemMapLayer layer : layers) {
+            if (!layer.isVisible()) {
+                continue;
+            }
+            double[] bounds = layer.getBounds();
+            double left = lonToPixelX(bounds[0], mapModel);
+            double right = lonToPixelX(bounds[2], mapModel);
+            double top = latToPixelY(bounds[3], mapModel);
+            double bottom = latToPixelY(bounds[1], mapModel);
+            if (right < 0 || left > width || bottom < 0 || top > height) {
+                continue;
             }
 
-            // 获取点的颜色
-            javafx.scene.paint.Color pointColor = getColorForType(point.getType());
+            for (int part = 0; part < layer.getPartCount(); part++) {
+                int start = layer.getPartStart(part);
+                int count = layer.getPartEnd(part) - start;
+                if (count > xs.length) {
+                    xs = new double[count * 2];
+                    ys = new double[count * 2];
+                }
+                for (int k = 0; k < count; k++) {
+                    xs[k] = lonToPixelX(layer.getLongitude(start + k), mapModel);
+                    ys[k] = latToPixelY(layer.getLatitude(start + k), mapModel);
+                }
+                drawMapPart(gc, layer, part, xs, ys, count, labels);
+            }
+        }
+        gc.setLineDashes((double[]) null);
+        gc.setGlobalAlpha(1.0);
+    }
+
+    private void drawMapPart(GraphicsContext gc, SystemMapLayer layer, int part, double[] xs, double[] ys,
+                             int count, boolean labels) {
+        javafx.scene.paint.Color color = getColorForMapIndex(layer.getColor(part));
+        switch (layer.getKind(part)) {
+            case SystemMapLayer.SYMBOL:
+                gc.setStroke(color);
+                gc.setLineWidth(1);
+                gc.setLineDashes((double[]) null);
+                gc.strokeOval(xs[0] - 2, ys[0] - 2, 4, 4);
+                break;
+            case SystemMapLayer.TEXT:
+                if (labels) {
+                    gc.setFill(color);
+                    gc.fillText(layer.getText(part), xs[0], ys[0]);
+                }
+                break;
+            default:
+                gc.setStroke(color);
+                gc.setLineWidth(1 + layer.getThickness(part));
+                gc.setLineDashes(layer.getDash(part) == 0 ? null : new double[]{4.0 * layer.getDash(part), 4});
+                if (layer.getKind(part) == SystemMapLayer.POLYGON) {
+                    if (layer.getFillColor(part) != SystemMapLayer.NO_FILL) {
+                        gc.setGlobalAlpha(0.25);
+                        gc.setFill(getColorForMapIndex(layer.getFillColor(part)));
+                        gc.fillPolygon(xs, ys, count);
+                        gc.setGlobalAlpha(1.0);
+                    }
+                    gc.strokePolygon(xs, ys, count);
+                } else {
+                    gc.strokePolyline(xs, ys, count);
+                }
+                break;
+        }
+    }
 
-            // 绘制点
-            drawPoint(gc, point, pixelX, pixelY, pointColor);
+    /**
+     * 渲染可见的安全网区域（画在系统地图之上、航路之下）：半透明填充加边框
+     * 只绘制索引中与画布范围相交的区域
+     */
+    public void renderSafetyNetAreas(GraphicsContext gc, List<SafetyNetLayer> layers, MapModel mapModel) {
+        if (layers == null || layers.isEmpty()) {
+            return;
+        }
 
-            // 绘制标签（如果缩放级别足够大）
-            if (mapModel.getZoomLevel() > 7) {
-                drawPointLabel(gc, point, pixelX, pixelY);
+        double width = gc.getCanvas().getWidth();
+        double height = gc.getCanvas().getHeight();
+        double minLon = pixelXToLon(0, mapModel);
+        double maxLon = pixelXToLon(width, mapModel);
+        double minLat = pixelYToLat(height, mapModel);
+        double maxLat = pixelYToLat(0, mapModel);
+        boolean labels = mapModel.getZoomLevel() > 7;
+        double[] xs = new double[256];
+        double[] ys = new double[256];
+
+        gc.setLineWidth(1.5);
+        gc.setLineDashes((double[]) null);
+        for (SafetyNetLayer layer : layers) {
+            if (!layer.isVisible()) {
+                continue;
             }
+            javafx.scene.paint.Color color = getColorForSafetyNet(layer.getKind());
+            for (SafetyNetLayer.Area area : layer.query(minLon, minLat, maxLon, maxLat)) {
+                for (int ring = 0; ring < area.getRingCount(); ring++) {
+                    double[] coordinates = area.getRing(ring);
+                    int count = coordinates.length / 2;
+                    if (count > xs.length) {
+                        xs = new double[count * 2];
+                        ys = new double[count * 2];
+                    }
+                    for (int k = 0; k < count; k++) {
+                        xs[k] = lonToPixelX(coordinates[k * 2], mapModel);
+                        ys[k] = latToPixelY(coordinates[k * 2 + 1], mapModel);
+                    }
+                    gc.setGlobalAlpha(0.12);
+                    gc.setFill(color);
+                    gc.fillPolygon(xs, ys, count);
+                    gc.setGlobalAlpha(1.0);
+                    gc.setStroke(color);
+                    gc.strokePolygon(xs, ys, count);
+                    if (labels && ring == 0) {
+                        gc.setFill(color);
+                        gc.fillText(area.getName(), xs[0] + 4, ys[0] - 4);
+                    }
+                }
+            }
+        }
+    }
 
-        } catch (Exception e) {
-            LogUtils.error("渲染导航点失败: " + point.getName(), e);
+    public static javafx.scene.paint.Color getColorForSafetyNet(SafetyNetLayer.Kind kind) {
+        return SAFETY_NET_COLORS[kind.ordinal() % SAFETY_NET_COLORS.length];
+    }
+
+    /**
+     * 渲染可见的程序图层（跑道、进近锥、等待航线），几何取自图层按缩放级别缓存的结果
+     * 整个图层不在画布范围内时按包围盒跳过
+     */
+    public void renderProcedures(GraphicsContext gc, List<ProcedureLayer> layers, MapModel mapModel) {
+        if (layers == null || layers.isEmpty()) {
+            return;
+        }
+
+        double width = gc.getCanvas().getWidth();
+        double height = gc.getCanvas().getHeight();
+        double minLon = pixelXToLon(0, mapModel);
+        double maxLon = pixelXToLon(width, mapModel);
+        double minLat = pixelYToLat(height, mapModel);
+        double maxLat = pixelYToLat(0, mapModel);
+        boolean labels = mapModel.getZoomLevel() > 9;
+        double[] xs = new double[256];
+        double[] ys = new double[256];
+
+        gc.setLineDashes((double[]) null);
+        for (ProcedureLayer layer : layers) {
+            if (!layer.isVisible()) {
+                continue;
+            }
+            ProcedureGeometry geometry = layer.getGeometry(mapModel.getZoomLevel());
+            if (!geometry.intersects(minLon, minLat, maxLon, maxLat)) {
+                continue;
+            }
+
+            for (int part = 0; part < geometry.getPartCount(); part++) {
+                int start = geometry.getPartStart(part);
+                int count = geometry.getPartEnd(part) - start;
+                if (count > xs.length) {
+                    xs = new double[count * 2];
+                    ys = new double[count * 2];
+                }
+                for (int k = 0; k < count; k++) {
+                    xs[k] = lonToPixelX(geometry.getLongitude(start + k), mapModel);
+                    ys[k] = latToPixelY(geometry.getLatitude(start + k), mapModel);
+                }
+                drawProcedurePart(gc, geometry, part, xs, ys, count, labels);
+            }
+        }
+        gc.setLineDashes((double[]) null);
+        gc.setGlobalAlpha(1.0);
+    }
+
+    private void drawProcedurePart(GraphicsContext gc, ProcedureGeometry geometry, int part, double[] xs,
+                                   double[] ys, int count, boolean labels) {
+        switch (geometry.getKind(part)) {
+            case ProcedureGeometry.RUNWAY:
+                gc.setFill(RUNWAY_COLOR);
+                gc.fillPolygon(xs, ys, count);
+                gc.setStroke(RUNWAY_COLOR);
+                gc.setLineWidth(1);
+                gc.strokePolygon(xs, ys, count);
+                break;
+            case ProcedureGeometry.APPROACH_CONE:
+                gc.setGlobalAlpha(0.15);
+                gc.setFill(APPROACH_COLOR);
+                gc.fillPolygon(xs, ys, count);
+                gc.setGlobalAlpha(1.0);
+                gc.setStroke(APPROACH_COLOR);
+                gc.setLineWidth(1);
+                gc.strokePolygon(xs, ys, count);
+                break;
+            case ProcedureGeometry.CENTRELINE:
+                gc.setStroke(APPROACH_COLOR);
+                gc.setLineWidth(1);
+                gc.setLineDashes(6, 4);
+                gc.strokePolyline(xs, ys, count);
+                gc.setLineDashes((double[]) null);
+                break;
+            default:
+                gc.setStroke(HOLDING_COLOR);
+                gc.setLineWidth(1.5);
+                gc.strokePolygon(xs, ys, count);
+                if (labels) {
+                    gc.setFill(HOLDING_COLOR);
+                    gc.fillText(geometry.getName(part), xs[0] + 6, ys[0] - 6);
+                }
+                break;
         }
     }
 
     /**
-     * 绘制点
+     * 渲染数据集差异叠加层（画在最上层）：变化的空域描粗边并半透明填充，变化的点画方框
+     */
+    public void renderDiffOverlay(GraphicsContext gc, DiffOverlay overlay, MapModel mapModel) {
+        if (overlay == null || overlay.isEmpty()) {
+            return;
+        }
+
+        double width = gc.getCanvas().getWidth();
+        double height = gc.getCanvas().getHeight();
+        boolean labels = mapModel.getZoomLevel() > 7;
+        double[] xs = new double[256];
+        double[] ys = new double[256];
+
+        gc.setLineWidth(2);
+        for (int ring = 0; ring < overlay.getRingCount(); ring++) {
+            double[] coordinates = overlay.getRing(ring);
+            int count = coordinates.length / 2;
+            if (count > xs.length) {
+                xs = new double[count * 2];
+                ys = new double[count * 2];
+            }
+            for (int k = 0; k < count; k++) {
+                xs[k] = lonToPixelX(coordinates[k * 2], mapModel);
+                ys[k] = latToPixelY(coordinates[k * 2 + 1], mapModel);
+            }
+            javafx.scene.paint.Color color = getColorForDiffKind(overlay.getRingKind(ring));
+            gc.setGlobalAlpha(0.2);
+            gc.setFill(color);
+            gc.fillPolygon(xs, ys, count);
+            gc.setGlobalAlpha(1.0);
+            gc.setStroke(color);
+            gc.strokePolygon(xs, ys, count);
+        }
+
+        for (int point = 0; point < overlay.getPointCount(); point++) {
+            double x = lonToPixelX(overlay.getLongitude(point), mapModel);
+            double y = latToPixelY(overlay.getLatitude(point), mapModel);
+            if (!isPointVisible(x, y, width, height)) {
+                continue;
+            }
+            javafx.scene.paint.Color color = getColorForDiffKind(overlay.getPointKind(point));
+            gc.setStroke(color);
+            gc.strokeRect(x - 6, y - 6, 12, 12);
+            if (labels) {
+                gc.setFill(color);
+                gc.fillText(overlay.getPointName(point), x + 8, y - 8);
+            }
+        }
+    }
+
+    public static javafx.scene.paint.Color getColorForDiffKind(byte kind) {
+        switch (kind) {
+            case DatasetDiff.ADDED:
+                return DIFF_ADDED_COLOR;
+            case DatasetDiff.REMOVED:
+                return DIFF_REMOVED_COLOR;
+            default:
+                return DIFF_MODIFIED_COLOR;
+        }
+    }
+
+    /**
+     * 系统地图颜色索引 -> 颜色
+     * 调色板由显示终端定义，这里只为常用的低位索引取近似色，其余按索引散列
+     */
+    public static javafx.scene.paint.Color getColorForMapIndex(int index) {
+        if (index >= 0 && index < MAP_PALETTE.length) {
+            return MAP_PALETTE[index];
+        }
+        return javafx.scene.paint.Color.hsb((index * 47) % 360, 0.6, 0.7);
+    }
+
+    /**
+     * 航路线段颜色
      */
-    private void drawPoint(GraphicsContext gc, NavPointModel point, double x, double y,
-                           javafx.scene.paint.Color color) {
-        LogUtils.info("NavPointRenderService-drawPoint-绘制点");
+    public static javafx.scene.paint.Color getColorForAirwayKind(byte kind) {
+        switch (kind) {
+            case AirwayGraph.SID:
+                return SID_COLOR;
+            case AirwayGraph.STAR:
+                return STAR_COLOR;
+            default:
+                return AIRWAY_COLOR;
+        }
+    }
 
+    /**
+     * 绘制点
+     */
+    private void drawPoint(GraphicsContext gc, PointStyles.Style style, double x, double y) {
         // 绘制圆形点
         double radius = 4;
 
         // 填充
-        gc.setFill(color);
+        gc.setFill(style.getColor());
         gc.fillOval(x - radius, y - radius, radius * 2, radius * 2);
 
         // 边框
@@ -164,10 +553,9 @@ public class NavPointRenderService {
         gc.strokeOval(x - radius, y - radius, radius * 2, radius * 2);
 
         // 如果是重要点（如机场），绘制更大的标记
-        String type = point.getType().toUpperCase();
-        if (type.contains("AIRPORT")) {
+        if (style.getMarker() == PointStyles.Marker.AIRPORT) {
             drawAirportMarker(gc, x, y);
-        } else if (type.contains("VOR")) {
+        } else if (style.getMarker() == PointStyles.Marker.VOR) {
             drawVorMarker(gc, x, y);
         }
     }
@@ -176,8 +564,6 @@ public class NavPointRenderService {
      * 绘制机场标记
      */
     private void drawAirportMarker(GraphicsContext gc, double x, double y) {
-        LogUtils.info("NavPointRenderService-drawAirportMarker-绘制机场标记");
-
         // 绘制飞机形状的简化标记
         double size = 8;
 
@@ -198,8 +584,6 @@ public class NavPointRenderService {
      * 绘制VOR标记
      */
     private void drawVorMarker(GraphicsContext gc, double x, double y) {
-        LogUtils.info("NavPointRenderService-drawVorMarker-绘制VOR标记");
-
         // 绘制VOR的简化标记（带方向的圆圈）
         double radius = 6;
 
@@ -218,14 +602,11 @@ public class NavPointRenderService {
     /**
      * 绘制点标签
      */
-    private void drawPointLabel(GraphicsContext gc, NavPointModel point, double x, double y) {
-        LogUtils.info("NavPointRenderService-drawPointLabel-绘制点标签");
-
+    private void drawPointLabel(GraphicsContext gc, String label, double x, double y) {
         gc.setFill(LABEL_COLOR);
         gc.setFont(javafx.scene.text.Font.font("Arial", 10));
 
         // 绘制名称
-        String label = point.getName();
         gc.fillText(label, x + 8, y - 4);
 
         // 如果缩放级别更大，绘制类型
@@ -234,36 +615,10 @@ public class NavPointRenderService {
         // }
     }
 
-    /**
-     * 根据类型获取颜色
-     */
-    private javafx.scene.paint.Color getColorForType(String type) {
-        LogUtils.info("NavPointRenderService-getColorForType-根据类型获取颜色");
-
-        if (type == null) {
-            return DEFAULT_COLOR;
-        }
-
-        String upperType = type.toUpperCase();
-        if (upperType.contains("AIRPORT")) {
-            return AIRPORT_COLOR;
-        } else if (upperType.contains("VOR")) {
-            return VOR_COLOR;
-        } else if (upperType.contains("NDB")) {
-            return NDB_COLOR;
-        } else if (upperType.contains("REPORT")) {
-            return REPORT_COLOR;
-        } else {
-            return DEFAULT_COLOR;
-        }
-    }
-
     /**
      * 经度转像素X坐标
      */
     private double lonToPixelX(double lon, MapModel mapModel) {
-        LogUtils.info("NavPointRenderService-lonToPixelX-经度转像素X坐标");
-
         double canvasWidth = 1200; // 默认画布宽度
         double mapWidth = Math.pow(2, mapModel.getZoomLevel()) * 256;
         double lonPerPixel = 360.0 / mapWidth;
@@ -274,20 +629,34 @@ public class NavPointRenderService {
      * 纬度转像素Y坐标
      */
     private double latToPixelY(double lat, MapModel mapModel) {
-        LogUtils.info("NavPointRenderService-latToPixelY-纬度转像素Y坐标");
-
         double canvasHeight = 800; // 默认画布高度
         double mapHeight = Math.pow(2, mapModel.getZoomLevel()) * 256;
         double latPerPixel = 180.0 / mapHeight;
         return (mapModel.getCenterY() - lat) / latPerPixel + canvasHeight / 2;
     }
 
+    /**
+     * 像素X坐标转经度（lonToPixelX 的逆运算）
+     */
+    private double pixelXToLon(double x, MapModel mapModel) {
+        double canvasWidth = 1200; // 默认画布宽度
+        double lonPerPixel = 360.0 / (Math.pow(2, mapModel.getZoomLevel()) * 256);
+        return mapModel.getCenterX() + (x - canvasWidth / 2) * lonPerPixel;
+    }
+
+    /**
+     * 像素Y坐标转纬度（latToPixelY 的逆运算）
+     */
+    private double pixelYToLat(double y, MapModel mapModel) {
+        double canvasHeight = 800; // 默认画布高度
+        double latPerPixel = 180.0 / (Math.pow(2, mapModel.getZoomLevel()) * 256);
+        return mapModel.getCenterY() - (y - canvasHeight / 2) * latPerPixel;
+    }
+
     /**
      * 检查点是否在可见范围内
      */
     private boolean isPointVisible(double x, double y, double width, double height) {
-        LogUtils.info("NavPointRenderService-isPointVisible-检查点是否在可见范围内");
-
         // 扩大可见范围，允许点稍微超出画布
         double margin = 50;
         return x >= -margin && x <= width + margin &&
@@ -326,12 +695,11 @@ public class NavPointRenderService {
                         pixelY >= -50 && pixelY <= canvasHeight + 50) {
 
                     // 绘制点
-                    javafx.scene.paint.Color color = getColorForType(point.getType());
-                    drawPoint(gc, point, pixelX, pixelY, color);
+                    drawPoint(gc, PointStyles.of(point.getCategory()), pixelX, pixelY);
 
                     // 绘制标签
                     if (mapModel.getZoomLevel() > 7) {
-                        drawPointLabel(gc, point, pixelX, pixelY);
+                        drawPointLabel(gc, point.getName(), pixelX, pixelY);
                     }
                 }
 
@@ -0,0 +1,77 @@
+// service/TileImagePool.java
+package ll.luolin.service;
+
+import javafx.scene.image.WritableImage;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 瓦片图像池
+ * 复用解码用的像素缓冲区和显示用的WritableImage，避免每张瓦片都重新分配
+ */
+public class TileImagePool {
+
+    private final int tileSize;
+    private final int maxPooled;
+
+    // 像素缓冲区在工作线程上借出/归还
+    private final ConcurrentLinkedQueue<int[]> pixelBuffers = new ConcurrentLinkedQueue<>();
+
+    // WritableImage只在JavaFX线程上借出/归还
+    private final ArrayDeque<WritableImage> images = new ArrayDeque<>();
+
+    public TileImagePool(int tileSize, int maxPooled) {
+        this.tileSize = tileSize;
+        this.maxPooled = maxPooled;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * 借出像素缓冲区（ARGB，tileSize * tileSize）
+     */
+    public int[] acquirePixels() {
+        int[] buffer = pixelBuffers.poll();
+        return buffer != null ? buffer : new int[tileSize * tileSize];
+    }
+
+    /**
+     * 归还像素缓冲区
+     */
+    public void releasePixels(int[] buffer) {
+        if (buffer != null && buffer.length == tileSize * tileSize && pixelBuffers.size() < maxPooled) {
+            pixelBuffers.offer(buffer);
+        }
+    }
+
+    /**
+     * 借出瓦片图像（仅限JavaFX线程）
+     */
+    public WritableImage acquireImage() {
+        WritableImage image = images.pollFirst();
+        return image != null ? image : new WritableImage(tileSize, tileSize);
+    }
+
+    /**
+     * 归还瓦片图像（仅限JavaFX线程）
+     */
+    public void releaseImage(WritableImage image) {
+        if (image != null
+                && (int) image.getWidth() == tileSize
+                && (int) image.getHeight() == tileSize
+                && images.size() < maxPooled) {
+            images.offerFirst(image);
+        }
+    }
+
+    /**
+     * 清空池
+     */
+    public void clear() {
+        pixelBuffers.clear();
+        images.clear();
+    }
+}
@@ -0,0 +1,163 @@
+// service/TileMetrics.java
+package ll.luolin.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 瓦片加载指标
+ * 统计内存/磁盘缓存命中、下载字节数、解码耗时、发布数量和失败次数
+ */
+public class TileMetrics {
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder loadsSubmitted = new LongAdder();
+    private final LongAdder tilesFetched = new LongAdder();
+    private final LongAdder bytesFetched = new LongAdder();
+    private final LongAdder tilesDecoded = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAdder tilesPublished = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder redraws = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+
+    public void recordMemoryHit() {
+        memoryHits.increment();
+    }
+
+    public void recordLoadSubmitted() {
+        loadsSubmitted.increment();
+    }
+
+    public void recordFetch(long bytes) {
+        tilesFetched.increment();
+        bytesFetched.add(bytes);
+    }
+
+    public void recordDecode(long nanos) {
+        tilesDecoded.increment();
+        decodeNanos.add(nanos);
+    }
+
+    public void recordPublished(int count) {
+        tilesPublished.add(count);
+    }
+
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    public void recordRedraw() {
+        redraws.increment();
+    }
+
+    public void recordDiskHit() {
+        diskHits.increment();
+    }
+
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    public void recordNegativeHit() {
+        negativeHits.increment();
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.sum();
+    }
+
+    public long getLoadsSubmitted() {
+        return loadsSubmitted.sum();
+    }
+
+    public long getTilesFetched() {
+        return tilesFetched.sum();
+    }
+
+    public long getBytesFetched() {
+        return bytesFetched.sum();
+    }
+
+    public long getTilesDecoded() {
+        return tilesDecoded.sum();
+    }
+
+    public long getDecodeNanos() {
+        return decodeNanos.sum();
+    }
+
+    public long getTilesPublished() {
+        return tilesPublished.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getRedraws() {
+        return redraws.sum();
+    }
+
+    public long getDiskHits() {
+        return diskHits.sum();
+    }
+
+    public long getNotModified() {
+        return notModified.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getNegativeHits() {
+        return negativeHits.sum();
+    }
+
+    /**
+     * 内存缓存命中率（命中 / (命中 + 提交加载)）
+     */
+    public double getMemoryHitRatio() {
+        long hits = memoryHits.sum();
+        long total = hits + loadsSubmitted.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * 平均解码耗时（毫秒）
+     */
+    public double getAverageDecodeMillis() {
+        long count = tilesDecoded.sum();
+        return count == 0 ? 0.0 : decodeNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public void reset() {
+        memoryHits.reset();
+        loadsSubmitted.reset();
+        tilesFetched.reset();
+        bytesFetched.reset();
+        tilesDecoded.reset();
+        decodeNanos.reset();
+        tilesPublished.reset();
+        failures.reset();
+        redraws.reset();
+        diskHits.reset();
+        notModified.reset();
+        retries.reset();
+        negativeHits.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("解码: %d (%.2fms) | 下载: %dKB | 磁盘: %d | 304: %d | 重试: %d | 失败: %d | 重绘: %d",
+                getTilesDecoded(), getAverageDecodeMillis(), getBytesFetched() / 1024,
+                getDiskHits(), getNotModified(), getRetries(), getFailures(), getRedraws());
+    }
+}
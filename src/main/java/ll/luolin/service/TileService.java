@@ -1,36 +1,113 @@
 // service/TileService.java
 package ll.luolin.service;
 
+import javafx.application.Platform;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import ll.luolin.config.AppConstants;
 import ll.luolin.model.MapModel;
+import ll.luolin.service.tileService.HttpTileFetcher;
+import ll.luolin.service.tileService.TileDiskCache;
+import ll.luolin.service.tileService.TileSourceRegistry;
 import ll.luolin.utils.LogUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 瓦片服务
  * 负责瓦片的加载、缓存和渲染
+ *
+ * 加载流程：工作线程经HttpTileFetcher（磁盘缓存 + 条件请求）获取字节并解码到池化的像素缓冲区，
+ * 再由JavaFX线程批量拷贝到池化的WritableImage并发布到缓存，
+ * 每批发布只触发一次瓦片图层重绘。
+ *
+ * 发布线程默认是JavaFX线程（Platform.runLater），基准测试等无界面场景可通过构造参数替换。
+ *
+ * 地图比例按 256 像素瓦片定义（zoom 级时地图宽 256 * 2^zoom 像素）。瓦片源的 tileSize 为 256 的 2^k 倍时
+ * 请求 zoom-k 级的瓦片，每张瓦片在屏幕上占 tileSize 像素，与导航点等叠加图层的比例一致；
+ * 图像池按当前瓦片源的尺寸创建，切换到尺寸不同的瓦片源时重建。
  */
 public class TileService {
     private static TileService instance;
-    
-    // 瓦片缓存
-    private final ConcurrentHashMap<String, Image> tileCache = new ConcurrentHashMap<>();
-    private final ExecutorService tileLoader = Executors.newFixedThreadPool(4);
-    
+
+    private static final int BASE_TILE_SIZE = 256;
+    private static final int POOL_SIZE = AppConstants.TILE_CACHE_SIZE / 2;
+
+    // 瓦片缓存（LRU，仅在JavaFX线程访问）
+    private final Map<String, Image> tileCache = new LinkedHashMap<String, Image>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            if (size() > AppConstants.TILE_CACHE_SIZE) {
+                recycle(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+    // 线程数随瓦片源的并发上限调整
+    private final ThreadPoolExecutor tileLoader = new ThreadPoolExecutor(
+            4, 4, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+        Thread thread = new Thread(r, "tile-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 正在加载的瓦片，避免每帧重复提交
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    // 已解码、等待发布到缓存的瓦片
+    private final ConcurrentLinkedQueue<DecodedTile> decodedTiles = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean publishScheduled = new AtomicBoolean(false);
+
+    // 按当前瓦片源的尺寸创建，工作线程上也会读取
+    private volatile TileImagePool imagePool;
+    private final TileMetrics metrics = new TileMetrics();
+    private final HttpTileFetcher fetcher;
+
+    // 发布线程，tileCache只在该线程上访问
+    private final Executor publishExecutor;
+
+    // 瓦片到达后的重绘回调
+    private volatile Runnable tileLoadedListener;
+
     // 瓦片源配置
-    private TileSource currentSource = TileSource.OPENSTREETMAP;
-    private static final int TILE_SIZE = 256;
-    
-    private TileService() {}
-    
+    private TileSource currentSource = TileSourceRegistry.getInstance().getDefault();
+
+    // 切换瓦片源时递增，丢弃旧源的迟到结果
+    private volatile int generation;
+
+    private TileService() {
+        this(new TileDiskCache(TileDiskCache.defaultRoot()), Platform::runLater);
+    }
+
+    /**
+     * 独立实例（不经过getInstance），用于基准测试等场景
+     *
+     * @param diskCache       磁盘缓存目录
+     * @param publishExecutor 发布线程，替代JavaFX线程；缓存相关方法都必须在该线程上调用
+     */
+    public TileService(TileDiskCache diskCache, Executor publishExecutor) {
+        this.fetcher = new HttpTileFetcher(diskCache, metrics);
+        this.publishExecutor = publishExecutor;
+        this.imagePool = new TileImagePool(tileSizeOf(currentSource), POOL_SIZE);
+        applyConcurrency(currentSource);
+    }
+
     public static synchronized TileService getInstance() {
         if (instance == null) {
             instance = new TileService();
         }
         return instance;
     }
-    
+
     /**
      * 渲染瓦片
      */
@@ -41,22 +118,73 @@ public class TileService {
         int zoom = mapModel.getZoomLevel();
         double centerX = mapModel.getCenterX();
         double centerY = mapModel.getCenterY();
-        
+
+        // 瓦片源的级别和瓦片在屏幕上的尺寸
+        int tileZoom = tileZoom(currentSource, zoom);
+        double displaySize = displaySize(zoom, tileZoom);
+
         // 计算可见的瓦片范围
-        int[] tileRange = calculateTileRange(centerX, centerY, zoom, canvasWidth, canvasHeight);
+        int[] tileRange = calculateTileRange(centerX, centerY, tileZoom, displaySize, canvasWidth, canvasHeight);
         
         // 绘制瓦片
         for (int x = tileRange[0]; x <= tileRange[2]; x++) {
             for (int y = tileRange[1]; y <= tileRange[3]; y++) {
-                drawTile(gc, x, y, zoom, canvasWidth, canvasHeight);
+                drawTile(gc, x, y, tileZoom, displaySize, canvasWidth, canvasHeight);
             }
         }
     }
     
+    /**
+     * 请求视口内的瓦片但不绘制（预取、基准测试），返回尚未就绪的瓦片数
+     */
+    public int requestViewport(int zoom, double centerLon, double centerLat,
+                               double canvasWidth, double canvasHeight) {
+        int tileZoom = tileZoom(currentSource, zoom);
+        int[] tileRange = calculateTileRange(centerLon, centerLat, tileZoom, displaySize(zoom, tileZoom),
+                canvasWidth, canvasHeight);
+
+        int pending = 0;
+        for (int x = tileRange[0]; x <= tileRange[2]; x++) {
+            for (int y = tileRange[1]; y <= tileRange[3]; y++) {
+                if (getTile(x, y, tileZoom) == null) {
+                    pending++;
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * 瓦片源尺寸，未配置时为256
+     */
+    private static int tileSizeOf(TileSource source) {
+        int size = source != null ? source.getTileSize() : BASE_TILE_SIZE;
+        return size > 0 ? size : BASE_TILE_SIZE;
+    }
+
+    /**
+     * 地图级别对应的瓦片源级别：tileSize 为 256 的 2^k 倍时为 zoom-k（不小于0）
+     */
+    private static int tileZoom(TileSource source, int zoom) {
+        int tileSize = tileSizeOf(source);
+        int offset = 0;
+        while ((BASE_TILE_SIZE << (offset + 1)) <= tileSize) {
+            offset++;
+        }
+        return Math.max(0, zoom - offset);
+    }
+
+    /**
+     * tileZoom 级的瓦片在 zoom 级地图上的屏幕尺寸
+     */
+    private static double displaySize(int zoom, int tileZoom) {
+        return BASE_TILE_SIZE * Math.pow(2, zoom - tileZoom);
+    }
+
     /**
      * 计算可见瓦片范围
      */
-    private int[] calculateTileRange(double centerLon, double centerLat, int zoom,
+    private int[] calculateTileRange(double centerLon, double centerLat, int zoom, double displaySize,
                                     double canvasWidth, double canvasHeight) {
         LogUtils.info("TileService-calculateTileRange-计算可见瓦片范围  ");
 
@@ -65,8 +193,8 @@ public class TileService {
         int centerTileY = latToTileY(centerLat, zoom);
         
         // 计算画布能显示的瓦片数量
-        int tilesX = (int) Math.ceil(canvasWidth / TILE_SIZE) + 2;
-        int tilesY = (int) Math.ceil(canvasHeight / TILE_SIZE) + 2;
+        int tilesX = (int) Math.ceil(canvasWidth / displaySize) + 2;
+        int tilesY = (int) Math.ceil(canvasHeight / displaySize) + 2;
         
         int minX = centerTileX - tilesX / 2;
         int maxX = centerTileX + tilesX / 2;
@@ -86,10 +214,8 @@ public class TileService {
     /**
      * 绘制单个瓦片
      */
-    private void drawTile(GraphicsContext gc, int x, int y, int zoom,
+    private void drawTile(GraphicsContext gc, int x, int y, int zoom, double displaySize,
                          double canvasWidth, double canvasHeight) {
-        LogUtils.info("TileService-drawTile-绘制单个瓦片  ");
-
         try {
             // 获取瓦片图像
             Image tile = getTile(x, y, zoom);
@@ -98,11 +224,11 @@ public class TileService {
             }
             
             // 计算瓦片在画布上的位置
-            double tileX = calculateTileScreenX(x, zoom, canvasWidth);
-            double tileY = calculateTileScreenY(y, zoom, canvasHeight);
+            double tileX = calculateTileScreenX(x, zoom, displaySize, canvasWidth);
+            double tileY = calculateTileScreenY(y, zoom, displaySize, canvasHeight);
             
             // 绘制瓦片
-            gc.drawImage(tile, tileX, tileY, TILE_SIZE, TILE_SIZE);
+            gc.drawImage(tile, tileX, tileY, displaySize, displaySize);
             
         } catch (Exception e) {
             LogUtils.error("绘制瓦片失败", e);
@@ -113,53 +239,158 @@ public class TileService {
      * 获取瓦片（带缓存）
      */
     private Image getTile(int x, int y, int zoom) {
-        LogUtils.info("TileService-getTile-获取瓦片（带缓存）");
+        if (currentSource == null || zoom > currentSource.getMaxZoom()) {
+            return null;
+        }
+
+        String cacheKey = zoom + "_" + x + "_" + y;
 
-        String cacheKey = String.format("%d_%d_%d", zoom, x, y);
-        
         // 检查缓存
         Image cached = tileCache.get(cacheKey);
         if (cached != null) {
+            metrics.recordMemoryHit();
             return cached;
         }
-        
-        // 异步加载瓦片
-        loadTileAsync(x, y, zoom, cacheKey);
-        
+
+        // 异步加载瓦片（同一瓦片只提交一次）
+        if (inFlight.add(cacheKey)) {
+            metrics.recordLoadSubmitted();
+            loadTileAsync(x, y, zoom, cacheKey);
+        }
+
         // 返回占位符或null
         return createPlaceholderTile();
     }
-    
+
     /**
-     * 异步加载瓦片
+     * 异步加载瓦片：下载 -> 工作线程解码 -> 入队等待发布
      */
     private void loadTileAsync(int x, int y, int zoom, String cacheKey) {
-        LogUtils.info("TileService-loadTileAsync-异步加载瓦片");
+        TileSource source = currentSource;
+        int requestGeneration = generation;
+
+        try {
+            tileLoader.submit(() -> {
+                try {
+                    String url = source.getTileUrl(x, y, zoom);
+                    if (url == null || url.isEmpty()) {
+                        // 无底图：保留在inFlight中，切换瓦片源前不再重复提交
+                        return;
+                    }
+
+                    byte[] bytes = fetcher.fetch(source, url, x, y, zoom);
 
-        tileLoader.submit(() -> {
-            try {
-                String url = currentSource.getTileUrl(x, y, zoom);
-                if (url == null || url.isEmpty()) {
-                    return;
+                    DecodedTile decoded = decode(cacheKey, bytes, requestGeneration);
+                    if (decoded == null) {
+                        inFlight.remove(cacheKey);
+                        metrics.recordFailure();
+                        return;
+                    }
+
+                    decodedTiles.offer(decoded);
+                    schedulePublish();
+
+                } catch (InterruptedException e) {
+                    inFlight.remove(cacheKey);
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    inFlight.remove(cacheKey);
+                    metrics.recordFailure();
+                    LogUtils.debug("加载瓦片失败: " + cacheKey + " - " + e.getMessage());
                 }
-                
-                Image tile = new Image(url, true); // 后台加载
-                tileCache.put(cacheKey, tile);
-                
-                LogUtils.debug("加载瓦片: " + cacheKey);
-                
-            } catch (Exception e) {
-                LogUtils.error("加载瓦片失败: " + cacheKey, e);
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(cacheKey);
+        }
+    }
+
+    /**
+     * 在工作线程上同步解码，并拷贝到池化的像素缓冲区
+     */
+    private DecodedTile decode(String cacheKey, byte[] bytes, int requestGeneration) {
+        long start = System.nanoTime();
+
+        Image image = new Image(new ByteArrayInputStream(bytes));
+        if (image.isError() || image.getPixelReader() == null) {
+            return null;
+        }
+
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        PixelReader reader = image.getPixelReader();
+
+        TileImagePool pool = imagePool;
+        int[] pixels = width == pool.getTileSize() && height == pool.getTileSize()
+                ? pool.acquirePixels()
+                : new int[width * height];
+        reader.getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+
+        metrics.recordDecode(System.nanoTime() - start);
+        return new DecodedTile(cacheKey, width, height, pixels, requestGeneration);
+    }
+
+    /**
+     * 合并发布：同一时刻最多只有一个发布任务排队
+     */
+    private void schedulePublish() {
+        if (publishScheduled.compareAndSet(false, true)) {
+            publishExecutor.execute(this::publishDecodedTiles);
+        }
+    }
+
+    /**
+     * 在JavaFX线程上把已解码瓦片写入图像并发布到缓存，然后请求一次重绘
+     */
+    private void publishDecodedTiles() {
+        publishScheduled.set(false);
+
+        int published = 0;
+        int discarded = 0;
+        TileImagePool pool = imagePool;
+        DecodedTile decoded;
+        while ((decoded = decodedTiles.poll()) != null) {
+            inFlight.remove(decoded.cacheKey);
+            if (decoded.generation != generation) {
+                // 旧瓦片源的结果，丢弃后需要重绘以便新源重新请求
+                pool.releasePixels(decoded.pixels);
+                discarded++;
+                continue;
+            }
+
+            WritableImage image = decoded.width == pool.getTileSize() && decoded.height == pool.getTileSize()
+                    ? pool.acquireImage()
+                    : new WritableImage(decoded.width, decoded.height);
+            image.getPixelWriter().setPixels(0, 0, decoded.width, decoded.height,
+                    PixelFormat.getIntArgbInstance(), decoded.pixels, 0, decoded.width);
+            pool.releasePixels(decoded.pixels);
+
+            recycle(tileCache.put(decoded.cacheKey, image));
+            published++;
+        }
+
+        if (published > 0 || discarded > 0) {
+            metrics.recordPublished(published);
+            metrics.recordRedraw();
+            Runnable listener = tileLoadedListener;
+            if (listener != null) {
+                listener.run();
             }
-        });
+        }
     }
-    
+
+    /**
+     * 被淘汰的瓦片图像归还到池中
+     */
+    private void recycle(Image image) {
+        if (image instanceof WritableImage) {
+            imagePool.releaseImage((WritableImage) image);
+        }
+    }
+
     /**
      * 创建占位符瓦片
      */
     private Image createPlaceholderTile() {
-        LogUtils.info("TileService-createPlaceholderTile-创建占位符瓦片");
-
         // 创建一个简单的占位符
         // 实际实现中可以创建一个带有网格的占位符图像
         return null;
@@ -168,14 +399,12 @@ public class TileService {
     /**
      * 计算瓦片在屏幕上的X坐标
      */
-    private double calculateTileScreenX(int tileX, int zoom, double canvasWidth) {
-        LogUtils.info("TileService-calculateTileScreenX-计算瓦片在屏幕上的X坐标");
-
+    private double calculateTileScreenX(int tileX, int zoom, double displaySize, double canvasWidth) {
         // 计算地图总宽度（像素）
-        double mapWidth = Math.pow(2, zoom) * TILE_SIZE;
+        double mapWidth = Math.pow(2, zoom) * displaySize;
         
         // 计算瓦片相对于地图中心的偏移
-        double tileCenterX = (tileX + 0.5) * TILE_SIZE;
+        double tileCenterX = (tileX + 0.5) * displaySize;
         double mapCenterX = mapWidth / 2;
         
         // 转换为屏幕坐标
@@ -185,11 +414,9 @@ public class TileService {
     /**
      * 计算瓦片在屏幕上的Y坐标
      */
-    private double calculateTileScreenY(int tileY, int zoom, double canvasHeight) {
-        LogUtils.info("TileService-calculateTileScreenY-计算瓦片在屏幕上的Y坐标");
-
-        double mapHeight = Math.pow(2, zoom) * TILE_SIZE;
-        double tileCenterY = (tileY + 0.5) * TILE_SIZE;
+    private double calculateTileScreenY(int tileY, int zoom, double displaySize, double canvasHeight) {
+        double mapHeight = Math.pow(2, zoom) * displaySize;
+        double tileCenterY = (tileY + 0.5) * displaySize;
         double mapCenterY = mapHeight / 2;
         
         return canvasHeight / 2 + (tileCenterY - mapCenterY);
@@ -199,8 +426,6 @@ public class TileService {
      * 经度转瓦片X坐标
      */
     private int lonToTileX(double lon, int zoom) {
-        LogUtils.info("TileService-lonToTileX-经度转瓦片X坐标");
-
         double x = (lon + 180.0) / 360.0 * Math.pow(2, zoom);
         return (int) Math.floor(x);
     }
@@ -209,8 +434,6 @@ public class TileService {
      * 纬度转瓦片Y坐标
      */
     private int latToTileY(double lat, int zoom) {
-        LogUtils.info("TileService-latToTileY-纬度转瓦片Y坐标");
-
         double latRad = Math.toRadians(lat);
         double y = (1.0 - Math.log(Math.tan(latRad) + 1.0 / Math.cos(latRad)) / Math.PI) / 2.0 * Math.pow(2, zoom);
         return (int) Math.floor(y);
@@ -223,7 +446,31 @@ public class TileService {
         LogUtils.info("TileService-setTileSource-设置瓦片源");
 
         this.currentSource = source;
+        generation++;
+        applyConcurrency(source);
+        fetcher.clearNegativeCache();
         clearCache(); // 切换源时清空缓存
+
+        // 瓦片尺寸不同时重建图像池
+        int tileSize = tileSizeOf(source);
+        if (tileSize != imagePool.getTileSize()) {
+            imagePool.clear();
+            imagePool = new TileImagePool(tileSize, POOL_SIZE);
+        }
+    }
+
+    /**
+     * 按瓦片源的并发上限调整加载线程数
+     */
+    private void applyConcurrency(TileSource source) {
+        int threads = source != null ? source.getConcurrency() : 1;
+        if (threads > tileLoader.getMaximumPoolSize()) {
+            tileLoader.setMaximumPoolSize(threads);
+            tileLoader.setCorePoolSize(threads);
+        } else {
+            tileLoader.setCorePoolSize(threads);
+            tileLoader.setMaximumPoolSize(threads);
+        }
     }
     
     /**
@@ -232,7 +479,9 @@ public class TileService {
     public void clearCache() {
         LogUtils.info("TileService-clearCache-清空瓦片缓存");
 
+        tileCache.values().forEach(this::recycle);
         tileCache.clear();
+        inFlight.clear();
         LogUtils.info("瓦片缓存已清空");
     }
     
@@ -245,6 +494,27 @@ public class TileService {
         return tileCache.size();
     }
     
+    /**
+     * 获取当前瓦片源
+     */
+    public TileSource getTileSource() {
+        return currentSource;
+    }
+
+    /**
+     * 设置瓦片到达后的重绘回调（在JavaFX线程上调用）
+     */
+    public void setTileLoadedListener(Runnable listener) {
+        this.tileLoadedListener = listener;
+    }
+
+    /**
+     * 获取瓦片加载指标
+     */
+    public TileMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * 关闭服务
      */
@@ -261,4 +531,23 @@ public class TileService {
             Thread.currentThread().interrupt();
         }
     }
+
+    /**
+     * 已解码、待发布的瓦片
+     */
+    private static class DecodedTile {
+        final String cacheKey;
+        final int width;
+        final int height;
+        final int[] pixels;
+        final int generation;
+
+        DecodedTile(String cacheKey, int width, int height, int[] pixels, int generation) {
+            this.cacheKey = cacheKey;
+            this.width = width;
+            this.height = height;
+            this.pixels = pixels;
+            this.generation = generation;
+        }
+    }
 }
@@ -1,73 +1,65 @@
-// view/TileSource.java - 确保完整
+// service/TileSource.java
 package ll.luolin.service;
 
-import ll.luolin.utils.LogUtils;
+/**
+ * 瓦片源
+ * 具体实现由 tileService.TileSourceRegistry 通过 TileSourceProvider（SPI）加载，
+ * 内置的瓦片源配置在 config/tile-sources.properties 中
+ */
+public interface TileSource {
 
-public enum TileSource {
-    OPENSTREETMAP("OpenStreetMap",
-            "https://a.tile.openstreetmap.org/{z}/{x}/{y}.png"),
-    
-    GOOGLE_MAPS("Google地图",
-            "https://mt1.google.com/vt/lyrs=m&x={x}&y={y}&z={z}"),
-    
-    ARCGIS_SATELLITE("ArcGIS卫星图",
-            "https://services.arcgisonline.com/ArcGIS/rest/services/World_Imagery/MapServer/tile/{z}/{y}/{x}"),
-    
-    LOCAL_TILES("本地瓦片地图",
-            "file:///{path}/tiles/{z}/{x}/{y}.png"),
-    
-    NONE("无底图", "");
-    
-    private final String name;
-    private final String urlTemplate;
-    
-    TileSource(String name, String urlTemplate) {
-        LogUtils.info("TileSource-TileSource-初始化TileSource");
-
-        this.name = name;
-        this.urlTemplate = urlTemplate;
-    }
-    
-    public String getName() {
-        return name;
+    /**
+     * 缓存策略
+     */
+    enum CachePolicy {
+        MEMORY,  // 仅内存
+        DISK     // 内存 + 磁盘
     }
-    
-    public String getUrlTemplate() {
-        return urlTemplate;
-    }
-    
-    public String getTileUrl(int x, int y, int zoom) {
-        LogUtils.info("TileSource-getTileUrl-获取瓦片路径");
 
-        if (this == NONE) {
-            return "";
-        }
-        
-        if (this == LOCAL_TILES) {
-            String localPath = System.getProperty("user.home") + "/map_tiles";
-            return urlTemplate
-                    .replace("{path}", localPath.replace("\\", "/"))
-                    .replace("{x}", String.valueOf(x))
-                    .replace("{y}", String.valueOf(y))
-                    .replace("{z}", String.valueOf(zoom));
-        }
-        
-        return urlTemplate
-                .replace("{x}", String.valueOf(x))
-                .replace("{y}", String.valueOf(y))
-                .replace("{z}", String.valueOf(zoom));
-    }
-    
-    public boolean requiresInternet() {
-        return this != LOCAL_TILES && this != NONE;
-    }
-    
-    public boolean supportsOffline() {
-        return this == LOCAL_TILES || this == NONE;
-    }
-    
-    @Override
-    public String toString() {
-        return name;
+    /**
+     * 唯一标识（配置文件中的键）
+     */
+    String getId();
+
+    /**
+     * 显示名称
+     */
+    String getName();
+
+    /**
+     * 获取瓦片URL，无底图时返回空字符串
+     */
+    String getTileUrl(int x, int y, int zoom);
+
+    /**
+     * 最大缩放级别
+     */
+    int getMaxZoom();
+
+    /**
+     * 瓦片像素尺寸
+     */
+    int getTileSize();
+
+    /**
+     * 最大并发请求数
+     */
+    int getConcurrency();
+
+    /**
+     * 缓存策略
+     */
+    CachePolicy getCachePolicy();
+
+    /**
+     * 是否需要联网
+     */
+    boolean requiresInternet();
+
+    /**
+     * 是否支持离线
+     */
+    default boolean supportsOffline() {
+        return !requiresInternet();
     }
 }
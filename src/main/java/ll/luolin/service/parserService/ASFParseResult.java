@@ -0,0 +1,134 @@
+// service/parserService/ASFParseResult.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.utils.ASFLexer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个ASF文件的解析结果
+ * 按类型保存各段落处理器产出的记录，另外记录出现过的段落、未处理的段落和逐行警告
+ */
+public class ASFParseResult {
+
+    private final Path file;
+    private final Map<Class<?>, List<Object>> records = new LinkedHashMap<>();
+    private final List<String> sections = new ArrayList<>();
+    private final List<String> unhandledSections = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
+    private Exception error;
+    private long elapsedNanos;
+
+    public ASFParseResult(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 添加一条记录（按运行时类型归类）
+     */
+    public void add(Object record) {
+        records.computeIfAbsent(record.getClass(), k -> new ArrayList<>()).add(record);
+    }
+
+    /**
+     * 获取指定类型的全部记录
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(Class<T> type) {
+        List<Object> list = records.get(type);
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList((List<T>) list);
+    }
+
+    /**
+     * 指定类型的最后一条记录（续行追加用），没有时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T last(Class<T> type) {
+        List<Object> list = records.get(type);
+        return list == null || list.isEmpty() ? null : (T) list.get(list.size() - 1);
+    }
+
+    /**
+     * 记录一条带行号的警告
+     */
+    public void warn(ASFLexer lexer, String message) {
+        warnings.add("第" + lexer.getLineNumber() + "行: " + message);
+    }
+
+    /**
+     * 以下由 ASFFileParser 在解析过程中调用
+     */
+    public void addSection(String section, boolean handled) {
+        sections.add(section);
+        if (!handled) {
+            unhandledSections.add(section);
+        }
+    }
+
+    public void setError(Exception error) {
+        this.error = error;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public List<String> getSections() {
+        return sections;
+    }
+
+    public List<String> getUnhandledSections() {
+        return unhandledSections;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    /**
+     * 读取文件失败时的异常，成功时为null
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 记录总数
+     */
+    public int getRecordCount() {
+        int count = 0;
+        for (List<Object> list : records.values()) {
+            count += list.size();
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.valueOf(file.getFileName())).append(": ");
+        for (Map.Entry<Class<?>, List<Object>> entry : records.entrySet()) {
+            sb.append(entry.getKey().getSimpleName()).append('=').append(entry.getValue().size()).append(' ');
+        }
+        if (!warnings.isEmpty()) {
+            sb.append("警告=").append(warnings.size());
+        }
+        return sb.toString().trim();
+    }
+}
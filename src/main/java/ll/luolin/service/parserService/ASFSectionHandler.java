@@ -0,0 +1,22 @@
+// service/parserService/ASFSectionHandler.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.utils.ASFLexer;
+
+/**
+ * ASF段落处理器
+ * 每次遇到对应的段落标题时由 ASFSectionRegistry 新建一个实例，可以在实例中保存续行等状态
+ */
+public interface ASFSectionHandler {
+
+    /**
+     * 处理段落中的一行（数据行或续行），结果写入result
+     */
+    void handle(ASFLexer lexer, ASFParseResult result);
+
+    /**
+     * 段落结束（遇到下一个段落标题或文件末尾）
+     */
+    default void finish(ASFParseResult result) {
+    }
+}
@@ -0,0 +1,418 @@
+// service/parserService/ASFSectionHandlers.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.ASFModel.ArcDefinition;
+import ll.luolin.model.ASFModel.LayerDefinition;
+import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.model.ASFModel.PreferentialRouteDefinition;
+import ll.luolin.model.ASFModel.ProcedureDefinition;
+import ll.luolin.model.ASFModel.RhumbLineDefinition;
+import ll.luolin.model.ASFModel.RouteDefinition;
+import ll.luolin.model.ASFModel.RouteSegmentDefinition;
+import ll.luolin.model.ASFModel.SafetyNetAreaDefinition;
+import ll.luolin.model.ASFModel.SectorDefinition;
+import ll.luolin.model.ASFModel.VolumeDefinition;
+import ll.luolin.utils.ASFLexer;
+import ll.luolin.utils.CoordinateDecoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 内置的ASF段落处理器
+ */
+public final class ASFSectionHandlers {
+
+    // 常见取值复用同一个字符串实例
+    private static final String[] KNOWN_POINT_TYPES = {
+            "REPORT", "VORDME", "AIRPORT_I", "NDB", "VOR", "DUMMY", "AIRPORT"
+    };
+    private static final String[] KNOWN_ATTRIBUTES = {
+            "B", "N", "R", "Y", "NONE", "EVEN", "ODD", "HI", "LO", "", "F0", "C2", "O1"
+    };
+
+    public static final String POINT_TYPE = "POINT";
+
+    private static final double METRES_PER_NM = 1852.0;
+    private static final double METRES_PER_FOOT = 0.3048;
+
+    private ASFSectionHandlers() {
+    }
+
+    /**
+     * 解析坐标字段写入 out[0]=经度、out[1]=纬度，返回 CoordinateDecoder 状态码
+     */
+    static int parseCoordinate(ASFLexer lexer, int field, double[] out) {
+        return CoordinateDecoder.decode(lexer.fieldChars(field), out, 0);
+    }
+
+    /**
+     * 最后一个非空字段，没有返回-1
+     */
+    static int lastNonEmptyField(ASFLexer lexer) {
+        for (int i = lexer.fieldCount() - 1; i >= 0; i--) {
+            if (!lexer.fieldIsEmpty(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 续行：把最后一个非空字段的单词追加到目标列表
+     */
+    static void appendContinuation(ASFLexer lexer, ASFParseResult result, List<String> target) {
+        if (target == null) {
+            result.warn(lexer, "续行前没有可追加的记录");
+            return;
+        }
+        int field = lastNonEmptyField(lexer);
+        if (field > 0) {
+            lexer.fieldTokens(field, target);
+        }
+    }
+
+    /**
+     * /DEFINITIONS/ 与 /POINTS/：NAME | 坐标 | [类型] | ...
+     */
+    public static class NavPointHandler implements ASFSectionHandler {
+        private final boolean typed;
+        private final double[] coords = new double[2];
+
+        /**
+         * @param typed 第三列是否为点类型（CHARACTERISTIC_POINTS的/DEFINITIONS/段）
+         */
+        public NavPointHandler(boolean typed) {
+            this.typed = typed;
+        }
+
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (!lexer.isData() || lexer.fieldCount() < (typed ? 3 : 2)) {
+                return;
+            }
+            if (lexer.fieldIsEmpty(0) || lexer.fieldIsEmpty(1) || (typed && lexer.fieldIsEmpty(2))) {
+                return;
+            }
+
+            int status = parseCoordinate(lexer, 1, coords);
+            if (status != CoordinateDecoder.OK) {
+                result.warn(lexer, CoordinateDecoder.describe(status) + "，跳过: "
+                        + lexer.fieldString(0) + " - " + lexer.fieldString(1));
+                return;
+            }
+
+            String type = typed ? lexer.fieldString(2, KNOWN_POINT_TYPES) : POINT_TYPE;
+            result.add(new NavPointModel(lexer.fieldString(0), coords[0], coords[1], type));
+        }
+    }
+
+    /**
+     * /ARCS/：NAME | START | END | CENTRE | PRECISION
+     */
+    public static class ArcHandler implements ASFSectionHandler {
+        private final double[] centre = new double[2];
+
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (!lexer.isData() || lexer.fieldCount() < 4) {
+                return;
+            }
+            int status = parseCoordinate(lexer, 3, centre);
+            if (status != CoordinateDecoder.OK) {
+                result.warn(lexer, "圆弧中心" + CoordinateDecoder.describe(status) + ": " + lexer.fieldString(0));
+                return;
+            }
+            // 精度后面可能跟行尾注释（HI   --centre point is DA208），只取第一个单词
+            String precision = lexer.fieldString(4, KNOWN_ATTRIBUTES);
+            int blank = precision.indexOf(' ');
+            if (blank > 0) {
+                precision = precision.substring(0, blank);
+            }
+            result.add(new ArcDefinition(lexer.fieldString(0), lexer.fieldString(1), lexer.fieldString(2),
+                    centre[0], centre[1], precision));
+        }
+    }
+
+    /**
+     * /RHUMB_LINES/：NAME | 点列表
+     */
+    public static class RhumbLineHandler implements ASFSectionHandler {
+        private RhumbLineDefinition current;
+
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (lexer.isContinuation()) {
+                appendContinuation(lexer, result, current == null ? null : current.getPoints());
+                return;
+            }
+            int field = lastNonEmptyField(lexer);
+            if (field < 1) {
+                return;
+            }
+            current = new RhumbLineDefinition(lexer.fieldString(0));
+            lexer.fieldTokens(field, current.getPoints());
+            result.add(current);
+        }
+    }
+
+    /**
+     * /LAYER/：序号 | 高度
+     */
+    public static class LayerHandler implements ASFSectionHandler {
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (!lexer.isData() || lexer.fieldCount() < 2) {
+                return;
+            }
+            int index = lexer.fieldInt(0, -1);
+            if (index < 0) {
+                result.warn(lexer, "高度层序号无效: " + lexer.fieldString(0));
+                return;
+            }
+            result.add(new LayerDefinition(index, lexer.fieldString(1)));
+        }
+    }
+
+    /**
+     * /VOLUME/：NAME | 高度层序号 | 点列表
+     */
+    public static class VolumeHandler implements ASFSectionHandler {
+        private VolumeDefinition current;
+
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (lexer.isContinuation()) {
+                appendContinuation(lexer, result, current == null ? null : current.getPoints());
+                return;
+            }
+            if (lexer.fieldCount() < 3) {
+                return;
+            }
+            current = new VolumeDefinition(lexer.fieldString(0), lexer.fieldInt(1, -1));
+            lexer.fieldTokens(2, current.getPoints());
+            result.add(current);
+        }
+    }
+
+    /**
+     * /SECTOR/、/FIR/ 等：NAME | [精度 |] V1 + V2 + ...
+     */
+    public static class SectorHandler implements ASFSectionHandler {
+        private final String section;
+        private SectorDefinition current;
+
+        public SectorHandler(String section) {
+            this.section = section;
+        }
+
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (lexer.isContinuation()) {
+                appendContinuation(lexer, result, current == null ? null : current.getVolumes());
+                return;
+            }
+            int field = lastNonEmptyField(lexer);
+            if (field < 1) {
+                return;
+            }
+            String precision = field >= 2 ? lexer.fieldString(1, KNOWN_ATTRIBUTES) : "";
+            current = new SectorDefinition(section, lexer.fieldString(0), precision);
+            lexer.fieldTokens(field, current.getVolumes());
+            result.add(current);
+        }
+    }
+
+    /**
+     * /CODED_ROUTE/：NAME | SENSE | ... | 点列表
+     * 只有两列的行（如 FPL_PBN_MISMATCH_DISPLAY | 5 |）是参数，跳过
+     */
+    public static class CodedRouteHandler implements ASFSectionHandler {
+        private RouteDefinition current;
+
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (lexer.isContinuation()) {
+                appendContinuation(lexer, result, current == null ? null : current.getPoints());
+                return;
+            }
+            int field = lastNonEmptyField(lexer);
+            if (field < 2) {
+                return;
+            }
+            List<String> attributes = new ArrayList<>(field - 1);
+            for (int i = 1; i < field; i++) {
+                attributes.add(lexer.fieldString(i, KNOWN_ATTRIBUTES));
+            }
+            current = new RouteDefinition(lexer.fieldString(0), attributes);
+            lexer.fieldTokens(field, current.getPoints());
+            result.add(current);
+        }
+    }
+
+    /**
+     * /SID/、/STAR/：NAME | 机场 | ... | 跑道 | ... | 点列表，ELIGIBLE_ROUTE 行附加到上一个程序
+     */
+    public static class ProcedureHandler implements ASFSectionHandler {
+        private final ProcedureDefinition.Kind kind;
+        private ProcedureDefinition current;
+
+        public ProcedureHandler(ProcedureDefinition.Kind kind) {
+            this.kind = kind;
+        }
+
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (lexer.isContinuation()) {
+                appendContinuation(lexer, result, current == null ? null : current.getPoints());
+                return;
+            }
+            if (lexer.fieldEquals(0, "ELIGIBLE_ROUTE")) {
+                appendContinuation(lexer, result, current == null ? null : current.getEligibleRoutes());
+                return;
+            }
+            int field = lastNonEmptyField(lexer);
+            if (field < 4) {
+                return;
+            }
+            current = new ProcedureDefinition(kind, lexer.fieldString(0), lexer.fieldString(1), lexer.fieldString(3));
+            lexer.fieldTokens(field, current.getPoints());
+            result.add(current);
+        }
+    }
+
+    /**
+     * /CODED_ROUTE_SEGMENTS/：航路名 | 分段属性...
+     */
+    public static class RouteSegmentHandler implements ASFSectionHandler {
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (lexer.isContinuation()) {
+                return;
+            }
+            int field = lastNonEmptyField(lexer);
+            if (field < 1) {
+                return;
+            }
+            List<String> attributes = new ArrayList<>(field);
+            for (int i = 1; i <= field; i++) {
+                attributes.add(lexer.fieldString(i, KNOWN_ATTRIBUTES));
+            }
+            result.add(new RouteSegmentDefinition(lexer.fieldString(0), attributes));
+        }
+    }
+
+    /**
+     * /PREFERENTIAL_ROUTES/：BPN | ADES | 点列表（可用续行）
+     */
+    public static class PreferentialRouteHandler implements ASFSectionHandler {
+        private PreferentialRouteDefinition current;
+
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (lexer.isContinuation()) {
+                appendContinuation(lexer, result, current == null ? null : current.getPoints());
+                return;
+            }
+            if (lexer.fieldCount() < 3) {
+                result.warn(lexer, "优选航路字段不足");
+                return;
+            }
+            current = new PreferentialRouteDefinition(lexer.fieldString(0), lexer.fieldString(1));
+            lexer.fieldTokens(2, current.getPoints());
+            result.add(current);
+        }
+    }
+
+    /**
+     * 安全网区域段（/STCA_AREA/、/INHIBIT/、/MTCD_REGION/、/DMA_DEFINITION/、/VOLUMES/ ...）：
+     * NAME | 属性 ... | 边界点列表（可用续行）；最后一列不足3个单词的是参数行（如 DTZ_MAP_PARAM），跳过
+     */
+    public static class SafetyNetAreaHandler implements ASFSectionHandler {
+        private final String section;
+        private SafetyNetAreaDefinition current;
+
+        public SafetyNetAreaHandler(String section) {
+            this.section = section;
+        }
+
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (lexer.isContinuation()) {
+                appendContinuation(lexer, result, current == null ? null : current.getPoints());
+                return;
+            }
+            current = null;
+            int field = lastNonEmptyField(lexer);
+            if (field < 1) {
+                return;
+            }
+            List<String> points = new ArrayList<>();
+            if (lexer.fieldTokens(field, points) < 3) {
+                return;
+            }
+            List<String> attributes = new ArrayList<>(field - 1);
+            for (int i = 1; i < field; i++) {
+                attributes.add(lexer.fieldString(i, KNOWN_ATTRIBUTES));
+            }
+            current = new SafetyNetAreaDefinition(section, lexer.fieldString(0), attributes);
+            current.getPoints().addAll(points);
+            result.add(current);
+        }
+    }
+
+    /**
+     * /OBSTACLES/：NAME | 中心 | 高度 | 半径（如 6KM、3NM）
+     */
+    public static class ObstacleHandler implements ASFSectionHandler {
+        private final double[] centre = new double[2];
+
+        @Override
+        public void handle(ASFLexer lexer, ASFParseResult result) {
+            if (!lexer.isData() || lexer.fieldCount() < 4) {
+                return;
+            }
+            int status = parseCoordinate(lexer, 1, centre);
+            if (status != CoordinateDecoder.OK) {
+                result.warn(lexer, "障碍物中心" + CoordinateDecoder.describe(status) + ": " + lexer.fieldString(0));
+                return;
+            }
+            double radius = parseDistance(lexer.fieldString(3));
+            if (!(radius > 0)) {
+                result.warn(lexer, "障碍物半径无效: " + lexer.fieldString(3));
+                return;
+            }
+            List<String> attributes = new ArrayList<>(1);
+            attributes.add(lexer.fieldString(2));
+            SafetyNetAreaDefinition obstacle = new SafetyNetAreaDefinition("OBSTACLES", lexer.fieldString(0), attributes);
+            obstacle.setCircle(centre[0], centre[1], radius);
+            result.add(obstacle);
+        }
+    }
+
+    /**
+     * 带单位的距离（6KM、3NM、500M、4921FT，无单位按海里）转为米，格式错误返回NaN
+     */
+    static double parseDistance(String text) {
+        String value = text.trim().toUpperCase(Locale.ROOT);
+        double factor = METRES_PER_NM;
+        if (value.endsWith("KM")) {
+            factor = 1000;
+            value = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("NM")) {
+            value = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("FT")) {
+            factor = METRES_PER_FOOT;
+            value = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("M")) {
+            factor = 1;
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            return Double.parseDouble(value.trim()) * factor;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+// service/parserService/ASFSectionRegistry.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.ASFModel.ProcedureDefinition;
+import ll.luolin.utils.LogUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * ASF段落处理器注册表
+ * 段落名（不含 '/'）-> 处理器工厂；未注册的段落在解析时跳过
+ */
+public class ASFSectionRegistry {
+    private static ASFSectionRegistry instance;
+
+    private final Map<String, Supplier<ASFSectionHandler>> factories = new ConcurrentHashMap<>();
+
+    private ASFSectionRegistry() {
+        registerDefaults();
+    }
+
+    public static synchronized ASFSectionRegistry getInstance() {
+        if (instance == null) {
+            instance = new ASFSectionRegistry();
+        }
+        return instance;
+    }
+
+    private void registerDefaults() {
+        register("DEFINITIONS", () -> new ASFSectionHandlers.NavPointHandler(true));
+        register("POINTS", () -> new ASFSectionHandlers.NavPointHandler(false));
+        register("ARCS", ASFSectionHandlers.ArcHandler::new);
+        register("RHUMB_LINES", ASFSectionHandlers.RhumbLineHandler::new);
+        register("LAYER", ASFSectionHandlers.LayerHandler::new);
+        register("VOLUME", ASFSectionHandlers.VolumeHandler::new);
+        for (String section : new String[]{"SECTOR", "FIR", "EUROCAT_T_AREA", "MIL_AREA", "NON_SURVEILLANCE_TOWER"}) {
+            register(section, () -> new ASFSectionHandlers.SectorHandler(section));
+        }
+        register("CODED_ROUTE", ASFSectionHandlers.CodedRouteHandler::new);
+        register("CODED_ROUTE_SEGMENTS", ASFSectionHandlers.RouteSegmentHandler::new);
+        register("PREFERENTIAL_ROUTES", ASFSectionHandlers.PreferentialRouteHandler::new);
+        register("SID", () -> new ASFSectionHandlers.ProcedureHandler(ProcedureDefinition.Kind.SID));
+        register("STAR", () -> new ASFSectionHandlers.ProcedureHandler(ProcedureDefinition.Kind.STAR));
+        // 安全网区域（MSAW/STCA/MTCD/NTZ/DTZ/DAIW_AREAS.ASF）
+        for (String section : new String[]{"INHIBITIONS", "TERRAIN_HAZARDS", "STCA_AREA", "INHIBIT",
+                "MTCD_REGION", "MTCD_PROCESSING_AREAS", "MTCD_INHIBIT", "NTZ_ELIGIBILITY_AREA_DEFINITION",
+                "DTZ_ELIGIBILITY_AREA_DEFINITION", "DMA_DEFINITION", "DTZ_AREA_DEFINITION", "VOLUMES"}) {
+            register(section, () -> new ASFSectionHandlers.SafetyNetAreaHandler(section));
+        }
+        register("OBSTACLES", ASFSectionHandlers.ObstacleHandler::new);
+    }
+
+    /**
+     * 注册（或替换）段落处理器
+     */
+    public void register(String section, Supplier<ASFSectionHandler> factory) {
+        if (factories.put(section, factory) != null) {
+            LogUtils.info("ASFSectionRegistry-register-替换段落处理器: " + section);
+        }
+    }
+
+    /**
+     * 为段落新建处理器，未注册返回null
+     */
+    public ASFSectionHandler create(String section) {
+        Supplier<ASFSectionHandler> factory = factories.get(section);
+        return factory == null ? null : factory.get();
+    }
+
+    public boolean isRegistered(String section) {
+        return factories.containsKey(section);
+    }
+
+    public Set<String> getSections() {
+        return factories.keySet();
+    }
+}
@@ -0,0 +1,18 @@
+// service/parserService/ASFService.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.ASFModel.PointModel;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * ASF文件解析服务（每种ASF文件一个实现）
+ */
+public interface ASFService {
+
+    /**
+     * 解析文件，返回可显示的要素
+     */
+    List<? extends PointModel> parserFile(File file);
+}
@@ -0,0 +1,159 @@
+// service/parserService/AdaptationCatalogService.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.AdaptationCatalog;
+import ll.luolin.utils.LogUtils;
+import ll.luolin.utils.ParallelTasks;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 适配目录内容目录服务
+ * 遍历目录，并行计算每个文件的内容哈希，生成 AdaptationCatalog；哈希按文件大小和修改时间缓存，重新扫描只计算变化的文件。
+ * 其他服务用 contentKey 作为缓存键（未扫描过的文件按需计算哈希）：内容相同的副本只解析一次、在内存中只保留一份。
+ */
+public class AdaptationCatalogService {
+    private static AdaptationCatalogService instance;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // 绝对路径 -> 上次计算的哈希
+    private final ConcurrentHashMap<String, AdaptationCatalog.Entry> hashes = new ConcurrentHashMap<>();
+    private volatile AdaptationCatalog catalog;
+
+    private AdaptationCatalogService() {
+    }
+
+    public static synchronized AdaptationCatalogService getInstance() {
+        if (instance == null) {
+            instance = new AdaptationCatalogService();
+        }
+        return instance;
+    }
+
+    /**
+     * 扫描目录生成内容目录，成为当前目录；读取失败的文件记录日志后跳过
+     */
+    public AdaptationCatalog scan(@NotNull File rootDirectory) throws IOException {
+        LogUtils.info("AdaptationCatalogService-scan-生成适配内容目录: " + rootDirectory.getPath());
+
+        long start = System.nanoTime();
+        Path root = rootDirectory.toPath().toAbsolutePath().normalize();
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+
+        Map<String, AdaptationCatalog.Entry> entries = new HashMap<>(files.size() * 2);
+        List<Callable<AdaptationCatalog.Entry>> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(() -> {
+                try {
+                    return entry(file);
+                } catch (IOException e) {
+                    LogUtils.warn("计算文件哈希失败: " + file + " - " + e.getMessage());
+                    return null;
+                }
+            });
+        }
+        List<AdaptationCatalog.Entry> results = ParallelTasks.invokeAll("adaptation-catalog", tasks,
+                "生成适配内容目录失败");
+        for (int i = 0; i < files.size(); i++) {
+            AdaptationCatalog.Entry entry = results.get(i);
+            if (entry != null) {
+                entries.put(root.relativize(files.get(i)).toString().replace('\\', '/'), entry);
+            }
+        }
+
+        AdaptationCatalog result = new AdaptationCatalog(root, entries);
+        catalog = result;
+        LogUtils.info(String.format("适配内容目录: %d 个文件, %d 种内容, 耗时 %d ms",
+                result.getFileCount(), result.getDistinctCount(), (System.nanoTime() - start) / 1_000_000));
+        return result;
+    }
+
+    /**
+     * 当前目录，尚未扫描时为null
+     */
+    public AdaptationCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * 按内容区分的缓存键（内容哈希）：未计算过或文件已修改时现在计算并缓存；读取失败返回null（调用方按路径缓存）
+     */
+    public String contentKey(@NotNull File file) {
+        try {
+            return entry(file.getAbsoluteFile().toPath().normalize()).getHash();
+        } catch (IOException e) {
+            LogUtils.warn("计算文件哈希失败: " + file + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 清除哈希缓存和当前目录
+     */
+    public void clear() {
+        hashes.clear();
+        catalog = null;
+    }
+
+    private AdaptationCatalog.Entry entry(Path file) throws IOException {
+        String key = file.toString();
+        long size = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        AdaptationCatalog.Entry cached = hashes.get(key);
+        if (cached != null && cached.getSize() == size && cached.getModified() == modified) {
+            return cached;
+        }
+
+        AdaptationCatalog.Entry entry = new AdaptationCatalog.Entry(contentHash(file), size, modified);
+        hashes.put(key, entry);
+        return entry;
+    }
+
+    private static String contentHash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        byte[] hash = digest.digest();
+        char[] text = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            text[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            text[i * 2 + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(text);
+    }
+}
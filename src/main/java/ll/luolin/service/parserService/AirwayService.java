@@ -0,0 +1,133 @@
+// service/parserService/AirwayService.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.AirwayGraph;
+import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.model.ASFModel.PreferentialRouteDefinition;
+import ll.luolin.model.ASFModel.ProcedureDefinition;
+import ll.luolin.model.ASFModel.RouteDefinition;
+import ll.luolin.model.ASFModel.RouteSegmentDefinition;
+import ll.luolin.utils.ASFFileParser;
+import ll.luolin.utils.LogUtils;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ROUTES.ASF 航路网络服务
+ * /CODED_ROUTE/、/SID/、/STAR/ 的点序列按名称在已加载的导航点中查找坐标，连成 AirwayGraph；
+ * 找不到坐标的点（跑道号、仅在其他文件定义的点）跳过，前后两点直接相连。
+ * /CODED_ROUTE_SEGMENTS/ 的分段属性挂到同名航路上，/PREFERENTIAL_ROUTES/ 在生成的网络上展开为完整路径。
+ */
+public class AirwayService {
+    private static AirwayService instance;
+
+    public static final String ROUTES_FILE = "ROUTES.ASF";
+
+    private static final String[] ROUTE_SECTIONS = {
+            "CODED_ROUTE", "CODED_ROUTE_SEGMENTS", "SID", "STAR", "PREFERENTIAL_ROUTES"
+    };
+
+    private AirwayService() {
+    }
+
+    public static synchronized AirwayService getInstance() {
+        if (instance == null) {
+            instance = new AirwayService();
+        }
+        return instance;
+    }
+
+    /**
+     * 解析航路文件并用导航点坐标生成航路网络，解析失败时返回空网络
+     */
+    public AirwayGraph buildGraph(@NotNull File routesFile, Collection<NavPointModel> points) {
+        LogUtils.info("AirwayService-buildGraph-生成航路网络: " + routesFile.getName());
+
+        AirwayGraph.Builder builder = new AirwayGraph.Builder();
+        // 只读需要的段落，跳过 STANDARD_ROUTES、COND_ALT_ROUTES 等
+        ASFParseResult result = ASFFileParser.getInstance().parseSections(routesFile.toPath(),
+                ROUTE_SECTIONS);
+        if (!result.isSuccess()) {
+            LogUtils.error("解析航路文件失败: " + routesFile.getAbsolutePath(), result.getError());
+            return builder.build();
+        }
+
+        // 名称索引：同名点取第一个
+        Map<String, NavPointModel> index = new HashMap<>(points.size() * 2);
+        for (NavPointModel point : points) {
+            index.putIfAbsent(point.getName(), point);
+        }
+
+        Map<String, List<String>> segments = new HashMap<>();
+        for (RouteSegmentDefinition segment : result.get(RouteSegmentDefinition.class)) {
+            segments.put(segment.getRoute(), segment.getAttributes());
+        }
+
+        Set<String> unresolved = new LinkedHashSet<>();
+        for (RouteDefinition route : result.get(RouteDefinition.class)) {
+            String sense = route.getSense();
+            boolean forward = !"R".equals(sense);
+            boolean backward = !"N".equals(sense);
+            int id = addSequence(builder, index, unresolved, route.getName(), route.getPoints(),
+                    AirwayGraph.AIRWAY, forward, backward);
+            List<String> attributes = segments.remove(route.getName());
+            if (attributes != null) {
+                builder.setRouteSegments(id, attributes);
+            }
+        }
+        if (!segments.isEmpty()) {
+            LogUtils.warn(String.format("%s: %d 条航路分段没有对应的航路，例如 %s", routesFile.getName(),
+                    segments.size(), segments.keySet().iterator().next()));
+        }
+        for (ProcedureDefinition procedure : result.get(ProcedureDefinition.class)) {
+            byte kind = procedure.getKind() == ProcedureDefinition.Kind.SID ? AirwayGraph.SID : AirwayGraph.STAR;
+            addSequence(builder, index, unresolved, procedure.getName(), procedure.getPoints(), kind, true, false);
+        }
+
+        List<PreferentialRouteDefinition> preferred = result.get(PreferentialRouteDefinition.class);
+        for (PreferentialRouteDefinition route : preferred) {
+            builder.addPreferentialRoute(route.getBoundaryPoint(), route.getDestination(), route.getPoints());
+        }
+
+        AirwayGraph graph = builder.build();
+        if (graph.getPreferentialRoutes().size() < preferred.size()) {
+            LogUtils.warn(String.format("%s: %d 条优选航路无法在网络中展开", routesFile.getName(),
+                    preferred.size() - graph.getPreferentialRoutes().size()));
+        }
+        if (!unresolved.isEmpty()) {
+            LogUtils.warn(String.format("%s: %d 个点名称未找到坐标，例如 %s", routesFile.getName(),
+                    unresolved.size(), new ArrayList<>(unresolved).subList(0, Math.min(10, unresolved.size()))));
+        }
+        LogUtils.info("航路网络: " + graph);
+        return graph;
+    }
+
+    private static int addSequence(AirwayGraph.Builder builder, Map<String, NavPointModel> index,
+                                    Set<String> unresolved, String name, List<String> points,
+                                    byte kind, boolean forward, boolean backward) {
+        int route = builder.addRoute(name);
+        int previous = -1;
+        for (String pointName : points) {
+            NavPointModel point = index.get(pointName);
+            if (point == null) {
+                unresolved.add(pointName);
+                continue;
+            }
+            int id = builder.addPoint(pointName, point.getLongitude(), point.getLatitude());
+            if (previous >= 0) {
+                builder.addSegment(previous, id, route, kind, forward, backward);
+            }
+            previous = id;
+        }
+        return route;
+    }
+}
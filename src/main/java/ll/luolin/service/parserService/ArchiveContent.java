@@ -0,0 +1,116 @@
+// service/parserService/ArchiveContent.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.model.SystemMapLayer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一个压缩归档（.tgz、.TAR.Z）的解析结果
+ * 系统地图（.lex）、外部点文件（.pte）和ASF文件按条目名保存，
+ * 其余条目（.mp、.sym、.ACF/.AIF、嵌套归档…）只记录名称。归档被截断或损坏时 error 不为空，已读出的条目仍然可用。
+ */
+public class ArchiveContent {
+
+    private final File archive;
+    private final List<SystemMapLayer> systemMaps = new ArrayList<>();
+    private final Map<String, List<NavPointModel>> pointFiles = new LinkedHashMap<>();
+    private final Map<String, ASFParseResult> asfResults = new LinkedHashMap<>();
+    private final List<String> skippedEntries = new ArrayList<>();
+    private int entryCount;
+    private Exception error;
+    private long elapsedNanos;
+
+    public ArchiveContent(File archive) {
+        this.archive = archive;
+    }
+
+    void addSystemMap(SystemMapLayer layer) {
+        systemMaps.add(layer);
+    }
+
+    void addPointFile(String entry, List<NavPointModel> points) {
+        pointFiles.put(entry, points);
+    }
+
+    void addAsfResult(String entry, ASFParseResult result) {
+        asfResults.put(entry, result);
+    }
+
+    void addSkipped(String entry) {
+        skippedEntries.add(entry);
+    }
+
+    void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    void setError(Exception error) {
+        this.error = error;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public File getArchive() {
+        return archive;
+    }
+
+    public List<SystemMapLayer> getSystemMaps() {
+        return Collections.unmodifiableList(systemMaps);
+    }
+
+    /**
+     * 条目名 -> 点，按归档中的顺序
+     */
+    public Map<String, List<NavPointModel>> getPointFiles() {
+        return Collections.unmodifiableMap(pointFiles);
+    }
+
+    /**
+     * 条目名 -> ASF解析结果，按归档中的顺序
+     */
+    public Map<String, ASFParseResult> getAsfResults() {
+        return Collections.unmodifiableMap(asfResults);
+    }
+
+    public List<String> getSkippedEntries() {
+        return Collections.unmodifiableList(skippedEntries);
+    }
+
+    /**
+     * 读到的文件条目数（不含目录）
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * 归档完整读完
+     */
+    public boolean isComplete() {
+        return error == null;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d 个条目, %d 张系统地图, %d 个点文件, %d 个ASF文件%s",
+                archive.getName(), entryCount, systemMaps.size(), pointFiles.size(), asfResults.size(),
+                error == null ? "" : "（不完整）");
+    }
+}
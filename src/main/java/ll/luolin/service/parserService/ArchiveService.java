@@ -0,0 +1,283 @@
+// service/parserService/ArchiveService.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.model.SystemMapLayer;
+import ll.luolin.utils.ASFFileParser;
+import ll.luolin.utils.LogUtils;
+import ll.luolin.utils.ParallelTasks;
+import ll.luolin.utils.PointFileReader;
+import ll.luolin.utils.StereographicProjection;
+import ll.luolin.utils.SystemMapParser;
+import ll.luolin.utils.TarStreamReader;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 压缩适配归档服务（SYSTEM_MAPS.ASF.tgz、maps.tgz、RDP_DAIW.tgz、NEW_DATA.TAR.Z…）
+ * 用 TarStreamReader 顺序解压，条目内容直接交给解析器，不落盘：
+ * - .lex 按所在项目的 .pro 投影解析为系统地图（.pro 在归档中排在后面时先暂存，读到 .pro 后再解析），
+ *   只有大小写不同的同名地图保留后一个；
+ * - .pte 读取为外部点；.ASF 交给 ASFFileParser；
+ * - .mp 与 .lex 几何相同，和目录加载一样不解析；.ACF/.AIF 是编译后的二进制适配，也不解析，只记录名称。
+ * gzip 和 compress 都只能顺序解压，解压在调用线程上进行，读出的条目立即提交到线程池并行解析。
+ * 结果按归档文件缓存，文件修改后重新读取。
+ */
+public class ArchiveService {
+    private static ArchiveService instance;
+
+    private static final String PROJECTION_SUFFIX = ".pro";
+    private static final String MAP_SUFFIX = ".lex";
+    private static final String ASF_SUFFIX = ".asf";
+
+    private final ConcurrentHashMap<String, CachedContent> cache = new ConcurrentHashMap<>();
+
+    private ArchiveService() {
+    }
+
+    public static synchronized ArchiveService getInstance() {
+        if (instance == null) {
+            instance = new ArchiveService();
+        }
+        return instance;
+    }
+
+    /**
+     * 是否为可以读取的归档（按文件头判断，NEW_DATA.TAR.Z.wuyh 这类改过扩展名的也能识别）
+     */
+    public boolean isArchive(@NotNull File file) {
+        return file.isFile() && TarStreamReader.isArchive(file.toPath());
+    }
+
+    /**
+     * 归档中全部文件条目的名称（只解压，不解析）
+     */
+    public List<String> list(@NotNull File archive) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (TarStreamReader reader = TarStreamReader.open(archive.toPath())) {
+            while (reader.nextEntry()) {
+                if (reader.isFile()) {
+                    names.add(reader.getName());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 读取并解析归档（缓存）；打开失败、中途截断时结果中带有异常，不抛出
+     */
+    public ArchiveContent load(@NotNull File archive) {
+        LogUtils.info("ArchiveService-load-读取归档: " + archive.getPath());
+
+        String cacheKey = archive.getAbsolutePath();
+        CachedContent cached = cache.get(cacheKey);
+        if (cached != null && cached.lastModified == archive.lastModified() && cached.length == archive.length()) {
+            return cached.content;
+        }
+
+        long start = System.nanoTime();
+        ArchiveContent content = new ArchiveContent(archive);
+        ExecutorService executor = ParallelTasks.newExecutor("archive-parser", Runtime.getRuntime().availableProcessors());
+
+        List<String> mapNames = new ArrayList<>();
+        List<Future<SystemMapLayer>> maps = new ArrayList<>();
+        List<String> pointNames = new ArrayList<>();
+        List<Future<List<NavPointModel>>> points = new ArrayList<>();
+        List<String> asfNames = new ArrayList<>();
+        List<Future<ASFParseResult>> asfResults = new ArrayList<>();
+        // 项目目录 -> 投影，以及尚未读到 .pro 的地图
+        Map<String, StereographicProjection> projections = new HashMap<>();
+        Map<String, List<PendingMap>> pending = new HashMap<>();
+
+        int entries = 0;
+        try (TarStreamReader reader = TarStreamReader.open(archive.toPath())) {
+            while (reader.nextEntry()) {
+                if (!reader.isFile()) {
+                    continue;
+                }
+                entries++;
+                String name = reader.getName();
+                String lower = name.toLowerCase(Locale.ROOT);
+
+                if (lower.endsWith(PROJECTION_SUFFIX)) {
+                    String projectDir = parent(name);
+                    String project = fileName(projectDir);
+                    if (!fileName(name).equals(project + PROJECTION_SUFFIX)) {
+                        content.addSkipped(name);
+                        continue;
+                    }
+                    byte[] data = reader.readContent();
+                    try {
+                        StereographicProjection projection = SystemMapParser.parseProjection(data,
+                                archive.getPath() + "/" + name);
+                        projections.put(projectDir, projection);
+                        for (PendingMap map : pending.getOrDefault(projectDir, Collections.emptyList())) {
+                            mapNames.add(map.name);
+                            maps.add(submitMap(executor, map, project, projection));
+                        }
+                        pending.remove(projectDir);
+                    } catch (IOException | RuntimeException e) {
+                        LogUtils.error("解析系统平面定义失败: " + archive.getPath() + "/" + name, e);
+                    }
+
+                } else if (lower.endsWith(MAP_SUFFIX)) {
+                    String projectDir = parent(parent(name));
+                    PendingMap map = new PendingMap(name, reader.readContent());
+                    StereographicProjection projection = projections.get(projectDir);
+                    if (projection != null) {
+                        mapNames.add(name);
+                        maps.add(submitMap(executor, map, fileName(projectDir), projection));
+                    } else {
+                        pending.computeIfAbsent(projectDir, key -> new ArrayList<>()).add(map);
+                    }
+
+                } else if (lower.endsWith(PointFileReader.EXTERNAL_POINTS_SUFFIX)) {
+                    byte[] data = reader.readContent();
+                    pointNames.add(name);
+                    points.add(executor.submit(() -> {
+                        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                                new ByteArrayInputStream(data), StandardCharsets.ISO_8859_1))) {
+                            return PointFileReader.read(in, fileName(name));
+                        }
+                    }));
+
+                } else if (lower.endsWith(ASF_SUFFIX)) {
+                    byte[] data = reader.readContent();
+                    asfNames.add(name);
+                    asfResults.add(executor.submit(() -> ASFFileParser.getInstance()
+                            .parse(Paths.get(archive.getPath(), name), ByteBuffer.wrap(data))));
+
+                } else {
+                    content.addSkipped(name);
+                }
+            }
+        } catch (IOException e) {
+            LogUtils.warn(String.format("归档读取中断（%s），只使用已读出的 %d 个条目: %s",
+                    e.getMessage(), entries, archive.getPath()));
+            content.setError(e);
+        }
+
+        // 没有对应 .pro 的地图无法投影
+        for (List<PendingMap> orphans : pending.values()) {
+            for (PendingMap map : orphans) {
+                content.addSkipped(map.name);
+            }
+        }
+
+        try {
+            // 同一目录下只有大小写不同的地图（X.LEX 和 X.lex）是同一张图，和解压到不区分大小写的磁盘一样保留后一个
+            Map<String, SystemMapLayer> layers = new LinkedHashMap<>();
+            for (int i = 0; i < maps.size(); i++) {
+                SystemMapLayer layer = get(maps.get(i), mapNames.get(i));
+                String key = mapNames.get(i).toLowerCase(Locale.ROOT);
+                if (layer != null && layers.put(key, layer) != null) {
+                    content.addSkipped(mapNames.get(i));
+                }
+            }
+            for (SystemMapLayer layer : layers.values()) {
+                content.addSystemMap(layer);
+            }
+            for (int i = 0; i < points.size(); i++) {
+                List<NavPointModel> list = get(points.get(i), pointNames.get(i));
+                if (list != null) {
+                    content.addPointFile(pointNames.get(i), list);
+                }
+            }
+            for (int i = 0; i < asfResults.size(); i++) {
+                ASFParseResult result = get(asfResults.get(i), asfNames.get(i));
+                if (result != null) {
+                    content.addAsfResult(asfNames.get(i), result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            content.setError(e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        content.setEntryCount(entries);
+        content.setElapsedNanos(System.nanoTime() - start);
+        LogUtils.info(String.format("归档 %s, 耗时 %d ms", content, content.getElapsedNanos() / 1_000_000));
+        if (!Thread.currentThread().isInterrupted()) {
+            cache.put(cacheKey, new CachedContent(content, archive.lastModified(), archive.length()));
+        }
+        return content;
+    }
+
+    /**
+     * 清除缓存
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private static Future<SystemMapLayer> submitMap(ExecutorService executor, PendingMap map, String project,
+                                                    StereographicProjection projection) {
+        return executor.submit(() -> SystemMapParser.parseMap(map.data, fileName(map.name), project, projection));
+    }
+
+    /**
+     * 取任务结果，解析失败的条目记录日志后返回null
+     */
+    private static <T> T get(Future<T> future, String entry) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            LogUtils.error("解析归档条目失败: " + entry, e.getCause());
+            return null;
+        }
+    }
+
+    private static String parent(String entry) {
+        int slash = entry.lastIndexOf('/');
+        return slash < 0 ? "" : entry.substring(0, slash);
+    }
+
+    private static String fileName(String entry) {
+        return entry.substring(entry.lastIndexOf('/') + 1);
+    }
+
+    private static final class PendingMap {
+        final String name;
+        final byte[] data;
+
+        PendingMap(String name, byte[] data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private static final class CachedContent {
+        final ArchiveContent content;
+        final long lastModified;
+        final long length;
+
+        CachedContent(ArchiveContent content, long lastModified, long length) {
+            this.content = content;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+}
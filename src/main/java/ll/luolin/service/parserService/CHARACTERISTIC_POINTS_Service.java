@@ -2,16 +2,17 @@
 package ll.luolin.service.parserService;
 
 import ll.luolin.model.ASFModel.NavPointModel;
-import ll.luolin.utils.CoordinateParser;
-import ll.luolin.utils.IconFactory;
+import ll.luolin.model.ASFModel.NavPointStore;
+import ll.luolin.model.ASFModel.PointCategory;
+import ll.luolin.utils.ASFFileParser;
 import ll.luolin.utils.LogUtils;
+import ll.luolin.utils.PointFileReader;
 
 import javax.validation.constraints.NotNull;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -21,7 +22,8 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class CHARACTERISTIC_POINTS_Service implements ASFService {
     private static CHARACTERISTIC_POINTS_Service instance;
-    private final ConcurrentHashMap<String, List<NavPointModel>> fileCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CachedPoints> fileCache = new ConcurrentHashMap<>();
+    private final ParseSnapshotCache snapshotCache = ParseSnapshotCache.getInstance();
 
     private CHARACTERISTIC_POINTS_Service() {
     }
@@ -42,155 +44,66 @@ public class CHARACTERISTIC_POINTS_Service implements ASFService {
         LogUtils.info("AsfService-parseAsfFile-解析ASF文件");
 
         String cacheKey = file.getAbsolutePath();
+        long size = file.length();
+        long modified = file.lastModified();
 
-        // 检查缓存
-        List<NavPointModel> cached = fileCache.get(cacheKey);
-        if (cached != null) {
-            return new ArrayList<>(cached); // 返回副本
+        // 检查缓存，文件大小或修改时间变化后重新解析
+        CachedPoints cached = fileCache.get(cacheKey);
+        if (cached != null && cached.size == size && cached.modified == modified) {
+            return new ArrayList<>(cached.points.asList()); // 返回副本
         }
 
-        List<NavPointModel> navPoints = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(
-                new FileReader(file, StandardCharsets.UTF_8))) {
-
-            String line;
-            boolean inDefinitions = false;
-//            boolean inDataSection = false;
-
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-
-                // 跳过空行
-                if (line.isEmpty()) {
-                    continue;
-                }
-
-                // 跳过注释行
-                if (line.startsWith("--")) {
-                    continue;
-                }
-
-                // 检查是否进入定义部分
-                if (line.startsWith("/DEFINITIONS/")) {
-                    inDefinitions = true;
-                    continue;
-                }
-
-//                // 检查是否进入数据部分
-//                if (line.startsWith("--Name | Lat/Long") ||
-//                    line.startsWith("-- 1   | 2")) {
-//                    inDataSection = true;
-//                    continue;
-//                }
-
-                // 跳过分隔线
-                if (line.startsWith("--") && line.contains("---")) {
-                    continue;
-                }
-
-                // 解析数据行
-                if (inDefinitions && !line.startsWith("--")) {
-                    NavPointModel point = parseDataLine(line);
-                    if (point != null) {
-                        navPoints.add(point);
-                    }
-                }
+        // 有效的二进制快照直接还原，跳过文本解析
+        Path path = file.toPath();
+        List<NavPointModel> navPoints = snapshotCache.load(path);
+        if (navPoints == null) {
+            navPoints = parse(path, size, modified);
+            if (navPoints == null) {
+                return new ArrayList<>();
             }
-
-            LogUtils.info(String.format("解析ASF文件完成: %s, 找到 %d 个导航点",
-                    file.getName(), navPoints.size()));
-
-            // 缓存结果
-            fileCache.put(cacheKey, new ArrayList<>(navPoints));
-
-            return navPoints;
-
-        } catch (Exception e) {
-            LogUtils.error("AsfService-parseAsfFile-解析ASF文件");
-
-            LogUtils.error("解析ASF文件失败: " + file.getAbsolutePath(), e);
-
         }
 
+        LogUtils.info(String.format("解析ASF文件完成: %s, 找到 %d 个导航点",
+                file.getName(), navPoints.size()));
 
-        return cached;
+        // 缓存结果，按列存放，不保留逐点对象
+        NavPointStore store = new NavPointStore(navPoints.size());
+        store.addAll(navPoints);
+        fileCache.put(cacheKey, new CachedPoints(size, modified, store));
+
+        return navPoints;
     }
 
     /**
-     * 解析数据行
-     * 格式：ZSWH  | 371112N1221341E | AIRPORT_I | Y |                          | N |  N |  |
+     * 文本解析并写入快照，读取失败返回null
+     * size、modified 为解析前读取的文件大小和修改时间
      */
-    private NavPointModel parseDataLine(String line) {
-        try {
-            LogUtils.info("AsfService-parseDataLine-解析数据行" + "------" + line);
-
-            // 使用管道符分割
-            String[] parts = line.split("\\|");
-            if (parts.length < 3) {
-                return null;
-            }
-
-            // 提取字段
-            String name = parts[0].trim();
-            String coordinate = parts[1].trim();
-            String type = parts[2].trim();
-
-            // 验证必要字段
-            if (name.isEmpty() || coordinate.isEmpty() || type.isEmpty()) {
-                return null;
-            }
-
-            // 解析坐标
-            double[] coords = CoordinateParser.parseDMS(coordinate);
-            if (coords[0] == 0.0 && coords[1] == 0.0) {
-                LogUtils.warn("坐标解析失败，跳过: " + name + " - " + coordinate);
+    private List<NavPointModel> parse(Path path, long size, long modified) {
+        if (PointFileReader.isPointFile(path)) {
+            // SYSTEM_MAPS 的 .pte/.pt 点文件，与ASF文件共用缓存和快照
+            try {
+                List<NavPointModel> navPoints = PointFileReader.read(path);
+                snapshotCache.store(path, size, modified, navPoints);
+                return navPoints;
+            } catch (IOException e) {
+                LogUtils.error("读取点文件失败: " + path, e);
                 return null;
             }
+        }
 
-            // 创建导航点模型
-            NavPointModel point = new NavPointModel();
-            point.setName(name);
-            point.setLongitude(coords[0]);
-            point.setLatitude(coords[1]);
-            point.setType(type);
-
-            // 设置图标
-            setIconForType(point);
-            LogUtils.info("AsfService-parseDataLine-解析数据行");
-
-            return point;
-
-        } catch (Exception e) {
-            LogUtils.error("解析数据行失败: " + line, e);
+        // 通用解析器只扫描一遍文件，/DEFINITIONS/ 段由 ASFSectionHandlers.NavPointHandler 处理
+        ASFParseResult result = ASFFileParser.getInstance().parse(path);
+        if (!result.isSuccess()) {
+            LogUtils.error("解析ASF文件失败: " + path, result.getError());
             return null;
         }
-    }
-
-    // 修改AsfService.java中的setIconForType方法
-    private void setIconForType(NavPointModel point) {
-
-        LogUtils.info("AsfService-setIconForType-修改AsfService.java中的setIconForType方法");
-
-        String type = point.getType().toUpperCase();
-
-        try {
-            // 根据类型选择图标
-            if (type.contains("AIRPORT")) {
-                point.setIcon(IconFactory.createAirportIcon());
-            } else if (type.contains("VOR") || type.contains("VORDME")) {
-                point.setIcon(IconFactory.createVorIcon());
-            } else if (type.contains("NDB")) {
-                point.setIcon(IconFactory.createNdbIcon());
-            } else if (type.contains("REPORT")) {
-                point.setIcon(IconFactory.createReportIcon());
-            } else {
-                point.setIcon(IconFactory.createPointIcon());
-            }
-        } catch (Exception e) {
-            LogUtils.warn("创建图标失败: " + type);
-            point.setIcon(IconFactory.createPointIcon());
+        for (String warning : result.getWarnings()) {
+            LogUtils.warn(path.getFileName() + " " + warning);
         }
+
+        List<NavPointModel> navPoints = new ArrayList<>(result.get(NavPointModel.class));
+        snapshotCache.store(path, size, modified, navPoints);
+        return navPoints;
     }
 
     /**
@@ -227,6 +140,21 @@ public class CHARACTERISTIC_POINTS_Service implements ASFService {
         fileCache.remove(filePath);
     }
 
+    /**
+     * 缓存的解析结果及解析时的文件大小、修改时间
+     */
+    private static class CachedPoints {
+        final long size;
+        final long modified;
+        final NavPointStore points;
+
+        CachedPoints(long size, long modified, NavPointStore points) {
+            this.size = size;
+            this.modified = modified;
+            this.points = points;
+        }
+    }
+
     /**
      * 获取支持的导航点类型
      */
@@ -240,9 +168,15 @@ public class CHARACTERISTIC_POINTS_Service implements ASFService {
      * 按类型过滤导航点
      */
     public List<NavPointModel> filterByType(List<NavPointModel> points, String type) {
+        // 未分类的类型仍按字符串比较
+        PointCategory category = PointCategory.of(type);
+        boolean byName = category == PointCategory.OTHER;
         List<NavPointModel> filtered = new ArrayList<>();
         for (NavPointModel point : points) {
-            if (point.getType().equalsIgnoreCase(type)) {
+            boolean match = byName
+                    ? type != null && type.equalsIgnoreCase(point.getType())
+                    : point.getCategory() == category;
+            if (match) {
                 filtered.add(point);
             }
         }
@@ -0,0 +1,405 @@
+// service/parserService/DatasetDiffService.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.AirspaceGeometry;
+import ll.luolin.model.DatasetDiff;
+import ll.luolin.model.DiffOverlay;
+import ll.luolin.model.XmlRecord;
+import ll.luolin.utils.ASFLexer;
+import ll.luolin.utils.CoordinateDecoder;
+import ll.luolin.utils.LogUtils;
+import ll.luolin.utils.ParallelTasks;
+import ll.luolin.utils.XmlRecordReader;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 适配数据版本比较
+ * 每个文件流式读取一遍，把每条逻辑记录（数据行及其续行）按 "段落/第一列" 为键、
+ * 规范化后的字段内容算64位哈希；两个版本的键表各扫描一次即得到新增、删除和修改，总耗时与文件大小成线性。
+ * XML文件按 XmlRecordReader 的记录比较，键为 "元素名/主键"。同一段落中重复的键依次加 #2、#3…。
+ */
+public class DatasetDiffService {
+    private static DatasetDiffService instance;
+
+    /** ASF/AIF/ACF 及其日期快照（CHARACTERISTIC_POINTS.ASF_1209）和XML文件参与目录比较 */
+    private static final Pattern ADAPTATION_FILE = Pattern.compile(".+\\.(ASF|AIF|ACF)(_\\w+)?|.+\\.XML");
+    private static final String VOLUMES_FILE_PREFIX = "FDP_VOLUMES_DEFINITION";
+    private static final String VOLUME_SECTION = "VOLUME";
+    private static final String SECTOR_SECTION = "SECTOR";
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int FIELD_SEPARATOR = 0x1F;
+    private static final int LINE_SEPARATOR = 0x1E;
+
+    private DatasetDiffService() {
+    }
+
+    public static synchronized DatasetDiffService getInstance() {
+        if (instance == null) {
+            instance = new DatasetDiffService();
+        }
+        return instance;
+    }
+
+    /**
+     * 比较同一文件的两个版本（如 CHARACTERISTIC_POINTS.ASF_1209 与 CHARACTERISTIC_POINTS.ASF）
+     */
+    public DatasetDiff diffFiles(@NotNull File oldFile, @NotNull File newFile) throws IOException {
+        return diff(newFile.getName(), oldFile.toPath(), newFile.toPath());
+    }
+
+    /**
+     * 比较两个数据集目录中相对路径相同的全部适配文件（并行），只在一侧存在的文件按全部新增或全部删除处理
+     * 结果按相对路径排序，只包含有变化的文件
+     */
+    public List<DatasetDiff> diffTrees(@NotNull File oldRoot, @NotNull File newRoot) throws IOException {
+        LogUtils.info("DatasetDiffService-diffTrees-比较数据集: " + oldRoot.getPath() + " -> " + newRoot.getPath());
+
+        long start = System.nanoTime();
+        Path oldBase = oldRoot.toPath();
+        Path newBase = newRoot.toPath();
+        TreeSet<String> names = new TreeSet<>();
+        names.addAll(listAdaptationFiles(oldBase));
+        names.addAll(listAdaptationFiles(newBase));
+
+        List<DatasetDiff> diffs = new ArrayList<>();
+        if (names.isEmpty()) {
+            return diffs;
+        }
+
+        List<Callable<DatasetDiff>> tasks = new ArrayList<>(names.size());
+        for (String name : names) {
+            Path oldFile = oldBase.resolve(name);
+            Path newFile = newBase.resolve(name);
+            tasks.add(() -> {
+                try {
+                    boolean inOld = Files.isRegularFile(oldFile);
+                    boolean inNew = Files.isRegularFile(newFile);
+                    if (inOld && inNew && sameContent(oldFile, newFile)) {
+                        return null;
+                    }
+                    return diff(name, inOld ? oldFile : null, inNew ? newFile : null);
+                } catch (IOException | RuntimeException e) {
+                    LogUtils.error("比较文件失败: " + name, e);
+                    return null;
+                }
+            });
+        }
+        for (DatasetDiff diff : ParallelTasks.invokeAll("dataset-diff", tasks, "比较数据集失败")) {
+            if (diff != null && !diff.isEmpty()) {
+                diffs.add(diff);
+            }
+        }
+
+        LogUtils.info(String.format("数据集比较: %d 个文件, %d 个有变化, 耗时 %d ms",
+                names.size(), diffs.size(), (System.nanoTime() - start) / 1_000_000));
+        return diffs;
+    }
+
+    /**
+     * 变化的点（带坐标的记录）和 FDP_VOLUMES_DEFINITION 中变化的体积、扇区生成叠加层；删除的取旧版本几何
+     */
+    public DiffOverlay buildOverlay(@NotNull List<DatasetDiff> diffs) {
+        DiffOverlay.Builder builder = new DiffOverlay.Builder();
+        for (DatasetDiff diff : diffs) {
+            boolean volumes = new File(diff.getName()).getName().toUpperCase(Locale.ROOT)
+                    .startsWith(VOLUMES_FILE_PREFIX);
+            AirspaceGeometry oldGeometry = null;
+            AirspaceGeometry newGeometry = null;
+
+            for (DatasetDiff.Change change : diff.getChanges()) {
+                if (change.hasCoordinate()) {
+                    builder.addPoint(change.getKey(), change.getLongitude(), change.getLatitude(), change.getKind());
+                }
+                boolean sector = SECTOR_SECTION.equals(change.getSection());
+                if (!volumes || (!sector && !VOLUME_SECTION.equals(change.getSection()))) {
+                    continue;
+                }
+
+                AirspaceGeometry source;
+                if (change.getKind() == DatasetDiff.REMOVED) {
+                    if (oldGeometry == null && diff.getOldPath() != null) {
+                        oldGeometry = FDP_VOLUMES_DEFINITION_Service.getInstance()
+                                .loadGeometry(new File(diff.getOldPath()));
+                    }
+                    source = oldGeometry;
+                } else {
+                    if (newGeometry == null && diff.getNewPath() != null) {
+                        newGeometry = FDP_VOLUMES_DEFINITION_Service.getInstance()
+                                .loadGeometry(new File(diff.getNewPath()));
+                    }
+                    source = newGeometry;
+                }
+                Geometry geometry = source == null ? null
+                        : sector ? source.getSectorGeometry(change.getKey()) : source.getVolume(change.getKey());
+                if (geometry != null) {
+                    addRings(builder, change.getKey(), geometry, change.getKind());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static void addRings(DiffOverlay.Builder builder, String name, Geometry geometry, byte kind) {
+        for (int i = 0; i < geometry.getNumGeometries(); i++) {
+            Geometry part = geometry.getGeometryN(i);
+            if (!(part instanceof Polygon)) {
+                continue;
+            }
+            Coordinate[] ring = ((Polygon) part).getExteriorRing().getCoordinates();
+            double[] coordinates = new double[ring.length * 2];
+            for (int k = 0; k < ring.length; k++) {
+                coordinates[k * 2] = ring[k].x;
+                coordinates[k * 2 + 1] = ring[k].y;
+            }
+            builder.addRing(name, coordinates, kind);
+        }
+    }
+
+    /**
+     * 内容完全相同的文件（目录比较中的大多数）直接跳过，不必逐条记录比较
+     * 大小相同时比较内容哈希（缓存，重复比较同一目录不再读取文件），哈希计算失败时逐字节比较
+     */
+    private static boolean sameContent(Path a, Path b) throws IOException {
+        if (Files.size(a) != Files.size(b)) {
+            return false;
+        }
+        AdaptationCatalogService catalog = AdaptationCatalogService.getInstance();
+        String hashA = catalog.contentKey(a.toFile());
+        String hashB = hashA == null ? null : catalog.contentKey(b.toFile());
+        if (hashB != null) {
+            return hashA.equals(hashB);
+        }
+        try (FileChannel first = FileChannel.open(a, StandardOpenOption.READ);
+             FileChannel second = FileChannel.open(b, StandardOpenOption.READ)) {
+            long size = first.size();
+            if (size == 0) {
+                return true;
+            }
+            return first.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    .mismatch(second.map(FileChannel.MapMode.READ_ONLY, 0, size)) < 0;
+        }
+    }
+
+    private List<String> listAdaptationFiles(Path root) throws IOException {
+        List<String> names = new ArrayList<>();
+        if (!Files.isDirectory(root)) {
+            return names;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> isAdaptationFile(file.getFileName().toString()))
+                    .forEach(file -> names.add(root.relativize(file).toString().replace(File.separatorChar, '/')));
+        }
+        return names;
+    }
+
+    static boolean isAdaptationFile(String name) {
+        return ADAPTATION_FILE.matcher(name.toUpperCase(Locale.ROOT)).matches();
+    }
+
+    private DatasetDiff diff(String name, Path oldFile, Path newFile) throws IOException {
+        Fingerprint before = oldFile == null ? new Fingerprint() : fingerprint(oldFile);
+        Fingerprint after = newFile == null ? new Fingerprint() : fingerprint(newFile);
+        DatasetDiff diff = new DatasetDiff(name, oldFile == null ? null : oldFile.toString(),
+                newFile == null ? null : newFile.toString());
+
+        boolean[] matched = new boolean[before.count];
+        int unchanged = 0;
+        for (int j = 0; j < after.count; j++) {
+            Integer i = before.index.get(after.fullKeys[j]);
+            if (i == null) {
+                diff.addChange(after.change(j, DatasetDiff.ADDED));
+                continue;
+            }
+            matched[i] = true;
+            if (before.hashes[i] == after.hashes[j]) {
+                unchanged++;
+            } else if (after.hasCoordinate(j)) {
+                diff.addChange(after.change(j, DatasetDiff.MODIFIED));
+            } else {
+                diff.addChange(new DatasetDiff.Change(after.sections[j], after.keys[j], DatasetDiff.MODIFIED,
+                        before.coordinates[i * 2], before.coordinates[i * 2 + 1]));
+            }
+        }
+        for (int i = 0; i < before.count; i++) {
+            if (!matched[i]) {
+                diff.addChange(before.change(i, DatasetDiff.REMOVED));
+            }
+        }
+        diff.setUnchanged(unchanged);
+        return diff;
+    }
+
+    private Fingerprint fingerprint(Path file) throws IOException {
+        if (file.getFileName().toString().toUpperCase(Locale.ROOT).endsWith(".XML")) {
+            return fingerprintXml(file);
+        }
+
+        Fingerprint fingerprint = new Fingerprint();
+        ASFLexer lexer = ASFLexer.open(file);
+        double[] coordinate = new double[2];
+        String section = "";
+        int current = -1;
+        long hash = 0;
+
+        while (lexer.next()) {
+            if (lexer.isSection()) {
+                if (current >= 0) {
+                    fingerprint.hashes[current] = hash;
+                    current = -1;
+                }
+                section = lexer.sectionName();
+            } else if (lexer.isContinuation()) {
+                if (current >= 0) {
+                    hash = hashFields(lexer, mix(hash, LINE_SEPARATOR));
+                }
+            } else {
+                if (current >= 0) {
+                    fingerprint.hashes[current] = hash;
+                }
+                boolean located = lexer.fieldCount() > 1
+                        && CoordinateDecoder.decode(lexer.fieldChars(1), coordinate, 0) == CoordinateDecoder.OK;
+                current = fingerprint.add(section, lexer.fieldString(0),
+                        located ? coordinate[0] : Double.NaN, located ? coordinate[1] : Double.NaN);
+                hash = hashFields(lexer, FNV_OFFSET);
+            }
+        }
+        if (current >= 0) {
+            fingerprint.hashes[current] = hash;
+        }
+        return fingerprint;
+    }
+
+    private Fingerprint fingerprintXml(Path file) throws IOException {
+        Fingerprint fingerprint = new Fingerprint();
+        XmlRecordReader.read(file, record -> {
+            int uid = record.getUid();
+            String key = uid != Integer.MIN_VALUE ? String.valueOf(uid)
+                    : record.getFieldCount() > 0 ? record.getValue(0) : "";
+            int index = fingerprint.add(record.getName(), key, Double.NaN, Double.NaN);
+            fingerprint.hashes[index] = hashRecord(record);
+        });
+        return fingerprint;
+    }
+
+    /**
+     * 当前行各字段的哈希：去掉行尾的空字段，字段内连续空白视为一个空格
+     */
+    private static long hashFields(ASFLexer lexer, long hash) {
+        int last = lexer.fieldCount() - 1;
+        while (last >= 0 && lexer.fieldIsEmpty(last)) {
+            last--;
+        }
+        for (int field = 0; field <= last; field++) {
+            if (field > 0) {
+                hash = mix(hash, FIELD_SEPARATOR);
+            }
+            boolean blank = false;
+            for (int i = 0, length = lexer.fieldLength(field); i < length; i++) {
+                int b = lexer.fieldByte(field, i) & 0xFF;
+                if (b == ' ' || b == '\t') {
+                    blank = true;
+                    continue;
+                }
+                if (blank) {
+                    hash = mix(hash, ' ');
+                    blank = false;
+                }
+                hash = mix(hash, b);
+            }
+        }
+        return hash;
+    }
+
+    private static long hashRecord(XmlRecord record) {
+        long hash = FNV_OFFSET;
+        for (int field = 0; field < record.getFieldCount(); field++) {
+            hash = mixString(mix(hash, FIELD_SEPARATOR), record.getKey(field));
+            hash = mixString(mix(hash, FIELD_SEPARATOR), record.getValue(field));
+        }
+        return hash;
+    }
+
+    private static long mixString(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = mix(mix(hash, c & 0xFF), c >>> 8);
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int b) {
+        return (hash ^ b) * FNV_PRIME;
+    }
+
+    /**
+     * 一个文件版本的记录键表：键、所属段落、内容哈希和坐标，按读取顺序存放
+     */
+    private static final class Fingerprint {
+        final Map<String, Integer> index = new HashMap<>();
+        // 键的出现次数，用于给重复的键编号
+        final Map<String, Integer> occurrences = new HashMap<>();
+        String[] sections = new String[256];
+        String[] keys = new String[256];
+        String[] fullKeys = new String[256];
+        long[] hashes = new long[256];
+        double[] coordinates = new double[512];
+        int count;
+
+        int add(String section, String key, double longitude, double latitude) {
+            if (count == keys.length) {
+                int capacity = count * 2;
+                sections = Arrays.copyOf(sections, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+                fullKeys = Arrays.copyOf(fullKeys, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+                coordinates = Arrays.copyOf(coordinates, capacity * 2);
+            }
+            String fullKey = section + '/' + key;
+            int occurrence = occurrences.merge(fullKey, 1, Integer::sum);
+            if (occurrence > 1) {
+                key = key + '#' + occurrence;
+                fullKey = section + '/' + key;
+            }
+            index.put(fullKey, count);
+            sections[count] = section;
+            keys[count] = key;
+            fullKeys[count] = fullKey;
+            coordinates[count * 2] = longitude;
+            coordinates[count * 2 + 1] = latitude;
+            return count++;
+        }
+
+        boolean hasCoordinate(int record) {
+            return !Double.isNaN(coordinates[record * 2]);
+        }
+
+        DatasetDiff.Change change(int record, byte kind) {
+            return new DatasetDiff.Change(sections[record], keys[record], kind,
+                    coordinates[record * 2], coordinates[record * 2 + 1]);
+        }
+    }
+}
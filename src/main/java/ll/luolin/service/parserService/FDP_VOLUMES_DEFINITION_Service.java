@@ -0,0 +1,193 @@
+// service/parserService/FDP_VOLUMES_DEFINITION_Service.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.AirspaceGeometry;
+import ll.luolin.model.ASFModel.FDP_VOLUMES_DEFINITION_Model;
+import ll.luolin.model.ASFModel.LayerDefinition;
+import ll.luolin.model.ASFModel.SectorDefinition;
+import ll.luolin.model.ASFModel.VolumeDefinition;
+import ll.luolin.utils.ASFFileParser;
+import ll.luolin.utils.AreaGeometryBuilder;
+import ll.luolin.utils.LogUtils;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FDP_VOLUMES_DEFINITION.ASF 解析服务
+ * /POINTS/、/ARCS/ 提供坐标，/VOLUME/ 的边界展开为多边形（圆弧按精度插值），
+ * /SECTOR/、/FIR/ 等组合区域由 AirspaceGeometry 按需合并
+ */
+public class FDP_VOLUMES_DEFINITION_Service implements ASFService {
+    public static final String VOLUMES_FILE = "FDP_VOLUMES_DEFINITION.ASF";
+
+    private static FDP_VOLUMES_DEFINITION_Service instance;
+
+    // 文件路径 -> 缓存，文件修改时间或大小变化后重新解析
+    private final ConcurrentHashMap<String, CachedModels> fileCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CachedGeometry> geometryCache = new ConcurrentHashMap<>();
+
+    private FDP_VOLUMES_DEFINITION_Service() {
+    }
+
+    public static synchronized FDP_VOLUMES_DEFINITION_Service getInstance() {
+        if (instance == null) {
+            instance = new FDP_VOLUMES_DEFINITION_Service();
+        }
+        return instance;
+    }
+
+    /**
+     * 解析空域定义文件：每个体积和组合区域一个模型，组合区域的合并并行计算
+     */
+    @Override
+    public List<FDP_VOLUMES_DEFINITION_Model> parserFile(@NotNull File file) {
+        LogUtils.info("FDP_VOLUMES_DEFINITION_Service-parserFile-解析空域定义文件");
+
+        AirspaceGeometry geometry = loadGeometry(file);
+        if (geometry == null) {
+            return new ArrayList<>();
+        }
+
+        // 几何未重新生成时模型仍然有效
+        String cacheKey = file.getAbsolutePath();
+        CachedModels cached = fileCache.get(cacheKey);
+        if (cached != null && cached.geometry == geometry) {
+            return new ArrayList<>(cached.models);
+        }
+
+        List<FDP_VOLUMES_DEFINITION_Model> airspaces = new ArrayList<>();
+        for (String name : geometry.getVolumeNames()) {
+            airspaces.add(createModel(name, FDP_VOLUMES_DEFINITION_Model.AirspaceType.VOLUME, geometry.getVolume(name)));
+        }
+        Map<String, Geometry> unions = geometry.unionAll();
+        for (Map.Entry<String, Geometry> entry : unions.entrySet()) {
+            SectorDefinition sector = geometry.getSector(entry.getKey());
+            airspaces.add(createModel(entry.getKey(),
+                    FDP_VOLUMES_DEFINITION_Model.AirspaceType.fromString(sector.getSection()), entry.getValue()));
+        }
+
+        fileCache.put(cacheKey, new CachedModels(geometry, new ArrayList<>(airspaces)));
+        return airspaces;
+    }
+
+    /**
+     * 解析文件并生成空域几何（缓存），失败返回null
+     * 组合区域的合并推迟到第一次调用 getSectorGeometry / unionAll
+     */
+    public AirspaceGeometry loadGeometry(@NotNull File file) {
+        LogUtils.info("FDP_VOLUMES_DEFINITION_Service-loadGeometry-生成空域几何");
+
+        String cacheKey = file.getAbsolutePath();
+        CachedGeometry cached = geometryCache.get(cacheKey);
+        if (cached != null && cached.lastModified == file.lastModified() && cached.length == file.length()) {
+            return cached.geometry;
+        }
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        ASFParseResult result = ASFFileParser.getInstance().parse(file.toPath());
+        if (!result.isSuccess()) {
+            LogUtils.error("解析空域定义文件失败: " + file.getAbsolutePath(), result.getError());
+            return null;
+        }
+
+        Map<Integer, String> layerLevels = new HashMap<>();
+        for (LayerDefinition layer : result.get(LayerDefinition.class)) {
+            layerLevels.put(layer.getIndex(), layer.getLevel());
+        }
+
+        // 边界点序列相同的体积共用同一个多边形
+        AreaGeometryBuilder geometryBuilder = AreaGeometryBuilder.of(result);
+        Map<String, Geometry> volumes = new LinkedHashMap<>();
+        Map<String, Integer> volumeLayers = new HashMap<>();
+        int invalid = 0;
+
+        for (VolumeDefinition volume : result.get(VolumeDefinition.class)) {
+            Geometry polygon = geometryBuilder.polygon(volume.getPoints());
+            if (polygon == null) {
+                invalid++;
+                continue;
+            }
+            volumes.put(volume.getName(), polygon);
+            volumeLayers.put(volume.getName(), volume.getLayer());
+        }
+
+        Set<String> missing = geometryBuilder.getMissing();
+        if (!missing.isEmpty()) {
+            LogUtils.warn(String.format("%s: %d 个边界点未在/POINTS/中定义: %s", file.getName(), missing.size(), missing));
+        }
+        if (invalid > 0) {
+            LogUtils.warn(String.format("%s: %d 个体积的边界点不足，已跳过", file.getName(), invalid));
+        }
+
+        AirspaceGeometry geometry = new AirspaceGeometry(volumes, volumeLayers, layerLevels,
+                result.get(SectorDefinition.class), geometryBuilder.getDistinctPolygonCount());
+        LogUtils.info("解析空域定义完成: " + file.getName() + ", " + geometry);
+
+        geometryCache.put(cacheKey, new CachedGeometry(geometry, lastModified, length));
+        return geometry;
+    }
+
+    private static FDP_VOLUMES_DEFINITION_Model createModel(String name, FDP_VOLUMES_DEFINITION_Model.AirspaceType type,
+                                                           Geometry geometry) {
+        FDP_VOLUMES_DEFINITION_Model model = new FDP_VOLUMES_DEFINITION_Model(name, type);
+        model.setGeometry(geometry);
+
+        // 外环取面积最大的多边形
+        Polygon largest = null;
+        for (int i = 0; i < geometry.getNumGeometries(); i++) {
+            Geometry part = geometry.getGeometryN(i);
+            if (part instanceof Polygon && (largest == null || part.getArea() > largest.getArea())) {
+                largest = (Polygon) part;
+            }
+        }
+        if (largest != null) {
+            for (Coordinate coordinate : largest.getExteriorRing().getCoordinates()) {
+                model.addPoint(coordinate.x, coordinate.y);
+            }
+        }
+        return model;
+    }
+
+    /**
+     * 清除缓存
+     */
+    public void clearCache() {
+        fileCache.clear();
+        geometryCache.clear();
+    }
+
+    private static final class CachedGeometry {
+        final AirspaceGeometry geometry;
+        final long lastModified;
+        final long length;
+
+        CachedGeometry(AirspaceGeometry geometry, long lastModified, long length) {
+            this.geometry = geometry;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
+    private static final class CachedModels {
+        final AirspaceGeometry geometry;
+        final List<FDP_VOLUMES_DEFINITION_Model> models;
+
+        CachedModels(AirspaceGeometry geometry, List<FDP_VOLUMES_DEFINITION_Model> models) {
+            this.geometry = geometry;
+            this.models = models;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+// service/parserService/MaestroDataset.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.ASFModel.MaestroTrajectory;
+import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.utils.LogUtils;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Maestro（AMAN）数据集 maestro_dataset.db 的只读访问
+ * 以只读方式打开SQLite文件，连接放在小连接池中复用，每个连接缓存自己的预编译语句；
+ * 查询结果以Stream逐行映射为模型对象，不把整张表读入内存。Stream必须关闭（try-with-resources）才会归还连接。
+ *
+ * 坐标列是 "DD.MMSS" 加半球字母的文本（23.2329N 即 23°23'29"），Id 不大于0的行是 ALL/NUL/None 占位，不返回。
+ */
+public class MaestroDataset implements AutoCloseable {
+
+    /** 信标类型，按 馈入点 > 计量点 > 进近点 > 移交点 > 过渡点 的顺序取第一个成立的角色 */
+    public static final String FEEDER_FIX_TYPE = "FEEDER_FIX";
+    public static final String METERING_FIX_TYPE = "METERING_FIX";
+    public static final String APPROACH_POINT_TYPE = "APPROACH_POINT";
+    public static final String EXIT_POINT_TYPE = "EXIT_POINT";
+    public static final String TRANSITION_FIX_TYPE = "TRANSITION_FIX";
+    public static final String BEACON_TYPE = "BEACON";
+    public static final String RUNWAY_TYPE = "RUNWAY";
+
+    private static final String JDBC_PREFIX = "jdbc:sqlite:";
+    // SQLITE_OPEN_READONLY
+    private static final String READ_ONLY_OPEN_MODE = "1";
+    private static final int DEFAULT_POOL_SIZE = 2;
+
+    private static final String BEACONS_SQL = "SELECT Name, Latitude, Longitude, IsFeederFix, IsMeteringFix,"
+            + " IsApproachPoint, IsExitPoint, IsTransitionFix FROM Beacons WHERE Id > 0 ORDER BY Id";
+    private static final String RUNWAYS_SQL = "SELECT r.Name, r.Latitude, r.Longitude, a.Name FROM Runways r"
+            + " LEFT JOIN Airports a ON a.Id = r.IdAirport WHERE r.Id > 0 ORDER BY r.Id";
+    private static final String TRAJECTORIES_SQL = "SELECT t.Name, c.Name, b.Name, r.Name, t.Definition,"
+            + " t.Distance, t.TrajectoryTime FROM TrajectoryKind t"
+            + " LEFT JOIN TrajectoryClasses c ON c.Id = t.IdTrajectory"
+            + " LEFT JOIN Beacons b ON b.Id = t.IdFeederFix"
+            + " LEFT JOIN Runways r ON r.Id = t.IdRunway ORDER BY t.Id";
+    private static final String REFERENCE_POINT_SQL =
+            "SELECT Latitude, Longitude FROM ReferencePoint ORDER BY Id LIMIT 1";
+    private static final String DATASET_NAME_SQL = "SELECT DatasetName FROM DatasetAttributes ORDER BY Id LIMIT 1";
+
+    /**
+     * 把当前行映射为模型对象，返回null表示跳过该行
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet row) throws SQLException;
+    }
+
+    private final File file;
+    private final int poolSize;
+    private final ArrayBlockingQueue<PooledConnection> idle;
+    private final AtomicInteger opened = new AtomicInteger();
+    private volatile boolean closed;
+
+    public MaestroDataset(File file) {
+        this(file, DEFAULT_POOL_SIZE);
+    }
+
+    public MaestroDataset(File file, int poolSize) {
+        this.file = file;
+        this.poolSize = Math.max(1, poolSize);
+        this.idle = new ArrayBlockingQueue<>(this.poolSize);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 信标，类型见 *_TYPE 常量
+     */
+    public Stream<NavPointModel> beacons() {
+        double[] coordinate = new double[2];
+        return query(BEACONS_SQL, row -> {
+            if (!decode(row.getString(2), row.getString(3), coordinate)) {
+                return null;
+            }
+            return new NavPointModel(row.getString(1), coordinate[0], coordinate[1], beaconType(row));
+        });
+    }
+
+    /**
+     * 跑道入口，名称为 "机场/跑道号"
+     */
+    public Stream<NavPointModel> runways() {
+        double[] coordinate = new double[2];
+        return query(RUNWAYS_SQL, row -> {
+            if (!decode(row.getString(2), row.getString(3), coordinate)) {
+                return null;
+            }
+            String airport = row.getString(4);
+            String name = airport == null ? row.getString(1) : airport + "/" + row.getString(1);
+            return new NavPointModel(name, coordinate[0], coordinate[1], RUNWAY_TYPE);
+        });
+    }
+
+    public Stream<MaestroTrajectory> trajectories() {
+        return query(TRAJECTORIES_SQL, row -> new MaestroTrajectory(row.getString(1), row.getString(2),
+                row.getString(3), row.getString(4), row.getString(5), row.getDouble(6), row.getDouble(7)));
+    }
+
+    /**
+     * 参考点 {经度, 纬度}，没有时返回null
+     */
+    public double[] getReferencePoint() {
+        try (Stream<double[]> rows = query(REFERENCE_POINT_SQL, row -> {
+            double[] coordinate = new double[2];
+            return decode(row.getString(1), row.getString(2), coordinate) ? coordinate : null;
+        })) {
+            return rows.findFirst().orElse(null);
+        }
+    }
+
+    public String getDatasetName() {
+        try (Stream<String> rows = query(DATASET_NAME_SQL, row -> row.getString(1))) {
+            return rows.findFirst().orElse("");
+        }
+    }
+
+    /**
+     * 执行查询并按行映射；连接在Stream关闭时归还
+     */
+    public <T> Stream<T> query(String sql, RowMapper<T> mapper) {
+        PooledConnection connection = borrow();
+        ResultSet resultSet;
+        try {
+            resultSet = connection.prepare(sql).executeQuery();
+        } catch (SQLException e) {
+            release(connection);
+            throw new IllegalStateException("查询Maestro数据集失败: " + file.getPath(), e);
+        }
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    while (resultSet.next()) {
+                        T value = mapper.map(resultSet);
+                        if (value != null) {
+                            action.accept(value);
+                            return true;
+                        }
+                    }
+                    return false;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("读取Maestro数据集失败: " + file.getPath(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                LogUtils.warn("关闭查询结果失败: " + e.getMessage());
+            }
+            release(connection);
+        });
+    }
+
+    private PooledConnection borrow() {
+        if (closed) {
+            throw new IllegalStateException("Maestro数据集已关闭: " + file.getPath());
+        }
+        PooledConnection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        if (opened.incrementAndGet() <= poolSize) {
+            try {
+                return new PooledConnection(open());
+            } catch (SQLException e) {
+                opened.decrementAndGet();
+                throw new IllegalStateException("打开Maestro数据集失败: " + file.getPath(), e);
+            }
+        }
+        opened.decrementAndGet();
+        try {
+            return idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待数据库连接时被中断", e);
+        }
+    }
+
+    private void release(PooledConnection connection) {
+        if (closed || !idle.offer(connection)) {
+            connection.close();
+            opened.decrementAndGet();
+        }
+    }
+
+    private Connection open() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("open_mode", READ_ONLY_OPEN_MODE);
+        return DriverManager.getConnection(JDBC_PREFIX + file.getAbsolutePath(), properties);
+    }
+
+    /**
+     * 关闭空闲连接；仍在使用的连接在其Stream关闭时关闭
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+            opened.decrementAndGet();
+        }
+    }
+
+    private static String beaconType(ResultSet row) throws SQLException {
+        if (isTrue(row.getString(4))) {
+            return FEEDER_FIX_TYPE;
+        } else if (isTrue(row.getString(5))) {
+            return METERING_FIX_TYPE;
+        } else if (isTrue(row.getString(6))) {
+            return APPROACH_POINT_TYPE;
+        } else if (isTrue(row.getString(7))) {
+            return EXIT_POINT_TYPE;
+        } else if (isTrue(row.getString(8))) {
+            return TRANSITION_FIX_TYPE;
+        }
+        return BEACON_TYPE;
+    }
+
+    // 布尔列以文本 'true'/'false' 存储
+    private static boolean isTrue(String value) {
+        return "true".equalsIgnoreCase(value) || "1".equals(value);
+    }
+
+    /**
+     * 解码纬度、经度文本，成功时 out = {经度, 纬度}；格式错误或为 0,0 占位时返回false
+     */
+    static boolean decode(String latitude, String longitude, double[] out) {
+        double lat = parsePackedDms(latitude, 'N', 'S', 90);
+        double lon = parsePackedDms(longitude, 'E', 'W', 180);
+        if (Double.isNaN(lat) || Double.isNaN(lon) || (lat == 0 && lon == 0)) {
+            return false;
+        }
+        out[0] = lon;
+        out[1] = lat;
+        return true;
+    }
+
+    /**
+     * "DD.MMSS[s…]" 加半球字母 -> 十进制度，小数点后前两位是分、再两位是秒，其余为秒的小数；格式错误返回NaN
+     */
+    static double parsePackedDms(String text, char positive, char negative, double limit) {
+        if (text == null) {
+            return Double.NaN;
+        }
+        String value = text.trim();
+        if (value.length() < 2) {
+            return Double.NaN;
+        }
+        char hemisphere = Character.toUpperCase(value.charAt(value.length() - 1));
+        if (hemisphere != positive && hemisphere != negative) {
+            return Double.NaN;
+        }
+        value = value.substring(0, value.length() - 1);
+
+        int dot = value.indexOf('.');
+        String fraction = dot < 0 ? "" : value.substring(dot + 1);
+        String whole = dot < 0 ? value : value.substring(0, dot);
+        if (whole.isEmpty() || !isDigits(whole) || !isDigits(fraction)) {
+            return Double.NaN;
+        }
+        fraction = (fraction + "0000").substring(0, Math.max(4, fraction.length()));
+
+        int minutes = Integer.parseInt(fraction.substring(0, 2));
+        double seconds = Integer.parseInt(fraction.substring(2, 4));
+        if (fraction.length() > 4) {
+            seconds += Double.parseDouble("0." + fraction.substring(4));
+        }
+        double degrees = Integer.parseInt(whole) + minutes / 60.0 + seconds / 3600.0;
+        if (minutes >= 60 || seconds >= 60 || degrees > limit) {
+            return Double.NaN;
+        }
+        return hemisphere == negative ? -degrees : degrees;
+    }
+
+    private static boolean isDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 池中的连接及其预编译语句缓存（连接同一时间只借给一个查询，语句可以安全复用）
+     */
+    private static final class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+            return statement;
+        }
+
+        void close() {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LogUtils.warn("关闭数据库连接失败: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+// service/parserService/MaestroDatasetService.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.NavPointLayerModel;
+import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.utils.LogUtils;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * MAESTRO_DATA.ASF 中的 Maestro（AMAN）数据集服务
+ * 每个机场一个子目录，使用其中参考数据集 datasets/data_ref/maestro_dataset.db，
+ * 直接查询数据库生成信标和跑道图层，不解析导出的文本。
+ */
+public class MaestroDatasetService {
+    private static MaestroDatasetService instance;
+
+    /** ASF目录下的Maestro数据目录 */
+    public static final String MAESTRO_DIR = "MAESTRO_DATA.ASF";
+    /** 机场目录下的参考数据集 */
+    public static final String REFERENCE_DATASET = "datasets/data_ref";
+    public static final String DATABASE_NAME = "maestro_dataset.db";
+
+    private final ConcurrentHashMap<String, MaestroDataset> datasets = new ConcurrentHashMap<>();
+
+    private MaestroDatasetService() {
+    }
+
+    public static synchronized MaestroDatasetService getInstance() {
+        if (instance == null) {
+            instance = new MaestroDatasetService();
+        }
+        return instance;
+    }
+
+    /**
+     * 各机场参考数据集的数据库文件，按机场名排序
+     */
+    public List<File> findDatabases(@NotNull File asfDirectory) {
+        List<File> databases = new ArrayList<>();
+        File[] airports = new File(asfDirectory, MAESTRO_DIR).listFiles(File::isDirectory);
+        if (airports == null) {
+            return databases;
+        }
+        Arrays.sort(airports, Comparator.comparing(File::getName));
+        for (File airport : airports) {
+            File database = new File(new File(airport, REFERENCE_DATASET), DATABASE_NAME);
+            if (database.isFile()) {
+                databases.add(database);
+            }
+        }
+        return databases;
+    }
+
+    /**
+     * 打开数据集（按内容哈希复用连接池，同一文件和内容相同的副本共用一个）
+     */
+    public MaestroDataset open(@NotNull File database) {
+        String contentKey = AdaptationCatalogService.getInstance().contentKey(database);
+        String key = contentKey != null ? contentKey : database.getAbsolutePath();
+        return datasets.computeIfAbsent(key, k -> new MaestroDataset(database));
+    }
+
+    /**
+     * 每个机场生成 "&lt;机场&gt;_MAESTRO_BEACONS" 和 "&lt;机场&gt;_MAESTRO_RUNWAYS" 两个图层；打开失败的数据集跳过
+     */
+    public List<NavPointLayerModel> loadLayers(@NotNull File asfDirectory) {
+        LogUtils.info("MaestroDatasetService-loadLayers-加载Maestro数据集");
+
+        List<NavPointLayerModel> layers = new ArrayList<>();
+        for (File database : findDatabases(asfDirectory)) {
+            long start = System.nanoTime();
+            String airport = database.getParentFile().getParentFile().getParentFile().getName();
+            MaestroDataset dataset = open(database);
+            try {
+                List<NavPointModel> beacons;
+                try (Stream<NavPointModel> rows = dataset.beacons()) {
+                    beacons = rows.collect(Collectors.toList());
+                }
+                List<NavPointModel> runways;
+                try (Stream<NavPointModel> rows = dataset.runways()) {
+                    runways = rows.collect(Collectors.toList());
+                }
+
+                addLayer(layers, airport + "_MAESTRO_BEACONS", database, beacons);
+                addLayer(layers, airport + "_MAESTRO_RUNWAYS", database, runways);
+                LogUtils.info(String.format("Maestro数据集 %s: %d 个信标, %d 条跑道, 耗时 %d ms",
+                        airport, beacons.size(), runways.size(), (System.nanoTime() - start) / 1_000_000));
+            } catch (RuntimeException e) {
+                LogUtils.error("读取Maestro数据集失败: " + database.getPath(), e);
+            }
+        }
+        return layers;
+    }
+
+    private void addLayer(List<NavPointLayerModel> layers, String name, File database, List<NavPointModel> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        NavPointLayerModel layer = new NavPointLayerModel(name, database);
+        layer.addNavPoints(points);
+        layers.add(layer);
+    }
+
+    /**
+     * 关闭全部数据集连接
+     */
+    public void closeAll() {
+        for (MaestroDataset dataset : datasets.values()) {
+            dataset.close();
+        }
+        datasets.clear();
+    }
+}
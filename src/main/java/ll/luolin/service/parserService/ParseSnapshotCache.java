@@ -0,0 +1,331 @@
+// service/parserService/ParseSnapshotCache.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.utils.LogUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * ASF解析结果的二进制快照缓存
+ * 解析完一个文件后把导航点按列写入快照（字符串表 + 名称/类型下标 + 经纬度数组），
+ * 下次启动时内存映射快照直接还原，不再解析文本。
+ *
+ * 快照以源文件的绝对路径命名，头部记录路径、大小、修改时间和内容SHA-256：
+ * 大小和修改时间都相同时直接使用；只有修改时间不同时重新计算内容哈希，相同则继续使用并更新修改时间；
+ * 其余情况（包括格式版本不符、文件损坏）返回null，调用方回退到文本解析。
+ * 解析逻辑变化导致结果不同时需要增加 VERSION。
+ *
+ * 文件布局（大端）：
+ * <pre>
+ * int 魔数 | int 版本 | int 路径长度 + 路径UTF-8 | long 大小 | long 修改时间 | byte[32] SHA-256
+ * int 点数n | int 字符串数m | int[m+1] 字符串偏移 | byte[] 字符串内容
+ * int[n] 名称下标 | int[n] 类型下标 | double[n] 经度 | double[n] 纬度
+ * </pre>
+ */
+public class ParseSnapshotCache {
+    private static ParseSnapshotCache instance;
+
+    private static final int MAGIC = 0x41534653; // "ASFS"
+    private static final int VERSION = 1;
+    private static final int HASH_LENGTH = 32;
+    private static final String SUFFIX = ".snap";
+
+    // 小快照直接读入堆内存
+    private static final int MAP_THRESHOLD = 64 * 1024;
+
+    private final Path root;
+    private final boolean enabled;
+
+    public ParseSnapshotCache(Path root, boolean enabled) {
+        this.root = root;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 默认实例：用户目录下的 map_tiles/parse-cache，-Ddprmap.parseCache=false 可关闭
+     */
+    public static synchronized ParseSnapshotCache getInstance() {
+        if (instance == null) {
+            instance = new ParseSnapshotCache(defaultRoot(),
+                    !"false".equalsIgnoreCase(System.getProperty("dprmap.parseCache")));
+        }
+        return instance;
+    }
+
+    public static Path defaultRoot() {
+        return Paths.get(System.getProperty("user.home"), "map_tiles", "parse-cache");
+    }
+
+    /**
+     * 读取源文件对应的快照，没有快照或已失效时返回null
+     */
+    public List<NavPointModel> load(Path source) {
+        if (!enabled) {
+            return null;
+        }
+
+        Path snapshot = snapshotPath(source);
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+
+        try {
+            long size = Files.size(source);
+            long modified = Files.getLastModifiedTime(source).toMillis();
+
+            ByteBuffer buffer = read(snapshot);
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+
+            byte[] pathBytes = new byte[buffer.getInt()];
+            buffer.get(pathBytes);
+            if (!new String(pathBytes, StandardCharsets.UTF_8).equals(key(source))) {
+                return null;
+            }
+
+            long snapshotSize = buffer.getLong();
+            int modifiedOffset = buffer.position();
+            long snapshotModified = buffer.getLong();
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.get(hash);
+
+            if (snapshotSize != size) {
+                return null;
+            }
+            if (snapshotModified != modified) {
+                // 修改时间变了（如重新检出），内容相同时仍然可用
+                if (!Arrays.equals(hash, contentHash(source))) {
+                    return null;
+                }
+                updateModified(snapshot, modifiedOffset, modified);
+            }
+
+            return readPoints(buffer);
+
+        } catch (IOException | RuntimeException e) {
+            LogUtils.warn("读取解析快照失败，回退到文本解析: " + source + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写入快照，失败只记录日志
+     * size、modified 是解析前读取的源文件大小和修改时间，解析期间文件被改动时不写入
+     */
+    public void store(Path source, long size, long modified, List<NavPointModel> points) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            byte[] hash = contentHash(source);
+            if (Files.size(source) != size || Files.getLastModifiedTime(source).toMillis() != modified) {
+                return;
+            }
+
+            // 字符串表：名称和类型去重
+            Map<String, Integer> index = new HashMap<>();
+            List<String> strings = new ArrayList<>();
+            int[] names = new int[points.size()];
+            int[] types = new int[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                NavPointModel point = points.get(i);
+                names[i] = intern(point.getName(), index, strings);
+                types[i] = intern(point.getType(), index, strings);
+            }
+
+            Files.createDirectories(root);
+            Path snapshot = snapshotPath(source);
+            Path tmp = Files.createTempFile(root, "snap", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    byte[] pathBytes = key(source).getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(pathBytes.length);
+                    out.write(pathBytes);
+                    out.writeLong(size);
+                    out.writeLong(modified);
+                    out.write(hash);
+
+                    out.writeInt(points.size());
+                    out.writeInt(strings.size());
+                    List<byte[]> encoded = new ArrayList<>(strings.size());
+                    int offset = 0;
+                    out.writeInt(0);
+                    for (String value : strings) {
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        encoded.add(bytes);
+                        offset += bytes.length;
+                        out.writeInt(offset);
+                    }
+                    for (byte[] bytes : encoded) {
+                        out.write(bytes);
+                    }
+
+                    for (int name : names) {
+                        out.writeInt(name);
+                    }
+                    for (int type : types) {
+                        out.writeInt(type);
+                    }
+                    for (NavPointModel point : points) {
+                        out.writeDouble(point.getLongitude());
+                    }
+                    for (NavPointModel point : points) {
+                        out.writeDouble(point.getLatitude());
+                    }
+                }
+                move(tmp, snapshot);
+            } finally {
+                // 写入或移动失败时不留下临时文件，移动成功后它已不存在
+                Files.deleteIfExists(tmp);
+            }
+
+        } catch (IOException e) {
+            LogUtils.warn("写入解析快照失败: " + source + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * 删除全部快照
+     */
+    public void clear() {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(root)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            LogUtils.warn("清除解析快照失败: " + e.getMessage());
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    private List<NavPointModel> readPoints(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        int stringCount = buffer.getInt();
+
+        int[] offsets = new int[stringCount + 1];
+        buffer.asIntBuffer().get(offsets);
+        buffer.position(buffer.position() + offsets.length * Integer.BYTES);
+
+        byte[] blob = new byte[offsets[stringCount]];
+        buffer.get(blob);
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            strings[i] = new String(blob, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        }
+
+        int[] names = new int[count];
+        int[] types = new int[count];
+        double[] lons = new double[count];
+        double[] lats = new double[count];
+        buffer.asIntBuffer().get(names);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        buffer.asIntBuffer().get(types);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        buffer.asDoubleBuffer().get(lons);
+        buffer.position(buffer.position() + count * Double.BYTES);
+        buffer.asDoubleBuffer().get(lats);
+
+        List<NavPointModel> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new NavPointModel(strings[names[i]], lons[i], lats[i], strings[types[i]]));
+        }
+        return points;
+    }
+
+    private static int intern(String value, Map<String, Integer> index, List<String> strings) {
+        Integer existing = index.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        index.put(value, strings.size());
+        strings.add(value);
+        return strings.size() - 1;
+    }
+
+    private static ByteBuffer read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 读满为止
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    private static void updateModified(Path snapshot, int offset, long modified) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(Long.BYTES);
+            value.putLong(modified).flip();
+            channel.write(value, offset);
+        }
+    }
+
+    private static byte[] contentHash(Path source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return digest.digest();
+    }
+
+    private static String key(Path source) {
+        return source.toAbsolutePath().normalize().toString();
+    }
+
+    private Path snapshotPath(Path source) {
+        UUID id = UUID.nameUUIDFromBytes(key(source).getBytes(StandardCharsets.UTF_8));
+        return root.resolve(id + SUFFIX);
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
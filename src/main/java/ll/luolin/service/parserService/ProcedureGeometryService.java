@@ -0,0 +1,249 @@
+// service/parserService/ProcedureGeometryService.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.ASFModel.HoldingDefinition;
+import ll.luolin.model.ASFModel.IlsDefinition;
+import ll.luolin.model.ASFModel.RunwayDefinition;
+import ll.luolin.model.ProcedureLayer;
+import ll.luolin.utils.ASFLexer;
+import ll.luolin.utils.CoordinateDecoder;
+import ll.luolin.utils.LogUtils;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * 跑道、ILS、等待程序服务
+ * 读取 AIRPORT_RUNWAY.ASF（/机场/ 段中的跑道入口）、ILS.ASF（/ILS/ 段）和 HOLDING.ASF（/HLDn/ 段），
+ * 每个机场生成一个 ProcedureLayer，等待程序单独成一个图层；几何由图层按缩放级别生成并缓存。
+ */
+public class ProcedureGeometryService {
+    private static ProcedureGeometryService instance;
+
+    public static final String RUNWAY_FILE = "AIRPORT_RUNWAY.ASF";
+    public static final String ILS_FILE = "ILS.ASF";
+    public static final String HOLDING_FILE = "HOLDING.ASF";
+    public static final String HOLDING_LAYER = "HOLDING";
+
+    private static final Pattern AIRPORT = Pattern.compile("[A-Z]{4}");
+    private static final Pattern RUNWAY = Pattern.compile("\\d{2}[LRC]?");
+    private static final String APPLIES_TO = "APPLIES_TO";
+
+    private ProcedureGeometryService() {
+    }
+
+    public static synchronized ProcedureGeometryService getInstance() {
+        if (instance == null) {
+            instance = new ProcedureGeometryService();
+        }
+        return instance;
+    }
+
+    /**
+     * 先在ASF目录（GLOBAL）中找，再到上一级目录找，不存在返回null
+     */
+    public File findFile(@NotNull File asfDirectory, String name) {
+        File file = new File(asfDirectory, name);
+        if (!file.isFile() && asfDirectory.getParentFile() != null) {
+            file = new File(asfDirectory.getParentFile(), name);
+        }
+        return file.isFile() ? file : null;
+    }
+
+    /**
+     * 生成各机场的程序图层（按机场代码排序），最后是等待程序图层
+     *
+     * @param fixes 已加载的导航点（点名 -> {经度, 纬度}），用于定位等待程序
+     */
+    public List<ProcedureLayer> loadLayers(@NotNull File asfDirectory, @NotNull Map<String, double[]> fixes) {
+        LogUtils.info("ProcedureGeometryService-loadLayers-生成跑道、ILS和等待程序图层");
+
+        File runwayFile = findFile(asfDirectory, RUNWAY_FILE);
+        File ilsFile = findFile(asfDirectory, ILS_FILE);
+        File holdingFile = findFile(asfDirectory, HOLDING_FILE);
+        List<RunwayDefinition> runways = runwayFile == null ? Collections.emptyList() : parseRunways(runwayFile);
+        List<IlsDefinition> ilsList = ilsFile == null ? Collections.emptyList() : parseIls(ilsFile);
+        List<HoldingDefinition> holdings = holdingFile == null ? Collections.emptyList() : parseHoldings(holdingFile);
+
+        Map<String, List<RunwayDefinition>> runwaysByAirport = new TreeMap<>();
+        Map<String, RunwayDefinition> byName = new HashMap<>();
+        for (RunwayDefinition runway : runways) {
+            runwaysByAirport.computeIfAbsent(runway.getAirport(), key -> new ArrayList<>()).add(runway);
+            byName.put(runway.getAirport() + "/" + runway.getName(), runway);
+        }
+        Set<String> unpaired = new LinkedHashSet<>();
+        for (RunwayDefinition runway : runways) {
+            if (!byName.containsKey(runway.getAirport() + "/" + runway.getReciprocalName())) {
+                unpaired.add(runway.getAirport() + "/" + runway.getName());
+            }
+        }
+        if (!unpaired.isEmpty()) {
+            LogUtils.warn("没有反向入口的跑道不生成矩形: " + unpaired);
+        }
+
+        Map<String, List<IlsDefinition>> ilsByAirport = new TreeMap<>();
+        for (IlsDefinition ils : ilsList) {
+            ilsByAirport.computeIfAbsent(ils.getAirport(), key -> new ArrayList<>()).add(ils);
+        }
+
+        Set<String> airports = new TreeSet<>(runwaysByAirport.keySet());
+        airports.addAll(ilsByAirport.keySet());
+        List<ProcedureLayer> layers = new ArrayList<>();
+        for (String airport : airports) {
+            layers.add(new ProcedureLayer(airport,
+                    runwaysByAirport.getOrDefault(airport, Collections.emptyList()),
+                    ilsByAirport.getOrDefault(airport, Collections.emptyList()),
+                    Collections.emptyList(), Collections.emptyMap()));
+        }
+
+        if (!holdings.isEmpty()) {
+            Map<String, double[]> holdingFixes = new HashMap<>();
+            Set<String> missing = new LinkedHashSet<>();
+            for (HoldingDefinition holding : holdings) {
+                double[] fix = fixes.get(holding.getFix());
+                if (fix == null) {
+                    missing.add(holding.getName() + "@" + holding.getFix());
+                } else {
+                    holdingFixes.put(holding.getFix(), fix);
+                }
+            }
+            if (!missing.isEmpty()) {
+                LogUtils.warn("等待程序的定位点未定义: " + missing);
+            }
+            layers.add(new ProcedureLayer(HOLDING_LAYER, Collections.emptyList(), Collections.emptyList(),
+                    holdings, holdingFixes));
+        }
+
+        LogUtils.info(String.format("程序图层: %d 条跑道, %d 个ILS, %d 个等待程序",
+                runways.size(), ilsList.size(), holdings.size()));
+        return layers;
+    }
+
+    /**
+     * /机场/ 段：NAME | DFAUT | LOCATION | HEADING | ROLLOUT | WID | ...
+     */
+    List<RunwayDefinition> parseRunways(File file) {
+        List<RunwayDefinition> runways = new ArrayList<>();
+        double[] location = new double[2];
+        try {
+            ASFLexer lexer = ASFLexer.open(file.toPath());
+            String airport = null;
+            while (lexer.next()) {
+                if (lexer.isSection()) {
+                    String section = lexer.sectionName().trim();
+                    airport = AIRPORT.matcher(section).matches() ? section : null;
+                    continue;
+                }
+                if (airport == null || !lexer.isData() || lexer.fieldCount() < 6) {
+                    continue;
+                }
+                String name = lexer.fieldString(0);
+                if (!RUNWAY.matcher(name).matches()
+                        || ASFSectionHandlers.parseCoordinate(lexer, 2, location) != CoordinateDecoder.OK) {
+                    continue;
+                }
+                double heading = parseAngle(lexer.fieldString(3));
+                double halfWidth = ASFSectionHandlers.parseDistance(lexer.fieldString(5));
+                if (Double.isNaN(heading) || !(halfWidth > 0)) {
+                    continue;
+                }
+                runways.add(new RunwayDefinition(airport, name, lexer.fieldEquals(1, "YES"),
+                        location[0], location[1], heading, halfWidth));
+            }
+        } catch (IOException e) {
+            LogUtils.error("读取跑道文件失败: " + file.getPath(), e);
+        }
+        return runways;
+    }
+
+    /**
+     * /ILS/ 段：NAME | 机场 | 跑道，之后是 位置 | 航向 | 下滑角（0.1°） | 外指点标距离 | ...
+     */
+    List<IlsDefinition> parseIls(File file) {
+        List<IlsDefinition> ilsList = new ArrayList<>();
+        double[] location = new double[2];
+        try {
+            ASFLexer lexer = ASFLexer.open(file.toPath());
+            boolean inIls = false;
+            IlsDefinition current = null;
+            while (lexer.next()) {
+                if (lexer.isSection()) {
+                    inIls = lexer.sectionEquals("ILS");
+                    current = null;
+                    continue;
+                }
+                if (!inIls || !lexer.isData() || lexer.fieldCount() < 3) {
+                    continue;
+                }
+                if (ASFSectionHandlers.parseCoordinate(lexer, 0, location) == CoordinateDecoder.OK) {
+                    if (current != null && !current.hasPosition() && lexer.fieldCount() >= 4) {
+                        current.setLocalizer(location[0], location[1], parseAngle(lexer.fieldString(1)),
+                                lexer.fieldInt(2, 30) / 10.0, ASFSectionHandlers.parseDistance(lexer.fieldString(3)));
+                    }
+                } else if (current == null) {
+                    current = new IlsDefinition(lexer.fieldString(0), lexer.fieldString(1), lexer.fieldString(2));
+                    ilsList.add(current);
+                }
+            }
+        } catch (IOException e) {
+            LogUtils.error("读取ILS文件失败: " + file.getPath(), e);
+        }
+        return ilsList;
+    }
+
+    /**
+     * /HLDn/ 段：时间 | 入航航向 | RIGHT/LEFT | 说明，APPLIES_TO | 定位点
+     */
+    List<HoldingDefinition> parseHoldings(File file) {
+        List<HoldingDefinition> holdings = new ArrayList<>();
+        try {
+            ASFLexer lexer = ASFLexer.open(file.toPath());
+            HoldingDefinition current = null;
+            while (lexer.next()) {
+                if (lexer.isSection()) {
+                    current = new HoldingDefinition(lexer.sectionName().trim());
+                    holdings.add(current);
+                    continue;
+                }
+                if (current == null || !lexer.isData() || lexer.fieldCount() < 2) {
+                    continue;
+                }
+                if (lexer.fieldEquals(0, APPLIES_TO)) {
+                    current.setFix(lexer.fieldString(1));
+                    continue;
+                }
+                int seconds = lexer.fieldInt(0, -1);
+                double course = parseAngle(lexer.fieldString(1));
+                if (seconds <= 0 || Double.isNaN(course) || lexer.fieldCount() < 3) {
+                    continue;
+                }
+                current.getLegs().add(new HoldingDefinition.Leg(seconds, course, !lexer.fieldEquals(2, "LEFT"),
+                        lexer.fieldCount() > 3 ? lexer.fieldString(3) : ""));
+            }
+        } catch (IOException e) {
+            LogUtils.error("读取等待程序文件失败: " + file.getPath(), e);
+        }
+        holdings.removeIf(holding -> holding.getLegs().isEmpty() || holding.getFix().isEmpty());
+        return holdings;
+    }
+
+    private static double parseAngle(String text) {
+        try {
+            return Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
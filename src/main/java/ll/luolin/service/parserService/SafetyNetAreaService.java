@@ -0,0 +1,168 @@
+// service/parserService/SafetyNetAreaService.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.ASFModel.SafetyNetAreaDefinition;
+import ll.luolin.model.SafetyNetLayer;
+import ll.luolin.utils.ASFFileParser;
+import ll.luolin.utils.AreaGeometryBuilder;
+import ll.luolin.utils.LogUtils;
+import ll.luolin.utils.ParallelTasks;
+import org.locationtech.jts.geom.Geometry;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 安全网区域服务（MSAW、STCA、MTCD、NTZ、DTZ、DAIW）
+ * 每个文件用 ASFFileParser 扫描一遍，区域段由 SafetyNetAreaHandler / ObstacleHandler 解析，
+ * 几何由同一文件的 AreaGeometryBuilder 生成；多个文件并行加载，结果按文件缓存。
+ * NTZ_AREA_DEFINITION 按跑道定义，不在这里生成。
+ */
+public class SafetyNetAreaService {
+    private static SafetyNetAreaService instance;
+
+    /** 障碍物圆按中等精度插值 */
+    private static final String OBSTACLE_PRECISION = "";
+
+    private final ConcurrentHashMap<String, CachedLayer> cache = new ConcurrentHashMap<>();
+
+    private SafetyNetAreaService() {
+    }
+
+    public static synchronized SafetyNetAreaService getInstance() {
+        if (instance == null) {
+            instance = new SafetyNetAreaService();
+        }
+        return instance;
+    }
+
+    /**
+     * 查找安全网区域文件：先在ASF目录（GLOBAL）中找，再到上一级目录找；不存在的类型跳过
+     */
+    public List<File> findFiles(@NotNull File asfDirectory) {
+        List<File> files = new ArrayList<>();
+        File parent = asfDirectory.getParentFile();
+        for (SafetyNetLayer.Kind kind : SafetyNetLayer.Kind.values()) {
+            File file = new File(asfDirectory, kind.getFileName());
+            if (!file.isFile() && parent != null) {
+                file = new File(parent, kind.getFileName());
+            }
+            if (file.isFile()) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 加载单个文件（缓存，文件修改后重新加载），解析失败返回null
+     */
+    public SafetyNetLayer load(@NotNull SafetyNetLayer.Kind kind, @NotNull File file) {
+        String cacheKey = file.getAbsolutePath();
+        CachedLayer cached = cache.get(cacheKey);
+        if (cached != null && cached.lastModified == file.lastModified() && cached.length == file.length()) {
+            return cached.layer;
+        }
+
+        ASFParseResult result = ASFFileParser.getInstance().parse(file.toPath());
+        if (!result.isSuccess()) {
+            LogUtils.error("解析安全网区域文件失败: " + file.getAbsolutePath(), result.getError());
+            return null;
+        }
+
+        AreaGeometryBuilder geometryBuilder = AreaGeometryBuilder.of(result);
+        List<SafetyNetLayer.Area> areas = new ArrayList<>();
+        int invalid = 0;
+        for (SafetyNetAreaDefinition definition : result.get(SafetyNetAreaDefinition.class)) {
+            Geometry geometry = definition.isCircle()
+                    ? geometryBuilder.circle(definition.getCentreLongitude(), definition.getCentreLatitude(),
+                    definition.getRadiusMetres(), OBSTACLE_PRECISION)
+                    : geometryBuilder.polygon(definition.getPoints());
+            if (geometry == null) {
+                invalid++;
+                continue;
+            }
+            areas.add(new SafetyNetLayer.Area(definition.getSection(), definition.getName(),
+                    definition.getAttributes(), geometry));
+        }
+
+        if (!geometryBuilder.getMissing().isEmpty()) {
+            LogUtils.warn(String.format("%s: %d 个边界点未定义: %s",
+                    file.getName(), geometryBuilder.getMissing().size(), geometryBuilder.getMissing()));
+        }
+        if (invalid > 0) {
+            LogUtils.warn(String.format("%s: %d 个区域的边界点不足，已跳过", file.getName(), invalid));
+        }
+
+        SafetyNetLayer layer = new SafetyNetLayer(kind, file.getAbsolutePath(), areas);
+        cache.put(cacheKey, new CachedLayer(layer, file.lastModified(), file.length()));
+        return layer;
+    }
+
+    /**
+     * 并行加载ASF目录下的全部安全网区域文件，按类型顺序返回；没有区域的文件不生成图层
+     */
+    public List<SafetyNetLayer> loadAll(@NotNull File asfDirectory) {
+        LogUtils.info("SafetyNetAreaService-loadAll-加载安全网区域");
+
+        List<SafetyNetLayer> layers = new ArrayList<>();
+        List<File> files = findFiles(asfDirectory);
+        if (files.isEmpty()) {
+            return layers;
+        }
+
+        long start = System.nanoTime();
+        List<Callable<SafetyNetLayer>> tasks = new ArrayList<>(files.size());
+        for (File file : files) {
+            SafetyNetLayer.Kind kind = kindOf(file);
+            tasks.add(() -> load(kind, file));
+        }
+        for (SafetyNetLayer layer : ParallelTasks.invokeAll("safety-net-areas", tasks, "加载安全网区域失败")) {
+            if (layer != null && layer.getAreaCount() > 0) {
+                layers.add(layer);
+            }
+        }
+
+        int areas = 0;
+        for (SafetyNetLayer layer : layers) {
+            areas += layer.getAreaCount();
+        }
+        LogUtils.info(String.format("安全网区域: %d 个图层, %d 个区域, 耗时 %d ms",
+                layers.size(), areas, (System.nanoTime() - start) / 1_000_000));
+        return Collections.unmodifiableList(layers);
+    }
+
+    private static SafetyNetLayer.Kind kindOf(File file) {
+        for (SafetyNetLayer.Kind kind : SafetyNetLayer.Kind.values()) {
+            if (kind.getFileName().equals(file.getName())) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("不是安全网区域文件: " + file.getName());
+    }
+
+    /**
+     * 清除缓存
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private static final class CachedLayer {
+        final SafetyNetLayer layer;
+        final long lastModified;
+        final long length;
+
+        CachedLayer(SafetyNetLayer layer, long lastModified, long length) {
+            this.layer = layer;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+// service/parserService/SectionIndexCache.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.utils.ASFSectionIndex;
+import ll.luolin.utils.LogUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * ASF段落索引缓存
+ * 内存中按文件保存一份，同时写到 parse-cache 目录，下次启动直接读取；
+ * 文件大小或修改时间变化时重新扫描。与解析快照共用 -Ddprmap.parseCache 开关（关闭时只在内存中缓存）。
+ *
+ * 文件布局（大端）：
+ * <pre>
+ * int 魔数 | int 版本 | int 路径长度 + 路径UTF-8 | long 大小 | long 修改时间 | ASFSectionIndex.write 的内容
+ * </pre>
+ */
+public class SectionIndexCache {
+    private static SectionIndexCache instance;
+
+    private static final int MAGIC = 0x41534649; // "ASFI"
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".sidx";
+
+    private final Path root;
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, ASFSectionIndex> indexes = new ConcurrentHashMap<>();
+
+    public SectionIndexCache(Path root, boolean enabled) {
+        this.root = root;
+        this.enabled = enabled;
+    }
+
+    public static synchronized SectionIndexCache getInstance() {
+        if (instance == null) {
+            instance = new SectionIndexCache(ParseSnapshotCache.defaultRoot(),
+                    !"false".equalsIgnoreCase(System.getProperty("dprmap.parseCache")));
+        }
+        return instance;
+    }
+
+    /**
+     * 文件的段落索引：内存 -> 磁盘 -> 重新扫描
+     */
+    public ASFSectionIndex get(Path source) throws IOException {
+        String key = key(source);
+        long size = Files.size(source);
+        long modified = Files.getLastModifiedTime(source).toMillis();
+
+        ASFSectionIndex index = indexes.get(key);
+        if (index != null && index.matches(size, modified)) {
+            return index;
+        }
+
+        index = load(source, size, modified);
+        if (index == null) {
+            index = ASFSectionIndex.build(source, size, modified);
+            store(source, index);
+        }
+        indexes.put(key, index);
+        return index;
+    }
+
+    /**
+     * 清除内存和磁盘上的索引
+     */
+    public void clear() {
+        indexes.clear();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(root)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            LogUtils.warn("清除段落索引失败: " + e.getMessage());
+        }
+    }
+
+    private ASFSectionIndex load(Path source, long size, long modified) {
+        if (!enabled) {
+            return null;
+        }
+
+        Path file = indexPath(source);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+
+            byte[] pathBytes = new byte[buffer.getInt()];
+            buffer.get(pathBytes);
+            if (!new String(pathBytes, StandardCharsets.UTF_8).equals(key(source))
+                    || buffer.getLong() != size || buffer.getLong() != modified) {
+                return null;
+            }
+            return ASFSectionIndex.read(buffer, size, modified);
+
+        } catch (IOException | RuntimeException e) {
+            LogUtils.warn("读取段落索引失败，重新扫描: " + source + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(Path source, ASFSectionIndex index) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(root);
+            Path tmp = Files.createTempFile(root, "sidx", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    byte[] pathBytes = key(source).getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(pathBytes.length);
+                    out.write(pathBytes);
+                    out.writeLong(index.getSize());
+                    out.writeLong(index.getModified());
+                    index.write(out);
+                }
+                move(tmp, indexPath(source));
+            } finally {
+                // 写入或替换失败时不留下临时文件
+                Files.deleteIfExists(tmp);
+            }
+
+        } catch (IOException e) {
+            LogUtils.warn("写入段落索引失败: " + source + " - " + e.getMessage());
+        }
+    }
+
+    private static String key(Path source) {
+        return source.toAbsolutePath().normalize().toString();
+    }
+
+    private Path indexPath(Path source) {
+        UUID id = UUID.nameUUIDFromBytes(key(source).getBytes(StandardCharsets.UTF_8));
+        return root.resolve(id + SUFFIX);
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
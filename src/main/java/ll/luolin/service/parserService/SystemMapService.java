@@ -0,0 +1,195 @@
+// service/parserService/SystemMapService.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.SystemMapLayer;
+import ll.luolin.utils.LogUtils;
+import ll.luolin.utils.ParallelTasks;
+import ll.luolin.utils.StereographicProjection;
+import ll.luolin.utils.SystemMapParser;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SYSTEM_MAPS.ASF 系统地图服务
+ * 目录下每个项目一个子目录（MAPS、SECTORS、RADAR…），项目目录中的 &lt;项目&gt;.pro 定义系统平面，
+ * 各地图类子目录中的 .lex 文件是地图。所有地图并行解析，每张地图一个 SystemMapLayer。
+ * 目录未解压时可以直接读取同名归档（SYSTEM_MAPS.ASF.tgz），见 findArchive / loadArchive。
+ */
+public class SystemMapService {
+    private static SystemMapService instance;
+
+    /** 相对于ASF目录上一级的系统地图目录 */
+    public static final String SYSTEM_MAPS_DIR = "GZTM/SYSTEM_MAPS.ASF";
+    /** 系统地图目录打包后的扩展名 */
+    public static final String ARCHIVE_SUFFIX = ".tgz";
+
+    private static final Comparator<SystemMapLayer> LAYER_ORDER = Comparator
+            .comparingInt(SystemMapLayer::getPriority)
+            .thenComparing(SystemMapLayer::getMapClass)
+            .thenComparing(SystemMapLayer::getName);
+
+    private final ConcurrentHashMap<String, List<SystemMapLayer>> cache = new ConcurrentHashMap<>();
+
+    private SystemMapService() {
+    }
+
+    public static synchronized SystemMapService getInstance() {
+        if (instance == null) {
+            instance = new SystemMapService();
+        }
+        return instance;
+    }
+
+    /**
+     * 加载目录下全部系统地图（缓存），按优先级从低到高、再按类名和地图名排序
+     */
+    public List<SystemMapLayer> loadAll(@NotNull File directory) {
+        LogUtils.info("SystemMapService-loadAll-加载系统地图: " + directory.getPath());
+
+        String cacheKey = directory.getAbsolutePath();
+        List<SystemMapLayer> cached = cache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        long start = System.nanoTime();
+        List<MapFile> files = findMapFiles(directory);
+        List<SystemMapLayer> layers = parseAll(files);
+        layers.sort(LAYER_ORDER);
+
+        int points = 0;
+        for (SystemMapLayer layer : layers) {
+            points += layer.getPointCount();
+        }
+        LogUtils.info(String.format("系统地图: %d 张, %d 个点, 耗时 %d ms",
+                layers.size(), points, (System.nanoTime() - start) / 1_000_000));
+
+        List<SystemMapLayer> result = Collections.unmodifiableList(layers);
+        cache.put(cacheKey, result);
+        return result;
+    }
+
+    /**
+     * 系统地图目录对应的归档：先找同级的 &lt;目录名&gt;.tgz，再找上一级；都没有返回null
+     */
+    public File findArchive(@NotNull File directory) {
+        String name = directory.getName() + ARCHIVE_SUFFIX;
+        File parent = directory.getAbsoluteFile().getParentFile();
+        for (int level = 0; level < 2 && parent != null; level++, parent = parent.getParentFile()) {
+            File archive = new File(parent, name);
+            if (ArchiveService.getInstance().isArchive(archive)) {
+                return archive;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 直接从归档加载系统地图（不解压），排序与 loadAll 相同
+     */
+    public List<SystemMapLayer> loadArchive(@NotNull File archive) {
+        LogUtils.info("SystemMapService-loadArchive-从归档加载系统地图: " + archive.getPath());
+
+        List<SystemMapLayer> layers = new ArrayList<>(ArchiveService.getInstance().load(archive).getSystemMaps());
+        layers.sort(LAYER_ORDER);
+        return Collections.unmodifiableList(layers);
+    }
+
+    /**
+     * 项目目录中有同名 .pro 的才是地图项目；.pro 解析失败的项目整体跳过
+     */
+    private List<MapFile> findMapFiles(File directory) {
+        List<MapFile> files = new ArrayList<>();
+        File[] projects = directory.listFiles(File::isDirectory);
+        if (projects == null) {
+            LogUtils.warn("系统地图目录不存在: " + directory.getPath());
+            return files;
+        }
+
+        for (File projectDir : projects) {
+            String project = projectDir.getName();
+            File proFile = new File(projectDir, project + ".pro");
+            if (!proFile.isFile()) {
+                continue;
+            }
+
+            StereographicProjection projection;
+            try {
+                projection = SystemMapParser.parseProjection(proFile.toPath());
+            } catch (IOException | RuntimeException e) {
+                LogUtils.error("解析系统平面定义失败: " + proFile.getPath(), e);
+                continue;
+            }
+
+            File[] classDirs = projectDir.listFiles(File::isDirectory);
+            if (classDirs == null) {
+                continue;
+            }
+            for (File classDir : classDirs) {
+                File[] maps = classDir.listFiles((dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(".lex"));
+                if (maps == null) {
+                    continue;
+                }
+                for (File map : maps) {
+                    files.add(new MapFile(map, project, projection));
+                }
+            }
+        }
+        return files;
+    }
+
+    private List<SystemMapLayer> parseAll(List<MapFile> files) {
+        List<SystemMapLayer> layers = new ArrayList<>(files.size());
+        if (files.isEmpty()) {
+            return layers;
+        }
+
+        List<Callable<SystemMapLayer>> tasks = new ArrayList<>(files.size());
+        for (MapFile file : files) {
+            tasks.add(() -> {
+                try {
+                    return SystemMapParser.parseMap(file.file.toPath(), file.project, file.projection);
+                } catch (IOException | RuntimeException e) {
+                    LogUtils.error("解析系统地图失败: " + file.file.getPath(), e);
+                    return null;
+                }
+            });
+        }
+
+        for (SystemMapLayer layer : ParallelTasks.invokeAll("system-map-parser", tasks, "解析系统地图失败")) {
+            if (layer != null) {
+                layers.add(layer);
+            }
+        }
+        return layers;
+    }
+
+    /**
+     * 清除缓存
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private static final class MapFile {
+        final File file;
+        final String project;
+        final StereographicProjection projection;
+
+        MapFile(File file, String project, StereographicProjection projection) {
+            this.file = file;
+            this.project = project;
+            this.projection = projection;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+// service/parserService/XmlAdaptationService.java
+package ll.luolin.service.parserService;
+
+import ll.luolin.model.XmlDataset;
+import ll.luolin.utils.LogUtils;
+import ll.luolin.utils.ParallelTasks;
+import ll.luolin.utils.XmlRecordReader;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * XML适配文件服务（ADS_MOSAIC.XML、ERROR_MESSAGES.XML、Dhmi_Dataset/Datasets/Airspace.xml…）
+ * 每个文件用 XmlRecordReader 流式读取为一个 XmlDataset，多个文件并行解析，结果按文件缓存；
+ * 文件按 AdaptationCatalogService 给出的内容哈希缓存，内容相同的副本共用同一个 XmlDataset。
+ */
+public class XmlAdaptationService {
+    private static XmlAdaptationService instance;
+
+    private static final String XML_SUFFIX = ".xml";
+
+    private final ConcurrentHashMap<String, CachedDataset> cache = new ConcurrentHashMap<>();
+    // 内容哈希 -> 数据集（getFile 为第一个被读取的副本）
+    private final ConcurrentHashMap<String, XmlDataset> contentCache = new ConcurrentHashMap<>();
+
+    private XmlAdaptationService() {
+    }
+
+    public static synchronized XmlAdaptationService getInstance() {
+        if (instance == null) {
+            instance = new XmlAdaptationService();
+        }
+        return instance;
+    }
+
+    /**
+     * 目录下（不含子目录）的XML文件，按文件名排序
+     */
+    public List<File> listXmlFiles(@NotNull File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(XML_SUFFIX));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    /**
+     * 读取单个文件（缓存，文件修改后重新读取；内容相同的副本返回同一个数据集）
+     */
+    public XmlDataset load(@NotNull File file) throws IOException {
+        String contentKey = AdaptationCatalogService.getInstance().contentKey(file);
+        if (contentKey != null) {
+            XmlDataset shared = contentCache.get(contentKey);
+            if (shared != null) {
+                return shared;
+            }
+            XmlDataset dataset = new XmlDataset(file);
+            XmlRecordReader.read(file.toPath(), dataset::add);
+            shared = contentCache.putIfAbsent(contentKey, dataset);
+            return shared != null ? shared : dataset;
+        }
+
+        String cacheKey = file.getAbsolutePath();
+        CachedDataset cached = cache.get(cacheKey);
+        if (cached != null && cached.lastModified == file.lastModified() && cached.length == file.length()) {
+            return cached.dataset;
+        }
+
+        XmlDataset dataset = new XmlDataset(file);
+        XmlRecordReader.read(file.toPath(), dataset::add);
+        cache.put(cacheKey, new CachedDataset(dataset, file.lastModified(), file.length()));
+        return dataset;
+    }
+
+    /**
+     * 并行读取多个文件，结果与files顺序一致；读取失败的文件记录日志后跳过
+     */
+    public List<XmlDataset> loadAll(@NotNull List<File> files) {
+        LogUtils.info("XmlAdaptationService-loadAll-读取XML适配文件: " + files.size() + " 个");
+
+        List<XmlDataset> datasets = new ArrayList<>(files.size());
+        if (files.isEmpty()) {
+            return datasets;
+        }
+
+        long start = System.nanoTime();
+        List<Callable<XmlDataset>> tasks = new ArrayList<>(files.size());
+        for (File file : files) {
+            tasks.add(() -> {
+                try {
+                    return load(file);
+                } catch (IOException | RuntimeException e) {
+                    LogUtils.error("读取XML适配文件失败: " + file.getPath(), e);
+                    return null;
+                }
+            });
+        }
+        for (XmlDataset dataset : ParallelTasks.invokeAll("xml-adaptation-parser", tasks, "读取XML适配文件失败")) {
+            if (dataset != null) {
+                datasets.add(dataset);
+            }
+        }
+
+        int records = 0;
+        for (XmlDataset dataset : datasets) {
+            records += dataset.getRecordCount();
+        }
+        LogUtils.info(String.format("XML适配文件: %d 个, %d 条记录, 耗时 %d ms",
+                datasets.size(), records, (System.nanoTime() - start) / 1_000_000));
+        return Collections.unmodifiableList(datasets);
+    }
+
+    /**
+     * 清除缓存
+     */
+    public void clearCache() {
+        cache.clear();
+        contentCache.clear();
+    }
+
+    private static final class CachedDataset {
+        final XmlDataset dataset;
+        final long lastModified;
+        final long length;
+
+        CachedDataset(XmlDataset dataset, long lastModified, long length) {
+            this.dataset = dataset;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+// service/tileService/AirspaceTileLayerRenderer.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.model.ASFModel.FDP_VOLUMES_DEFINITION_Model.AirspaceType;
+import ll.luolin.model.AirspaceGeometry;
+import ll.luolin.service.parserService.FDP_VOLUMES_DEFINITION_Service;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * FIR和扇区轮廓瓦片渲染
+ * 组合区域的合并耗时，放到第一次取范围时（构建线程上）进行，之后各工作线程共享只读的轮廓坐标；
+ * 源文件为 FDP_VOLUMES_DEFINITION.ASF，文件修改后增量构建会重新生成本图层
+ */
+public class AirspaceTileLayerRenderer implements TileLayerRenderer {
+
+    private static final Color FIR_COLOR = new Color(90, 90, 90);
+    private static final Color SECTOR_COLOR = new Color(70, 110, 190);
+    private static final BasicStroke FIR_STROKE = new BasicStroke(2f);
+    private static final BasicStroke SECTOR_STROKE = new BasicStroke(1f);
+
+    private final File file;
+    private volatile Outlines outlines;
+
+    public AirspaceTileLayerRenderer(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public String getName() {
+        return "AIRSPACE";
+    }
+
+    @Override
+    public List<File> getSourceFiles() {
+        List<File> files = new ArrayList<>();
+        files.add(file);
+        return files;
+    }
+
+    @Override
+    public double[] getBounds() {
+        return outlines().bounds;
+    }
+
+    @Override
+    public void render(Graphics2D g, TileBounds tile) {
+        double[] window = tile.expandedBounds(NavPointTileLayerRenderer.MARGIN_PIXELS);
+
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Path2D.Double path = new Path2D.Double();
+
+        // 先画扇区，FIR边界压在上面
+        for (Ring ring : outlines().rings) {
+            if (ring.maxLon < window[0] || ring.minLon > window[2]
+                    || ring.maxLat < window[1] || ring.minLat > window[3]) {
+                continue;
+            }
+
+            path.reset();
+            double[] coords = ring.coordinates;
+            path.moveTo(tile.lonToPixelX(coords[0]), tile.latToPixelY(coords[1]));
+            for (int i = 2; i < coords.length; i += 2) {
+                path.lineTo(tile.lonToPixelX(coords[i]), tile.latToPixelY(coords[i + 1]));
+            }
+            g.setColor(ring.fir ? FIR_COLOR : SECTOR_COLOR);
+            g.setStroke(ring.fir ? FIR_STROKE : SECTOR_STROKE);
+            g.draw(path);
+        }
+    }
+
+    private Outlines outlines() {
+        Outlines result = outlines;
+        if (result == null) {
+            synchronized (this) {
+                result = outlines;
+                if (result == null) {
+                    result = load();
+                    outlines = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 合并FIR和扇区，展开为坐标环；文件无法解析时图层为空
+     */
+    private Outlines load() {
+        Outlines result = new Outlines();
+        AirspaceGeometry geometry = FDP_VOLUMES_DEFINITION_Service.getInstance().loadGeometry(file);
+        if (geometry == null) {
+            return result;
+        }
+
+        List<String> names = new ArrayList<>();
+        List<CompletableFuture<Geometry>> futures = new ArrayList<>();
+        for (String name : geometry.getSectorNames()) {
+            AirspaceType type = AirspaceType.fromString(geometry.getSector(name).getSection());
+            if (type == AirspaceType.FIR || type == AirspaceType.SECTOR) {
+                names.add(name);
+                futures.add(geometry.getSectorGeometryAsync(name));
+            }
+        }
+
+        List<Ring> firRings = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            boolean fir = AirspaceType.fromString(geometry.getSector(names.get(i)).getSection()) == AirspaceType.FIR;
+            Geometry union = futures.get(i).join();
+            for (int n = 0; n < union.getNumGeometries(); n++) {
+                Geometry part = union.getGeometryN(n);
+                if (!(part instanceof Polygon)) {
+                    continue;
+                }
+                Polygon polygon = (Polygon) part;
+                addRing(polygon.getExteriorRing(), fir, fir ? firRings : result.rings, result);
+                for (int h = 0; h < polygon.getNumInteriorRing(); h++) {
+                    addRing(polygon.getInteriorRingN(h), fir, fir ? firRings : result.rings, result);
+                }
+            }
+        }
+        result.rings.addAll(firRings);
+        return result;
+    }
+
+    private static void addRing(LineString line, boolean fir, List<Ring> target, Outlines result) {
+        Coordinate[] points = line.getCoordinates();
+        if (points.length < 2) {
+            return;
+        }
+
+        Ring ring = new Ring(fir, points.length);
+        for (int i = 0; i < points.length; i++) {
+            double lon = points[i].x;
+            double lat = points[i].y;
+            ring.coordinates[i * 2] = lon;
+            ring.coordinates[i * 2 + 1] = lat;
+            ring.minLon = Math.min(ring.minLon, lon);
+            ring.minLat = Math.min(ring.minLat, lat);
+            ring.maxLon = Math.max(ring.maxLon, lon);
+            ring.maxLat = Math.max(ring.maxLat, lat);
+        }
+        target.add(ring);
+
+        if (result.bounds == null) {
+            result.bounds = new double[]{ring.minLon, ring.minLat, ring.maxLon, ring.maxLat};
+        } else {
+            result.bounds[0] = Math.min(result.bounds[0], ring.minLon);
+            result.bounds[1] = Math.min(result.bounds[1], ring.minLat);
+            result.bounds[2] = Math.max(result.bounds[2], ring.maxLon);
+            result.bounds[3] = Math.max(result.bounds[3], ring.maxLat);
+        }
+    }
+
+    private static final class Outlines {
+        final List<Ring> rings = new ArrayList<>();
+        // 没有轮廓时为null，瓦片相交判断按全范围处理，render 不会画任何内容
+        double[] bounds;
+    }
+
+    private static final class Ring {
+        final boolean fir;
+        // 经度、纬度交替
+        final double[] coordinates;
+        double minLon = Double.POSITIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+
+        Ring(boolean fir, int pointCount) {
+            this.fir = fir;
+            this.coordinates = new double[pointCount * 2];
+        }
+    }
+}
@@ -0,0 +1,87 @@
+// service/tileService/AirwayTileLayerRenderer.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.model.AirwayGraph;
+import ll.luolin.service.NavPointRenderService;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Line2D;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 航路网络瓦片渲染
+ * AirwayGraph 构建后不可修改，可直接在多个工作线程上共享
+ */
+public class AirwayTileLayerRenderer implements TileLayerRenderer {
+
+    private static final Color[] KIND_COLORS = {
+            toAwt(NavPointRenderService.getColorForAirwayKind(AirwayGraph.AIRWAY)),
+            toAwt(NavPointRenderService.getColorForAirwayKind(AirwayGraph.SID)),
+            toAwt(NavPointRenderService.getColorForAirwayKind(AirwayGraph.STAR))
+    };
+
+    private final AirwayGraph graph;
+    private final File file;
+    private final double[] bounds;
+
+    public AirwayTileLayerRenderer(AirwayGraph graph, File file) {
+        this.graph = graph;
+        this.file = file;
+        this.bounds = graph.getBounds();
+    }
+
+    private static Color toAwt(javafx.scene.paint.Color color) {
+        return new Color((float) color.getRed(), (float) color.getGreen(), (float) color.getBlue());
+    }
+
+    @Override
+    public String getName() {
+        return "AIRWAYS";
+    }
+
+    @Override
+    public List<File> getSourceFiles() {
+        List<File> files = new ArrayList<>();
+        if (file != null) {
+            files.add(file);
+        }
+        return files;
+    }
+
+    @Override
+    public double[] getBounds() {
+        return bounds;
+    }
+
+    @Override
+    public void render(Graphics2D g, TileBounds tile) {
+        double[] window = tile.expandedBounds(NavPointTileLayerRenderer.MARGIN_PIXELS);
+
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setStroke(new BasicStroke(1f));
+        Line2D.Double line = new Line2D.Double();
+
+        for (int i = 0; i < graph.getSegmentCount(); i++) {
+            int from = graph.getSegmentFrom(i);
+            int to = graph.getSegmentTo(i);
+            double lon1 = graph.getLongitude(from);
+            double lat1 = graph.getLatitude(from);
+            double lon2 = graph.getLongitude(to);
+            double lat2 = graph.getLatitude(to);
+            if (Math.max(lon1, lon2) < window[0] || Math.min(lon1, lon2) > window[2]
+                    || Math.max(lat1, lat2) < window[1] || Math.min(lat1, lat2) > window[3]) {
+                continue;
+            }
+
+            line.setLine(tile.lonToPixelX(lon1), tile.latToPixelY(lat1),
+                    tile.lonToPixelX(lon2), tile.latToPixelY(lat2));
+            g.setColor(KIND_COLORS[graph.getSegmentKind(i)]);
+            g.draw(line);
+        }
+    }
+}
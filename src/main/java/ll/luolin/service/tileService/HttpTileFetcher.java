@@ -0,0 +1,309 @@
+// service/tileService/HttpTileFetcher.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.config.AppConstants;
+import ll.luolin.service.TileMetrics;
+import ll.luolin.service.TileSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 瓦片下载器
+ * 基于 java.net.http.HttpClient：共享连接（HTTP/2多路复用，不支持时回退HTTP/1.1），
+ * 按主机限制并发，按 ETag / Last-Modified 对磁盘缓存做条件请求，
+ * 失败时指数退避重试，并对不可用的瓦片做负缓存。
+ *
+ * 非http(s)地址（如本地 file:// 瓦片）直接读取，不经过缓存。
+ */
+public class HttpTileFetcher {
+
+    public static final int DEFAULT_MAX_PER_HOST = 6;
+    public static final int DEFAULT_MAX_RETRIES = 2;
+
+    // 无缓存头时的默认有效期
+    private static final long DEFAULT_TTL_MILLIS = 24L * 60 * 60 * 1000;
+    // 404/410：瓦片不存在
+    private static final long MISSING_TTL_MILLIS = 10L * 60 * 1000;
+    // 其他失败：短时间内不再请求
+    private static final long FAILURE_TTL_MILLIS = 30L * 1000;
+
+    private static final long BASE_BACKOFF_MILLIS = 250;
+    private static final long MAX_BACKOFF_MILLIS = 4000;
+    private static final int NEGATIVE_CACHE_PURGE_SIZE = 1024;
+
+    private static final String USER_AGENT = "DPRMap/" + AppConstants.APP_VERSION;
+
+    private final HttpClient client;
+    private final TileDiskCache diskCache;
+    private final TileMetrics metrics;
+    private final int maxPerHost;
+    private final int maxRetries;
+    private final Duration requestTimeout;
+
+    // 每个主机一个信号量
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    // url -> 到期时间（毫秒）
+    private final Map<String, Long> negativeCache = new ConcurrentHashMap<>();
+
+    public HttpTileFetcher(TileDiskCache diskCache, TileMetrics metrics) {
+        this(diskCache, metrics, DEFAULT_MAX_PER_HOST, DEFAULT_MAX_RETRIES,
+                Duration.ofSeconds(5), Duration.ofSeconds(10));
+    }
+
+    /**
+     * @param diskCache      磁盘缓存，为null时只走网络
+     * @param maxPerHost     单个主机的最大并发请求数
+     * @param maxRetries     超时、连接失败、429和5xx的最大重试次数
+     */
+    public HttpTileFetcher(TileDiskCache diskCache, TileMetrics metrics, int maxPerHost, int maxRetries,
+                           Duration connectTimeout, Duration requestTimeout) {
+        this.diskCache = diskCache;
+        this.metrics = metrics;
+        this.maxPerHost = Math.max(1, maxPerHost);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    /**
+     * 获取瓦片字节
+     * 顺序：磁盘缓存（未过期直接返回）-> 负缓存 -> 条件请求；负缓存命中或网络失败时有旧缓存则返回旧缓存
+     */
+    public byte[] fetch(TileSource source, String url, int x, int y, int zoom)
+            throws IOException, InterruptedException {
+        if (!isHttp(url)) {
+            return readLocal(url);
+        }
+
+        long now = System.currentTimeMillis();
+        boolean useDisk = diskCache != null && source.getCachePolicy() == TileSource.CachePolicy.DISK;
+        TileDiskCache.Entry cached = useDisk ? diskCache.get(source.getId(), x, y, zoom) : null;
+        if (cached != null && cached.isFresh(now)) {
+            metrics.recordDiskHit();
+            return cached.getBytes();
+        }
+
+        Long blockedUntil = negativeCache.get(url);
+        if (blockedUntil != null) {
+            if (now < blockedUntil) {
+                metrics.recordNegativeHit();
+                if (cached != null) {
+                    // 暂不请求网络期间继续使用过期缓存
+                    metrics.recordDiskHit();
+                    return cached.getBytes();
+                }
+                throw new IOException("瓦片暂不可用: " + url);
+            }
+            negativeCache.remove(url, blockedUntil);
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = send(url, cached);
+        } catch (IOException e) {
+            markUnavailable(url, FAILURE_TTL_MILLIS);
+            if (cached != null) {
+                // 离线或服务器不可达时使用过期缓存
+                metrics.recordDiskHit();
+                return cached.getBytes();
+            }
+            throw e;
+        }
+
+        int status = response.statusCode();
+        long expires = expiresAt(response, System.currentTimeMillis());
+
+        if (status == 304 && cached != null) {
+            metrics.recordNotModified();
+            diskCache.updateMeta(source.getId(), x, y, zoom, new TileDiskCache.Entry(
+                    cached.getBytes(),
+                    header(response, "ETag", cached.getEtag()),
+                    header(response, "Last-Modified", cached.getLastModified()),
+                    expires));
+            return cached.getBytes();
+        }
+
+        if (status == 200) {
+            byte[] body = response.body();
+            metrics.recordFetch(body.length);
+            if (useDisk && expires >= 0) {
+                diskCache.put(source.getId(), x, y, zoom, new TileDiskCache.Entry(
+                        body,
+                        header(response, "ETag", null),
+                        header(response, "Last-Modified", null),
+                        expires));
+            }
+            return body;
+        }
+
+        if (status == 404 || status == 410) {
+            markUnavailable(url, MISSING_TTL_MILLIS);
+            throw new IOException("瓦片不存在(HTTP " + status + "): " + url);
+        }
+
+        markUnavailable(url, FAILURE_TTL_MILLIS);
+        if (cached != null && status >= 500) {
+            metrics.recordDiskHit();
+            return cached.getBytes();
+        }
+        throw new IOException("瓦片请求失败(HTTP " + status + "): " + url);
+    }
+
+    /**
+     * 发送请求，超时、连接失败、429和5xx按指数退避重试
+     */
+    private HttpResponse<byte[]> send(String url, TileDiskCache.Entry cached)
+            throws IOException, InterruptedException {
+        URI uri = URI.create(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .GET();
+        if (cached != null && cached.canRevalidate()) {
+            if (cached.getEtag() != null) {
+                builder.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                builder.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+        HttpRequest request = builder.build();
+
+        String host = uri.getHost() != null ? uri.getHost() : "";
+        Semaphore permits = hostPermits.computeIfAbsent(host, h -> new Semaphore(maxPerHost, true));
+
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<byte[]> response = null;
+            IOException failure = null;
+
+            permits.acquire();
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                permits.release();
+            }
+
+            boolean retryable = failure != null || isRetryable(response.statusCode());
+            if (!retryable || attempt >= maxRetries) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return response;
+            }
+
+            // 退避期间不占用主机配额
+            metrics.recordRetry();
+            Thread.sleep(backoffMillis(attempt, response));
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    /**
+     * 退避时间：优先使用Retry-After（秒），否则指数退避加随机抖动
+     */
+    private static long backoffMillis(int attempt, HttpResponse<byte[]> response) {
+        if (response != null) {
+            String retryAfter = response.headers().firstValue("Retry-After").orElse(null);
+            if (retryAfter != null) {
+                try {
+                    return Math.min(MAX_BACKOFF_MILLIS, Long.parseLong(retryAfter.trim()) * 1000);
+                } catch (NumberFormatException ignored) {
+                    // HTTP日期格式，按指数退避处理
+                }
+            }
+        }
+        long delay = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << attempt);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * 根据 Cache-Control / Expires 计算过期时间
+     * 返回-1表示不允许写入缓存（no-store）
+     */
+    private static long expiresAt(HttpResponse<?> response, long now) {
+        String cacheControl = response.headers().firstValue("Cache-Control").orElse("").toLowerCase(Locale.ROOT);
+        if (!cacheControl.isEmpty()) {
+            if (cacheControl.contains("no-store")) {
+                return -1;
+            }
+            if (cacheControl.contains("no-cache")) {
+                return now;
+            }
+            for (String directive : cacheControl.split(",")) {
+                String d = directive.trim();
+                if (d.startsWith("max-age=")) {
+                    try {
+                        return now + Long.parseLong(d.substring("max-age=".length())) * 1000;
+                    } catch (NumberFormatException ignored) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        String expires = response.headers().firstValue("Expires").orElse(null);
+        if (expires != null) {
+            try {
+                return ZonedDateTime.parse(expires, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            } catch (Exception ignored) {
+                // 格式无效时视为已过期
+                return now;
+            }
+        }
+        return now + DEFAULT_TTL_MILLIS;
+    }
+
+    private void markUnavailable(String url, long ttlMillis) {
+        if (negativeCache.size() > NEGATIVE_CACHE_PURGE_SIZE) {
+            long now = System.currentTimeMillis();
+            negativeCache.values().removeIf(until -> until <= now);
+        }
+        negativeCache.put(url, System.currentTimeMillis() + ttlMillis);
+    }
+
+    private static String header(HttpResponse<?> response, String name, String defaultValue) {
+        return response.headers().firstValue(name).orElse(defaultValue);
+    }
+
+    private static boolean isHttp(String url) {
+        return url.regionMatches(true, 0, "http://", 0, 7) || url.regionMatches(true, 0, "https://", 0, 8);
+    }
+
+    private byte[] readLocal(String url) throws IOException {
+        try (InputStream in = new URL(url).openStream()) {
+            byte[] bytes = in.readAllBytes();
+            metrics.recordFetch(bytes.length);
+            return bytes;
+        }
+    }
+
+    /**
+     * 清空负缓存（切换瓦片源或网络恢复时调用）
+     */
+    public void clearNegativeCache() {
+        negativeCache.clear();
+    }
+}
@@ -0,0 +1,121 @@
+// service/tileService/NavPointTileLayerRenderer.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.model.ASFModel.NavPointStore;
+import ll.luolin.model.ASFModel.PointCategory;
+import ll.luolin.model.NavPointLayerModel;
+import ll.luolin.utils.PointStyles;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 导航点图层瓦片渲染
+ * 构造时从图层的列式存储拷贝坐标、分类和名称快照，渲染线程不再访问图层
+ */
+public class NavPointTileLayerRenderer implements TileLayerRenderer {
+
+    private static final double RADIUS = 4;
+    private static final Font LABEL_FONT = new Font("Arial", Font.PLAIN, 10);
+
+    // 标签可能跨越瓦片边界，外扩范围内的点也要绘制
+    static final int MARGIN_PIXELS = 64;
+
+    private final String name;
+    private final File file;
+    private final String[] names;
+    private final double[] lons;
+    private final double[] lats;
+    private final byte[] categories;
+    private final Color[] colors;
+    private final double[] bounds;
+
+    public NavPointTileLayerRenderer(NavPointLayerModel layer) {
+        this.name = layer.getName();
+        this.file = layer.getFile();
+
+        NavPointStore store = layer.getStore();
+        int count = store.size();
+        this.names = new String[count];
+        this.lons = Arrays.copyOf(store.longitudeArray(), count);
+        this.lats = Arrays.copyOf(store.latitudeArray(), count);
+        this.categories = Arrays.copyOf(store.categoryArray(), count);
+
+        // 颜色按分类查表
+        PointCategory[] allCategories = PointCategory.values();
+        this.colors = new Color[allCategories.length];
+        for (PointCategory category : allCategories) {
+            colors[category.ordinal()] = PointStyles.of(category).getAwtColor();
+        }
+
+        double minLon = Double.MAX_VALUE, minLat = Double.MAX_VALUE;
+        double maxLon = -Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            names[i] = store.getName(i);
+            minLon = Math.min(minLon, lons[i]);
+            maxLon = Math.max(maxLon, lons[i]);
+            minLat = Math.min(minLat, lats[i]);
+            maxLat = Math.max(maxLat, lats[i]);
+        }
+        this.bounds = count == 0 ? new double[]{0, 0, 0, 0} : new double[]{minLon, minLat, maxLon, maxLat};
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<File> getSourceFiles() {
+        List<File> files = new ArrayList<>();
+        if (file != null) {
+            files.add(file);
+        }
+        return files;
+    }
+
+    @Override
+    public double[] getBounds() {
+        return lons.length == 0 ? null : bounds;
+    }
+
+    @Override
+    public void render(Graphics2D g, TileBounds tile) {
+        double[] window = tile.expandedBounds(MARGIN_PIXELS);
+        boolean drawLabels = tile.getZoom() > 7;
+
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setStroke(new BasicStroke(1f));
+        g.setFont(LABEL_FONT);
+        Ellipse2D.Double circle = new Ellipse2D.Double();
+
+        for (int i = 0; i < lons.length; i++) {
+            double lon = lons[i];
+            double lat = lats[i];
+            if (lon < window[0] || lon > window[2] || lat < window[1] || lat > window[3]) {
+                continue;
+            }
+
+            double x = tile.lonToPixelX(lon);
+            double y = tile.latToPixelY(lat);
+            circle.setFrame(x - RADIUS, y - RADIUS, RADIUS * 2, RADIUS * 2);
+
+            g.setColor(colors[categories[i]]);
+            g.fill(circle);
+            g.setColor(Color.BLACK);
+            g.draw(circle);
+
+            if (drawLabels && names[i] != null) {
+                g.drawString(names[i], (float) (x + 8), (float) (y - 4));
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+// service/tileService/PropertiesTileSourceProvider.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.service.TileSource;
+import ll.luolin.utils.LogUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 从properties文件加载瓦片源
+ * 先读取类路径下的 config/tile-sources.properties，再读取用户目录下的 map_tiles/tile-sources.properties（同id覆盖）
+ *
+ * 格式：
+ * sources=osm,local
+ * osm.name=OpenStreetMap
+ * osm.url=https://{s}.tile.openstreetmap.org/{z}/{x}/{y}.png
+ * osm.subdomains=a,b,c
+ * osm.maxZoom=19
+ * osm.tileSize=256
+ * osm.concurrency=2
+ * osm.cache=DISK
+ * local.var.path=/data/map_tiles   （模板中 {path} 的取值）
+ */
+public class PropertiesTileSourceProvider implements TileSourceProvider {
+
+    public static final String RESOURCE = "/config/tile-sources.properties";
+    public static final String USER_FILE = System.getProperty("user.home") + "/map_tiles/tile-sources.properties";
+
+    private static final int DEFAULT_MAX_ZOOM = 19;
+    private static final int DEFAULT_TILE_SIZE = 256;
+    private static final int DEFAULT_CONCURRENCY = 4;
+
+    @Override
+    public List<TileSource> getTileSources() {
+        Map<String, TileSource> sources = new LinkedHashMap<>();
+
+        try (InputStream in = PropertiesTileSourceProvider.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                load(in, sources);
+            } else {
+                LogUtils.warn("未找到瓦片源配置: " + RESOURCE);
+            }
+        } catch (Exception e) {
+            LogUtils.error("读取瓦片源配置失败: " + RESOURCE, e);
+        }
+
+        File userFile = new File(USER_FILE);
+        if (userFile.isFile()) {
+            try (InputStream in = new FileInputStream(userFile)) {
+                load(in, sources);
+                LogUtils.info("已加载用户瓦片源配置: " + userFile.getAbsolutePath());
+            } catch (Exception e) {
+                LogUtils.error("读取用户瓦片源配置失败: " + userFile.getAbsolutePath(), e);
+            }
+        }
+
+        return new ArrayList<>(sources.values());
+    }
+
+    private void load(InputStream in, Map<String, TileSource> sources) throws Exception {
+        Properties props = new Properties();
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+
+        String ids = props.getProperty("sources", "");
+        for (String rawId : ids.split(",")) {
+            String id = rawId.trim();
+            if (id.isEmpty()) {
+                continue;
+            }
+            try {
+                sources.put(id, createSource(id, props));
+            } catch (Exception e) {
+                LogUtils.error("瓦片源配置无效: " + id, e);
+            }
+        }
+    }
+
+    private TileSource createSource(String id, Properties props) {
+        String prefix = id + ".";
+        String url = props.getProperty(prefix + "url", "").trim();
+
+        String subdomains = props.getProperty(prefix + "subdomains", "").trim();
+        String[] domains = subdomains.isEmpty() ? new String[0] : subdomains.split("\\s*,\\s*");
+
+        // 编译期常量变量
+        Map<String, String> constants = new HashMap<>();
+        constants.put("path", (System.getProperty("user.home") + "/map_tiles").replace("\\", "/"));
+        String varPrefix = prefix + "var.";
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(varPrefix)) {
+                constants.put(key.substring(varPrefix.length()), props.getProperty(key).trim().replace("\\", "/"));
+            }
+        }
+
+        return new TemplateTileSource(
+                id,
+                props.getProperty(prefix + "name", id),
+                UrlTemplate.compile(url, domains, constants),
+                intProperty(props, prefix + "maxZoom", DEFAULT_MAX_ZOOM),
+                intProperty(props, prefix + "tileSize", DEFAULT_TILE_SIZE),
+                intProperty(props, prefix + "concurrency", DEFAULT_CONCURRENCY),
+                TileSource.CachePolicy.valueOf(props.getProperty(prefix + "cache", "MEMORY").trim().toUpperCase())
+        );
+    }
+
+    private static int intProperty(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
@@ -0,0 +1,107 @@
+// service/tileService/ShpTileLayerRenderer.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.model.LayerModel;
+import ll.luolin.utils.LogUtils;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.MapContent;
+import org.geotools.referencing.CRS;
+import org.geotools.renderer.lite.StreamingRenderer;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SHP图层瓦片渲染（GeoTools StreamingRenderer，每张瓦片一个渲染器实例）
+ */
+public class ShpTileLayerRenderer implements TileLayerRenderer {
+
+    private static final String[] SOURCE_EXTENSIONS = {".shp", ".dbf", ".shx", ".prj"};
+
+    private final LayerModel layer;
+    private final double[] bounds;
+    private final CoordinateReferenceSystem mercator;
+
+    public ShpTileLayerRenderer(LayerModel layer) throws Exception {
+        this.layer = layer;
+        this.mercator = CRS.decode("EPSG:3857", true);
+        this.bounds = readBounds(layer);
+    }
+
+    private static double[] readBounds(LayerModel layer) {
+        try {
+            ReferencedEnvelope envelope = layer.getFeatureSource().getBounds();
+            if (envelope == null || envelope.isEmpty()) {
+                return null;
+            }
+            return new double[]{envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY()};
+        } catch (Exception e) {
+            LogUtils.warn("读取SHP图层范围失败: " + layer.getName());
+            return null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return layer.getName();
+    }
+
+    @Override
+    public List<File> getSourceFiles() {
+        List<File> files = new ArrayList<>();
+        File shp = layer.getFile();
+        if (shp == null) {
+            return files;
+        }
+        String base = shp.getName().replaceAll("(?i)\\.shp$", "");
+        for (String ext : SOURCE_EXTENSIONS) {
+            File file = new File(shp.getParentFile(), base + ext);
+            if (file.exists()) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    @Override
+    public double[] getBounds() {
+        return bounds;
+    }
+
+    @Override
+    public void render(Graphics2D g, TileBounds tile) {
+        MapContent mapContent = new MapContent();
+        try {
+            mapContent.addLayer(new FeatureLayer(layer.getFeatureSource(), layer.getStyle()));
+
+            ReferencedEnvelope envelope = new ReferencedEnvelope(
+                    TileMath.lonToMercatorX(tile.getWest()), TileMath.lonToMercatorX(tile.getEast()),
+                    TileMath.latToMercatorY(tile.getSouth()), TileMath.latToMercatorY(tile.getNorth()),
+                    mercator);
+            mapContent.getViewport().setCoordinateReferenceSystem(mercator);
+            mapContent.getViewport().setBounds(envelope);
+
+            StreamingRenderer renderer = new StreamingRenderer();
+            renderer.setMapContent(mapContent);
+            renderer.setJava2DHints(new RenderingHints(
+                    RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON));
+            Map<Object, Object> rendererHints = new HashMap<>();
+            rendererHints.put(StreamingRenderer.OPTIMIZED_DATA_LOADING_KEY, Boolean.TRUE);
+            renderer.setRendererHints(rendererHints);
+
+            renderer.paint(g, new Rectangle(0, 0, tile.getTileSize(), tile.getTileSize()), envelope);
+        } catch (Exception e) {
+            LogUtils.error("渲染SHP瓦片失败: " + layer.getName() + " " + tile, e);
+        } finally {
+            mapContent.dispose();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+// service/tileService/TemplateTileSource.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.service.TileSource;
+
+/**
+ * 基于预编译URL模板的瓦片源
+ */
+public class TemplateTileSource implements TileSource {
+
+    private final String id;
+    private final String name;
+    private final UrlTemplate template;
+    private final int maxZoom;
+    private final int tileSize;
+    private final int concurrency;
+    private final CachePolicy cachePolicy;
+    private final boolean requiresInternet;
+
+    public TemplateTileSource(String id, String name, UrlTemplate template,
+                              int maxZoom, int tileSize, int concurrency, CachePolicy cachePolicy) {
+        this.id = id;
+        this.name = name;
+        this.template = template;
+        this.maxZoom = maxZoom;
+        this.tileSize = tileSize;
+        this.concurrency = Math.max(1, concurrency);
+        this.cachePolicy = cachePolicy;
+
+        String url = template.getTemplate().toLowerCase();
+        this.requiresInternet = url.startsWith("http://") || url.startsWith("https://");
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getTileUrl(int x, int y, int zoom) {
+        if (zoom > maxZoom) {
+            return "";
+        }
+        return template.expand(x, y, zoom);
+    }
+
+    @Override
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    @Override
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    @Override
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public CachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+
+    @Override
+    public boolean requiresInternet() {
+        return requiresInternet;
+    }
+
+    public UrlTemplate getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,105 @@
+// service/tileService/TileBounds.java
+package ll.luolin.service.tileService;
+
+/**
+ * 单张瓦片的范围及像素换算
+ */
+public final class TileBounds {
+
+    private final int zoom;
+    private final int x;
+    private final int y;
+    private final int tileSize;
+
+    private final double west;
+    private final double east;
+    private final double north;
+    private final double south;
+
+    public TileBounds(int zoom, int x, int y, int tileSize) {
+        this.zoom = zoom;
+        this.x = x;
+        this.y = y;
+        this.tileSize = tileSize;
+        this.west = TileMath.tileXToLon(x, zoom);
+        this.east = TileMath.tileXToLon(x + 1, zoom);
+        this.north = TileMath.tileYToLat(y, zoom);
+        this.south = TileMath.tileYToLat(y + 1, zoom);
+    }
+
+    /**
+     * 经度转瓦片内像素X
+     */
+    public double lonToPixelX(double lon) {
+        return (TileMath.lonToTileX(lon, zoom) - x) * tileSize;
+    }
+
+    /**
+     * 纬度转瓦片内像素Y
+     */
+    public double latToPixelY(double lat) {
+        return (TileMath.latToTileY(lat, zoom) - y) * tileSize;
+    }
+
+    /**
+     * 按像素外扩后的经纬度范围 {minLon, minLat, maxLon, maxLat}
+     */
+    public double[] expandedBounds(int marginPixels) {
+        double dx = marginPixels / (double) tileSize;
+        return new double[]{
+                TileMath.tileXToLon(x - dx, zoom),
+                TileMath.tileYToLat(y + 1 + dx, zoom),
+                TileMath.tileXToLon(x + 1 + dx, zoom),
+                TileMath.tileYToLat(y - dx, zoom)
+        };
+    }
+
+    /**
+     * 是否与经纬度包围盒相交
+     */
+    public boolean intersects(double[] bbox, int marginPixels) {
+        if (bbox == null) {
+            return true;
+        }
+        double[] expanded = expandedBounds(marginPixels);
+        return bbox[0] <= expanded[2] && bbox[2] >= expanded[0]
+                && bbox[1] <= expanded[3] && bbox[3] >= expanded[1];
+    }
+
+    public int getZoom() {
+        return zoom;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public double getWest() {
+        return west;
+    }
+
+    public double getEast() {
+        return east;
+    }
+
+    public double getNorth() {
+        return north;
+    }
+
+    public double getSouth() {
+        return south;
+    }
+
+    @Override
+    public String toString() {
+        return zoom + "/" + x + "/" + y;
+    }
+}
@@ -0,0 +1,188 @@
+// service/tileService/TileDiskCache.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.utils.LogUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * 瓦片磁盘缓存
+ * 目录结构：<根目录>/<瓦片源id>/<z>/<x>/<y>.tile，同名 .meta 文件保存 ETag、Last-Modified 和过期时间
+ */
+public class TileDiskCache {
+
+    private static final String DATA_SUFFIX = ".tile";
+    private static final String META_SUFFIX = ".meta";
+
+    private final Path root;
+
+    public TileDiskCache(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * 默认缓存目录：用户目录下的 map_tiles/cache
+     */
+    public static Path defaultRoot() {
+        return Paths.get(System.getProperty("user.home"), "map_tiles", "cache");
+    }
+
+    /**
+     * 读取缓存条目，不存在或损坏时返回null
+     */
+    public Entry get(String sourceId, int x, int y, int zoom) {
+        Path data = dataPath(sourceId, x, y, zoom);
+        Path meta = metaPath(data);
+        if (!Files.isRegularFile(data) || !Files.isRegularFile(meta)) {
+            return null;
+        }
+
+        try {
+            Properties props = new Properties();
+            try (InputStream in = Files.newInputStream(meta)) {
+                props.load(in);
+            }
+            byte[] bytes = Files.readAllBytes(data);
+            return new Entry(bytes,
+                    props.getProperty("etag"),
+                    props.getProperty("lastModified"),
+                    Long.parseLong(props.getProperty("expires", "0")));
+        } catch (Exception e) {
+            LogUtils.debug("读取瓦片缓存失败: " + data + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写入瓦片数据和元数据（先写临时文件再替换，避免读到半个文件）
+     */
+    public void put(String sourceId, int x, int y, int zoom, Entry entry) {
+        Path data = dataPath(sourceId, x, y, zoom);
+        try {
+            Files.createDirectories(data.getParent());
+            Path tmp = Files.createTempFile(data.getParent(), "tile", ".tmp");
+            try {
+                Files.write(tmp, entry.getBytes());
+                move(tmp, data);
+            } finally {
+                // 移动成功后临时文件已不存在，失败时在这里清理
+                Files.deleteIfExists(tmp);
+            }
+            writeMeta(metaPath(data), entry);
+        } catch (IOException e) {
+            LogUtils.debug("写入瓦片缓存失败: " + data + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * 重新验证后（304）只更新元数据
+     */
+    public void updateMeta(String sourceId, int x, int y, int zoom, Entry entry) {
+        Path data = dataPath(sourceId, x, y, zoom);
+        try {
+            writeMeta(metaPath(data), entry);
+        } catch (IOException e) {
+            LogUtils.debug("更新瓦片缓存元数据失败: " + data + " - " + e.getMessage());
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    private void writeMeta(Path meta, Entry entry) throws IOException {
+        Properties props = new Properties();
+        if (entry.getEtag() != null) {
+            props.setProperty("etag", entry.getEtag());
+        }
+        if (entry.getLastModified() != null) {
+            props.setProperty("lastModified", entry.getLastModified());
+        }
+        props.setProperty("expires", Long.toString(entry.getExpires()));
+
+        Path tmp = Files.createTempFile(meta.getParent(), "meta", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, null);
+            }
+            move(tmp, meta);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path dataPath(String sourceId, int x, int y, int zoom) {
+        return root.resolve(sourceId)
+                .resolve(Integer.toString(zoom))
+                .resolve(Integer.toString(x))
+                .resolve(y + DATA_SUFFIX);
+    }
+
+    private static Path metaPath(Path data) {
+        String name = data.getFileName().toString();
+        return data.resolveSibling(name.substring(0, name.length() - DATA_SUFFIX.length()) + META_SUFFIX);
+    }
+
+    /**
+     * 缓存条目
+     */
+    public static class Entry {
+        private final byte[] bytes;
+        private final String etag;
+        private final String lastModified;
+        private final long expires;
+
+        public Entry(byte[] bytes, String etag, String lastModified, long expires) {
+            this.bytes = bytes;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expires = expires;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public long getExpires() {
+            return expires;
+        }
+
+        /**
+         * 是否仍在有效期内（无需重新验证）
+         */
+        public boolean isFresh(long now) {
+            return now < expires;
+        }
+
+        /**
+         * 是否可以发起条件请求
+         */
+        public boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+// service/tileService/TileLayerRenderer.java
+package ll.luolin.service.tileService;
+
+import java.awt.Graphics2D;
+import java.io.File;
+import java.util.List;
+
+/**
+ * 可预渲染为离线瓦片的图层
+ * 实现必须线程安全：同一实例会在多个fork-join工作线程上并发渲染不同瓦片
+ */
+public interface TileLayerRenderer {
+
+    /**
+     * 图层名称（用于增量构建清单）
+     */
+    String getName();
+
+    /**
+     * 图层依赖的源文件，修改时间或大小变化时触发增量重建
+     */
+    List<File> getSourceFiles();
+
+    /**
+     * 图层经纬度范围 {minLon, minLat, maxLon, maxLat}，未知时返回null
+     */
+    double[] getBounds();
+
+    /**
+     * 绘制到瓦片（像素坐标系，原点为瓦片左上角）
+     */
+    void render(Graphics2D g, TileBounds tile);
+}
@@ -0,0 +1,76 @@
+// service/tileService/TileMath.java
+package ll.luolin.service.tileService;
+
+/**
+ * XYZ瓦片坐标换算（Web墨卡托，与TileService的瓦片编号一致）
+ */
+public final class TileMath {
+
+    public static final double ORIGIN_SHIFT = 20037508.342789244;
+    public static final double MAX_LAT = 85.0511287798;
+
+    private TileMath() {
+    }
+
+    /**
+     * 经度转瓦片X（带小数）
+     */
+    public static double lonToTileX(double lon, int zoom) {
+        return (lon + 180.0) / 360.0 * (1 << zoom);
+    }
+
+    /**
+     * 纬度转瓦片Y（带小数）
+     */
+    public static double latToTileY(double lat, int zoom) {
+        double clamped = Math.max(-MAX_LAT, Math.min(MAX_LAT, lat));
+        double latRad = Math.toRadians(clamped);
+        return (1.0 - Math.log(Math.tan(latRad) + 1.0 / Math.cos(latRad)) / Math.PI) / 2.0 * (1 << zoom);
+    }
+
+    /**
+     * 瓦片X转经度（瓦片左边界）
+     */
+    public static double tileXToLon(double x, int zoom) {
+        return x / (1 << zoom) * 360.0 - 180.0;
+    }
+
+    /**
+     * 瓦片Y转纬度（瓦片上边界）
+     */
+    public static double tileYToLat(double y, int zoom) {
+        double n = Math.PI - 2.0 * Math.PI * y / (1 << zoom);
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    /**
+     * 经度转墨卡托米
+     */
+    public static double lonToMercatorX(double lon) {
+        return lon * ORIGIN_SHIFT / 180.0;
+    }
+
+    /**
+     * 纬度转墨卡托米
+     */
+    public static double latToMercatorY(double lat) {
+        double clamped = Math.max(-MAX_LAT, Math.min(MAX_LAT, lat));
+        return Math.log(Math.tan((90.0 + clamped) * Math.PI / 360.0)) / (Math.PI / 180.0) * ORIGIN_SHIFT / 180.0;
+    }
+
+    /**
+     * 计算包围盒 {minLon, minLat, maxLon, maxLat} 在指定级别覆盖的瓦片范围 {minX, minY, maxX, maxY}
+     */
+    public static int[] tileRange(double[] bbox, int zoom) {
+        int maxTile = (1 << zoom) - 1;
+        int minX = clamp((int) Math.floor(lonToTileX(bbox[0], zoom)), maxTile);
+        int maxX = clamp((int) Math.floor(lonToTileX(bbox[2], zoom)), maxTile);
+        int minY = clamp((int) Math.floor(latToTileY(bbox[3], zoom)), maxTile);
+        int maxY = clamp((int) Math.floor(latToTileY(bbox[1], zoom)), maxTile);
+        return new int[]{minX, minY, maxX, maxY};
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(max, value));
+    }
+}
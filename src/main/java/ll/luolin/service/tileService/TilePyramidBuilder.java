@@ -0,0 +1,426 @@
+// service/tileService/TilePyramidBuilder.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.utils.LogUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 离线瓦片金字塔生成器
+ * 把静态矢量图层（SHP边界、导航点等）预渲染为 {z}/{x}/{y}.png 目录树，供 tile-sources.properties 中的 local 瓦片源使用
+ *
+ * - 每个级别的瓦片范围用fork-join递归二分，叶子任务只渲染一张瓦片，占满所有核心
+ * - 没有任何内容的瓦片不写文件（已有的旧文件会被删除）
+ * - 输出目录下的 pyramid.properties 记录源文件的修改时间/大小及图层范围，
+ *   源文件变化时只重建与新旧范围相交的瓦片；有瓦片生成失败时不更新清单，下次构建重试同一范围
+ */
+public class TilePyramidBuilder {
+
+    public static final int TILE_SIZE = 256;
+    private static final String MANIFEST_NAME = "pyramid.properties";
+
+    private final File outputDir;
+    private final List<TileLayerRenderer> layers = new ArrayList<>();
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // 每个工作线程复用一张瓦片画布
+    private final ThreadLocal<BufferedImage> canvas =
+            ThreadLocal.withInitial(() -> new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB));
+
+    public TilePyramidBuilder(File outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * 默认输出目录，与 local 瓦片源默认的 {path}/tiles 一致
+     */
+    public static File defaultOutputDir() {
+        return new File(System.getProperty("user.home") + "/map_tiles/tiles");
+    }
+
+    public TilePyramidBuilder addLayer(TileLayerRenderer layer) {
+        layers.add(layer);
+        return this;
+    }
+
+    public TilePyramidBuilder setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * 构建金字塔
+     *
+     * @param bbox    {minLon, minLat, maxLon, maxLat}
+     * @param minZoom 最小级别（含）
+     * @param maxZoom 最大级别（含）
+     */
+    public BuildResult build(double[] bbox, int minZoom, int maxZoom) throws IOException {
+        LogUtils.info(String.format("TilePyramidBuilder-build-生成离线瓦片 %s z%d-%d, %d 个图层, 并行度 %d",
+                Arrays.toString(bbox), minZoom, maxZoom, layers.size(), parallelism));
+
+        long start = System.nanoTime();
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("无法创建输出目录: " + outputDir.getAbsolutePath());
+        }
+
+        Properties oldManifest = loadManifest();
+        Properties newManifest = createManifest(bbox, minZoom, maxZoom);
+        DirtyRegion dirty = computeDirtyRegion(oldManifest, newManifest, bbox, minZoom, maxZoom);
+
+        BuildResult result = new BuildResult();
+        if (!dirty.full && dirty.regions.isEmpty()) {
+            LogUtils.info("源文件未变化，跳过瓦片生成");
+            result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            return result;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+                int[] range = TileMath.tileRange(bbox, zoom);
+                pool.invoke(new TileRangeTask(zoom, range[0], range[1], range[2], range[3], dirty, result));
+                LogUtils.info(String.format("级别 %d 完成: 已渲染 %d, 空瓦片 %d, 未变化 %d",
+                        zoom, result.rendered.sum(), result.empty.sum(), result.unchanged.sum()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        if (result.failed.sum() > 0) {
+            // 保留旧清单，失败的瓦片在下次构建时仍属于需要重建的范围
+            LogUtils.warn(String.format("%d 张瓦片生成失败，不更新瓦片清单", result.failed.sum()));
+        } else {
+            saveManifest(newManifest);
+        }
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        LogUtils.info("离线瓦片生成完成: " + result);
+        return result;
+    }
+
+    /**
+     * 渲染单张瓦片；返回false表示瓦片为空
+     */
+    private boolean renderTile(TileBounds tile) throws IOException {
+        BufferedImage image = canvas.get();
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, 0);
+
+        boolean touched = false;
+        for (TileLayerRenderer layer : layers) {
+            if (!tile.intersects(layer.getBounds(), NavPointTileLayerRenderer.MARGIN_PIXELS)) {
+                continue;
+            }
+            Graphics2D g = image.createGraphics();
+            try {
+                layer.render(g, tile);
+            } finally {
+                g.dispose();
+            }
+            touched = true;
+        }
+
+        File target = tileFile(tile);
+        if (!touched || isEmpty(pixels)) {
+            if (target.exists() && !target.delete()) {
+                LogUtils.warn("删除过期瓦片失败: " + target.getAbsolutePath());
+            }
+            return false;
+        }
+
+        File parent = target.getParentFile();
+        if (!parent.exists() && !parent.mkdirs() && !parent.exists()) {
+            throw new IOException("无法创建目录: " + parent.getAbsolutePath());
+        }
+        ImageIO.write(image, "png", target);
+        return true;
+    }
+
+    private static boolean isEmpty(int[] pixels) {
+        for (int pixel : pixels) {
+            if ((pixel >>> 24) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private File tileFile(TileBounds tile) {
+        return new File(outputDir, tile.getZoom() + File.separator + tile.getX() + File.separator + tile.getY() + ".png");
+    }
+
+    /**
+     * 瓦片范围任务：递归二分到单张瓦片
+     */
+    private class TileRangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int zoom;
+        private final int minX, minY, maxX, maxY;
+        private final DirtyRegion dirty;
+        private final BuildResult result;
+
+        TileRangeTask(int zoom, int minX, int minY, int maxX, int maxY, DirtyRegion dirty, BuildResult result) {
+            this.zoom = zoom;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.dirty = dirty;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (minX == maxX && minY == maxY) {
+                renderLeaf();
+                return;
+            }
+            if (maxX - minX >= maxY - minY) {
+                int mid = (minX + maxX) >>> 1;
+                invokeAll(new TileRangeTask(zoom, minX, minY, mid, maxY, dirty, result),
+                        new TileRangeTask(zoom, mid + 1, minY, maxX, maxY, dirty, result));
+            } else {
+                int mid = (minY + maxY) >>> 1;
+                invokeAll(new TileRangeTask(zoom, minX, minY, maxX, mid, dirty, result),
+                        new TileRangeTask(zoom, minX, mid + 1, maxX, maxY, dirty, result));
+            }
+        }
+
+        private void renderLeaf() {
+            TileBounds tile = new TileBounds(zoom, minX, minY, TILE_SIZE);
+            if (!dirty.affects(tile)) {
+                result.unchanged.increment();
+                return;
+            }
+            try {
+                if (renderTile(tile)) {
+                    result.rendered.increment();
+                } else {
+                    result.empty.increment();
+                }
+            } catch (Exception e) {
+                result.failed.increment();
+                LogUtils.error("生成瓦片失败: " + tile, e);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // 增量构建清单
+    // ---------------------------------------------------------------
+
+    private Properties createManifest(double[] bbox, int minZoom, int maxZoom) {
+        Properties manifest = new Properties();
+        manifest.setProperty("bbox", joinBounds(bbox));
+        manifest.setProperty("minZoom", String.valueOf(minZoom));
+        manifest.setProperty("maxZoom", String.valueOf(maxZoom));
+        manifest.setProperty("layers", String.valueOf(layers.size()));
+
+        for (int i = 0; i < layers.size(); i++) {
+            TileLayerRenderer layer = layers.get(i);
+            String prefix = "layer." + i + ".";
+            manifest.setProperty(prefix + "name", layer.getName());
+            manifest.setProperty(prefix + "sources", sourceSignature(layer));
+            manifest.setProperty(prefix + "bounds", layer.getBounds() == null ? "" : joinBounds(layer.getBounds()));
+        }
+        return manifest;
+    }
+
+    private static String sourceSignature(TileLayerRenderer layer) {
+        StringBuilder sb = new StringBuilder();
+        for (File file : layer.getSourceFiles()) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(file.getAbsolutePath()).append('@')
+                    .append(file.lastModified()).append(':').append(file.length());
+        }
+        return sb.toString();
+    }
+
+    private DirtyRegion computeDirtyRegion(Properties oldManifest, Properties newManifest,
+                                           double[] bbox, int minZoom, int maxZoom) {
+        if (oldManifest == null
+                || !newManifest.getProperty("bbox").equals(oldManifest.getProperty("bbox"))
+                || !newManifest.getProperty("minZoom").equals(oldManifest.getProperty("minZoom"))
+                || !newManifest.getProperty("maxZoom").equals(oldManifest.getProperty("maxZoom"))) {
+            return DirtyRegion.full();
+        }
+
+        Map<String, String[]> oldLayers = readLayers(oldManifest);
+        Map<String, String[]> newLayers = readLayers(newManifest);
+        DirtyRegion dirty = new DirtyRegion(false);
+
+        for (Map.Entry<String, String[]> entry : newLayers.entrySet()) {
+            String[] previous = oldLayers.remove(entry.getKey());
+            String[] current = entry.getValue();
+            if (previous != null && previous[0].equals(current[0])) {
+                continue;
+            }
+            LogUtils.info("图层已变化，增量重建: " + entry.getKey());
+            if (!dirty.add(current[1]) || (previous != null && !dirty.add(previous[1]))) {
+                return DirtyRegion.full();
+            }
+        }
+        // 已移除的图层
+        for (Map.Entry<String, String[]> entry : oldLayers.entrySet()) {
+            LogUtils.info("图层已移除，增量重建: " + entry.getKey());
+            if (!dirty.add(entry.getValue()[1])) {
+                return DirtyRegion.full();
+            }
+        }
+        return dirty;
+    }
+
+    /**
+     * 图层名 -> {源文件签名, 范围}
+     */
+    private static Map<String, String[]> readLayers(Properties manifest) {
+        Map<String, String[]> result = new LinkedHashMap<>();
+        int count = Integer.parseInt(manifest.getProperty("layers", "0"));
+        for (int i = 0; i < count; i++) {
+            String prefix = "layer." + i + ".";
+            result.put(manifest.getProperty(prefix + "name", "layer" + i), new String[]{
+                    manifest.getProperty(prefix + "sources", ""),
+                    manifest.getProperty(prefix + "bounds", "")
+            });
+        }
+        return result;
+    }
+
+    private Properties loadManifest() {
+        File file = new File(outputDir, MANIFEST_NAME);
+        if (!file.exists()) {
+            return null;
+        }
+        Properties manifest = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            manifest.load(in);
+            return manifest;
+        } catch (IOException e) {
+            LogUtils.warn("读取瓦片清单失败，执行完整构建: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveManifest(Properties manifest) throws IOException {
+        try (OutputStream out = new FileOutputStream(new File(outputDir, MANIFEST_NAME))) {
+            manifest.store(out, "DPRMap tile pyramid");
+        }
+    }
+
+    private static String joinBounds(double[] bounds) {
+        return bounds[0] + "," + bounds[1] + "," + bounds[2] + "," + bounds[3];
+    }
+
+    private static double[] parseBounds(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        String[] parts = value.split(",");
+        if (parts.length != 4) {
+            return null;
+        }
+        double[] bounds = new double[4];
+        for (int i = 0; i < 4; i++) {
+            bounds[i] = Double.parseDouble(parts[i]);
+        }
+        return bounds;
+    }
+
+    /**
+     * 需要重建的区域
+     */
+    private static class DirtyRegion {
+        final boolean full;
+        final List<double[]> regions = new ArrayList<>();
+
+        DirtyRegion(boolean full) {
+            this.full = full;
+        }
+
+        static DirtyRegion full() {
+            return new DirtyRegion(true);
+        }
+
+        /**
+         * 添加变化范围；范围未知时返回false（需要完整重建）
+         */
+        boolean add(String bounds) {
+            double[] parsed = parseBounds(bounds);
+            if (parsed == null) {
+                return false;
+            }
+            regions.add(parsed);
+            return true;
+        }
+
+        boolean affects(TileBounds tile) {
+            if (full) {
+                return true;
+            }
+            for (double[] region : regions) {
+                if (tile.intersects(region, NavPointTileLayerRenderer.MARGIN_PIXELS)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 构建结果
+     */
+    public static class BuildResult {
+        final LongAdder rendered = new LongAdder();
+        final LongAdder empty = new LongAdder();
+        final LongAdder unchanged = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        long elapsedMillis;
+
+        public long getRendered() {
+            return rendered.sum();
+        }
+
+        public long getEmpty() {
+            return empty.sum();
+        }
+
+        public long getUnchanged() {
+            return unchanged.sum();
+        }
+
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("已渲染 %d, 空瓦片 %d, 未变化 %d, 失败 %d, 耗时 %dms",
+                    getRendered(), getEmpty(), getUnchanged(), getFailed(), elapsedMillis);
+        }
+    }
+}
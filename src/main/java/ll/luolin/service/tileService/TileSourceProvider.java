@@ -0,0 +1,19 @@
+// service/tileService/TileSourceProvider.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.service.TileSource;
+
+import java.util.List;
+
+/**
+ * 瓦片源SPI
+ * 实现类在 META-INF/services/ll.luolin.service.tileService.TileSourceProvider 中注册，
+ * 新增WMTS或本地瓦片服务器时无需修改代码
+ */
+public interface TileSourceProvider {
+
+    /**
+     * 提供的瓦片源；后加载的提供者可用相同id覆盖先前的瓦片源
+     */
+    List<TileSource> getTileSources();
+}
@@ -0,0 +1,86 @@
+// service/tileService/TileSourceRegistry.java
+package ll.luolin.service.tileService;
+
+import ll.luolin.service.TileSource;
+import ll.luolin.utils.LogUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * 瓦片源注册表
+ * 通过ServiceLoader收集所有TileSourceProvider提供的瓦片源
+ */
+public class TileSourceRegistry {
+    private static TileSourceRegistry instance;
+
+    public static final String DEFAULT_SOURCE_ID = "osm";
+
+    private final Map<String, TileSource> sources = new LinkedHashMap<>();
+
+    private TileSourceRegistry() {
+        reload();
+    }
+
+    public static synchronized TileSourceRegistry getInstance() {
+        if (instance == null) {
+            instance = new TileSourceRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * 重新加载所有瓦片源
+     */
+    public synchronized void reload() {
+        LogUtils.info("TileSourceRegistry-reload-加载瓦片源");
+
+        sources.clear();
+        for (TileSourceProvider provider : ServiceLoader.load(TileSourceProvider.class)) {
+            try {
+                for (TileSource source : provider.getTileSources()) {
+                    sources.put(source.getId(), source);
+                }
+            } catch (Exception e) {
+                LogUtils.error("加载瓦片源提供者失败: " + provider.getClass().getName(), e);
+            }
+        }
+
+        // 没有任何注册时使用内置配置，保证至少有一个可用的瓦片源
+        if (sources.isEmpty()) {
+            for (TileSource source : new PropertiesTileSourceProvider().getTileSources()) {
+                sources.put(source.getId(), source);
+            }
+        }
+
+        LogUtils.info("已加载瓦片源: " + sources.keySet());
+    }
+
+    /**
+     * 按id获取瓦片源
+     */
+    public synchronized TileSource get(String id) {
+        return sources.get(id);
+    }
+
+    /**
+     * 默认瓦片源
+     */
+    public synchronized TileSource getDefault() {
+        TileSource source = sources.get(DEFAULT_SOURCE_ID);
+        if (source == null && !sources.isEmpty()) {
+            source = sources.values().iterator().next();
+        }
+        return source;
+    }
+
+    /**
+     * 所有瓦片源（按配置顺序）
+     */
+    public synchronized List<TileSource> getSources() {
+        return new ArrayList<>(sources.values());
+    }
+}
@@ -0,0 +1,193 @@
+// service/tileService/UrlTemplate.java
+package ll.luolin.service.tileService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的瓦片URL模板
+ * 模板只在加载时解析一次，拆成字面量段和变量段；生成URL时每张瓦片只分配一个StringBuilder
+ *
+ * 支持的变量：
+ * {x} {y} {z}            标准XYZ
+ * {-y}                   TMS翻转的Y
+ * {s}                    子域名轮换
+ * {q}                    Bing四叉树键
+ * {TileCol} {TileRow} {TileMatrix}  WMTS别名
+ * 其他 {name}            编译时从选项中取值的常量（如 {path}）
+ */
+public final class UrlTemplate {
+
+    private static final byte LITERAL = 0;
+    private static final byte X = 1;
+    private static final byte Y = 2;
+    private static final byte Z = 3;
+    private static final byte TMS_Y = 4;
+    private static final byte SUBDOMAIN = 5;
+    private static final byte QUADKEY = 6;
+
+    private final String template;
+    private final byte[] kinds;
+    private final String[] literals;
+    private final String[] subdomains;
+    private final int literalLength;
+
+    private UrlTemplate(String template, byte[] kinds, String[] literals, String[] subdomains) {
+        this.template = template;
+        this.kinds = kinds;
+        this.literals = literals;
+        this.subdomains = subdomains;
+        int length = 0;
+        for (String literal : literals) {
+            if (literal != null) {
+                length += literal.length();
+            }
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param template   URL模板
+     * @param subdomains {s} 轮换的子域名，可为空
+     * @param constants  编译期常量变量（如 path）
+     */
+    public static UrlTemplate compile(String template, String[] subdomains, Map<String, String> constants) {
+        List<Byte> kinds = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            int close = c == '{' ? template.indexOf('}', i) : -1;
+            if (close < 0) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            String name = template.substring(i + 1, close);
+            byte kind = variableKind(name);
+            if (kind == LITERAL) {
+                String value = constants != null ? constants.get(name) : null;
+                if (value != null) {
+                    literal.append(value);
+                } else {
+                    // 未知变量原样保留
+                    literal.append(template, i, close + 1);
+                }
+            } else {
+                if (literal.length() > 0) {
+                    kinds.add(LITERAL);
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                }
+                kinds.add(kind);
+                literals.add(null);
+            }
+            i = close + 1;
+        }
+        if (literal.length() > 0) {
+            kinds.add(LITERAL);
+            literals.add(literal.toString());
+        }
+
+        byte[] kindArray = new byte[kinds.size()];
+        for (int k = 0; k < kindArray.length; k++) {
+            kindArray[k] = kinds.get(k);
+        }
+        String[] domains = subdomains == null || subdomains.length == 0 ? new String[]{""} : subdomains.clone();
+        return new UrlTemplate(template, kindArray, literals.toArray(new String[0]), domains);
+    }
+
+    private static byte variableKind(String name) {
+        switch (name) {
+            case "x":
+            case "TileCol":
+                return X;
+            case "y":
+            case "TileRow":
+                return Y;
+            case "z":
+            case "TileMatrix":
+                return Z;
+            case "-y":
+                return TMS_Y;
+            case "s":
+                return SUBDOMAIN;
+            case "q":
+                return QUADKEY;
+            default:
+                return LITERAL;
+        }
+    }
+
+    /**
+     * 是否为空模板（无底图）
+     */
+    public boolean isEmpty() {
+        return kinds.length == 0;
+    }
+
+    /**
+     * 生成瓦片URL
+     */
+    public String expand(int x, int y, int zoom) {
+        if (kinds.length == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(literalLength + 32);
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case X:
+                    sb.append(x);
+                    break;
+                case Y:
+                    sb.append(y);
+                    break;
+                case Z:
+                    sb.append(zoom);
+                    break;
+                case TMS_Y:
+                    sb.append((1 << zoom) - 1 - y);
+                    break;
+                case SUBDOMAIN:
+                    // 按瓦片坐标轮换，同一瓦片总是落在同一子域名上，便于HTTP缓存
+                    sb.append(subdomains[Math.floorMod(x + y, subdomains.length)]);
+                    break;
+                case QUADKEY:
+                    appendQuadKey(sb, x, y, zoom);
+                    break;
+                default:
+                    sb.append(literals[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendQuadKey(StringBuilder sb, int x, int y, int zoom) {
+        for (int i = zoom; i > 0; i--) {
+            int mask = 1 << (i - 1);
+            char digit = '0';
+            if ((x & mask) != 0) {
+                digit++;
+            }
+            if ((y & mask) != 0) {
+                digit += 2;
+            }
+            sb.append(digit);
+        }
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
@@ -0,0 +1,216 @@
+// utils/ASFFileParser.java
+package ll.luolin.utils;
+
+import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.model.ASFModel.PointModel;
+import ll.luolin.service.parserService.ASFParseResult;
+import ll.luolin.service.parserService.ASFSectionHandler;
+import ll.luolin.service.parserService.ASFSectionRegistry;
+import ll.luolin.service.parserService.SectionIndexCache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * 通用ASF文件解析器
+ * 每个文件只扫描一遍：遇到段落标题时从 ASFSectionRegistry 取对应的处理器，
+ * 段落内的数据行和续行交给该处理器，未注册的段落直接跳过；多个文件并行解析。
+ * 只需要大文件中的少数段落时用 parseSections：按段落索引直接读取这些段落的字节范围，其余内容不读。
+ */
+public class ASFFileParser {
+    private static ASFFileParser instance;
+
+    private final ASFSectionRegistry registry;
+
+    public ASFFileParser() {
+        this(ASFSectionRegistry.getInstance());
+    }
+
+    public ASFFileParser(ASFSectionRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static synchronized ASFFileParser getInstance() {
+        if (instance == null) {
+            instance = new ASFFileParser();
+        }
+        return instance;
+    }
+
+    /**
+     * 解析单个文件；读取失败时结果中带有异常，不抛出
+     */
+    public ASFParseResult parse(Path file) {
+        ASFParseResult result = new ASFParseResult(file);
+        long start = System.nanoTime();
+
+        try {
+            parse(ASFLexer.open(file), result);
+        } catch (IOException e) {
+            LogUtils.error("读取ASF文件失败: " + file, e);
+            result.setError(e);
+        }
+
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * 解析已在内存中的内容（如归档中的条目）
+     *
+     * @param source 结果中记录的来源（归档路径/条目名）
+     */
+    public ASFParseResult parse(Path source, ByteBuffer content) {
+        ASFParseResult result = new ASFParseResult(source);
+        long start = System.nanoTime();
+        parse(new ASFLexer(content), result);
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    private void parse(ASFLexer lexer, ASFParseResult result) {
+        ASFSectionHandler handler = null;
+
+        while (lexer.next()) {
+            if (lexer.isSection()) {
+                if (handler != null) {
+                    handler.finish(result);
+                }
+                String section = lexer.sectionName();
+                handler = registry.create(section);
+                result.addSection(section, handler != null);
+                continue;
+            }
+
+            if (handler != null) {
+                try {
+                    handler.handle(lexer, result);
+                } catch (RuntimeException e) {
+                    result.warn(lexer, "解析失败: " + lexer.lineString() + " - " + e.getMessage());
+                }
+            }
+        }
+        if (handler != null) {
+            handler.finish(result);
+        }
+    }
+
+    /**
+     * 只解析文件中指定的段落（按文件中的出现顺序），其余段落不读取也不记录
+     * 段落位置来自 SectionIndexCache，索引有效时打开一个段落的耗时与文件大小无关
+     */
+    public ASFParseResult parseSections(Path file, String... sections) {
+        ASFParseResult result = new ASFParseResult(file);
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ASFSectionIndex index = SectionIndexCache.getInstance().get(file);
+            for (int entry : entries(index, sections)) {
+                String section = index.getName(entry);
+                ASFSectionHandler handler = registry.create(section);
+                result.addSection(section, handler != null);
+                if (handler == null) {
+                    continue;
+                }
+
+                ASFLexer lexer = ASFLexer.open(channel, index.getStart(entry),
+                        index.getEnd(entry) - index.getStart(entry), index.getFirstLine(entry));
+                while (lexer.next()) {
+                    try {
+                        handler.handle(lexer, result);
+                    } catch (RuntimeException e) {
+                        result.warn(lexer, "解析失败: " + lexer.lineString() + " - " + e.getMessage());
+                    }
+                }
+                handler.finish(result);
+            }
+
+        } catch (IOException e) {
+            LogUtils.error("读取ASF文件失败: " + file, e);
+            result.setError(e);
+        }
+
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * 指定段落在索引中的条目，按文件顺序
+     */
+    private static int[] entries(ASFSectionIndex index, String[] sections) {
+        int count = 0;
+        int[][] found = new int[sections.length][];
+        for (int i = 0; i < sections.length; i++) {
+            found[i] = index.find(sections[i]);
+            count += found[i].length;
+        }
+        int[] entries = new int[count];
+        int k = 0;
+        for (int[] part : found) {
+            System.arraycopy(part, 0, entries, k, part.length);
+            k += part.length;
+        }
+        Arrays.sort(entries);
+        return entries;
+    }
+
+    /**
+     * 并行解析多个文件，结果按输入顺序返回
+     */
+    public Map<Path, ASFParseResult> parseAll(Collection<Path> files) {
+        LogUtils.info("ASFFileParser-parseAll-并行解析 " + files.size() + " 个文件");
+
+        Map<Path, ASFParseResult> results = new LinkedHashMap<>();
+        if (files.isEmpty()) {
+            return results;
+        }
+
+        List<Path> paths = new ArrayList<>(files);
+        List<Callable<ASFParseResult>> tasks = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            tasks.add(() -> parse(path));
+        }
+
+        // parse内部已处理所有受检异常，任务只可能因运行时错误失败；中断时只返回已完成的文件
+        List<ASFParseResult> parsed = ParallelTasks.invokeAll("asf-parser", tasks, "解析ASF文件失败");
+        for (int i = 0; i < paths.size(); i++) {
+            if (parsed.get(i) != null) {
+                results.put(paths.get(i), parsed.get(i));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * 解析文件中的点（/DEFINITIONS/ 和 /POINTS/ 段；.pte/.pt 点文件按行读取）
+     */
+    public List<? extends PointModel> parseASFFile(String path) throws IOException {
+        LogUtils.info("ASFFileParser-parseASFFile-解析ASF文件: " + path);
+
+        if (PointFileReader.isPointFile(Paths.get(path))) {
+            return PointFileReader.read(Paths.get(path));
+        }
+
+        ASFParseResult result = parse(Paths.get(path));
+        if (!result.isSuccess()) {
+            throw new IOException("读取ASF文件失败: " + path, result.getError());
+        }
+        if (!result.getWarnings().isEmpty()) {
+            LogUtils.warn(String.format("%s: %d 行无法解析，首条: %s",
+                    path, result.getWarnings().size(), result.getWarnings().get(0)));
+        }
+        return result.get(NavPointModel.class);
+    }
+}
@@ -0,0 +1,502 @@
+// utils/ASFLexer.java
+package ll.luolin.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * ASF文件词法分析器
+ * 直接在（内存映射的）ByteBuffer上按行扫描，以 '|' 分隔字段，
+ * 每个字段只记录去掉首尾空白后的偏移和长度，不创建中间String；
+ * 解析器只对需要保留的字段调用 fieldString 等方法。
+ *
+ * 行类型：
+ * - 空行和 "--" 开头的注释行直接跳过
+ * - SECTION：形如 /DEFINITIONS/ 的段落标题
+ * - DATA：普通数据行
+ * - CONTINUATION：第一列为空的续行（如 ROUTES.ASF 中折行的航路点列表）
+ *
+ * 用法：
+ * <pre>
+ * ASFLexer lexer = ASFLexer.open(path);
+ * while (lexer.next()) {
+ *     if (lexer.isSection()) { ... lexer.sectionEquals("DEFINITIONS") ... }
+ *     else { String name = lexer.fieldString(0); ... }
+ * }
+ * </pre>
+ */
+public final class ASFLexer {
+
+    public static final int SECTION = 1;
+    public static final int DATA = 2;
+    public static final int CONTINUATION = 3;
+
+    // 小文件直接读入堆内存，映射的开销反而更大
+    private static final int MAP_THRESHOLD = 64 * 1024;
+
+    private final ByteBuffer buffer;
+    private final int limit;
+
+    private int position;
+    private int lineNumber;
+    private int lineStart;
+    private int lineEnd;
+    private int lineType;
+
+    // 当前行字段 [start, end)，已去掉首尾空白
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private int fieldCount;
+
+    // 段落名（不含两侧的 '/'）
+    private int sectionStart;
+    private int sectionEnd;
+
+    private byte[] scratch = new byte[64];
+
+    private final FieldChars fieldChars = new FieldChars();
+
+    public ASFLexer(ByteBuffer buffer) {
+        this(buffer, 1);
+    }
+
+    /**
+     * @param firstLineNumber 缓冲区第一行在原文件中的行号（只读取文件一部分时用于警告信息）
+     */
+    public ASFLexer(ByteBuffer buffer, int firstLineNumber) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+        this.lineNumber = firstLineNumber - 1;
+    }
+
+    /**
+     * 打开文件：大文件内存映射，小文件一次读入
+     */
+    public static ASFLexer open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("ASF文件过大: " + file);
+            }
+            if (size >= MAP_THRESHOLD) {
+                return new ASFLexer(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 读满为止
+            }
+            buffer.flip();
+            return new ASFLexer(buffer);
+        }
+    }
+
+    /**
+     * 只打开文件中 [offset, offset + length) 这一段（配合 ASFSectionIndex 直接定位到某个段落）
+     *
+     * @param firstLineNumber 该段第一行在文件中的行号
+     */
+    public static ASFLexer open(FileChannel channel, long offset, long length, int firstLineNumber)
+            throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("ASF段落过大: " + length);
+        }
+        if (length >= MAP_THRESHOLD) {
+            return new ASFLexer(channel.map(FileChannel.MapMode.READ_ONLY, offset, length), firstLineNumber);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) >= 0) {
+            // 读满为止
+        }
+        buffer.flip();
+        return new ASFLexer(buffer, firstLineNumber);
+    }
+
+    /**
+     * 前进到下一个有效行（段落标题、数据行或续行），到达文件末尾返回false
+     */
+    public boolean next() {
+        while (position < limit) {
+            int start = position;
+            int end = start;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            position = end < limit ? end + 1 : end;
+            lineNumber++;
+
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+
+            int first = skipBlank(start, end);
+            int last = trimEnd(first, end);
+            if (first == last) {
+                continue;
+            }
+            if (last - first >= 2 && buffer.get(first) == '-' && buffer.get(first + 1) == '-') {
+                continue;
+            }
+
+            lineStart = start;
+            lineEnd = end;
+
+            if (buffer.get(first) == '/' && last - first >= 2 && buffer.get(last - 1) == '/'
+                    && indexOf('|', first, last) < 0) {
+                lineType = SECTION;
+                sectionStart = first + 1;
+                sectionEnd = last - 1;
+                fieldCount = 0;
+                return true;
+            }
+
+            splitFields(start, end);
+            lineType = fieldCount > 1 && fieldStart[0] == fieldEnd[0] ? CONTINUATION : DATA;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 跳到下一个段落标题，中间的数据行不拆分字段；没有更多段落返回false
+     * 用于快速建立段落索引，标题的判断与 next 相同
+     */
+    public boolean nextSection() {
+        while (position < limit) {
+            int start = position;
+            int end = start;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            position = end < limit ? end + 1 : end;
+            lineNumber++;
+
+            int first = skipBlank(start, end);
+            if (first == end || buffer.get(first) != '/') {
+                continue;
+            }
+            int last = trimEnd(first, end);
+            if (last - first >= 2 && buffer.get(last - 1) == '/' && indexOf('|', first, last) < 0) {
+                lineStart = start;
+                lineEnd = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+                lineType = SECTION;
+                sectionStart = first + 1;
+                sectionEnd = last - 1;
+                fieldCount = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void splitFields(int start, int end) {
+        fieldCount = 0;
+        int fieldFrom = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.get(i) == '|') {
+                addField(fieldFrom, i);
+                fieldFrom = i + 1;
+            }
+        }
+    }
+
+    private void addField(int from, int to) {
+        if (fieldCount == fieldStart.length) {
+            int[] starts = new int[fieldCount * 2];
+            int[] ends = new int[fieldCount * 2];
+            System.arraycopy(fieldStart, 0, starts, 0, fieldCount);
+            System.arraycopy(fieldEnd, 0, ends, 0, fieldCount);
+            fieldStart = starts;
+            fieldEnd = ends;
+        }
+        int first = skipBlank(from, to);
+        fieldStart[fieldCount] = first;
+        fieldEnd[fieldCount] = trimEnd(first, to);
+        fieldCount++;
+    }
+
+    private int skipBlank(int from, int to) {
+        while (from < to && isBlank(buffer.get(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimEnd(int from, int to) {
+        while (to > from && isBlank(buffer.get(to - 1))) {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ---------- 行信息 ----------
+
+    public int getLineType() {
+        return lineType;
+    }
+
+    public boolean isSection() {
+        return lineType == SECTION;
+    }
+
+    public boolean isData() {
+        return lineType == DATA;
+    }
+
+    public boolean isContinuation() {
+        return lineType == CONTINUATION;
+    }
+
+    /**
+     * 当前行号（从1开始）
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * 当前行在缓冲区中的起始偏移
+     */
+    public int getLineOffset() {
+        return lineStart;
+    }
+
+    /**
+     * 下一行的起始偏移（当前行之后）
+     */
+    public int getNextLineOffset() {
+        return position;
+    }
+
+    /**
+     * 当前段落标题是否为指定名称（不含 '/'）
+     */
+    public boolean sectionEquals(String name) {
+        return lineType == SECTION && regionEquals(sectionStart, sectionEnd, name);
+    }
+
+    public String sectionName() {
+        return lineType == SECTION ? decode(sectionStart, sectionEnd - sectionStart) : null;
+    }
+
+    /**
+     * 当前整行文本（用于错误信息）
+     */
+    public String lineString() {
+        return decode(lineStart, lineEnd - lineStart);
+    }
+
+    // ---------- 字段访问 ----------
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    public int fieldOffset(int field) {
+        return fieldStart[field];
+    }
+
+    public int fieldLength(int field) {
+        return fieldEnd[field] - fieldStart[field];
+    }
+
+    public boolean fieldIsEmpty(int field) {
+        return field >= fieldCount || fieldStart[field] == fieldEnd[field];
+    }
+
+    /**
+     * 字段内容是否等于给定的ASCII字符串
+     */
+    public boolean fieldEquals(int field, String value) {
+        return field < fieldCount && regionEquals(fieldStart[field], fieldEnd[field], value);
+    }
+
+    public boolean fieldStartsWith(int field, String prefix) {
+        return field < fieldCount
+                && fieldEnd[field] - fieldStart[field] >= prefix.length()
+                && regionEquals(fieldStart[field], fieldStart[field] + prefix.length(), prefix);
+    }
+
+    /**
+     * 取字段的第index个字节（调用方保证不越界）
+     */
+    public byte fieldByte(int field, int index) {
+        return buffer.get(fieldStart[field] + index);
+    }
+
+    /**
+     * 生成字段字符串
+     */
+    public String fieldString(int field) {
+        if (field >= fieldCount) {
+            return "";
+        }
+        return decode(fieldStart[field], fieldEnd[field] - fieldStart[field]);
+    }
+
+    /**
+     * 字段的字符视图（按字节逐个映射为char，只适合ASCII内容，如坐标、数字）
+     * 返回的对象在每次调用时复用，不要保存
+     */
+    public CharSequence fieldChars(int field) {
+        if (field >= fieldCount) {
+            fieldChars.start = 0;
+            fieldChars.end = 0;
+        } else {
+            fieldChars.start = fieldStart[field];
+            fieldChars.end = fieldEnd[field];
+        }
+        return fieldChars;
+    }
+
+    /**
+     * 生成字段字符串，与known中某项相同时直接返回该实例（用于类型等重复取值的字段）
+     */
+    public String fieldString(int field, String[] known) {
+        for (String candidate : known) {
+            if (fieldEquals(field, candidate)) {
+                return candidate;
+            }
+        }
+        return fieldString(field);
+    }
+
+    /**
+     * 把字段按空白和 '+' 拆分为单词加入out（点列表、体积组合表达式），返回单词数
+     */
+    public int fieldTokens(int field, Collection<String> out) {
+        if (field >= fieldCount) {
+            return 0;
+        }
+        int count = 0;
+        int end = fieldEnd[field];
+        int i = fieldStart[field];
+        while (i < end) {
+            while (i < end && isSeparator(buffer.get(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < end && !isSeparator(buffer.get(i))) {
+                i++;
+            }
+            if (i > start) {
+                out.add(decode(start, i - start));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == '+' || isBlank(b);
+    }
+
+    /**
+     * 解析整数字段，为空或格式错误时返回默认值
+     */
+    public int fieldInt(int field, int defaultValue) {
+        if (fieldIsEmpty(field)) {
+            return defaultValue;
+        }
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = false;
+        byte b = buffer.get(i);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            i++;
+        }
+        if (i == end) {
+            return defaultValue;
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return defaultValue;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * 底层缓冲区，配合 fieldOffset/fieldLength 做进一步的无分配解析
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    private boolean regionEquals(int from, int to, String value) {
+        if (to - from != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (buffer.get(from + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int offset, int length) {
+        if (length == 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buffer.get(offset + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 缓冲区区间的CharSequence视图，供 CoordinateDecoder 等直接读取
+     */
+    private final class FieldChars implements CharSequence {
+        private int start;
+        private int end;
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return decode(start + from, to - from);
+        }
+
+        @Override
+        public String toString() {
+            return decode(start, end - start);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+// utils/ASFSectionIndex.java
+package ll.luolin.utils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ASF文件的段落索引：每个段落标题对应的字节范围
+ * 一次快速扫描（只识别标题行，不拆分字段）记录每个段落数据区的起止偏移和首行行号，
+ * 之后可以直接打开某个段落只解析这一段。同名段落出现多次时每次各一条，按文件顺序排列。
+ * 索引记录文件大小和修改时间，由 SectionIndexCache 判断是否失效。
+ */
+public class ASFSectionIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final long size;
+    private final long modified;
+    private final String[] names;
+    // 数据区 [start, end)：标题行之后到下一个标题行（或文件末尾）
+    private final long[] starts;
+    private final long[] ends;
+    // 数据区第一行的行号
+    private final int[] firstLines;
+
+    // 段落名 -> 条目下标
+    private final Map<String, int[]> byName = new HashMap<>();
+
+    public ASFSectionIndex(long size, long modified, String[] names, long[] starts, long[] ends, int[] firstLines) {
+        this.size = size;
+        this.modified = modified;
+        this.names = names;
+        this.starts = starts;
+        this.ends = ends;
+        this.firstLines = firstLines;
+
+        for (int i = 0; i < names.length; i++) {
+            int[] entries = byName.get(names[i]);
+            if (entries == null) {
+                byName.put(names[i], new int[]{i});
+            } else {
+                int[] grown = Arrays.copyOf(entries, entries.length + 1);
+                grown[entries.length] = i;
+                byName.put(names[i], grown);
+            }
+        }
+    }
+
+    /**
+     * 扫描文件建立索引
+     */
+    public static ASFSectionIndex build(Path file, long size, long modified) throws IOException {
+        ASFLexer lexer = ASFLexer.open(file);
+        List<String> names = new ArrayList<>();
+        List<long[]> ranges = new ArrayList<>();
+        List<Integer> lines = new ArrayList<>();
+
+        while (lexer.nextSection()) {
+            if (!ranges.isEmpty()) {
+                ranges.get(ranges.size() - 1)[1] = lexer.getLineOffset();
+            }
+            names.add(lexer.sectionName());
+            ranges.add(new long[]{lexer.getNextLineOffset(), -1});
+            lines.add(lexer.getLineNumber() + 1);
+        }
+        if (!ranges.isEmpty()) {
+            ranges.get(ranges.size() - 1)[1] = lexer.getNextLineOffset();
+        }
+
+        int count = names.size();
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        int[] firstLines = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = ranges.get(i)[0];
+            ends[i] = ranges.get(i)[1];
+            firstLines[i] = lines.get(i);
+        }
+        return new ASFSectionIndex(size, modified, names.toArray(new String[0]), starts, ends, firstLines);
+    }
+
+    /**
+     * 写入：int 条目数，每条 int 名称长度 + 名称UTF-8 | long 起始 | long 结束 | int 首行
+     * 文件大小和修改时间由调用方写在头部
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(names.length);
+        for (int i = 0; i < names.length; i++) {
+            byte[] bytes = names[i].getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeLong(starts[i]);
+            out.writeLong(ends[i]);
+            out.writeInt(firstLines[i]);
+        }
+    }
+
+    /**
+     * 从 write 写出的内容还原
+     */
+    public static ASFSectionIndex read(ByteBuffer buffer, long size, long modified) {
+        int count = buffer.getInt();
+        String[] names = new String[count];
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        int[] firstLines = new int[count];
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            names[i] = new String(bytes, StandardCharsets.UTF_8);
+            starts[i] = buffer.getLong();
+            ends[i] = buffer.getLong();
+            firstLines[i] = buffer.getInt();
+        }
+        return new ASFSectionIndex(size, modified, names, starts, ends, firstLines);
+    }
+
+    /**
+     * 文件大小和修改时间都相同时索引有效
+     */
+    public boolean matches(long size, long modified) {
+        return this.size == size && this.modified == modified;
+    }
+
+    /**
+     * 段落名对应的条目下标（按文件顺序），没有该段落返回空数组
+     */
+    public int[] find(String name) {
+        int[] entries = byName.get(name);
+        return entries == null ? NONE : entries;
+    }
+
+    public boolean contains(String name) {
+        return byName.containsKey(name);
+    }
+
+    /**
+     * 出现过的段落名（按首次出现顺序）
+     */
+    public Set<String> getSectionNames() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(names)));
+    }
+
+    public int getCount() {
+        return names.length;
+    }
+
+    public String getName(int entry) {
+        return names[entry];
+    }
+
+    public long getStart(int entry) {
+        return starts[entry];
+    }
+
+    public long getEnd(int entry) {
+        return ends[entry];
+    }
+
+    public int getFirstLine(int entry) {
+        return firstLines[entry];
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getModified() {
+        return modified;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ASFSectionIndex{%d 个段落, %d 字节}", names.length, size);
+    }
+}
@@ -0,0 +1,109 @@
+// utils/AreaGeometryBuilder.java
+package ll.luolin.utils;
+
+import ll.luolin.model.ASFModel.ArcDefinition;
+import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.service.parserService.ASFParseResult;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 区域几何构建器，FDP空域和各安全网区域文件共用
+ * 每个文件的点字典（/POINTS/、/DEFINITIONS/）和圆弧只从解析结果中收集一次，
+ * 边界点列表经 RingBuilder 展开（圆弧按精度插值），相同边界只构建一次并共用同一个多边形。
+ * 非线程安全，每个文件一个实例。
+ */
+public final class AreaGeometryBuilder {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+    private static final double METRES_PER_DEGREE = 111_320.0;
+
+    private final RingBuilder ringBuilder;
+    private final Map<List<String>, Geometry> polygons = new HashMap<>();
+    private final Set<String> missing = new LinkedHashSet<>();
+
+    public AreaGeometryBuilder(Map<String, double[]> points, Map<String, ArcDefinition> arcs) {
+        this.ringBuilder = new RingBuilder(points, arcs);
+    }
+
+    /**
+     * 用解析结果中的点和圆弧建立构建器
+     */
+    public static AreaGeometryBuilder of(ASFParseResult result) {
+        Map<String, double[]> points = new HashMap<>();
+        for (NavPointModel point : result.get(NavPointModel.class)) {
+            points.put(point.getName(), new double[]{point.getLongitude(), point.getLatitude()});
+        }
+        Map<String, ArcDefinition> arcs = new HashMap<>();
+        for (ArcDefinition arc : result.get(ArcDefinition.class)) {
+            arcs.put(arc.getName(), arc);
+        }
+        return new AreaGeometryBuilder(points, arcs);
+    }
+
+    /**
+     * 边界点列表 -> 多边形（相同列表返回同一实例），有效点不足时返回null
+     */
+    public Geometry polygon(List<String> tokens) {
+        Geometry polygon = polygons.get(tokens);
+        if (polygon == null) {
+            polygon = toPolygon(ringBuilder.build(tokens, missing));
+            if (polygon != null) {
+                polygons.put(tokens, polygon);
+            }
+        }
+        return polygon;
+    }
+
+    /**
+     * 圆形区域，按精度插值（HI 2°，LO 10°，其他 5°）
+     */
+    public Geometry circle(double longitude, double latitude, double radiusMetres, String precision) {
+        double scale = Math.cos(Math.toRadians(latitude));
+        double radius = radiusMetres / METRES_PER_DEGREE;
+        int steps = (int) Math.ceil(360 / RingBuilder.stepDegrees(precision));
+        Coordinate[] ring = new Coordinate[steps + 1];
+        for (int k = 0; k < steps; k++) {
+            double angle = 2 * Math.PI * k / steps;
+            ring[k] = new Coordinate(longitude + radius * Math.cos(angle) / scale, latitude + radius * Math.sin(angle));
+        }
+        ring[steps] = new Coordinate(ring[0]);
+        return GEOMETRY_FACTORY.createPolygon(ring);
+    }
+
+    /**
+     * 边界中未定义的点名和圆弧名
+     */
+    public Set<String> getMissing() {
+        return Collections.unmodifiableSet(missing);
+    }
+
+    /**
+     * 去重后的有效边界数
+     */
+    public int getDistinctPolygonCount() {
+        return polygons.size();
+    }
+
+    /**
+     * 闭合坐标环转多边形，自相交的边界用 buffer(0) 修正
+     */
+    public static Geometry toPolygon(Coordinate[] ring) {
+        if (ring == null) {
+            return null;
+        }
+        Geometry polygon = GEOMETRY_FACTORY.createPolygon(ring);
+        if (!polygon.isValid()) {
+            polygon = polygon.buffer(0);
+        }
+        return polygon.isEmpty() ? null : polygon;
+    }
+}
@@ -0,0 +1,323 @@
+// utils/CoordinateDecoder.java
+package ll.luolin.utils;
+
+/**
+ * 高吞吐坐标解码器
+ * 直接在CharSequence（包括 ASFLexer.fieldChars 返回的字节视图）上用整数运算解析，
+ * 结果写入调用方提供的数组，不创建任何对象；格式错误通过状态码返回，不抛异常。
+ *
+ * 支持的格式（经度在前写入 out[offset]，纬度写入 out[offset + 1]，与 CoordinateParser.parseDMS 一致）：
+ * - 371112N1221341E          度分秒，经纬度之间可有空格
+ * - 230333.0N1130659.0E      带小数秒
+ * - 23144721N113191392E      秒后两位为百分秒（RADAR_PARAMETERS中的雷达位置）
+ * - 3711N12213E              度分
+ * - 37.1866N122.2280E        十进制度（整数部分不超过度的位数时）
+ * - 23 08 51.0  113 13 14.0  .pte文件中空格分隔的度 分 秒，半球字母可省略（默认N/E），
+ *                            度前带负号时为南纬/西经（-04 06 54.0  107 15 42.0）
+ */
+public final class CoordinateDecoder {
+
+    public static final int OK = 0;
+    /** 空字符串 */
+    public static final int EMPTY = 1;
+    /** 非法字符、位数不对或缺少部分 */
+    public static final int BAD_SYNTAX = 2;
+    /** 度超出范围或分秒不小于60 */
+    public static final int OUT_OF_RANGE = 3;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private CoordinateDecoder() {
+    }
+
+    /**
+     * 解码整个字符串
+     */
+    public static int decode(CharSequence s, double[] out, int offset) {
+        return decode(s, 0, s.length(), out, offset);
+    }
+
+    /**
+     * 解码 s[from, to)，成功时写入 out[offset]=经度、out[offset+1]=纬度
+     */
+    public static int decode(CharSequence s, int from, int to, double[] out, int offset) {
+        while (from < to && isBlank(s.charAt(from))) {
+            from++;
+        }
+        while (to > from && isBlank(s.charAt(to - 1))) {
+            to--;
+        }
+        if (from == to) {
+            return EMPTY;
+        }
+
+        // 带符号的度只出现在空格分隔的格式中
+        if (isSign(s.charAt(from))) {
+            return decodeSpaced(s, from, to, out, offset);
+        }
+
+        // 纬度数值部分
+        int latEnd = scanNumber(s, from, to);
+        if (latEnd == from || latEnd == to) {
+            return BAD_SYNTAX;
+        }
+        if (isBlank(s.charAt(latEnd))) {
+            return decodeSpaced(s, from, to, out, offset);
+        }
+
+        char latHemisphere = s.charAt(latEnd);
+        if (latHemisphere != 'N' && latHemisphere != 'S') {
+            return BAD_SYNTAX;
+        }
+
+        int lonStart = latEnd + 1;
+        while (lonStart < to && isBlank(s.charAt(lonStart))) {
+            lonStart++;
+        }
+        int lonEnd = scanNumber(s, lonStart, to);
+        if (lonEnd == lonStart || lonEnd != to - 1) {
+            return BAD_SYNTAX;
+        }
+        char lonHemisphere = s.charAt(lonEnd);
+        if (lonHemisphere != 'E' && lonHemisphere != 'W') {
+            return BAD_SYNTAX;
+        }
+
+        double lat = compactAxis(s, from, latEnd, 2, 90);
+        if (lat < 0) {
+            return lat == -OUT_OF_RANGE ? OUT_OF_RANGE : BAD_SYNTAX;
+        }
+        double lon = compactAxis(s, lonStart, lonEnd, 3, 180);
+        if (lon < 0) {
+            return lon == -OUT_OF_RANGE ? OUT_OF_RANGE : BAD_SYNTAX;
+        }
+
+        out[offset] = lonHemisphere == 'W' ? -lon : lon;
+        out[offset + 1] = latHemisphere == 'S' ? -lat : lat;
+        return OK;
+    }
+
+    /**
+     * 紧凑格式的一个轴（纬度2位度，经度3位度），返回度数；失败返回 -状态码
+     */
+    private static double compactAxis(CharSequence s, int start, int end, int degreeDigits, int maxDegrees) {
+        int dot = -1;
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == '.') {
+                dot = i;
+                break;
+            }
+        }
+        int intDigits = (dot >= 0 ? dot : end) - start;
+
+        double degrees;
+        double minutes = 0;
+        double seconds = 0;
+
+        if (dot >= 0 && intDigits <= degreeDigits) {
+            // 十进制度
+            degrees = parseUnsigned(s, start, end);
+        } else if (intDigits == degreeDigits + 2) {
+            degrees = digits(s, start, degreeDigits);
+            minutes = parseUnsigned(s, start + degreeDigits, end);
+        } else if (intDigits == degreeDigits + 4) {
+            degrees = digits(s, start, degreeDigits);
+            minutes = digits(s, start + degreeDigits, 2);
+            seconds = parseUnsigned(s, start + degreeDigits + 2, end);
+        } else if (intDigits == degreeDigits + 6 && dot < 0) {
+            // DDMMSSss：最后两位是百分秒
+            degrees = digits(s, start, degreeDigits);
+            minutes = digits(s, start + degreeDigits, 2);
+            seconds = digits(s, start + degreeDigits + 2, 4) / 100.0;
+        } else {
+            return -BAD_SYNTAX;
+        }
+
+        return combine(degrees, minutes, seconds, maxDegrees);
+    }
+
+    /**
+     * .pte格式：[+|-]度 分 秒 [N|S] [+|-]度 分 秒 [E|W]，负号与半球字母S/W一样取反
+     */
+    private static int decodeSpaced(CharSequence s, int from, int to, double[] out, int offset) {
+        int i = from;
+
+        double latDeg;
+        double latMin;
+        double latSec;
+        double lonDeg;
+        double lonMin;
+        double lonSec;
+        char latHemisphere = 'N';
+        char lonHemisphere = 'E';
+
+        boolean latNegative = i < to && s.charAt(i) == '-';
+        if (i < to && isSign(s.charAt(i))) {
+            i++;
+        }
+        int end = scanNumber(s, i, to);
+        latDeg = parseUnsigned(s, i, end);
+        i = skipBlanks(s, end, to);
+        end = scanNumber(s, i, to);
+        latMin = parseUnsigned(s, i, end);
+        i = skipBlanks(s, end, to);
+        end = scanNumber(s, i, to);
+        latSec = parseUnsigned(s, i, end);
+        i = skipBlanks(s, end, to);
+        if (i < to && (s.charAt(i) == 'N' || s.charAt(i) == 'S')) {
+            latHemisphere = s.charAt(i);
+            i = skipBlanks(s, i + 1, to);
+        }
+
+        boolean lonNegative = i < to && s.charAt(i) == '-';
+        if (i < to && isSign(s.charAt(i))) {
+            i++;
+        }
+        end = scanNumber(s, i, to);
+        lonDeg = parseUnsigned(s, i, end);
+        i = skipBlanks(s, end, to);
+        end = scanNumber(s, i, to);
+        lonMin = parseUnsigned(s, i, end);
+        i = skipBlanks(s, end, to);
+        end = scanNumber(s, i, to);
+        lonSec = parseUnsigned(s, i, end);
+        i = skipBlanks(s, end, to);
+        if (i < to && (s.charAt(i) == 'E' || s.charAt(i) == 'W')) {
+            lonHemisphere = s.charAt(i);
+            i++;
+        }
+
+        if (i != to || Double.isNaN(latDeg) || Double.isNaN(latMin) || Double.isNaN(latSec)
+                || Double.isNaN(lonDeg) || Double.isNaN(lonMin) || Double.isNaN(lonSec)) {
+            return BAD_SYNTAX;
+        }
+
+        double lat = combine(latDeg, latMin, latSec, 90);
+        double lon = combine(lonDeg, lonMin, lonSec, 180);
+        if (lat < 0 || lon < 0) {
+            return OUT_OF_RANGE;
+        }
+
+        out[offset] = (lonHemisphere == 'W') != lonNegative ? -lon : lon;
+        out[offset + 1] = (latHemisphere == 'S') != latNegative ? -lat : lat;
+        return OK;
+    }
+
+    private static double combine(double degrees, double minutes, double seconds, int maxDegrees) {
+        if (Double.isNaN(degrees) || Double.isNaN(minutes) || Double.isNaN(seconds)) {
+            return -BAD_SYNTAX;
+        }
+        if (minutes >= 60 || seconds >= 60) {
+            return -OUT_OF_RANGE;
+        }
+        double value = degrees + minutes / 60.0 + seconds / 3600.0;
+        return value > maxDegrees ? -OUT_OF_RANGE : value;
+    }
+
+    /**
+     * 定长数字，含非数字时返回NaN
+     */
+    private static double digits(CharSequence s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return Double.NaN;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 无符号十进制数 s[start, end)，最多一个小数点，格式错误返回NaN
+     */
+    private static double parseUnsigned(CharSequence s, int start, int end) {
+        if (start >= end) {
+            return Double.NaN;
+        }
+        long integer = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean afterDot = false;
+        int digitCount = 0;
+
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                if (afterDot) {
+                    return Double.NaN;
+                }
+                afterDot = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return Double.NaN;
+            }
+            if (++digitCount > 18) {
+                return Double.NaN;
+            }
+            if (afterDot) {
+                fraction = fraction * 10 + (c - '0');
+                fractionDigits++;
+            } else {
+                integer = integer * 10 + (c - '0');
+            }
+        }
+        if (digitCount == 0) {
+            return Double.NaN;
+        }
+        return integer + fraction / POW10[fractionDigits];
+    }
+
+    /**
+     * 数字和小数点的连续区间终点
+     */
+    private static int scanNumber(CharSequence s, int from, int to) {
+        int i = from;
+        while (i < to) {
+            char c = s.charAt(i);
+            if ((c < '0' || c > '9') && c != '.') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipBlanks(CharSequence s, int from, int to) {
+        while (from < to && isBlank(s.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean isSign(char c) {
+        return c == '-' || c == '+';
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    /**
+     * 状态码说明（用于日志）
+     */
+    public static String describe(int status) {
+        switch (status) {
+            case OK:
+                return "正常";
+            case EMPTY:
+                return "坐标为空";
+            case BAD_SYNTAX:
+                return "坐标格式错误";
+            case OUT_OF_RANGE:
+                return "坐标超出范围";
+            default:
+                return "未知状态: " + status;
+        }
+    }
+}
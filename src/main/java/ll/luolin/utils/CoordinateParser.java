@@ -4,6 +4,7 @@ package ll.luolin.utils;
 /**
  * 坐标解析工具类
  * 支持格式：371112N1221341E (度分秒格式)
+ * 批量解析请直接使用 CoordinateDecoder
  */
 public class CoordinateParser {
     
@@ -13,11 +14,15 @@ public class CoordinateParser {
      * 解释：37度11分12秒北纬，122度13分41秒东经
      */
     public static double[] parseDMS(String dmsString) {
-        LogUtils.info("CoordinateParser-parseDMS-解析度分秒格式的坐标");
-
         if (dmsString == null || dmsString.trim().isEmpty()) {
             return new double[]{0.0, 0.0};
         }
+
+        // 常见格式走无分配的解码器，只有度分符号等少见格式才回退到下面的字符串处理
+        double[] coords = new double[2];
+        if (CoordinateDecoder.decode(dmsString, coords, 0) == CoordinateDecoder.OK) {
+            return coords;
+        }
         
         try {
             // 移除空格
@@ -59,8 +64,6 @@ public class CoordinateParser {
      * 格式：371112N 或 1221341E
      */
     private static double parseSingleCoordinate(String coord) {
-        LogUtils.info("CoordinateParser-parseSingleCoordinate-解析单个坐标");
-
         if (coord == null || coord.length() < 2) {
             return 0.0;
         }
@@ -109,8 +112,6 @@ public class CoordinateParser {
      * 解析替代格式的坐标
      */
     private static double parseAlternativeCoordinate(String coord) {
-        LogUtils.info("CoordinateParser-parseAlternativeCoordinate-解析替代格式的坐标");
-
         try {
             // 尝试直接解析为十进制
             if (coord.contains(".")) {
@@ -133,8 +134,6 @@ public class CoordinateParser {
      * 解析度分格式
      */
     private static double parseDegreeMinuteFormat(String coord) {
-        LogUtils.info("CoordinateParser-parseDegreeMinuteFormat-解析度分格式");
-
         // 示例：37°11.2'N 或 122°13.41'E
         coord = coord.trim();
         
@@ -164,8 +163,6 @@ public class CoordinateParser {
      * 解析替代格式
      */
     private static double[] parseAlternativeFormat(String dmsString) {
-        LogUtils.info("CoordinateParser-parseAlternativeFormat-解析替代格式");
-
         try {
             // 尝试空格分隔的格式
             if (dmsString.contains(" ")) {
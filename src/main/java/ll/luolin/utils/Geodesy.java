@@ -0,0 +1,168 @@
+// utils/Geodesy.java
+package ll.luolin.utils;
+
+/**
+ * WGS84椭球上的大地线计算（Vincenty 正解、反解）
+ * 正解：起点、方位角、距离 -> 终点；反解：两点 -> 距离、起点方位角。
+ * 迭代在近对跖点时可能不收敛，此时退回球面公式；程序几何的尺度（几十海里）不会遇到这种情况。
+ */
+public final class Geodesy {
+
+    public static final double SEMI_MAJOR = 6378137.0;
+    public static final double FLATTENING = 1 / 298.257223563;
+    public static final double SEMI_MINOR = SEMI_MAJOR * (1 - FLATTENING);
+
+    private static final double MEAN_RADIUS = 6371008.8;
+    private static final double EPSILON = 1e-12;
+    private static final int MAX_ITERATIONS = 100;
+
+    private Geodesy() {
+    }
+
+    /**
+     * 正解：从 (lon, lat) 沿方位角 bearing（度，真北顺时针）前进 distance 米，终点写入 out = {经度, 纬度}
+     */
+    public static void destination(double lon, double lat, double bearing, double distance, double[] out) {
+        double alpha1 = Math.toRadians(bearing);
+        double sinAlpha1 = Math.sin(alpha1);
+        double cosAlpha1 = Math.cos(alpha1);
+
+        double tanU1 = (1 - FLATTENING) * Math.tan(Math.toRadians(lat));
+        double cosU1 = 1 / Math.sqrt(1 + tanU1 * tanU1);
+        double sinU1 = tanU1 * cosU1;
+        double sigma1 = Math.atan2(tanU1, cosAlpha1);
+        double sinAlpha = cosU1 * sinAlpha1;
+        double cosSqAlpha = 1 - sinAlpha * sinAlpha;
+        double uSq = cosSqAlpha * (SEMI_MAJOR * SEMI_MAJOR - SEMI_MINOR * SEMI_MINOR) / (SEMI_MINOR * SEMI_MINOR);
+        double a = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+        double b = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+
+        double sigma = distance / (SEMI_MINOR * a);
+        double sinSigma;
+        double cosSigma;
+        double cos2SigmaM;
+        double previous;
+        int iterations = 0;
+        do {
+            cos2SigmaM = Math.cos(2 * sigma1 + sigma);
+            sinSigma = Math.sin(sigma);
+            cosSigma = Math.cos(sigma);
+            double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+                    - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+            previous = sigma;
+            sigma = distance / (SEMI_MINOR * a) + deltaSigma;
+        } while (Math.abs(sigma - previous) > EPSILON && ++iterations < MAX_ITERATIONS);
+
+        if (iterations >= MAX_ITERATIONS) {
+            sphericalDestination(lon, lat, bearing, distance, out);
+            return;
+        }
+
+        double x = sinU1 * sinSigma - cosU1 * cosSigma * cosAlpha1;
+        double lat2 = Math.atan2(sinU1 * cosSigma + cosU1 * sinSigma * cosAlpha1,
+                (1 - FLATTENING) * Math.sqrt(sinAlpha * sinAlpha + x * x));
+        double lambda = Math.atan2(sinSigma * sinAlpha1, cosU1 * cosSigma - sinU1 * sinSigma * cosAlpha1);
+        double c = FLATTENING / 16 * cosSqAlpha * (4 + FLATTENING * (4 - 3 * cosSqAlpha));
+        double l = lambda - (1 - c) * FLATTENING * sinAlpha
+                * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+
+        out[0] = normalizeLongitude(lon + Math.toDegrees(l));
+        out[1] = Math.toDegrees(lat2);
+    }
+
+    /**
+     * 反解：两点间的大地线，结果写入 out = {距离（米）, 起点方位角（度，0–360）}
+     */
+    public static void inverse(double lon1, double lat1, double lon2, double lat2, double[] out) {
+        double l = Math.toRadians(lon2 - lon1);
+        double tanU1 = (1 - FLATTENING) * Math.tan(Math.toRadians(lat1));
+        double cosU1 = 1 / Math.sqrt(1 + tanU1 * tanU1);
+        double sinU1 = tanU1 * cosU1;
+        double tanU2 = (1 - FLATTENING) * Math.tan(Math.toRadians(lat2));
+        double cosU2 = 1 / Math.sqrt(1 + tanU2 * tanU2);
+        double sinU2 = tanU2 * cosU2;
+
+        double lambda = l;
+        double sinLambda;
+        double cosLambda;
+        double sinSigma;
+        double cosSigma;
+        double sigma;
+        double cosSqAlpha;
+        double cos2SigmaM;
+        double previous;
+        int iterations = 0;
+        do {
+            sinLambda = Math.sin(lambda);
+            cosLambda = Math.cos(lambda);
+            double t1 = cosU2 * sinLambda;
+            double t2 = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+            sinSigma = Math.sqrt(t1 * t1 + t2 * t2);
+            if (sinSigma == 0) {
+                // 重合点
+                out[0] = 0;
+                out[1] = 0;
+                return;
+            }
+            cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            cosSqAlpha = 1 - sinAlpha * sinAlpha;
+            // 赤道线上 cosSqAlpha = 0
+            cos2SigmaM = cosSqAlpha == 0 ? 0 : cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha;
+            double c = FLATTENING / 16 * cosSqAlpha * (4 + FLATTENING * (4 - 3 * cosSqAlpha));
+            previous = lambda;
+            lambda = l + (1 - c) * FLATTENING * sinAlpha
+                    * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+        } while (Math.abs(lambda - previous) > EPSILON && ++iterations < MAX_ITERATIONS);
+
+        if (iterations >= MAX_ITERATIONS) {
+            sphericalInverse(lon1, lat1, lon2, lat2, out);
+            return;
+        }
+
+        double uSq = cosSqAlpha * (SEMI_MAJOR * SEMI_MAJOR - SEMI_MINOR * SEMI_MINOR) / (SEMI_MINOR * SEMI_MINOR);
+        double a = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+        double b = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+        double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+                - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+
+        out[0] = SEMI_MINOR * a * (sigma - deltaSigma);
+        out[1] = normalizeBearing(Math.toDegrees(Math.atan2(cosU2 * sinLambda,
+                cosU1 * sinU2 - sinU1 * cosU2 * cosLambda)));
+    }
+
+    private static void sphericalDestination(double lon, double lat, double bearing, double distance, double[] out) {
+        double delta = distance / MEAN_RADIUS;
+        double theta = Math.toRadians(bearing);
+        double phi1 = Math.toRadians(lat);
+        double sinPhi2 = Math.sin(phi1) * Math.cos(delta) + Math.cos(phi1) * Math.sin(delta) * Math.cos(theta);
+        double phi2 = Math.asin(sinPhi2);
+        double lambda = Math.atan2(Math.sin(theta) * Math.sin(delta) * Math.cos(phi1),
+                Math.cos(delta) - Math.sin(phi1) * sinPhi2);
+        out[0] = normalizeLongitude(lon + Math.toDegrees(lambda));
+        out[1] = Math.toDegrees(phi2);
+    }
+
+    private static void sphericalInverse(double lon1, double lat1, double lon2, double lat2, double[] out) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dPhi = phi2 - phi1;
+        double dLambda = Math.toRadians(lon2 - lon1);
+        double h = Math.sin(dPhi / 2) * Math.sin(dPhi / 2)
+                + Math.cos(phi1) * Math.cos(phi2) * Math.sin(dLambda / 2) * Math.sin(dLambda / 2);
+        out[0] = 2 * MEAN_RADIUS * Math.asin(Math.min(1, Math.sqrt(h)));
+        out[1] = normalizeBearing(Math.toDegrees(Math.atan2(Math.sin(dLambda) * Math.cos(phi2),
+                Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLambda))));
+    }
+
+    public static double normalizeBearing(double bearing) {
+        double result = bearing % 360;
+        return result < 0 ? result + 360 : result;
+    }
+
+    private static double normalizeLongitude(double lon) {
+        double result = (lon + 540) % 360 - 180;
+        return result == -180 && lon > 0 ? 180 : result;
+    }
+}
@@ -0,0 +1,120 @@
+// utils/IntObjectHashMap.java
+package ll.luolin.utils;
+
+import java.util.Arrays;
+
+/**
+ * int键的开放寻址哈希表（线性探测），键不装箱
+ * 用于按整数主键（Uid、id）查找记录；不支持删除。
+ */
+public final class IntObjectHashMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+    private int threshold;
+
+    public IntObjectHashMap() {
+        this(16);
+    }
+
+    public IntObjectHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) * 2 - 1);
+        allocate(capacity);
+    }
+
+    /**
+     * 放入键值，返回原来的值（没有时为null）
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int index = indexOf(key);
+        if (used[index]) {
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+        used[index] = true;
+        keys[index] = key;
+        values[index] = value;
+        if (++size > threshold) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = indexOf(key);
+        return used[index] ? (V) values[index] : null;
+    }
+
+    public boolean containsKey(int key) {
+        return used[indexOf(key)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 键所在槽位，或探测结束处的空槽位
+     */
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int index = indexOf(oldKeys[i]);
+                used[index] = true;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // 连续的Uid在低位也能散开
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "IntObjectHashMap{size=" + size + ", capacity=" + keys.length + "}";
+    }
+
+    /**
+     * 清空（保留容量）
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
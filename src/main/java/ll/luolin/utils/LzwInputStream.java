@@ -0,0 +1,183 @@
+// utils/LzwInputStream.java
+package ll.luolin.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * UNIX compress（.Z）格式的流式解压
+ * 头部 1F 9D + 标志字节（低5位为最大码长，0x80 为块模式，码 256 为清表）；
+ * 码长从 9 位开始，码表满时加 1 位，位流低位在前。
+ * 与 ncompress 相同，码长变化和清表时丢弃当前 8 个码一组中剩余的码，保持按组对齐。
+ */
+public final class LzwInputStream extends InputStream {
+
+    private static final int MAGIC_1 = 0x1F;
+    private static final int MAGIC_2 = 0x9D;
+    private static final int BLOCK_MODE = 0x80;
+    private static final int MAX_BITS_MASK = 0x1F;
+    private static final int INIT_BITS = 9;
+    private static final int CLEAR = 256;
+
+    private final InputStream in;
+    private final boolean blockMode;
+    private final int maxBits;
+    private final int[] prefix;
+    private final byte[] suffix;
+    // 待输出的字节，倒序存放
+    private final byte[] stack;
+    private int stackTop;
+
+    private int bits = INIT_BITS;
+    private int freeEntry;
+    private int previous = -1;
+    private byte first;
+
+    private long bitBuffer;
+    private int bitCount;
+    private long codesRead;
+    private boolean eof;
+
+    public LzwInputStream(InputStream in) throws IOException {
+        this.in = in;
+        if (in.read() != MAGIC_1 || in.read() != MAGIC_2) {
+            throw new IOException("不是compress(.Z)格式");
+        }
+        int flags = in.read();
+        if (flags < 0) {
+            throw new IOException("compress头部不完整");
+        }
+        this.blockMode = (flags & BLOCK_MODE) != 0;
+        this.maxBits = flags & MAX_BITS_MASK;
+        if (maxBits < INIT_BITS || maxBits > 16) {
+            throw new IOException("不支持的compress码长: " + maxBits);
+        }
+        this.prefix = new int[1 << maxBits];
+        this.suffix = new byte[1 << maxBits];
+        this.stack = new byte[(1 << maxBits) + 1];
+        this.freeEntry = blockMode ? CLEAR + 1 : CLEAR;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (stackTop == 0 && !fill()) {
+            return -1;
+        }
+        return stack[--stackTop] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (count < length) {
+            if (stackTop == 0 && !fill()) {
+                break;
+            }
+            while (stackTop > 0 && count < length) {
+                buffer[offset + count++] = stack[--stackTop];
+            }
+        }
+        return count == 0 ? -1 : count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * 解码下一个码到 stack，数据结束返回false
+     */
+    private boolean fill() throws IOException {
+        while (stackTop == 0) {
+            if (eof) {
+                return false;
+            }
+            int code = readCode();
+            if (code < 0) {
+                eof = true;
+                return false;
+            }
+
+            if (code == CLEAR && blockMode) {
+                realign();
+                freeEntry = CLEAR + 1;
+                bits = INIT_BITS;
+                previous = -1;
+                continue;
+            }
+
+            if (previous == -1) {
+                if (code >= CLEAR) {
+                    throw new IOException("compress数据损坏: 首个码 " + code);
+                }
+                previous = code;
+                first = (byte) code;
+                stack[stackTop++] = first;
+                continue;
+            }
+
+            int current = code;
+            if (code >= freeEntry) {
+                // KwKwK：码正要被定义，内容是前一个串加其首字节
+                if (code > freeEntry) {
+                    throw new IOException("compress数据损坏: 码 " + code + " 超出码表 " + freeEntry);
+                }
+                stack[stackTop++] = first;
+                current = previous;
+            }
+            while (current >= CLEAR) {
+                stack[stackTop++] = suffix[current];
+                current = prefix[current];
+            }
+            first = (byte) current;
+            stack[stackTop++] = first;
+
+            if (freeEntry < prefix.length) {
+                prefix[freeEntry] = previous;
+                suffix[freeEntry] = first;
+                freeEntry++;
+            }
+            previous = code;
+
+            if (freeEntry >= (1 << bits) && bits < maxBits) {
+                realign();
+                bits++;
+            }
+        }
+        return true;
+    }
+
+    private int readCode() throws IOException {
+        while (bitCount < bits) {
+            int b = in.read();
+            if (b < 0) {
+                return -1;
+            }
+            bitBuffer |= (long) b << bitCount;
+            bitCount += 8;
+        }
+        int code = (int) (bitBuffer & ((1 << bits) - 1));
+        bitBuffer >>>= bits;
+        bitCount -= bits;
+        codesRead++;
+        return code;
+    }
+
+    /**
+     * 丢弃当前组中剩余的码（每组 8 个码，正好是码长个字节）
+     */
+    private void realign() throws IOException {
+        long skip = (8 - codesRead % 8) % 8;
+        for (long i = 0; i < skip; i++) {
+            if (readCode() < 0) {
+                break;
+            }
+        }
+        bitBuffer = 0;
+        bitCount = 0;
+    }
+}
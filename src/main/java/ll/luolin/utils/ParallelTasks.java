@@ -0,0 +1,71 @@
+// utils/ParallelTasks.java
+package ll.luolin.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 一批任务的并行执行
+ * 每次调用使用自己的守护线程池，结束后立即关闭；任务内部可以再次并行（如 loadAll 中的 parse），
+ * 不会因共享线程池被占满而互相等待。
+ */
+public final class ParallelTasks {
+
+    private ParallelTasks() {
+    }
+
+    /**
+     * 执行全部任务，线程数不超过处理器数
+     *
+     * @see #invokeAll(String, int, List, String)
+     */
+    public static <T> List<T> invokeAll(String threadName, List<? extends Callable<T>> tasks, String failureMessage) {
+        return invokeAll(threadName, Runtime.getRuntime().availableProcessors(), tasks, failureMessage);
+    }
+
+    /**
+     * 执行全部任务，结果与tasks顺序一致
+     * 等待时被中断则恢复中断标志，未完成的任务结果为null；任务抛出异常时包装为 IllegalStateException
+     *
+     * @param parallelism    最大线程数，实际不超过任务数
+     * @param failureMessage 任务失败时的异常信息
+     */
+    public static <T> List<T> invokeAll(String threadName, int parallelism, List<? extends Callable<T>> tasks,
+                                        String failureMessage) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (!tasks.isEmpty()) {
+            ExecutorService executor = newExecutor(threadName, Math.min(tasks.size(), parallelism));
+            try {
+                for (Future<T> future : executor.invokeAll(tasks)) {
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(failureMessage, e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        while (results.size() < tasks.size()) {
+            results.add(null);
+        }
+        return results;
+    }
+
+    /**
+     * 固定大小的守护线程池，用于边读边提交的任务，调用方负责 shutdownNow
+     */
+    public static ExecutorService newExecutor(String threadName, int threads) {
+        return Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,93 @@
+// utils/PointFileReader.java
+package ll.luolin.utils;
+
+import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.service.parserService.ASFSectionHandlers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * SYSTEM_MAPS 点文件（.pte 外部点、.pt 内部点）读取
+ * 每行一个点：NAME  GEO  DD MM SS.S  DDD MM SS.S，"--" 开头的是注释和分隔行；
+ * 坐标由 CoordinateDecoder 解码，文件中通常不写半球，默认北纬、东经（度数带负号时按南纬、西经处理）。
+ * 按行流式读取，不保留整个文件。
+ */
+public final class PointFileReader {
+
+    public static final String EXTERNAL_POINTS_SUFFIX = ".pte";
+    public static final String INTERNAL_POINTS_SUFFIX = ".pt";
+
+    private static final String GEO = "GEO";
+
+    private PointFileReader() {
+    }
+
+    /**
+     * 是否为点文件（按扩展名判断）
+     */
+    public static boolean isPointFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(EXTERNAL_POINTS_SUFFIX) || name.endsWith(INTERNAL_POINTS_SUFFIX);
+    }
+
+    /**
+     * 读取全部点，类型统一为 ASFSectionHandlers.POINT_TYPE；格式不符的行跳过
+     */
+    public static List<NavPointModel> read(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            return read(reader, file.getFileName().toString());
+        }
+    }
+
+    /**
+     * 从已打开的输入读取（如归档中的条目），调用方负责关闭
+     *
+     * @param source 用于警告信息的文件名
+     */
+    public static List<NavPointModel> read(BufferedReader reader, String source) throws IOException {
+        List<NavPointModel> points = new ArrayList<>();
+        double[] coordinate = new double[2];
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("--")) {
+                continue;
+            }
+            int nameStart = skipBlanks(line, 0);
+            int nameEnd = tokenEnd(line, nameStart);
+            int geoStart = skipBlanks(line, nameEnd);
+            int geoEnd = tokenEnd(line, geoStart);
+            if (nameStart == nameEnd || geoEnd - geoStart != GEO.length() || !line.startsWith(GEO, geoStart)) {
+                continue;
+            }
+            int status = CoordinateDecoder.decode(line, geoEnd, line.length(), coordinate, 0);
+            if (status != CoordinateDecoder.OK) {
+                LogUtils.warn(source + " " + CoordinateDecoder.describe(status) + "，跳过: " + line.trim());
+                continue;
+            }
+            points.add(new NavPointModel(line.substring(nameStart, nameEnd), coordinate[0], coordinate[1],
+                    ASFSectionHandlers.POINT_TYPE));
+        }
+        return points;
+    }
+
+    private static int skipBlanks(String line, int i) {
+        while (i < line.length() && line.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int tokenEnd(String line, int i) {
+        while (i < line.length() && line.charAt(i) > ' ') {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,96 @@
+// utils/PointStyles.java
+package ll.luolin.utils;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import ll.luolin.model.ASFModel.PointCategory;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 导航点分类样式表
+ * 每个分类一份颜色、标记和图标，全部点共享；画布渲染、瓦片渲染和图层过滤都从这里取样式。
+ */
+public final class PointStyles {
+
+    /**
+     * 点上叠加的标记
+     */
+    public enum Marker {
+        NONE, AIRPORT, VOR
+    }
+
+    /**
+     * 单个分类的样式
+     */
+    public static final class Style {
+        private final Color color;
+        private final java.awt.Color awtColor;
+        private final Marker marker;
+        private volatile Image icon;
+
+        private Style(Color color, Marker marker) {
+            this.color = color;
+            this.awtColor = new java.awt.Color(
+                    (float) color.getRed(), (float) color.getGreen(), (float) color.getBlue());
+            this.marker = marker;
+        }
+
+        /** 画布渲染颜色 */
+        public Color getColor() {
+            return color;
+        }
+
+        /** 瓦片（Java2D）渲染颜色 */
+        public java.awt.Color getAwtColor() {
+            return awtColor;
+        }
+
+        public Marker getMarker() {
+            return marker;
+        }
+
+        /**
+         * 分类图标，第一次使用时创建
+         */
+        public Image getIcon() {
+            Image result = icon;
+            if (result == null) {
+                synchronized (this) {
+                    result = icon;
+                    if (result == null) {
+                        result = IconFactory.createDefaultIcon(color, ICON_SIZE);
+                        icon = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final int ICON_SIZE = 16;
+
+    private static final Map<PointCategory, Style> STYLES = new EnumMap<>(PointCategory.class);
+
+    static {
+        Style airport = new Style(Color.RED, Marker.AIRPORT);
+        Style vor = new Style(Color.BLUE, Marker.VOR);
+        Style other = new Style(Color.PURPLE, Marker.NONE);
+        STYLES.put(PointCategory.AIRPORT_I, airport);
+        STYLES.put(PointCategory.AIRPORT, airport);
+        STYLES.put(PointCategory.VORDME, vor);
+        STYLES.put(PointCategory.VOR, vor);
+        STYLES.put(PointCategory.NDB, new Style(Color.GREEN, Marker.NONE));
+        STYLES.put(PointCategory.REPORT, new Style(Color.ORANGE, Marker.NONE));
+        STYLES.put(PointCategory.DUMMY, other);
+        STYLES.put(PointCategory.OTHER, other);
+    }
+
+    private PointStyles() {
+    }
+
+    public static Style of(PointCategory category) {
+        return STYLES.get(category);
+    }
+}
@@ -0,0 +1,161 @@
+// utils/ProcedureGeometryBuilder.java
+package ll.luolin.utils;
+
+import ll.luolin.model.ASFModel.HoldingDefinition;
+import ll.luolin.model.ASFModel.IlsDefinition;
+import ll.luolin.model.ASFModel.RunwayDefinition;
+import ll.luolin.model.ProcedureGeometry;
+import ll.luolin.model.ProcedureLayer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 程序几何生成：跑道矩形、ILS进近锥、等待航线跑马场，全部用 Geodesy 在椭球上计算
+ * - 跑道：同一机场的一对反向入口（01L/19R）连成中线，两侧各偏 WID；没有反向入口的跑道跳过。
+ * - 进近锥：从入口沿航向道反方向展开 ±5°、15海里的扇形，另画中线和外指点标刻度。
+ * - 等待航线：定位点为入航边终点，按标准转弯率（3°/秒）和等待速度计算转弯半径与出航边长度。
+ */
+public final class ProcedureGeometryBuilder {
+
+    private static final double METRES_PER_NM = 1852.0;
+    private static final double CONE_HALF_ANGLE = 5;
+    private static final double CONE_RANGE_METRES = 15 * METRES_PER_NM;
+    private static final double MARKER_HALF_LENGTH_METRES = 0.5 * METRES_PER_NM;
+    /** 等待速度（节），文件中没有给出 */
+    private static final double HOLDING_SPEED_KT = 220;
+    /** 标准转弯率下180°转弯用时（秒） */
+    private static final double HALF_TURN_SECONDS = 60;
+
+    private ProcedureGeometryBuilder() {
+    }
+
+    /**
+     * 缩放级别对应的圆弧步长（度）：看得越细，圆弧越密
+     */
+    public static double stepDegrees(int zoomLevel) {
+        if (zoomLevel <= 8) {
+            return 20;
+        } else if (zoomLevel <= 11) {
+            return 10;
+        }
+        return 5;
+    }
+
+    public static ProcedureGeometry build(ProcedureLayer layer, double stepDegrees) {
+        ProcedureGeometry.Builder builder = new ProcedureGeometry.Builder();
+        double[] out = new double[2];
+
+        Map<String, RunwayDefinition> runways = new HashMap<>();
+        for (RunwayDefinition runway : layer.getRunways()) {
+            runways.put(runway.getName(), runway);
+        }
+        for (RunwayDefinition runway : layer.getRunways()) {
+            RunwayDefinition reciprocal = runways.get(runway.getReciprocalName());
+            // 每对只画一次
+            if (reciprocal != null && runway.getName().compareTo(reciprocal.getName()) < 0) {
+                addRunway(builder, runway, reciprocal, out);
+            }
+        }
+
+        for (IlsDefinition ils : layer.getIlsList()) {
+            if (ils.hasPosition()) {
+                addApproachCone(builder, ils, stepDegrees, out);
+            }
+        }
+
+        for (HoldingDefinition holding : layer.getHoldings()) {
+            double[] fix = layer.getFix(holding.getFix());
+            if (fix == null) {
+                continue;
+            }
+            for (HoldingDefinition.Leg leg : holding.getLegs()) {
+                addHolding(builder, holding.getName() + "/" + holding.getFix(), fix, leg, stepDegrees, out);
+            }
+        }
+        return builder.build();
+    }
+
+    private static void addRunway(ProcedureGeometry.Builder builder, RunwayDefinition from, RunwayDefinition to,
+                                  double[] out) {
+        double[] inverse = new double[2];
+        Geodesy.inverse(from.getLongitude(), from.getLatitude(), to.getLongitude(), to.getLatitude(), inverse);
+        double bearing = inverse[1];
+        double halfWidth = Math.max(from.getHalfWidthMetres(), to.getHalfWidthMetres());
+
+        builder.beginPart(ProcedureGeometry.RUNWAY, from.getName() + "/" + to.getName());
+        addOffset(builder, from.getLongitude(), from.getLatitude(), bearing - 90, halfWidth, out);
+        addOffset(builder, to.getLongitude(), to.getLatitude(), bearing - 90, halfWidth, out);
+        addOffset(builder, to.getLongitude(), to.getLatitude(), bearing + 90, halfWidth, out);
+        addOffset(builder, from.getLongitude(), from.getLatitude(), bearing + 90, halfWidth, out);
+        addOffset(builder, from.getLongitude(), from.getLatitude(), bearing - 90, halfWidth, out);
+    }
+
+    private static void addApproachCone(ProcedureGeometry.Builder builder, IlsDefinition ils, double stepDegrees,
+                                        double[] out) {
+        double lon = ils.getLongitude();
+        double lat = ils.getLatitude();
+        double outbound = Geodesy.normalizeBearing(ils.getCourse() + 180);
+
+        builder.beginPart(ProcedureGeometry.APPROACH_CONE, ils.getName());
+        builder.addPoint(lon, lat);
+        int steps = (int) Math.ceil(2 * CONE_HALF_ANGLE / Math.min(stepDegrees, CONE_HALF_ANGLE));
+        for (int k = 0; k <= steps; k++) {
+            double bearing = outbound - CONE_HALF_ANGLE + 2 * CONE_HALF_ANGLE * k / steps;
+            addOffset(builder, lon, lat, bearing, CONE_RANGE_METRES, out);
+        }
+        builder.addPoint(lon, lat);
+
+        builder.beginPart(ProcedureGeometry.CENTRELINE, ils.getName());
+        builder.addPoint(lon, lat);
+        addOffset(builder, lon, lat, outbound, CONE_RANGE_METRES, out);
+
+        if (!Double.isNaN(ils.getOuterMarkerMetres())) {
+            Geodesy.destination(lon, lat, outbound, ils.getOuterMarkerMetres(), out);
+            double markerLon = out[0];
+            double markerLat = out[1];
+            builder.beginPart(ProcedureGeometry.CENTRELINE, ils.getName() + " OM");
+            addOffset(builder, markerLon, markerLat, outbound - 90, MARKER_HALF_LENGTH_METRES, out);
+            addOffset(builder, markerLon, markerLat, outbound + 90, MARKER_HALF_LENGTH_METRES, out);
+        }
+    }
+
+    /**
+     * 跑马场：定位点 -> 转弯 -> 出航边 -> 转弯 -> 入航边回到定位点
+     */
+    private static void addHolding(ProcedureGeometry.Builder builder, String name, double[] fix,
+                                   HoldingDefinition.Leg leg, double stepDegrees, double[] out) {
+        double speed = HOLDING_SPEED_KT * METRES_PER_NM / 3600;
+        double radius = speed * HALF_TURN_SECONDS / Math.PI;
+        double legLength = speed * leg.getSeconds();
+        double inbound = leg.getInboundCourse();
+        double side = leg.isRightTurns() ? 1 : -1;
+        int steps = (int) Math.ceil(180 / stepDegrees);
+
+        builder.beginPart(ProcedureGeometry.HOLDING, name);
+        builder.addPoint(fix[0], fix[1]);
+
+        // 第一个转弯的圆心在定位点的转弯一侧
+        Geodesy.destination(fix[0], fix[1], inbound + 90 * side, radius, out);
+        double centreLon = out[0];
+        double centreLat = out[1];
+        for (int k = 1; k <= steps; k++) {
+            addOffset(builder, centreLon, centreLat, inbound - 90 * side + side * 180.0 * k / steps, radius, out);
+        }
+
+        // 第二个转弯的圆心在第一个圆心的出航方向上
+        Geodesy.destination(centreLon, centreLat, inbound + 180, legLength, out);
+        centreLon = out[0];
+        centreLat = out[1];
+        for (int k = 0; k <= steps; k++) {
+            addOffset(builder, centreLon, centreLat, inbound + 90 * side + side * 180.0 * k / steps, radius, out);
+        }
+        builder.addPoint(fix[0], fix[1]);
+    }
+
+    private static void addOffset(ProcedureGeometry.Builder builder, double lon, double lat, double bearing,
+                                  double distance, double[] out) {
+        Geodesy.destination(lon, lat, bearing, distance, out);
+        builder.addPoint(out[0], out[1]);
+    }
+}
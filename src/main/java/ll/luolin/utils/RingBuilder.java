@@ -0,0 +1,145 @@
+// utils/RingBuilder.java
+package ll.luolin.utils;
+
+import ll.luolin.model.ASFModel.ArcDefinition;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 把ASF边界点列表（点名与圆弧名混排）展开为闭合坐标环
+ * 圆弧名出现在两个点之间时，表示从前一个点沿圆弧到后一个点；起止点相同表示整圆。
+ * 圆弧定义为从起点顺时针到终点，边界从终点走向起点时逆时针展开，两种走向得到同一段圆弧；
+ * 在以圆心纬度修正经度的局部平面内插值，
+ * 对空域边界的尺度（几十海里）误差可以忽略。
+ */
+public final class RingBuilder {
+
+    private final Map<String, double[]> points;
+    private final Map<String, ArcDefinition> arcs;
+
+    /**
+     * @param points 点名 -> {经度, 纬度}
+     * @param arcs   圆弧名 -> 圆弧定义
+     */
+    public RingBuilder(Map<String, double[]> points, Map<String, ArcDefinition> arcs) {
+        this.points = points;
+        this.arcs = arcs;
+    }
+
+    /**
+     * 展开为首尾相同的坐标数组，找不到的名称加入missing；有效点不足3个时返回null
+     */
+    public Coordinate[] build(List<String> tokens, Collection<String> missing) {
+        List<Coordinate> ring = new ArrayList<>(tokens.size() + 8);
+        ArcDefinition pendingArc = null;
+
+        for (String token : tokens) {
+            ArcDefinition arc = arcs.get(token);
+            if (arc != null) {
+                if (ring.isEmpty()) {
+                    // 以圆弧开头：从圆弧起点开始
+                    double[] start = points.get(arc.getStartPoint());
+                    if (start != null) {
+                        ring.add(new Coordinate(start[0], start[1]));
+                    }
+                }
+                pendingArc = arc;
+                continue;
+            }
+
+            double[] point = points.get(token);
+            if (point == null) {
+                missing.add(token);
+                continue;
+            }
+            Coordinate next = new Coordinate(point[0], point[1]);
+            if (pendingArc != null && !ring.isEmpty()) {
+                appendArc(pendingArc, ring.get(ring.size() - 1), next, ring);
+            }
+            pendingArc = null;
+            if (ring.isEmpty() || !ring.get(ring.size() - 1).equals2D(next)) {
+                ring.add(next);
+            }
+        }
+
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Coordinate first = ring.get(0);
+        if (pendingArc != null) {
+            // 以圆弧结尾：沿圆弧回到第一个点
+            appendArc(pendingArc, ring.get(ring.size() - 1), first, ring);
+        }
+        if (!ring.get(ring.size() - 1).equals2D(first)) {
+            ring.add(new Coordinate(first));
+        }
+        return ring.size() < 4 ? null : ring.toArray(new Coordinate[0]);
+    }
+
+    /**
+     * 按圆弧定义的走向展开：边界从圆弧终点走到起点时逆时针，否则顺时针
+     */
+    private void appendArc(ArcDefinition arc, Coordinate from, Coordinate to, List<Coordinate> out) {
+        double[] start = points.get(arc.getStartPoint());
+        double[] end = points.get(arc.getEndPoint());
+        boolean reversed = start != null && end != null && !from.equals2D(to)
+                && from.equals2D(new Coordinate(end[0], end[1])) && to.equals2D(new Coordinate(start[0], start[1]));
+        densifyArc(arc, from, to, !reversed, out);
+    }
+
+    /**
+     * 在from、to之间插入圆弧上的中间点（不含两端），from与to相同时展开整圆
+     *
+     * @param clockwise true 顺时针（角度递减），false 逆时针
+     */
+    public static void densifyArc(ArcDefinition arc, Coordinate from, Coordinate to, boolean clockwise,
+                                  List<Coordinate> out) {
+        double centreLon = arc.getCentreLongitude();
+        double centreLat = arc.getCentreLatitude();
+        double scale = Math.cos(Math.toRadians(centreLat));
+
+        double x0 = (from.x - centreLon) * scale;
+        double y0 = from.y - centreLat;
+        double x1 = (to.x - centreLon) * scale;
+        double y1 = to.y - centreLat;
+        double r0 = Math.hypot(x0, y0);
+        double r1 = Math.hypot(x1, y1);
+        if (r0 == 0 || r1 == 0) {
+            return;
+        }
+
+        double a0 = Math.atan2(y0, x0);
+        double a1 = Math.atan2(y1, x1);
+        double sweep = clockwise ? a0 - a1 : a1 - a0;
+        while (sweep <= 0) {
+            sweep += 2 * Math.PI;
+        }
+        if (from.equals2D(to)) {
+            sweep = 2 * Math.PI;
+        }
+
+        int steps = (int) Math.ceil(sweep / Math.toRadians(stepDegrees(arc.getPrecision())));
+        for (int k = 1; k < steps; k++) {
+            double t = (double) k / steps;
+            double angle = clockwise ? a0 - sweep * t : a0 + sweep * t;
+            double r = r0 + (r1 - r0) * t;
+            out.add(new Coordinate(centreLon + r * Math.cos(angle) / scale, centreLat + r * Math.sin(angle)));
+        }
+    }
+
+    /**
+     * 圆弧插值步长（度）：HI 2°，LO 10°，其他 5°
+     */
+    public static double stepDegrees(String precision) {
+        if ("HI".equalsIgnoreCase(precision)) {
+            return 2;
+        } else if ("LO".equalsIgnoreCase(precision)) {
+            return 10;
+        }
+        return 5;
+    }
+}
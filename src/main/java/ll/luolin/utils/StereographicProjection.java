@@ -0,0 +1,115 @@
+// utils/StereographicProjection.java
+package ll.luolin.utils;
+
+/**
+ * 系统平面的斜轴立体投影（双重立体投影，EPSG 9809）
+ * 椭球先映射到保角球面，再以显示中心为切点做球面立体投影；平面坐标单位为米，x向东、y向北。
+ * 方位旋转把平面北向相对真北顺时针旋转给定角度。
+ */
+public final class StereographicProjection {
+
+    private final double centreLon;
+    private final double e;
+    private final double n;
+    private final double c;
+    private final double radius;
+    private final double chi0;
+    private final double sinChi0;
+    private final double cosChi0;
+    private final double g;
+    private final double h;
+    private final double sinRotation;
+    private final double cosRotation;
+
+    /**
+     * @param centreLat   中心纬度（度）
+     * @param centreLon   中心经度（度）
+     * @param semiMajor   椭球长半轴（米）
+     * @param semiMinor   椭球短半轴（米）
+     * @param rotationDeg 方位旋转（度，向东为正）
+     */
+    public StereographicProjection(double centreLat, double centreLon, double semiMajor, double semiMinor,
+                                   double rotationDeg) {
+        double phi0 = Math.toRadians(centreLat);
+        double e2 = 1 - (semiMinor * semiMinor) / (semiMajor * semiMajor);
+        double sinPhi0 = Math.sin(phi0);
+        double cosPhi0 = Math.cos(phi0);
+        double rho0 = semiMajor * (1 - e2) / Math.pow(1 - e2 * sinPhi0 * sinPhi0, 1.5);
+        double nu0 = semiMajor / Math.sqrt(1 - e2 * sinPhi0 * sinPhi0);
+
+        this.centreLon = Math.toRadians(centreLon);
+        this.e = Math.sqrt(e2);
+        this.radius = Math.sqrt(rho0 * nu0);
+        this.n = Math.sqrt(1 + e2 * Math.pow(cosPhi0, 4) / (1 - e2));
+
+        double s1 = (1 + sinPhi0) / (1 - sinPhi0);
+        double s2 = (1 - e * sinPhi0) / (1 + e * sinPhi0);
+        double w1 = Math.pow(s1 * Math.pow(s2, e), n);
+        double sinChi00 = (w1 - 1) / (w1 + 1);
+        this.c = (n + sinPhi0) * (1 - sinChi00) / ((n - sinPhi0) * (1 + sinChi00));
+        double w2 = c * w1;
+        this.chi0 = Math.asin((w2 - 1) / (w2 + 1));
+        this.sinChi0 = Math.sin(chi0);
+        this.cosChi0 = Math.cos(chi0);
+        this.g = 2 * radius * Math.tan(Math.PI / 4 - chi0 / 2);
+        this.h = 4 * radius * Math.tan(chi0) + g;
+
+        double rotation = Math.toRadians(rotationDeg);
+        this.sinRotation = Math.sin(rotation);
+        this.cosRotation = Math.cos(rotation);
+    }
+
+    /**
+     * 经纬度 -> 平面坐标，结果写入out = {x, y}
+     */
+    public void toPlane(double lon, double lat, double[] out) {
+        double phi = Math.toRadians(lat);
+        double sinPhi = Math.sin(phi);
+        double sa = (1 + sinPhi) / (1 - sinPhi);
+        double sb = (1 - e * sinPhi) / (1 + e * sinPhi);
+        double w = c * Math.pow(sa * Math.pow(sb, e), n);
+        double chi = Math.asin((w - 1) / (w + 1));
+        double dLambda = n * (Math.toRadians(lon) - centreLon);
+
+        double sinChi = Math.sin(chi);
+        double cosChi = Math.cos(chi);
+        double b = 1 + sinChi * sinChi0 + cosChi * cosChi0 * Math.cos(dLambda);
+        double x = 2 * radius * cosChi * Math.sin(dLambda) / b;
+        double y = 2 * radius * (sinChi * cosChi0 - cosChi * sinChi0 * Math.cos(dLambda)) / b;
+
+        out[0] = x * cosRotation - y * sinRotation;
+        out[1] = x * sinRotation + y * cosRotation;
+    }
+
+    /**
+     * 平面坐标 -> 经纬度，结果写入out = {经度, 纬度}
+     */
+    public void toGeographic(double planeX, double planeY, double[] out) {
+        double x = planeX * cosRotation + planeY * sinRotation;
+        double y = -planeX * sinRotation + planeY * cosRotation;
+
+        double i = Math.atan(x / (h + y));
+        double j = Math.atan(x / (g - y)) - i;
+        double chi = chi0 + 2 * Math.atan((y - x * Math.tan(j / 2)) / (2 * radius));
+        double dLambda = j + 2 * i;
+
+        double sinChi = Math.sin(chi);
+        double psi = 0.5 * Math.log((1 + sinChi) / (c * (1 - sinChi))) / n;
+        double phi = 2 * Math.atan(Math.exp(psi)) - Math.PI / 2;
+        double e2 = e * e;
+        for (int k = 0; k < 8; k++) {
+            double sinPhi = Math.sin(phi);
+            double psiK = Math.log(Math.tan(phi / 2 + Math.PI / 4)
+                    * Math.pow((1 - e * sinPhi) / (1 + e * sinPhi), e / 2));
+            double next = phi - (psiK - psi) * Math.cos(phi) * (1 - e2 * sinPhi * sinPhi) / (1 - e2);
+            if (Math.abs(next - phi) < 1e-12) {
+                phi = next;
+                break;
+            }
+            phi = next;
+        }
+
+        out[0] = Math.toDegrees(dLambda / n + centreLon);
+        out[1] = Math.toDegrees(phi);
+    }
+}
@@ -0,0 +1,471 @@
+// utils/SystemMapParser.java
+package ll.luolin.utils;
+
+import ll.luolin.model.SystemMapLayer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * SYSTEM_MAPS 地图生成器（THOMSON-CSF/SDC/BCM）输出文件解析
+ *
+ * .pro：项目的系统平面定义（DISPLAY CENTER、HALF MAJOR/MINOR AXIS、AZIMUTH ROTATION），
+ * 解析为 StereographicProjection。
+ *
+ * .lex：已展开为平面坐标的地图，头部为 CLASS / NAME / PRIORITY，之后是图元：
+ * BROKENLINE / VECTOR / POLYGON / SURFPOLYGON 的 POINT x y 序列，
+ * RING POINT x y INT_RAD r EXT_RAD r BEG_ANG a END_ANG b（角度为 0.01° 的方位角，起止相同为整圆），
+ * SYMBOL / GRAD 单点符号，TEXT / LEADER 单点文字（后跟引号中的文字行）。
+ * 属性有两种写法：
+ * - 逐图元：图元之后跟 COLOR / THICK / DASH / SURFCOLOR 行，平面单位为 1/8 海里；
+ * - 属性块：ATT_EDGE / ATT_LINE / ATT_SURF / ATT_TEXT / ATT_SYMBOL 设置其后所有图元的属性，
+ *   平面单位为 1/256 海里。
+ * 两种单位都已用 .pt 点文件中的经纬度核对过。
+ * .mp 是同一地图引用点名的源文件，几何与 .lex 相同，不再重复解析。
+ */
+public final class SystemMapParser {
+
+    public static final double METRES_PER_NM = 1852.0;
+    /** 逐图元写属性的文件：1/8 海里 */
+    public static final int COARSE_UNITS_PER_NM = 8;
+    /** 属性块写法的文件：1/256 海里 */
+    public static final int FINE_UNITS_PER_NM = 256;
+
+    /** 圆弧插值步长（度） */
+    private static final double ARC_STEP_DEGREES = 5;
+
+    private SystemMapParser() {
+    }
+
+    /**
+     * 解析 .pro 文件中的系统平面投影
+     */
+    public static StereographicProjection parseProjection(Path proFile) throws IOException {
+        return parseProjection(Files.readAllBytes(proFile), proFile.toString());
+    }
+
+    /**
+     * 解析 .pro 内容（如归档中的条目）
+     *
+     * @param source 用于错误信息的文件名
+     */
+    public static StereographicProjection parseProjection(byte[] content, String source) throws IOException {
+        double centreLat = Double.NaN;
+        double centreLon = Double.NaN;
+        double semiMajor = 6378137.0;
+        double semiMinor = 6356752.3142;
+        double rotation = 0;
+
+        for (String line : new String(content, StandardCharsets.ISO_8859_1).split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] fields = trimmed.split("\\s+");
+            if (trimmed.startsWith("DISPLAY CENTER")) {
+                // DISPLAY CENTER LAT 23 23 29 NORTH LONG 113 18 35 EAST
+                centreLat = degrees(fields, 3);
+                centreLon = degrees(fields, 8);
+            } else if (trimmed.startsWith("HALF MAJOR AXIS")) {
+                semiMajor = Double.parseDouble(fields[3]);
+            } else if (trimmed.startsWith("HALF MINOR AXIS")) {
+                semiMinor = Double.parseDouble(fields[3]);
+            } else if (trimmed.startsWith("AZIMUTH ROTATION")) {
+                // AZIMUTH ROTATION 0 0 0 _EAST
+                rotation = degrees(fields, 2);
+            }
+        }
+
+        if (Double.isNaN(centreLat) || Double.isNaN(centreLon)) {
+            throw new IOException("未找到 DISPLAY CENTER: " + source);
+        }
+        return new StereographicProjection(centreLat, centreLon, semiMajor, semiMinor, rotation);
+    }
+
+    /**
+     * fields[from..from+3] 为 度 分 秒 半球，南纬、西经和 _WEST 为负
+     */
+    private static double degrees(String[] fields, int from) {
+        double value = Double.parseDouble(fields[from])
+                + Double.parseDouble(fields[from + 1]) / 60
+                + Double.parseDouble(fields[from + 2]) / 3600;
+        String hemisphere = fields.length > from + 3 ? fields[from + 3] : "";
+        return hemisphere.endsWith("SOUTH") || hemisphere.endsWith("WEST") ? -value : value;
+    }
+
+    /**
+     * 解析一个 .lex 文件为图层，坐标转换为经纬度
+     */
+    public static SystemMapLayer parseMap(Path lexFile, String project, StereographicProjection projection)
+            throws IOException {
+        return parseMap(Files.readAllBytes(lexFile), lexFile.getFileName().toString(), project, projection);
+    }
+
+    /**
+     * 解析 .lex 内容（如归档中的条目），文件中没有 NAME 时以 fileName 去掉扩展名作为图层名
+     */
+    public static SystemMapLayer parseMap(byte[] content, String fileName, String project,
+                                          StereographicProjection projection) {
+        MapReader reader = new MapReader(content, project);
+        reader.read();
+        SystemMapLayer.Builder builder = reader.builder;
+        if (builder.getName().isEmpty()) {
+            int dot = fileName.lastIndexOf('.');
+            builder.setName(dot > 0 ? fileName.substring(0, dot) : fileName);
+        }
+        int unitsPerNm = reader.attributeBlocks ? FINE_UNITS_PER_NM : COARSE_UNITS_PER_NM;
+        return builder.build(projection, METRES_PER_NM / unitsPerNm);
+    }
+
+    /**
+     * 按空白分词的单遍扫描；数字直接在字节上解析，只有关键字和文字创建String
+     */
+    private static final class MapReader {
+        private final byte[] data;
+        private final SystemMapLayer.Builder builder;
+
+        private int position;
+        private int tokenStart;
+        private int tokenEnd;
+        private boolean quoted;
+
+        boolean attributeBlocks;
+        // 属性块设置的当前属性
+        private boolean inAttribute;
+        private int color;
+        private int fillColor = SystemMapLayer.NO_FILL;
+        private int dash;
+        private int thickness;
+
+        // 当前图元：第一个图元序号，-1表示没有
+        private int elementPart = -1;
+        private byte elementKind;
+        private boolean ring;
+        private boolean ringHasCentre;
+        private double ringX;
+        private double ringY;
+        private int innerRadius;
+        private int outerRadius;
+        private int beginAngle;
+        private int endAngle;
+
+        MapReader(byte[] data, String project) {
+            this.data = data;
+            this.builder = new SystemMapLayer.Builder(project);
+        }
+
+        void read() {
+            while (nextToken()) {
+                if (quoted) {
+                    appendText();
+                    continue;
+                }
+                if (isNumber()) {
+                    continue;
+                }
+                String keyword = tokenString();
+                switch (keyword) {
+                    case "CLASS":
+                        if (nextToken()) {
+                            builder.setMapClass(tokenString());
+                        }
+                        break;
+                    case "NAME":
+                        if (nextToken()) {
+                            builder.setName(tokenString());
+                        }
+                        break;
+                    case "PRIORITY":
+                        builder.setPriority(nextInt());
+                        break;
+                    case "MAP_BEGIN":
+                    case "MAP_END":
+                        finishElement();
+                        break;
+                    case "ATT_EDGE":
+                    case "ATT_LINE":
+                    case "ATT_SURF":
+                    case "ATT_TEXT":
+                    case "ATT_SYMBOL":
+                        finishElement();
+                        attributeBlocks = true;
+                        inAttribute = true;
+                        color = 0;
+                        fillColor = SystemMapLayer.NO_FILL;
+                        dash = 0;
+                        thickness = 0;
+                        break;
+                    case "BROKENLINE":
+                    case "VECTOR":
+                        beginElement(SystemMapLayer.LINE);
+                        break;
+                    case "POLYGON":
+                    case "SURFPOLYGON":
+                        beginElement(SystemMapLayer.POLYGON);
+                        break;
+                    case "RING":
+                        beginElement(SystemMapLayer.LINE);
+                        ring = true;
+                        break;
+                    case "SYMBOL":
+                        beginElement(SystemMapLayer.SYMBOL);
+                        break;
+                    case "GRAD":
+                        // 刻度标记，记为代码 -1 的符号
+                        beginElement(SystemMapLayer.SYMBOL);
+                        builder.setSymbolCode(elementPart, -1);
+                        break;
+                    case "TEXT":
+                    case "LEADER":
+                        beginElement(SystemMapLayer.TEXT);
+                        break;
+                    case "POINT":
+                    case "POINT1":
+                    case "POINT2":
+                        addPoint(nextInt(), nextInt());
+                        break;
+                    case "INT_RAD":
+                        innerRadius = nextInt();
+                        break;
+                    case "EXT_RAD":
+                        outerRadius = nextInt();
+                        break;
+                    case "BEG_ANG":
+                        beginAngle = nextInt();
+                        break;
+                    case "END_ANG":
+                        endAngle = nextInt();
+                        break;
+                    case "CODE":
+                        int code = nextInt();
+                        if (elementPart >= 0 && elementKind == SystemMapLayer.SYMBOL) {
+                            builder.setSymbolCode(elementPart, code);
+                        }
+                        break;
+                    case "COLOR":
+                    case "SURFCOLOR":
+                    case "DASH":
+                    case "THICK":
+                        applyAttribute(keyword, nextInt());
+                        break;
+                    default:
+                        // EXPAND、FLASH、FONT、ORIENTATION 等显示属性不影响几何
+                        break;
+                }
+            }
+            finishElement();
+        }
+
+        private void beginElement(byte kind) {
+            finishElement();
+            inAttribute = false;
+            elementKind = kind;
+            elementPart = builder.beginPart(kind, color, fillColor, dash, thickness);
+        }
+
+        private void addPoint(int x, int y) {
+            if (elementPart < 0) {
+                return;
+            }
+            if (ring) {
+                if (!ringHasCentre) {
+                    ringX = x;
+                    ringY = y;
+                    ringHasCentre = true;
+                }
+                return;
+            }
+            if ((elementKind == SystemMapLayer.SYMBOL || elementKind == SystemMapLayer.TEXT)
+                    && builder.getCurrentPartSize() > 0) {
+                return;
+            }
+            builder.addPoint(x, y);
+        }
+
+        private void appendText() {
+            if (elementPart < 0 || elementKind != SystemMapLayer.TEXT || tokenEnd == tokenStart) {
+                return;
+            }
+            String line = tokenString();
+            String text = builder.getText(elementPart);
+            builder.setText(elementPart, text == null ? line : text + "\n" + line);
+        }
+
+        /**
+         * 属性块中的属性作用于之后的图元；逐图元写法的属性作用于刚结束的图元
+         */
+        private void applyAttribute(String keyword, int value) {
+            if (inAttribute) {
+                switch (keyword) {
+                    case "COLOR":
+                        color = value;
+                        break;
+                    case "SURFCOLOR":
+                        fillColor = value;
+                        break;
+                    case "DASH":
+                        dash = value;
+                        break;
+                    default:
+                        thickness = value;
+                        break;
+                }
+                return;
+            }
+            if (elementPart < 0) {
+                return;
+            }
+            for (int part = elementPart; part < builder.getPartCount(); part++) {
+                switch (keyword) {
+                    case "COLOR":
+                        builder.setColor(part, value);
+                        break;
+                    case "SURFCOLOR":
+                        builder.setFillColor(part, value);
+                        break;
+                    case "DASH":
+                        builder.setDash(part, value);
+                        break;
+                    default:
+                        builder.setThickness(part, value);
+                        break;
+                }
+            }
+        }
+
+        /**
+         * 结束当前图元：展开圆环，丢弃没有几何或没有文字的图元
+         */
+        private void finishElement() {
+            if (elementPart < 0) {
+                return;
+            }
+            if (ring) {
+                finishRing();
+            } else {
+                int size = builder.getCurrentPartSize();
+                boolean empty = size == 0
+                        || (elementKind == SystemMapLayer.LINE && size < 2)
+                        || (elementKind == SystemMapLayer.POLYGON && size < 3)
+                        || (elementKind == SystemMapLayer.TEXT && builder.getText(elementPart) == null);
+                if (empty) {
+                    builder.discardPart();
+                }
+            }
+            elementPart = -1;
+            ring = false;
+            ringHasCentre = false;
+            innerRadius = 0;
+            outerRadius = 0;
+            beginAngle = 0;
+            endAngle = 0;
+        }
+
+        /**
+         * 圆环按方位角顺时针从起始角展开到终止角；内外半径不同时内圈单独成一个图元
+         */
+        private void finishRing() {
+            if (!ringHasCentre || outerRadius <= 0) {
+                builder.discardPart();
+                return;
+            }
+            boolean full = beginAngle % 36000 == endAngle % 36000;
+            int part = builder.getPartCount() - 1;
+            addArc(outerRadius, full);
+            if (full) {
+                builder.setKind(part, SystemMapLayer.POLYGON);
+            }
+            if (innerRadius > 0 && innerRadius != outerRadius) {
+                builder.beginPart(full ? SystemMapLayer.POLYGON : SystemMapLayer.LINE,
+                        builder.getColor(part), SystemMapLayer.NO_FILL, builder.getDash(part),
+                        builder.getThickness(part));
+                addArc(innerRadius, full);
+            }
+        }
+
+        private void addArc(int radius, boolean full) {
+            double start = Math.toRadians(beginAngle / 100.0);
+            double sweep = full ? 2 * Math.PI
+                    : Math.toRadians(((endAngle - beginAngle) % 36000 + 36000) % 36000 / 100.0);
+            int steps = Math.max(1, (int) Math.ceil(Math.toDegrees(sweep) / ARC_STEP_DEGREES));
+            for (int k = 0; k <= steps; k++) {
+                // 方位角：自北顺时针
+                double bearing = start + sweep * k / steps;
+                builder.addPoint(ringX + radius * Math.sin(bearing), ringY + radius * Math.cos(bearing));
+            }
+        }
+
+        private boolean nextToken() {
+            quoted = false;
+            while (position < data.length) {
+                byte b = data[position];
+                if (b == '#' && isLineStart(position)) {
+                    while (position < data.length && data[position] != '\n') {
+                        position++;
+                    }
+                } else if (b <= ' ' || b == ';') {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            if (position >= data.length) {
+                return false;
+            }
+
+            if (data[position] == '"') {
+                quoted = true;
+                tokenStart = ++position;
+                while (position < data.length && data[position] != '"' && data[position] != '\n') {
+                    position++;
+                }
+                tokenEnd = position;
+                if (position < data.length && data[position] == '"') {
+                    position++;
+                }
+                return true;
+            }
+
+            tokenStart = position;
+            while (position < data.length && data[position] > ' ' && data[position] != ';') {
+                position++;
+            }
+            tokenEnd = position;
+            return true;
+        }
+
+        private boolean isLineStart(int index) {
+            return index == 0 || data[index - 1] == '\n' || data[index - 1] == '\r';
+        }
+
+        private boolean isNumber() {
+            byte b = data[tokenStart];
+            return (b >= '0' && b <= '9') || ((b == '-' || b == '+') && tokenEnd - tokenStart > 1);
+        }
+
+        /**
+         * 读取下一个整数；带小数的只取整数部分，不是数字时返回0
+         */
+        private int nextInt() {
+            if (!nextToken() || quoted || !isNumber()) {
+                return 0;
+            }
+            int i = tokenStart;
+            boolean negative = data[i] == '-';
+            if (data[i] == '-' || data[i] == '+') {
+                i++;
+            }
+            int value = 0;
+            for (; i < tokenEnd && data[i] >= '0' && data[i] <= '9'; i++) {
+                value = value * 10 + (data[i] - '0');
+            }
+            return negative ? -value : value;
+        }
+
+        private String tokenString() {
+            return new String(data, tokenStart, tokenEnd - tokenStart, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
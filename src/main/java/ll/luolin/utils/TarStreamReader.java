@@ -0,0 +1,274 @@
+// utils/TarStreamReader.java
+package ll.luolin.utils;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * tar 归档的流式读取（可以套在 gzip 或 compress(.Z) 外层上），不解压到磁盘
+ * 按顺序逐个条目读取：nextEntry 定位到下一个条目，readContent 读出其内容，不读取的内容在下次 nextEntry 时跳过。
+ * 支持 ustar 前缀、GNU 长文件名（L）和 pax 扩展头（x）中的 path。
+ * 归档被截断时读取到截断处的条目抛出 EOFException，此前读出的条目不受影响。
+ */
+public final class TarStreamReader implements Closeable {
+
+    private static final int BLOCK = 512;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] header = new byte[BLOCK];
+
+    private String name;
+    private char type;
+    private long size;
+    // 当前条目尚未读取的字节（含块对齐填充）
+    private long remaining;
+    // 当前条目的内容是否已由 readContent 读出（空条目没有待读字节，不能用 remaining 判断）
+    private boolean consumed;
+
+    public TarStreamReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * 打开归档，按文件头判断外层压缩：1F 8B 为 gzip，1F 9D 为 compress，其余按未压缩 tar 读取
+     */
+    public static TarStreamReader open(Path archive) throws IOException {
+        InputStream raw = new BufferedInputStream(Files.newInputStream(archive), BUFFER_SIZE);
+        try {
+            raw.mark(2);
+            int b1 = raw.read();
+            int b2 = raw.read();
+            raw.reset();
+
+            InputStream decoded;
+            if (b1 == 0x1F && b2 == 0x8B) {
+                decoded = new BufferedInputStream(new GZIPInputStream(raw, BUFFER_SIZE), BUFFER_SIZE);
+            } else if (b1 == 0x1F && b2 == 0x9D) {
+                decoded = new BufferedInputStream(new LzwInputStream(raw), BUFFER_SIZE);
+            } else {
+                decoded = raw;
+            }
+            return new TarStreamReader(decoded);
+        } catch (IOException | RuntimeException e) {
+            raw.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 是否为可以读取的归档（gzip、compress，或第一个块带 ustar 标记的 tar），按文件内容判断，不看扩展名
+     */
+    public static boolean isArchive(Path file) {
+        byte[] head = new byte[BLOCK];
+        try (InputStream in = Files.newInputStream(file)) {
+            int length = in.readNBytes(head, 0, head.length);
+            if (length >= 2 && (head[0] & 0xFF) == 0x1F && ((head[1] & 0xFF) == 0x8B || (head[1] & 0xFF) == 0x9D)) {
+                return true;
+            }
+            return length == BLOCK && "ustar".equals(string(head, 257, 5));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 前进到下一个条目，归档结束返回false
+     */
+    public boolean nextEntry() throws IOException {
+        skip(remaining);
+        remaining = 0;
+        consumed = false;
+
+        String longName = null;
+        while (true) {
+            int length = in.readNBytes(header, 0, BLOCK);
+            if (length == 0 || isZero(header)) {
+                return false;
+            }
+            if (length < BLOCK) {
+                throw new EOFException("tar头部不完整");
+            }
+            if (!checksumMatches()) {
+                throw new IOException("tar头部校验失败");
+            }
+
+            char entryType = (char) header[156];
+            long entrySize = number(124, 12);
+            if (entryType == 'L') {
+                longName = string(readData(entrySize), 0, (int) entrySize);
+                continue;
+            }
+            if (entryType == 'x') {
+                String path = paxPath(readData(entrySize));
+                if (path != null) {
+                    longName = path;
+                }
+                continue;
+            }
+            if (entryType == 'g') {
+                readData(entrySize);
+                continue;
+            }
+
+            String entryName = string(header, 0, 100);
+            if ("ustar".equals(string(header, 257, 5))) {
+                String prefix = string(header, 345, 155);
+                if (!prefix.isEmpty()) {
+                    entryName = prefix + "/" + entryName;
+                }
+            }
+            name = longName != null ? longName : entryName;
+            type = entryType;
+            size = entrySize;
+            remaining = padded(entrySize);
+            return true;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * 普通文件（目录、链接等返回false）
+     */
+    public boolean isFile() {
+        return (type == '0' || type == 0 || type == '7') && !name.endsWith("/");
+    }
+
+    /**
+     * 读出当前条目的全部内容，每个条目只能读一次；空条目返回空数组
+     */
+    public byte[] readContent() throws IOException {
+        if (consumed) {
+            throw new IllegalStateException("条目内容已读取: " + name);
+        }
+        consumed = true;
+        if (size == 0) {
+            return new byte[0];
+        }
+        byte[] data = readData(size);
+        remaining = 0;
+        return data;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * 读出 size 字节并跳过块对齐填充
+     */
+    private byte[] readData(long length) throws IOException {
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IOException("tar条目过大: " + length);
+        }
+        byte[] data = new byte[(int) length];
+        if (in.readNBytes(data, 0, data.length) < data.length) {
+            throw new EOFException("tar条目不完整: " + (name == null ? "" : name));
+        }
+        skip(padded(length) - length);
+        return data;
+    }
+
+    private void skip(long count) throws IOException {
+        long left = count;
+        while (left > 0) {
+            long skipped = in.skip(left);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("tar条目不完整: " + (name == null ? "" : name));
+                }
+                skipped = 1;
+            }
+            left -= skipped;
+        }
+    }
+
+    private static long padded(long length) {
+        return (length + BLOCK - 1) / BLOCK * BLOCK;
+    }
+
+    private boolean checksumMatches() {
+        long stored = number(148, 8);
+        long sum = 0;
+        for (int i = 0; i < BLOCK; i++) {
+            sum += i >= 148 && i < 156 ? ' ' : header[i] & 0xFF;
+        }
+        return sum == stored;
+    }
+
+    /**
+     * 八进制数字段；最高位为1时为二进制（GNU 大文件）
+     */
+    private long number(int offset, int length) {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7F;
+            for (int i = offset + 1; i < offset + length; i++) {
+                value = (value << 8) | (header[i] & 0xFF);
+            }
+            return value;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int b = header[i];
+            if (b >= '0' && b <= '7') {
+                value = value * 8 + (b - '0');
+            } else if (value > 0 || (b != ' ' && b != 0)) {
+                break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * pax 记录 "长度 path=值\n" 中的 path
+     */
+    private static String paxPath(byte[] data) {
+        String text = new String(data, StandardCharsets.UTF_8);
+        int position = 0;
+        while (position < text.length()) {
+            int space = text.indexOf(' ', position);
+            int newline = text.indexOf('\n', position);
+            if (space < 0 || newline < 0) {
+                break;
+            }
+            String record = text.substring(space + 1, newline);
+            if (record.startsWith("path=")) {
+                return record.substring(5);
+            }
+            position = newline + 1;
+        }
+        return null;
+    }
+
+    private static String string(byte[] data, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && end < data.length && data[end] != 0) {
+            end++;
+        }
+        return new String(data, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isZero(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,170 @@
+// utils/XmlRecordReader.java
+package ll.luolin.utils;
+
+import ll.luolin.model.XmlRecord;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * XML适配文件的流式读取（StAX），不建立DOM
+ * 只保留当前元素路径上的状态，内存占用与文件大小无关。元素按以下规则归类：
+ * - 没有属性也没有子元素的元素是字段，文本作为上一级元素的字段值（如 &lt;Uid&gt;1&lt;/Uid&gt;）；
+ * - 有属性，或子元素中有字段的元素是记录，结束时交给调用方；有属性且有文本时文本存为 "text" 字段；
+ * - 其余元素（如根元素、分组元素）只作为容器。
+ * 不加载DTD和外部实体（ALERTS.XML 等引用的 .dtd 不在适配目录中）。
+ */
+public final class XmlRecordReader {
+
+    /** 带属性元素的文本字段名 */
+    public static final String TEXT = "text";
+
+    private XmlRecordReader() {
+    }
+
+    /**
+     * 读取文件，按出现顺序（子记录先于父记录）逐条回调
+     *
+     * @return 记录数
+     */
+    public static int read(Path file, Consumer<XmlRecord> sink) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in, sink);
+        } catch (XMLStreamException e) {
+            throw new IOException("XML格式错误: " + file.getFileName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static int read(InputStream in, Consumer<XmlRecord> sink) throws XMLStreamException {
+        XMLStreamReader reader = newFactory().createXMLStreamReader(in);
+        Map<String, String> names = new HashMap<>();
+        Frame[] frames = new Frame[16];
+        int depth = -1;
+        int records = 0;
+
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT: {
+                        if (depth >= 0) {
+                            frames[depth].hasChildren = true;
+                        }
+                        depth++;
+                        if (depth == frames.length) {
+                            frames = Arrays.copyOf(frames, depth * 2);
+                        }
+                        if (frames[depth] == null) {
+                            frames[depth] = new Frame();
+                        }
+                        Frame frame = frames[depth];
+                        frame.reset(intern(names, reader.getLocalName()));
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            String namespace = reader.getAttributeNamespace(i);
+                            if (namespace == null || namespace.isEmpty()) {
+                                frame.addField(intern(names, reader.getAttributeLocalName(i)),
+                                        reader.getAttributeValue(i));
+                                frame.hasAttributes = true;
+                            }
+                        }
+                        break;
+                    }
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                        if (depth >= 0 && !frames[depth].hasChildren) {
+                            frames[depth].text.append(reader.getTextCharacters(),
+                                    reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT: {
+                        Frame frame = frames[depth];
+                        Frame parent = depth > 0 ? frames[depth - 1] : null;
+                        if (!frame.hasChildren && !frame.hasAttributes && parent != null) {
+                            parent.addField(frame.name, frame.text.toString().trim());
+                            parent.hasLeafFields = true;
+                        } else if (frame.hasAttributes || frame.hasLeafFields) {
+                            if (!frame.hasChildren) {
+                                String text = frame.text.toString().trim();
+                                if (!text.isEmpty()) {
+                                    frame.addField(TEXT, text);
+                                }
+                            }
+                            sink.accept(new XmlRecord(frame.name, parent == null ? "" : parent.name,
+                                    Arrays.copyOf(frame.fields, frame.fieldCount)));
+                            records++;
+                        }
+                        depth--;
+                        break;
+                    }
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return records;
+    }
+
+    private static XMLInputFactory newFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        try {
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        } catch (IllegalArgumentException e) {
+            // 实现不支持该属性时，上面已关闭DTD
+        }
+        return factory;
+    }
+
+    // 元素名和属性名在一个文件中大量重复，共用同一个字符串
+    private static String intern(Map<String, String> names, String name) {
+        String existing = names.putIfAbsent(name, name);
+        return existing != null ? existing : name;
+    }
+
+    /**
+     * 当前路径上一个元素的状态，按深度复用
+     */
+    private static final class Frame {
+        String name;
+        String[] fields = new String[16];
+        int fieldCount;
+        boolean hasChildren;
+        boolean hasAttributes;
+        boolean hasLeafFields;
+        final StringBuilder text = new StringBuilder();
+
+        void reset(String name) {
+            this.name = name;
+            Arrays.fill(fields, 0, fieldCount, null);
+            fieldCount = 0;
+            hasChildren = false;
+            hasAttributes = false;
+            hasLeafFields = false;
+            text.setLength(0);
+        }
+
+        void addField(String key, String value) {
+            if (fieldCount + 2 > fields.length) {
+                fields = Arrays.copyOf(fields, fields.length * 2);
+            }
+            fields[fieldCount++] = key;
+            fields[fieldCount++] = value;
+        }
+    }
+}
@@ -8,9 +8,15 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.input.*;
 import javafx.animation.AnimationTimer;
+import ll.luolin.model.AirwayGraph;
+import ll.luolin.model.DiffOverlay;
 import ll.luolin.model.MapModel;
 import ll.luolin.model.LayerModel;
 import ll.luolin.model.NavPointLayerModel;
+import ll.luolin.model.PreferentialRoute;
+import ll.luolin.model.ProcedureLayer;
+import ll.luolin.model.SafetyNetLayer;
+import ll.luolin.model.SystemMapLayer;
 import ll.luolin.service.NavPointRenderService;
 import ll.luolin.service.TileService;
 import ll.luolin.service.RenderService;
@@ -18,6 +24,7 @@ import ll.luolin.utils.CoordinateFormatter;
 import ll.luolin.utils.LogUtils;
 import ll.luolin.controller.MapController;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -47,6 +54,14 @@ public class MapCanvas extends Canvas {
     private final ObservableList<NavPointLayerModel> navPointLayers = FXCollections.observableArrayList();
     private final NavPointRenderService navPointRenderService = NavPointRenderService.getInstance();
 
+    // 航路网络
+    private AirwayGraph airwayGraph;
+    private DiffOverlay diffOverlay;
+    private boolean airwaysVisible = true;
+    private List<SystemMapLayer> systemMapLayers = new ArrayList<>();
+    private List<SafetyNetLayer> safetyNetLayers = new ArrayList<>();
+    private List<ProcedureLayer> procedureLayers = new ArrayList<>();
+
 
     public MapCanvas(double width, double height) {
 
@@ -60,6 +75,9 @@ public class MapCanvas extends Canvas {
         this.tileService = TileService.getInstance();
         this.renderService = RenderService.getInstance();
 
+        // 瓦片到达后合并重绘
+        this.tileService.setTileLoadedListener(this::requestRedraw);
+
         // 初始化画布
         initializeCanvas();
 
@@ -300,8 +318,18 @@ public class MapCanvas extends Canvas {
 
         // 绘制调试信息
         drawDebugInfo();
+        // 绘制系统地图
+        drawSystemMaps();
+        // 绘制安全网区域
+        drawSafetyNetAreas();
+        // 绘制跑道、进近锥和等待航线
+        drawProcedures();
+        // 绘制航路
+        drawAirways();
         // 绘制导航点
         drawNavPoints();
+        // 绘制数据集差异
+        drawDiffOverlay();
 
     }
 
@@ -313,6 +341,113 @@ public class MapCanvas extends Canvas {
         }
     }
 
+    private void drawAirways() {
+        if (airwaysVisible && airwayGraph != null) {
+            navPointRenderService.renderAirways(gc, airwayGraph, mapModel);
+        }
+        // 打开的优选航路不受航路网络显示开关影响
+        if (airwayGraph != null) {
+            navPointRenderService.renderPreferentialRoutes(gc, airwayGraph.getPreferentialRoutes(), mapModel);
+        }
+    }
+
+    private void drawDiffOverlay() {
+        if (diffOverlay != null) {
+            navPointRenderService.renderDiffOverlay(gc, diffOverlay, mapModel);
+        }
+    }
+
+    private void drawSystemMaps() {
+        if (!systemMapLayers.isEmpty()) {
+            navPointRenderService.renderSystemMaps(gc, systemMapLayers, mapModel);
+        }
+    }
+
+    private void drawSafetyNetAreas() {
+        if (!safetyNetLayers.isEmpty()) {
+            navPointRenderService.renderSafetyNetAreas(gc, safetyNetLayers, mapModel);
+        }
+    }
+
+    private void drawProcedures() {
+        if (!procedureLayers.isEmpty()) {
+            navPointRenderService.renderProcedures(gc, procedureLayers, mapModel);
+        }
+    }
+
+    /**
+     * 设置系统地图，可见性变化时自动重绘
+     */
+    public void setSystemMapLayers(List<SystemMapLayer> layers) {
+        LogUtils.info("MapCanvas-setSystemMapLayers-设置系统地图");
+
+        systemMapLayers = new ArrayList<>(layers);
+        for (SystemMapLayer layer : systemMapLayers) {
+            layer.visibleProperty().addListener((obs, oldVal, newVal) -> requestRedraw());
+        }
+        requestRedraw();
+    }
+
+    /**
+     * 设置安全网区域图层，可见性变化时自动重绘
+     */
+    public void setSafetyNetLayers(List<SafetyNetLayer> layers) {
+        LogUtils.info("MapCanvas-setSafetyNetLayers-设置安全网区域");
+
+        safetyNetLayers = new ArrayList<>(layers);
+        for (SafetyNetLayer layer : safetyNetLayers) {
+            layer.visibleProperty().addListener((obs, oldVal, newVal) -> requestRedraw());
+        }
+        requestRedraw();
+    }
+
+    /**
+     * 设置程序图层（跑道、ILS、等待程序），可见性变化时自动重绘
+     */
+    public void setProcedureLayers(List<ProcedureLayer> layers) {
+        LogUtils.info("MapCanvas-setProcedureLayers-设置程序图层");
+
+        procedureLayers = new ArrayList<>(layers);
+        for (ProcedureLayer layer : procedureLayers) {
+            layer.visibleProperty().addListener((obs, oldVal, newVal) -> requestRedraw());
+        }
+        requestRedraw();
+    }
+
+    /**
+     * 设置航路网络，null表示清除；优选航路的可见性变化时自动重绘
+     */
+    public void setAirwayGraph(AirwayGraph graph) {
+        LogUtils.info("MapCanvas-setAirwayGraph-设置航路网络");
+
+        this.airwayGraph = graph;
+        if (graph != null) {
+            for (PreferentialRoute route : graph.getPreferentialRoutes()) {
+                route.visibleProperty().addListener((obs, oldVal, newVal) -> requestRedraw());
+            }
+        }
+        requestRedraw();
+    }
+
+    /**
+     * 设置数据集差异叠加层，null表示清除
+     */
+    public void setDiffOverlay(DiffOverlay overlay) {
+        LogUtils.info("MapCanvas-setDiffOverlay-设置数据集差异叠加层");
+
+        this.diffOverlay = overlay;
+        requestRedraw();
+    }
+
+    public AirwayGraph getAirwayGraph() {
+        return airwayGraph;
+    }
+
+    public void setAirwaysVisible(boolean visible) {
+        this.airwaysVisible = visible;
+        requestRedraw();
+    }
+
     // 添加导航点图层管理方法
     public void addNavPointLayer(NavPointLayerModel layer) {
         LogUtils.info("MapCanvas-addNavPointLayer-添加导航点图层管理方法");
@@ -438,6 +573,9 @@ public class MapCanvas extends Canvas {
         if (mapModel.isDebugMode()) {
             gc.setFill(Color.RED);
             gc.fillText(String.format("图层数: %d | 缓存: %d", layers.size(), tileService != null ? tileService.getCacheSize() : 0), 10, 30);
+            if (tileService != null) {
+                gc.fillText("瓦片: " + tileService.getMetrics(), 10, 50);
+            }
         }
     }
 
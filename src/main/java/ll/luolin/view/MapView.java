@@ -2,27 +2,58 @@
 package ll.luolin.view;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Orientation;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import ll.luolin.controller.MapController;
 import ll.luolin.controller.NavPointController;
+import ll.luolin.model.AdaptationCatalog;
+import ll.luolin.model.AirwayGraph;
+import ll.luolin.model.DatasetDiff;
+import ll.luolin.model.DiffOverlay;
 import ll.luolin.model.LayerModel;
 import ll.luolin.model.MapModel;
 import ll.luolin.model.NavPointLayerModel;
+import ll.luolin.model.PreferentialRoute;
+import ll.luolin.model.ProcedureLayer;
+import ll.luolin.model.SafetyNetLayer;
+import ll.luolin.model.SystemMapLayer;
+import ll.luolin.model.XmlDataset;
 import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.model.ASFModel.NavPointStore;
+import ll.luolin.service.AdaptationWatcher;
 import ll.luolin.service.AutoLoadService;
+import ll.luolin.service.AutoLoadTask;
+import ll.luolin.service.parserService.AdaptationCatalogService;
+import ll.luolin.service.parserService.AirwayService;
+import ll.luolin.service.parserService.ArchiveService;
+import ll.luolin.service.parserService.DatasetDiffService;
+import ll.luolin.service.parserService.FDP_VOLUMES_DEFINITION_Service;
+import ll.luolin.service.parserService.MaestroDatasetService;
+import ll.luolin.service.parserService.ProcedureGeometryService;
+import ll.luolin.service.parserService.SafetyNetAreaService;
+import ll.luolin.service.parserService.SystemMapService;
+import ll.luolin.service.parserService.XmlAdaptationService;
 import ll.luolin.utils.LogUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 public class MapView extends Application {
 
@@ -35,8 +66,27 @@ public class MapView extends Application {
     private Label mouseCoordLabel;
     private Label scaleLabel;
     private Label layerLabel;
+    private Label loadLabel;
+    private ProgressBar loadProgress;
+    private HBox loadStatusBox;
     // 添加导航点控制器
     private NavPointController navPointController;
+    // 后台加载ASF文件的任务
+    private AutoLoadTask autoLoadTask;
+    // 监视ASF目录，文件变化时增量更新图层
+    private AdaptationWatcher adaptationWatcher;
+    // 系统地图菜单，地图加载完成后按地图类填充
+    private final Menu systemMapMenu = new Menu("系统地图");
+    private final Menu safetyNetMenu = new Menu("安全网区域");
+    private final Menu procedureMenu = new Menu("程序");
+    private final Menu preferentialRouteMenu = new Menu("优选航路");
+    private boolean systemMapsLoaded;
+    private boolean maestroLoaded;
+    private boolean safetyNetLoaded;
+    private boolean proceduresLoaded;
+    private boolean catalogScanned;
+    // 每次生成航路网络递增，只采用最近一次请求的结果
+    private int airwayGeneration;
 
 
     @Override
@@ -82,33 +132,317 @@ public class MapView extends Application {
         bindMouseCoordinates();
     }
 
+    @Override
+    public void stop() {
+        LogUtils.info("MapView-stop-程序退出");
+
+        cancelAutoLoad();
+        if (adaptationWatcher != null) {
+            adaptationWatcher.close();
+        }
+        MaestroDatasetService.getInstance().closeAll();
+    }
+
     /**
-     * 加载自动加载的导航点
+     * 加载自动加载的导航点（后台并行解析，窗口先显示，图层陆续加入）
      */
     private void loadAutoLoadedNavPoints() {
         LogUtils.info("MapView-loadAutoLoadedNavPoints-加载自动加载的导航点");
 
+        autoLoadTask = AutoLoadService.getInstance().loadAllAutoLoadedLayersAsync(
+                new AutoLoadListener(false));
+    }
+
+    /**
+     * 后台加载回调：图层分批加入地图，同时更新状态栏进度
+     */
+    private class AutoLoadListener implements AutoLoadTask.Listener {
+        private final boolean notify;
+        private int layerCount;
+
+        AutoLoadListener(boolean notify) {
+            this.notify = notify;
+            loadProgress.setProgress(0);
+            loadStatusBox.setVisible(true);
+            loadStatusBox.setManaged(true);
+        }
+
+        @Override
+        public void onLayers(List<NavPointLayerModel> layers) {
+            for (NavPointLayerModel layer : layers) {
+                navPointController.getNavPointLayers().add(layer);
+                mapCanvas.addNavPointLayer(layer);
+            }
+            layerCount += layers.size();
+        }
+
+        @Override
+        public void onProgress(int completed, int total) {
+            loadProgress.setProgress(total == 0 ? 1.0 : (double) completed / total);
+            loadLabel.setText(String.format("加载ASF: %d/%d", completed, total));
+        }
+
+        @Override
+        public void onFinished(AutoLoadTask.Summary summary) {
+            loadStatusBox.setVisible(false);
+            loadStatusBox.setManaged(false);
+
+            // 只在控制台显示信息，不弹窗
+            if (summary.isCancelled()) {
+                System.out.println("已取消ASF加载: " + summary);
+            } else if (layerCount > 0) {
+                System.out.println("已自动加载 " + layerCount + " 个ASF文件, " + summary);
+                for (AutoLoadTask.FileTiming timing : summary.getSlowest(5)) {
+                    System.out.println("  " + timing);
+                }
+            } else {
+                System.out.println("未找到ASF文件，请将文件放置在 asf_files 目录下");
+            }
+
+            if (!summary.isCancelled()) {
+                loadAirways();
+                loadSystemMaps();
+                loadMaestroLayers();
+                loadSafetyNetAreas();
+                loadProcedures();
+                scanAdaptationCatalog();
+                startWatching();
+            }
+
+            if (notify && !summary.isCancelled()) {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("重新加载");
+                alert.setHeaderText(null);
+                alert.setContentText(String.format("已重新加载 %d 个ASF文件", layerCount));
+                alert.show();
+            }
+        }
+    }
+
+    /**
+     * 首次加载完成后开始监视ASF目录，之后的修改只重新解析变化的文件
+     */
+    private void startWatching() {
+        if (adaptationWatcher != null) {
+            return;
+        }
         try {
-            AutoLoadService autoLoadService = AutoLoadService.getInstance();
-            List<NavPointLayerModel> autoLayers = autoLoadService.getAllAutoLoadedLayers();
+            adaptationWatcher = AutoLoadService.getInstance()
+                    .watchAutoLoadedLayers(changes -> {
+                        navPointController.applyLayerChanges(changes);
+                        loadAirways();
+                    });
+        } catch (IOException e) {
+            LogUtils.error("监视ASF目录失败", e);
+        }
+    }
+
+    /**
+     * 用已加载的导航点在后台生成航路网络，完成后交给画布；先发起的生成晚完成时结果丢弃
+     */
+    private void loadAirways() {
+        File routesFile = getRoutesFile();
+        if (!routesFile.isFile()) {
+            return;
+        }
+
+        List<NavPointModel> points = new ArrayList<>();
+        for (NavPointLayerModel layer : navPointController.getNavPointLayers()) {
+            points.addAll(layer.getNavPoints());
+        }
+
+        int generation = ++airwayGeneration;
+        Thread worker = new Thread(() -> {
+            AirwayGraph graph = AirwayService.getInstance().buildGraph(routesFile, points);
+            Platform.runLater(() -> {
+                if (generation == airwayGeneration) {
+                    mapCanvas.setAirwayGraph(graph);
+                    populatePreferentialRouteMenu(graph.getPreferentialRoutes());
+                }
+            });
+        }, "airway-graph");
+        worker.setDaemon(true);
+        worker.start();
+    }
 
-            if (!autoLayers.isEmpty()) {
-                LogUtils.info("自动加载导航点图层: " + autoLayers.size() + " 个");
+    /**
+     * 在后台加载全部系统地图和外部点文件（目录未解压时读取归档），完成后交给画布并按地图类生成显示开关（重新加载ASF文件前只加载一次）
+     */
+    private void loadSystemMaps() {
+        File directory = new File(new File(AutoLoadService.getInstance().getAsfDirectory()).getParentFile(),
+                SystemMapService.SYSTEM_MAPS_DIR);
+        // 目录未解压时直接读取归档
+        File archive = directory.isDirectory() ? null : SystemMapService.getInstance().findArchive(directory);
+        if (systemMapsLoaded || (!directory.isDirectory() && archive == null)) {
+            return;
+        }
+        systemMapsLoaded = true;
+
+        Thread worker = new Thread(() -> {
+            List<SystemMapLayer> layers = archive == null
+                    ? SystemMapService.getInstance().loadAll(directory)
+                    : SystemMapService.getInstance().loadArchive(archive);
+            Platform.runLater(() -> {
+                mapCanvas.setSystemMapLayers(layers);
+                populateSystemMapMenu(layers);
+            });
 
-                for (NavPointLayerModel layer : autoLayers) {
+            // 各项目的 .pte 外部点，默认隐藏，在导航点面板中打开
+            List<NavPointLayerModel> pointLayers = archive == null
+                    ? AutoLoadService.getInstance().loadPointFileLayers(directory)
+                    : AutoLoadService.getInstance().loadPointFileLayers(ArchiveService.getInstance().load(archive));
+            Platform.runLater(() -> {
+                for (NavPointLayerModel layer : pointLayers) {
+                    layer.setVisible(false);
                     navPointController.getNavPointLayers().add(layer);
                     mapCanvas.addNavPointLayer(layer);
                 }
+            });
+        }, "system-maps");
+        worker.setDaemon(true);
+        worker.start();
+    }
 
-                // 只在控制台显示信息，不弹窗
-                System.out.println("已自动加载 " + autoLayers.size() + " 个ASF文件");
-            } else {
-                System.out.println("未找到ASF文件，请将文件放置在 asf_files 目录下");
+    /**
+     * 在后台读取各机场的Maestro数据集，信标和跑道图层默认隐藏（重新加载ASF文件前只加载一次）
+     */
+    private void loadMaestroLayers() {
+        File asfDirectory = new File(AutoLoadService.getInstance().getAsfDirectory());
+        if (maestroLoaded || MaestroDatasetService.getInstance().findDatabases(asfDirectory).isEmpty()) {
+            return;
+        }
+        maestroLoaded = true;
+
+        Thread worker = new Thread(() -> {
+            List<NavPointLayerModel> layers = MaestroDatasetService.getInstance().loadLayers(asfDirectory);
+            Platform.runLater(() -> {
+                for (NavPointLayerModel layer : layers) {
+                    layer.setVisible(false);
+                    navPointController.getNavPointLayers().add(layer);
+                    mapCanvas.addNavPointLayer(layer);
+                }
+            });
+        }, "maestro-dataset");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 在后台加载安全网区域（MSAW/STCA/MTCD/NTZ/DTZ/DAIW），每个文件一个开关，默认隐藏（重新加载ASF文件前只加载一次）
+     */
+    private void loadSafetyNetAreas() {
+        File asfDirectory = new File(AutoLoadService.getInstance().getAsfDirectory());
+        if (safetyNetLoaded || SafetyNetAreaService.getInstance().findFiles(asfDirectory).isEmpty()) {
+            return;
+        }
+        safetyNetLoaded = true;
+
+        Thread worker = new Thread(() -> {
+            List<SafetyNetLayer> layers = SafetyNetAreaService.getInstance().loadAll(asfDirectory);
+            Platform.runLater(() -> {
+                mapCanvas.setSafetyNetLayers(layers);
+                safetyNetMenu.getItems().clear();
+                for (SafetyNetLayer layer : layers) {
+                    CheckMenuItem item = new CheckMenuItem(String.format("%s %s (%d)",
+                            layer.getKind(), layer.getKind().getDescription(), layer.getAreaCount()));
+                    item.selectedProperty().bindBidirectional(layer.visibleProperty());
+                    safetyNetMenu.getItems().add(item);
+                }
+            });
+        }, "safety-net-areas");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 在后台生成跑道、ILS进近锥和等待航线，每个机场一个开关，默认隐藏（重新加载ASF文件前只加载一次）
+     * 等待程序的定位点取自已加载的导航点
+     */
+    private void loadProcedures() {
+        File asfDirectory = new File(AutoLoadService.getInstance().getAsfDirectory());
+        if (proceduresLoaded) {
+            return;
+        }
+        proceduresLoaded = true;
+
+        Map<String, double[]> fixes = new HashMap<>();
+        for (NavPointLayerModel layer : navPointController.getNavPointLayers()) {
+            NavPointStore store = layer.getStore();
+            for (int i = 0; i < store.size(); i++) {
+                fixes.putIfAbsent(store.getName(i), new double[]{store.getLongitude(i), store.getLatitude(i)});
             }
+        }
+
+        Thread worker = new Thread(() -> {
+            List<ProcedureLayer> layers = ProcedureGeometryService.getInstance().loadLayers(asfDirectory, fixes);
+            Platform.runLater(() -> {
+                mapCanvas.setProcedureLayers(layers);
+                procedureMenu.getItems().clear();
+                for (ProcedureLayer layer : layers) {
+                    CheckMenuItem item = new CheckMenuItem(layer.toString());
+                    item.selectedProperty().bindBidirectional(layer.visibleProperty());
+                    procedureMenu.getItems().add(item);
+                }
+            });
+        }, "procedure-geometry");
+        worker.setDaemon(true);
+        worker.start();
+    }
 
-        } catch (Exception e) {
-            LogUtils.error("自动加载导航点失败", e);
-            System.err.println("自动加载失败: " + e.getMessage());
+    /**
+     * 每个地图类一个子菜单：全部显示/全部隐藏，以及每张地图的开关
+     */
+    /**
+     * 每条优选航路一个开关，标明经过的航路及其分段属性
+     */
+    private void populatePreferentialRouteMenu(List<PreferentialRoute> routes) {
+        preferentialRouteMenu.getItems().clear();
+        for (PreferentialRoute route : routes) {
+            String text = route.getAirways().isEmpty() ? route.toString()
+                    : route + " 经 " + String.join(", ", route.getAirways());
+            CheckMenuItem item = new CheckMenuItem(text);
+            item.selectedProperty().bindBidirectional(route.visibleProperty());
+            preferentialRouteMenu.getItems().add(item);
+        }
+    }
+
+    private void populateSystemMapMenu(List<SystemMapLayer> layers) {
+        Map<String, List<SystemMapLayer>> byClass = new TreeMap<>();
+        for (SystemMapLayer layer : layers) {
+            byClass.computeIfAbsent(layer.getMapClass(), key -> new ArrayList<>()).add(layer);
+        }
+
+        systemMapMenu.getItems().clear();
+        for (Map.Entry<String, List<SystemMapLayer>> entry : byClass.entrySet()) {
+            List<SystemMapLayer> classLayers = entry.getValue();
+            classLayers.sort(Comparator.comparing(SystemMapLayer::getProject).thenComparing(SystemMapLayer::getName));
+
+            Menu classMenu = new Menu(entry.getKey() + " (" + classLayers.size() + ")");
+            MenuItem showAll = new MenuItem("全部显示");
+            MenuItem hideAll = new MenuItem("全部隐藏");
+            showAll.setOnAction(e -> classLayers.forEach(layer -> layer.setVisible(true)));
+            hideAll.setOnAction(e -> classLayers.forEach(layer -> layer.setVisible(false)));
+            classMenu.getItems().addAll(showAll, hideAll, new SeparatorMenuItem());
+
+            for (SystemMapLayer layer : classLayers) {
+                CheckMenuItem item = new CheckMenuItem(layer.getProject() + "/" + layer.getName());
+                item.selectedProperty().bindBidirectional(layer.visibleProperty());
+                classMenu.getItems().add(item);
+            }
+            systemMapMenu.getItems().add(classMenu);
+        }
+    }
+
+    private File getRoutesFile() {
+        return new File(AutoLoadService.getInstance().getAsfDirectory(), AirwayService.ROUTES_FILE);
+    }
+
+    /**
+     * 取消正在进行的后台加载
+     */
+    private void cancelAutoLoad() {
+        if (autoLoadTask != null && !autoLoadTask.isDone()) {
+            autoLoadTask.cancel();
         }
     }
 
@@ -194,6 +528,15 @@ public class MapView extends Application {
         Button queryButton = new Button("属性查询");
         queryButton.setPrefWidth(150);
 
+        // 离线瓦片
+        Button offlineTilesButton = new Button("生成离线瓦片");
+        offlineTilesButton.setPrefWidth(150);
+        offlineTilesButton.setOnAction(e ->
+                controller.buildOfflineTiles(navPointController.getNavPointLayers(),
+                        mapCanvas.getAirwayGraph(), getRoutesFile(),
+                        new File(AutoLoadService.getInstance().getAsfDirectory(),
+                                FDP_VOLUMES_DEFINITION_Service.VOLUMES_FILE)));
+
         // 导航点搜索
         TextField searchField = new TextField();
         searchField.setPromptText("搜索导航点...");
@@ -213,6 +556,7 @@ public class MapView extends Application {
                 new Separator(),
                 measureButton,
                 queryButton,
+                offlineTilesButton,
                 new Separator(),
                 new Label("导航点搜索:"),
                 searchBox
@@ -319,15 +663,27 @@ public class MapView extends Application {
         MenuItem loadAsfItem = new MenuItem("加载ASF文件");
         MenuItem reloadAsfItem = new MenuItem("重新加载ASF文件");
         MenuItem exportItem = new MenuItem("导出图片");
+        MenuItem compareFilesItem = new MenuItem("比较ASF文件版本");
+        MenuItem compareDirsItem = new MenuItem("比较数据集目录");
+        MenuItem clearDiffItem = new MenuItem("清除差异高亮");
+        MenuItem divergentCopiesItem = new MenuItem("检查副本差异");
+        MenuItem loadXmlItem = new MenuItem("读取XML适配文件");
         MenuItem exitItem = new MenuItem("退出");
 
         loadShpItem.setOnAction(e -> controller.loadShpFile(stage));
         loadAsfItem.setOnAction(e -> navPointController.loadAsfFile(stage));
         reloadAsfItem.setOnAction(e -> reloadAsfFiles());
         exportItem.setOnAction(e -> controller.exportMap(stage));
+        compareFilesItem.setOnAction(e -> compareFiles(stage));
+        compareDirsItem.setOnAction(e -> compareDirectories(stage));
+        clearDiffItem.setOnAction(e -> mapCanvas.setDiffOverlay(null));
+        divergentCopiesItem.setOnAction(e -> showDivergentCopies());
+        loadXmlItem.setOnAction(e -> loadXmlAdaptation(stage));
         exitItem.setOnAction(e -> System.exit(0));
 
         fileMenu.getItems().addAll(loadShpItem, loadAsfItem, reloadAsfItem,
+                new SeparatorMenuItem(), compareFilesItem, compareDirsItem, clearDiffItem, divergentCopiesItem,
+                new SeparatorMenuItem(), loadXmlItem,
                 new SeparatorMenuItem(), exportItem,
                 new SeparatorMenuItem(), exitItem);
 
@@ -335,6 +691,7 @@ public class MapView extends Application {
         Menu viewMenu = new Menu("视图");
         CheckMenuItem gridItem = new CheckMenuItem("显示网格");
         CheckMenuItem debugItem = new CheckMenuItem("调试模式");
+        CheckMenuItem airwayItem = new CheckMenuItem("显示航路");
 
         gridItem.setSelected(true);
         gridItem.selectedProperty().addListener((obs, oldVal, newVal) -> {
@@ -345,7 +702,10 @@ public class MapView extends Application {
             controller.setDebugMode(newVal);
         });
 
-        viewMenu.getItems().addAll(gridItem, debugItem);
+        airwayItem.setSelected(true);
+        airwayItem.selectedProperty().addListener((obs, oldVal, newVal) -> mapCanvas.setAirwaysVisible(newVal));
+
+        viewMenu.getItems().addAll(gridItem, debugItem, airwayItem);
 
         // 帮助菜单
         Menu helpMenu = new Menu("帮助");
@@ -355,9 +715,248 @@ public class MapView extends Application {
 
         helpMenu.getItems().addAll(aboutItem);
 
-        menuBar.getMenus().addAll(fileMenu, viewMenu, helpMenu);
+        menuBar.getMenus().addAll(fileMenu, viewMenu, systemMapMenu, safetyNetMenu, procedureMenu,
+                preferentialRouteMenu, helpMenu);
         return menuBar;
     }
+    /**
+     * 选择同一文件的旧版本和新版本（如 CHARACTERISTIC_POINTS.ASF_1209 和 CHARACTERISTIC_POINTS.ASF）进行比较
+     */
+    private void compareFiles(Stage stage) {
+        FileChooser chooser = new FileChooser();
+        chooser.setInitialDirectory(existingDirectory(AutoLoadService.getInstance().getAsfDirectory()));
+        chooser.setTitle("选择旧版本");
+        File oldFile = chooser.showOpenDialog(stage);
+        if (oldFile == null) {
+            return;
+        }
+        chooser.setInitialDirectory(oldFile.getParentFile());
+        chooser.setTitle("选择新版本");
+        File newFile = chooser.showOpenDialog(stage);
+        if (newFile == null) {
+            return;
+        }
+
+        runDiff(() -> {
+            List<DatasetDiff> diffs = new ArrayList<>();
+            DatasetDiff diff = DatasetDiffService.getInstance().diffFiles(oldFile, newFile);
+            if (!diff.isEmpty()) {
+                diffs.add(diff);
+            }
+            return diffs;
+        });
+    }
+
+    /**
+     * 选择两个数据集目录，比较其中全部适配文件
+     */
+    private void compareDirectories(Stage stage) {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setInitialDirectory(existingDirectory(AutoLoadService.getInstance().getAsfDirectory()));
+        chooser.setTitle("选择旧数据集目录");
+        File oldRoot = chooser.showDialog(stage);
+        if (oldRoot == null) {
+            return;
+        }
+        chooser.setInitialDirectory(oldRoot.getParentFile());
+        chooser.setTitle("选择新数据集目录");
+        File newRoot = chooser.showDialog(stage);
+        if (newRoot == null) {
+            return;
+        }
+
+        runDiff(() -> DatasetDiffService.getInstance().diffTrees(oldRoot, newRoot));
+    }
+
+    /**
+     * 在后台比较并生成叠加层，完成后高亮变化并显示摘要
+     */
+    private void runDiff(Callable<List<DatasetDiff>> task) {
+        Thread worker = new Thread(() -> {
+            try {
+                List<DatasetDiff> diffs = task.call();
+                DiffOverlay overlay = DatasetDiffService.getInstance().buildOverlay(diffs);
+                Platform.runLater(() -> {
+                    mapCanvas.setDiffOverlay(overlay);
+                    showDiffSummary(diffs, overlay);
+                });
+            } catch (Exception e) {
+                LogUtils.error("比较数据集失败", e);
+                Platform.runLater(() -> {
+                    Alert alert = new Alert(Alert.AlertType.ERROR);
+                    alert.setTitle("比较失败");
+                    alert.setHeaderText(null);
+                    alert.setContentText(e.getMessage());
+                    alert.show();
+                });
+            }
+        }, "dataset-diff-task");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void showDiffSummary(List<DatasetDiff> diffs, DiffOverlay overlay) {
+        StringBuilder text = new StringBuilder();
+        if (diffs.isEmpty()) {
+            text.append("没有差异");
+        }
+        for (int i = 0; i < diffs.size() && i < 20; i++) {
+            text.append(diffs.get(i)).append('\n');
+        }
+        if (diffs.size() > 20) {
+            text.append("… 共 ").append(diffs.size()).append(" 个文件有变化\n");
+        }
+        if (!overlay.isEmpty()) {
+            text.append("\n地图上高亮 ").append(overlay.getPointCount()).append(" 个点, ")
+                    .append(overlay.getRingCount()).append(" 个空域（绿: 新增, 红: 删除, 橙: 修改）");
+        }
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("数据集比较");
+        alert.setHeaderText(null);
+        alert.setContentText(text.toString());
+        alert.show();
+    }
+
+    /**
+     * 适配根目录（ASF目录的上一级，包含 GLOBAL、GZTM、datasets 等），不存在时返回null
+     */
+    private static File adaptationRoot() {
+        File root = new File(AutoLoadService.getInstance().getAsfDirectory()).getAbsoluteFile().getParentFile();
+        return root != null && root.isDirectory() ? root : null;
+    }
+
+    /**
+     * 在后台扫描适配根目录生成内容目录，之后检查副本差异时只重新计算变化的文件（重新加载ASF文件前只扫描一次）
+     */
+    private void scanAdaptationCatalog() {
+        File root = adaptationRoot();
+        if (catalogScanned || root == null) {
+            return;
+        }
+        catalogScanned = true;
+
+        Thread worker = new Thread(() -> {
+            try {
+                AdaptationCatalogService.getInstance().scan(root);
+            } catch (Exception e) {
+                LogUtils.error("生成适配内容目录失败", e);
+            }
+        }, "adaptation-catalog-scan");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 在后台重新扫描适配根目录，显示各处内容不同的同名文件，以及当前航路和空域文件的相同副本
+     */
+    private void showDivergentCopies() {
+        File root = adaptationRoot();
+        if (root == null) {
+            showAlert("检查副本差异", "适配目录不存在: " + AutoLoadService.getInstance().getAsfDirectory(),
+                    Alert.AlertType.WARNING);
+            return;
+        }
+
+        Thread worker = new Thread(() -> {
+            try {
+                AdaptationCatalog catalog = AdaptationCatalogService.getInstance().scan(root);
+                Map<String, Integer> divergent = catalog.getDivergentNames();
+                String summary = String.format("%d 个文件, %d 种内容, %d 组重复副本\n%d 个同名文件在不同位置内容不同",
+                        catalog.getFileCount(), catalog.getDistinctCount(),
+                        catalog.getDuplicateGroups().size(), divergent.size());
+                String report = divergentCopiesReport(catalog, divergent);
+                Platform.runLater(() -> {
+                    TextArea details = new TextArea(report);
+                    details.setEditable(false);
+                    details.setPrefSize(720, 420);
+
+                    Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                    alert.setTitle("副本差异");
+                    alert.setHeaderText(root.getPath());
+                    alert.setContentText(summary);
+                    alert.getDialogPane().setExpandableContent(details);
+                    alert.getDialogPane().setExpanded(!divergent.isEmpty());
+                    alert.show();
+                });
+            } catch (Exception e) {
+                LogUtils.error("检查副本差异失败", e);
+                Platform.runLater(() -> showAlert("检查失败", e.getMessage(), Alert.AlertType.ERROR));
+            }
+        }, "adaptation-catalog-task");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 按文件名列出各种内容所在的相对路径
+     */
+    private static String divergentCopiesReport(AdaptationCatalog catalog, Map<String, Integer> divergent) {
+        StringBuilder text = new StringBuilder();
+        File asfDirectory = new File(AutoLoadService.getInstance().getAsfDirectory());
+        for (String fileName : new String[]{AirwayService.ROUTES_FILE, FDP_VOLUMES_DEFINITION_Service.VOLUMES_FILE}) {
+            List<String> copies = catalog.copiesOf(new File(asfDirectory, fileName).toPath());
+            if (!copies.isEmpty()) {
+                text.append("当前 ").append(fileName).append(" 的相同副本: ")
+                        .append(String.join(", ", copies)).append('\n');
+            }
+        }
+        if (text.length() > 0) {
+            text.append('\n');
+        }
+
+        for (Map.Entry<String, Integer> name : divergent.entrySet()) {
+            text.append(name.getKey()).append(" (").append(name.getValue()).append(" 种内容)\n");
+            for (List<String> paths : catalog.getVariants(name.getKey()).values()) {
+                text.append("    ").append(String.join(", ", paths)).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * 选择目录（如 Dhmi_Dataset/Datasets），在后台并行读取其中的XML适配文件并显示各文件的记录数
+     */
+    private void loadXmlAdaptation(Stage stage) {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setInitialDirectory(existingDirectory(AutoLoadService.getInstance().getAsfDirectory()));
+        chooser.setTitle("选择XML适配文件目录");
+        File directory = chooser.showDialog(stage);
+        if (directory == null) {
+            return;
+        }
+
+        Thread worker = new Thread(() -> {
+            XmlAdaptationService service = XmlAdaptationService.getInstance();
+            List<XmlDataset> datasets = service.loadAll(service.listXmlFiles(directory));
+            Platform.runLater(() -> {
+                StringBuilder text = new StringBuilder();
+                if (datasets.isEmpty()) {
+                    text.append("目录中没有可读取的XML文件");
+                }
+                for (int i = 0; i < datasets.size() && i < 20; i++) {
+                    text.append(datasets.get(i)).append('\n');
+                }
+                if (datasets.size() > 20) {
+                    text.append("… 共 ").append(datasets.size()).append(" 个文件\n");
+                }
+
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("XML适配文件");
+                alert.setHeaderText(directory.getPath());
+                alert.setContentText(text.toString());
+                alert.show();
+            });
+        }, "xml-adaptation-task");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private static File existingDirectory(String path) {
+        File directory = new File(path);
+        return directory.isDirectory() ? directory : null;
+    }
+
     private void showAboutDialog() {
         Alert about = new Alert(Alert.AlertType.INFORMATION);
         about.setTitle("关于");
@@ -374,33 +973,19 @@ public class MapView extends Application {
     private void reloadAsfFiles() {
         LogUtils.info("MapView-reloadAsfFiles-重新加载ASF文件");
 
-        try {
-            // 清除现有图层
-            navPointController.clearNavPointLayers();
+        // 先取消尚未完成的加载，避免旧图层在清除后继续加入
+        cancelAutoLoad();
 
-            // 重新加载
-            AutoLoadService autoLoadService = AutoLoadService.getInstance();
-            List<NavPointLayerModel> autoLayers = autoLoadService.reloadAllLayers();
+        // 清除现有图层，.pte 点图层和Maestro图层随后重新加载
+        navPointController.clearNavPointLayers();
+        systemMapsLoaded = false;
+        maestroLoaded = false;
+        safetyNetLoaded = false;
+        proceduresLoaded = false;
+        catalogScanned = false;
 
-            for (NavPointLayerModel layer : autoLayers) {
-                navPointController.getNavPointLayers().add(layer);
-                mapCanvas.addNavPointLayer(layer);
-            }
-
-            // 显示简单提示
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("重新加载");
-            alert.setHeaderText(null);
-            alert.setContentText(String.format("已重新加载 %d 个ASF文件", autoLayers.size()));
-            alert.showAndWait();
-
-        } catch (Exception e) {
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle("错误");
-            alert.setHeaderText(null);
-            alert.setContentText("重新加载失败: " + e.getMessage());
-            alert.showAndWait();
-        }
+        // 后台重新加载，完成后提示
+        autoLoadTask = AutoLoadService.getInstance().reloadAllLayersAsync(new AutoLoadListener(true));
     }
 
     private VBox createLeftPanel() {
@@ -474,6 +1059,17 @@ public class MapView extends Application {
         scaleLabel = new Label("缩放: ");
         layerLabel = new Label("图层: 0");
 
+        // 后台加载进度（加载时显示）
+        loadLabel = new Label();
+        loadProgress = new ProgressBar(0);
+        loadProgress.setPrefWidth(120);
+        Button cancelLoadButton = new Button("取消");
+        cancelLoadButton.setOnAction(e -> cancelAutoLoad());
+        loadStatusBox = new HBox(5, new Separator(Orientation.VERTICAL), loadLabel, loadProgress, cancelLoadButton);
+        loadStatusBox.setAlignment(Pos.CENTER_LEFT);
+        loadStatusBox.setVisible(false);
+        loadStatusBox.setManaged(false);
+
         // 添加分隔符
         Separator separator1 = new Separator(Orientation.VERTICAL);
         Separator separator2 = new Separator(Orientation.VERTICAL);
@@ -487,7 +1083,8 @@ public class MapView extends Application {
                 coordLabel, separator1,
                 mouseCoordLabel, separator2,
                 scaleLabel, separator3,
-                layerLabel
+                layerLabel,
+                loadStatusBox
         );
 
         return statusBar;
@@ -8,6 +8,8 @@ import javafx.geometry.Insets;
 import ll.luolin.controller.NavPointController;
 import ll.luolin.model.NavPointLayerModel;
 import ll.luolin.model.ASFModel.NavPointModel;
+import ll.luolin.model.ASFModel.NavPointStore;
+import ll.luolin.model.ASFModel.PointCategory;
 import ll.luolin.utils.LogUtils;
 
 
@@ -145,19 +147,16 @@ public class NavPointPanel extends VBox {
         Label fileLabel = new Label("文件: " + layer.getFile().getName());
         Label countLabel = new Label("总点数: " + layer.getNavPoints().size());
 
-        // 统计各类型点数
-        long airportCount = layer.getNavPoints().stream()
-                .filter(p -> p.getType().toUpperCase().contains("AIRPORT"))
-                .count();
-        long vorCount = layer.getNavPoints().stream()
-                .filter(p -> p.getType().toUpperCase().contains("VOR"))
-                .count();
-        long ndbCount = layer.getNavPoints().stream()
-                .filter(p -> p.getType().toUpperCase().contains("NDB"))
-                .count();
-        long reportCount = layer.getNavPoints().stream()
-                .filter(p -> p.getType().toUpperCase().contains("REPORT"))
-                .count();
+        // 统计各类型点数（按解析时确定的分类，一次遍历）
+        int[] groupCounts = new int[PointCategory.Group.values().length];
+        NavPointStore store = layer.getStore();
+        for (int i = 0; i < store.size(); i++) {
+            groupCounts[store.getCategory(i).getGroup().ordinal()]++;
+        }
+        int airportCount = groupCounts[PointCategory.Group.AIRPORT.ordinal()];
+        int vorCount = groupCounts[PointCategory.Group.VOR.ordinal()];
+        int ndbCount = groupCounts[PointCategory.Group.NDB.ordinal()];
+        int reportCount = groupCounts[PointCategory.Group.REPORT.ordinal()];
 
         Label typeLabel = new Label(String.format(
                 "机场: %d, VOR: %d, NDB: %d, 报告点: %d",
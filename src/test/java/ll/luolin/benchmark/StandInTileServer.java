@@ -0,0 +1,225 @@
+// benchmark/StandInTileServer.java
+package ll.luolin.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内的替身瓦片服务器（仅监听127.0.0.1）
+ * 路径格式 /{z}/{x}/{y}.png，返回按坐标生成的PNG；支持模拟延迟和单连接带宽，
+ * 并统计请求数、重复请求数和发送字节数。
+ */
+public class StandInTileServer implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final long latencyMillis;
+    private final long bytesPerSecond;
+    private final int maxAgeSeconds;
+
+    private final Map<String, byte[]> tiles = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requestsByPath = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param latencyMillis  每个请求的固定延迟
+     * @param bytesPerSecond 单连接带宽，0表示不限速
+     * @param maxAgeSeconds  响应的 Cache-Control max-age
+     */
+    public StandInTileServer(long latencyMillis, long bytesPerSecond, int maxAgeSeconds) {
+        this.latencyMillis = latencyMillis;
+        this.bytesPerSecond = bytesPerSecond;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    /**
+     * 启动服务器（随机端口）
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "stand-in-tile-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * 瓦片URL模板
+     */
+    public String getUrlTemplate() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/{z}/{x}/{y}.png";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            requests.increment();
+            requestsByPath.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+
+            byte[] body = tiles.computeIfAbsent(path, StandInTileServer::renderTile);
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            String etag = "\"" + Integer.toHexString(path.hashCode()) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=" + maxAgeSeconds);
+
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.increment();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "image/png");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                write(out, body);
+            }
+            bytesSent.add(body.length);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 按带宽分块写出
+     */
+    private void write(OutputStream out, byte[] body) throws IOException, InterruptedException {
+        if (bytesPerSecond <= 0) {
+            out.write(body);
+            return;
+        }
+        for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, body.length - offset);
+            out.write(body, offset, length);
+            out.flush();
+            Thread.sleep(length * 1000L / bytesPerSecond);
+        }
+    }
+
+    /**
+     * 生成瓦片图像，路径无效时返回null（404）
+     */
+    private static byte[] renderTile(String path) {
+        String[] parts = path.split("/");
+        if (parts.length != 4 || !parts[3].endsWith(".png")) {
+            return null;
+        }
+
+        int z;
+        int x;
+        int y;
+        try {
+            z = Integer.parseInt(parts[1]);
+            x = Integer.parseInt(parts[2]);
+            y = Integer.parseInt(parts[3].substring(0, parts[3].length() - 4));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        int max = 1 << z;
+        if (x < 0 || y < 0 || x >= max || y >= max) {
+            return null;
+        }
+
+        // 随机色块让PNG大小接近真实地图瓦片（约10~20KB）
+        Random random = new Random(((long) z << 48) ^ ((long) x << 24) ^ y);
+        BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(230, 228, 220));
+        g.fillRect(0, 0, 256, 256);
+        for (int i = 0; i < 400; i++) {
+            g.setColor(new Color(random.nextInt(0xFFFFFF)));
+            g.fillRect(random.nextInt(256), random.nextInt(256), 2 + random.nextInt(6), 2 + random.nextInt(6));
+        }
+        g.setColor(Color.DARK_GRAY);
+        g.drawRect(0, 0, 255, 255);
+        g.drawString(z + "/" + x + "/" + y, 8, 16);
+        g.dispose();
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getNotModified() {
+        return notModified.sum();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * 重复请求数：同一路径第二次及以后的请求
+     */
+    public long getDuplicateRequests() {
+        long duplicates = 0;
+        for (AtomicInteger count : requestsByPath.values()) {
+            duplicates += Math.max(0, count.get() - 1);
+        }
+        return duplicates;
+    }
+
+    /**
+     * 清空请求统计（保留已生成的瓦片）
+     */
+    public void resetCounters() {
+        requestsByPath.clear();
+        requests.reset();
+        notModified.reset();
+        bytesSent.reset();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
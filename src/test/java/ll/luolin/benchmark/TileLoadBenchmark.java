@@ -0,0 +1,306 @@
+// benchmark/TileLoadBenchmark.java
+package ll.luolin.benchmark;
+
+import ll.luolin.service.TileMetrics;
+import ll.luolin.service.TileService;
+import ll.luolin.service.TileSource;
+import ll.luolin.service.tileService.TemplateTileSource;
+import ll.luolin.service.tileService.TileDiskCache;
+import ll.luolin.service.tileService.UrlTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * 瓦片加载基准测试
+ * 启动进程内替身瓦片服务器，对TileService回放一段平移/缩放脚本，
+ * 统计视口加载完成时间、重复请求数、下载字节数、缓存命中率和堆内存峰值。
+ * 不需要显示器和外网，单线程执行器代替JavaFX线程。
+ *
+ * 位于测试源码目录，不打包进程序；mvn test-compile 后运行：
+ * 用法：java -cp target/classes:target/test-classes:<依赖> ll.luolin.benchmark.TileLoadBenchmark [选项]
+ *   --latency=40         服务器延迟（毫秒）
+ *   --bandwidth=2000000  单连接带宽（字节/秒，0不限速）
+ *   --concurrency=4      瓦片源并发数
+ *   --viewport=1200x800  视口尺寸
+ *   --passes=2           回放次数，第一次为冷启动，之后复用磁盘缓存
+ *   --max-age=3600       服务器缓存有效期（秒），0则每次都走条件请求
+ *   --timeout=15000      单步超时（毫秒）
+ *   --script=<文件>      脚本，每行 "缩放级别 经度 纬度"，#开头为注释
+ */
+public class TileLoadBenchmark {
+
+    private static final long POLL_MILLIS = 50;
+
+    private final Map<String, String> options;
+    private final List<Step> steps;
+    private final int width;
+    private final int height;
+    private final long timeoutMillis;
+
+    public TileLoadBenchmark(Map<String, String> options, List<Step> steps) {
+        this.options = options;
+        this.steps = steps;
+        String[] viewport = option("viewport", "1200x800").split("x");
+        this.width = Integer.parseInt(viewport[0].trim());
+        this.height = Integer.parseInt(viewport[1].trim());
+        this.timeoutMillis = Long.parseLong(option("timeout", "15000"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 无显示器环境：AWT无头模式，JavaFX图像解码使用软件管线
+        System.setProperty("java.awt.headless", "true");
+        if (System.getProperty("prism.order") == null) {
+            System.setProperty("prism.order", "sw");
+        }
+
+        Map<String, String> options = parseOptions(args);
+        String script = options.get("script");
+        List<Step> steps = script != null ? loadScript(Paths.get(script)) : defaultScript();
+
+        new TileLoadBenchmark(options, steps).run();
+    }
+
+    /**
+     * 执行全部回放
+     */
+    public void run() throws Exception {
+        int passes = Integer.parseInt(option("passes", "2"));
+        Path cacheDir = Files.createTempDirectory("tile-benchmark");
+
+        ExecutorService publisher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "benchmark-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (StandInTileServer server = new StandInTileServer(
+                Long.parseLong(option("latency", "40")),
+                Long.parseLong(option("bandwidth", "2000000")),
+                Integer.parseInt(option("max-age", "3600")))) {
+            server.start();
+
+            TileSource source = new TemplateTileSource("benchmark", "基准测试",
+                    UrlTemplate.compile(server.getUrlTemplate(), null, null),
+                    19, 256, Integer.parseInt(option("concurrency", "4")), TileSource.CachePolicy.DISK);
+
+            System.out.printf("瓦片基准测试: %d 步, 视口 %dx%d, 选项 %s%n", steps.size(), width, height, options);
+            for (int pass = 1; pass <= passes; pass++) {
+                runPass(pass, server, source, new TileDiskCache(cacheDir), publisher);
+            }
+        } finally {
+            publisher.shutdownNow();
+            deleteRecursively(cacheDir);
+        }
+    }
+
+    /**
+     * 一次完整回放（新的TileService实例，内存缓存为空）
+     */
+    private void runPass(int pass, StandInTileServer server, TileSource source,
+                         TileDiskCache diskCache, ExecutorService publisher) throws Exception {
+        server.resetCounters();
+        resetPeakHeap();
+
+        TileService service = new TileService(diskCache, publisher);
+        publisher.submit(() -> service.setTileSource(source)).get();
+        service.getMetrics().reset();
+
+        long[] stepMillis = new long[steps.size()];
+        int timeouts = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < steps.size(); i++) {
+            stepMillis[i] = awaitViewport(service, publisher, steps.get(i));
+            if (stepMillis[i] < 0) {
+                timeouts++;
+            }
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        service.shutdown();
+        report(pass, stepMillis, timeouts, totalMillis, service.getMetrics(), server);
+    }
+
+    /**
+     * 请求一个视口并等待全部瓦片就绪，返回耗时（毫秒），超时返回-1
+     * 瓦片发布时由回调重新检查；另外定时检查一次，相当于界面的周期重绘，使失败的瓦片得以重试
+     */
+    private long awaitViewport(TileService service, ExecutorService publisher, Step step) throws Exception {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Runnable check = () -> {
+            if (!done.isDone() && service.requestViewport(step.zoom, step.lon, step.lat, width, height) == 0) {
+                done.complete(null);
+            }
+        };
+
+        long start = System.nanoTime();
+        publisher.execute(() -> {
+            service.setTileLoadedListener(check);
+            check.run();
+        });
+
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (true) {
+            try {
+                done.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            } catch (TimeoutException e) {
+                if (System.nanoTime() >= deadline) {
+                    return -1;
+                }
+                publisher.execute(check);
+            }
+        }
+    }
+
+    private void report(int pass, long[] stepMillis, int timeouts, long totalMillis,
+                        TileMetrics metrics, StandInTileServer server) {
+        long[] completed = Arrays.stream(stepMillis).filter(ms -> ms >= 0).sorted().toArray();
+        double average = completed.length == 0 ? 0 : Arrays.stream(completed).average().orElse(0);
+        long p95 = completed.length == 0 ? 0 : completed[Math.min(completed.length - 1, (int) Math.ceil(completed.length * 0.95) - 1)];
+        long max = completed.length == 0 ? 0 : completed[completed.length - 1];
+
+        long diskServed = metrics.getDiskHits() + metrics.getNotModified();
+        long lookups = metrics.getLoadsSubmitted();
+        double diskRatio = lookups == 0 ? 0.0 : (double) diskServed / lookups;
+
+        System.out.printf("%n第 %d 次回放%s%n", pass, pass == 1 ? "（冷启动）" : "（磁盘缓存）");
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            System.out.printf("  步骤 %2d  z=%-2d (%.3f, %.3f)  %s%n", i + 1, step.zoom, step.lon, step.lat,
+                    stepMillis[i] < 0 ? "超时" : stepMillis[i] + "ms");
+        }
+        System.out.printf("  总耗时: %dms | 视口完成 平均 %.1fms / P95 %dms / 最大 %dms | 超时: %d%n",
+                totalMillis, average, p95, max, timeouts);
+        System.out.printf("  服务器请求: %d | 重复请求: %d | 304: %d | 服务器发送: %dKB%n",
+                server.getRequests(), server.getDuplicateRequests(), server.getNotModified(),
+                server.getBytesSent() / 1024);
+        System.out.printf("  下载: %d 个 / %dKB | 内存缓存命中率: %.1f%% | 磁盘缓存命中率: %.1f%% | 重试: %d | 失败: %d%n",
+                metrics.getTilesFetched(), metrics.getBytesFetched() / 1024,
+                metrics.getMemoryHitRatio() * 100, diskRatio * 100, metrics.getRetries(), metrics.getFailures());
+        System.out.printf("  解码: %d 个, 平均 %.2fms | 重绘: %d | 堆内存峰值: %.1fMB%n",
+                metrics.getTilesDecoded(), metrics.getAverageDecodeMillis(), metrics.getRedraws(),
+                peakHeapBytes() / (1024.0 * 1024.0));
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("无效参数: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * 默认脚本：广州附近平移，逐级放大再缩小回到起点
+     */
+    public static List<Step> defaultScript() {
+        List<Step> steps = new ArrayList<>();
+        steps.add(new Step(8, 113.30, 23.10));
+        for (int i = 1; i <= 4; i++) {
+            steps.add(new Step(8, 113.30 + i * 0.8, 23.10));
+        }
+        steps.add(new Step(8, 113.30, 23.10));
+        for (int zoom = 9; zoom <= 12; zoom++) {
+            steps.add(new Step(zoom, 113.30, 23.10));
+        }
+        for (int i = 1; i <= 4; i++) {
+            steps.add(new Step(12, 113.30 + i * 0.05, 23.10 - i * 0.03));
+        }
+        for (int zoom = 11; zoom >= 8; zoom--) {
+            steps.add(new Step(zoom, 113.30, 23.10));
+        }
+        return steps;
+    }
+
+    /**
+     * 读取脚本文件
+     */
+    public static List<Step> loadScript(Path path) throws IOException {
+        List<Step> steps = new ArrayList<>();
+        for (String raw : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length < 3) {
+                throw new IOException("脚本格式错误: " + raw);
+            }
+            steps.add(new Step(Integer.parseInt(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2])));
+        }
+        return steps;
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+            // 临时目录，删除失败不影响结果
+        }
+    }
+
+    /**
+     * 脚本中的一步：定位到指定缩放级别和中心点
+     */
+    public static class Step {
+        final int zoom;
+        final double lon;
+        final double lat;
+
+        public Step(int zoom, double lon, double lat) {
+            this.zoom = zoom;
+            this.lon = lon;
+            this.lat = lat;
+        }
+    }
+}